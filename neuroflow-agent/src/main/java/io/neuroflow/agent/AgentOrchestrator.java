@@ -1,5 +1,7 @@
 package io.neuroflow.agent;
 
+import io.neuroflow.agent.checkpoint.ExecutionCheckpoint;
+import io.neuroflow.agent.checkpoint.ExecutionLog;
 import io.neuroflow.agent.workflow.Workflow;
 import io.neuroflow.agent.workflow.WorkflowExecutionException;
 import org.slf4j.Logger;
@@ -7,9 +9,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -18,12 +22,32 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class AgentOrchestrator {
     private static final Logger log = LoggerFactory.getLogger(AgentOrchestrator.class);
+    public static final Duration DEFAULT_EXECUTION_TIMEOUT = Duration.ofMinutes(10);
 
     private final WorkflowRegistry workflowRegistry;
     private final Map<String, WorkflowExecutionStats> executionStats = new ConcurrentHashMap<>();
+    private final ExecutionLog executionLog;
+    private final Duration executionTimeout;
 
     public AgentOrchestrator(WorkflowRegistry workflowRegistry) {
+        this(workflowRegistry, null);
+    }
+
+    /**
+     * @param executionLog 执行日志，为 null 时不记录检查点
+     */
+    public AgentOrchestrator(WorkflowRegistry workflowRegistry, ExecutionLog executionLog) {
+        this(workflowRegistry, executionLog, DEFAULT_EXECUTION_TIMEOUT);
+    }
+
+    /**
+     * @param executionLog 执行日志，为 null 时不记录检查点
+     * @param executionTimeout 一次执行的总超时，为 null 或 0 时不限制
+     */
+    public AgentOrchestrator(WorkflowRegistry workflowRegistry, ExecutionLog executionLog, Duration executionTimeout) {
         this.workflowRegistry = workflowRegistry;
+        this.executionLog = executionLog;
+        this.executionTimeout = executionTimeout;
     }
 
     /**
@@ -33,28 +57,124 @@ public class AgentOrchestrator {
      * @return 执行结果
      */
     public Mono<Object> execute(String workflowId, Map<String, Object> inputs) {
+        return execute(workflowId, executionLog != null ? UUID.randomUUID().toString() : null, inputs);
+    }
+
+    /**
+     * 以指定的执行ID执行工作流，配置了执行日志时每个步骤完成后记录检查点，中断后可以用 {@link #resume} 继续
+     * @param workflowId 工作流ID
+     * @param executionId 执行ID，为 null 时不记录检查点
+     * @param inputs 输入参数
+     * @return 执行结果
+     */
+    public Mono<Object> execute(String workflowId, String executionId, Map<String, Object> inputs) {
         Workflow workflow = workflowRegistry.getWorkflow(workflowId);
         if (workflow == null) {
             log.error("Workflow not found: {}", workflowId);
             return Mono.error(WorkflowExecutionException.workflowNotFound(workflowId));
         }
+        if (executionLog == null || executionId == null) {
+            log.info("Executing workflow: {}", workflowId);
+            return run(workflowId, null, inputs, Mono.defer(() -> workflow.execute(inputs)));
+        }
 
-        long startTime = System.currentTimeMillis();
-        log.info("Executing workflow: {}", workflowId);
+        ExecutionCheckpoint checkpoint;
+        try {
+            checkpoint = executionLog.start(executionId, workflowId, inputs);
+        } catch (IllegalArgumentException e) {
+            log.warn("Inputs of workflow {} cannot be checkpointed, executing without checkpoint: {}", workflowId, e.getMessage());
+            return run(workflowId, null, inputs, Mono.defer(() -> workflow.execute(inputs)));
+        } catch (IllegalStateException e) {
+            log.warn("Execution log unavailable, executing workflow {} without checkpoint: {}", workflowId, e.getMessage());
+            return run(workflowId, null, inputs, Mono.defer(() -> workflow.execute(inputs)));
+        }
+        log.info("Executing workflow: {}, execution: {}", workflowId, executionId);
+        return run(workflowId, executionId, inputs, Mono.defer(() -> workflow.execute(checkpoint)));
+    }
+
+    /**
+     * 从执行日志中的检查点继续一次未完成的执行，已完成的步骤不再执行
+     * @param executionId 执行ID
+     * @return 执行结果
+     */
+    public Mono<Object> resume(String executionId) {
+        if (executionLog == null) {
+            return Mono.error(WorkflowExecutionException.executionNotFound(executionId));
+        }
+        return Mono.fromCallable(() -> executionLog.resume(executionId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(() -> WorkflowExecutionException.executionNotFound(executionId)))
+                .flatMap(checkpoint -> {
+                    String workflowId = checkpoint.getWorkflowId();
+                    Workflow workflow = workflowRegistry.getWorkflow(workflowId);
+                    if (workflow == null) {
+                        log.error("Workflow not found: {}", workflowId);
+                        return Mono.error(WorkflowExecutionException.workflowNotFound(workflowId));
+                    }
+                    log.info("Resuming workflow: {}, execution: {}, completed steps: {}",
+                            workflowId, executionId, checkpoint.getCompletedSteps());
+                    return run(workflowId, executionId, checkpoint.getInputs(), Mono.defer(() -> workflow.execute(checkpoint)));
+                });
+    }
 
-        return workflow.execute(inputs)
+    /**
+     * 执行日志中未完成的执行，执行ID到工作流ID
+     */
+    public Map<String, String> getPendingExecutions() {
+        return executionLog != null ? executionLog.getPendingExecutions() : Map.of();
+    }
+
+    /**
+     * 放弃一次未完成的执行，写入结束记录，此后不能再继续
+     * @param executionId 执行ID
+     * @return 执行存在且未结束时返回 true
+     */
+    public boolean abandon(String executionId) {
+        if (executionLog == null || !executionLog.isPending(executionId)) {
+            return false;
+        }
+        log.info("Abandoning execution: {}", executionId);
+        complete(executionId);
+        return true;
+    }
+
+    private void complete(String executionId) {
+        try {
+            executionLog.complete(executionId);
+        } catch (IllegalStateException e) {
+            log.warn("Execution log unavailable, execution {} stays pending: {}", executionId, e.getMessage());
+        }
+    }
+
+    private Mono<Object> run(String workflowId, String executionId, Map<String, Object> inputs, Mono<Object> execution) {
+        long startTime = System.currentTimeMillis();
+        Mono<Object> result = execution
                 .onErrorResume(e -> handleExecutionError(e, workflowId, null))
-                .doOnSuccess(result -> recordSuccess(workflowId, startTime))
-                .doOnError(e -> recordFailure(workflowId, startTime, e))
-                .timeout(Duration.ofSeconds(120),
-                        Mono.defer(() -> {
-                            long duration = System.currentTimeMillis() - startTime;
-                            WorkflowExecutionException ex = WorkflowExecutionException.timeout(
-                                    workflowId, null, duration, inputs
-                            );
-                            return Mono.error(ex);
-                        })
-                );
+                .doOnSuccess(value -> {
+                    if (executionId != null) {
+                        complete(executionId);
+                    }
+                    recordSuccess(workflowId, startTime);
+                })
+                .doOnError(e -> {
+                    if (executionId != null && !isResumable(e)) {
+                        log.info("Execution {} failed with a non-resumable error, ending it", executionId);
+                        complete(executionId);
+                    }
+                    recordFailure(workflowId, startTime, e);
+                });
+        if (executionTimeout == null || executionTimeout.isZero() || executionTimeout.isNegative()) {
+            return result;
+        }
+        return result.timeout(executionTimeout,
+                Mono.defer(() -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    WorkflowExecutionException ex = WorkflowExecutionException.timeout(
+                            workflowId, null, duration, inputs
+                    );
+                    return Mono.error(ex);
+                })
+        );
     }
     /**
      * 流式执行工作流
@@ -84,6 +204,19 @@ public class AgentOrchestrator {
                     log.error("Workflow {} streaming failed after {} ms", workflowId, duration, e);
                 });
     }
+    /**
+     * 输入或上下文本身有问题的失败，用同样的检查点继续仍会失败，执行直接结束；其余失败保留，可以继续或等待过期
+     */
+    private static boolean isResumable(Throwable e) {
+        if (!(e instanceof WorkflowExecutionException ex)) {
+            return true;
+        }
+        return switch (ex.getErrorType()) {
+            case INPUT_VALIDATION, CONTEXT_MISSING, WORKFLOW_NOT_FOUND, EXECUTION_NOT_FOUND -> false;
+            default -> true;
+        };
+    }
+
     private Mono<Object> handleExecutionError(Throwable e, String workflowId, String stepName) {
         if (e instanceof WorkflowExecutionException) {
             return Mono.error(e);
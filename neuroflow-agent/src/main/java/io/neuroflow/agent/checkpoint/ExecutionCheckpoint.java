@@ -0,0 +1,68 @@
+package io.neuroflow.agent.checkpoint;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一次工作流执行的检查点句柄
+ *
+ * <p>由 {@link ExecutionLog#start} 或 {@link ExecutionLog#resume} 创建。恢复时 {@link #getContext()} 为输入加上已完成步骤
+ * 写入的值，{@link #isCompleted} 为 true 的步骤不再执行。恢复出的值是 JSON 结构（Map、List、字符串、数字），
+ * 不是步骤写入时的原始对象类型。
+ */
+public class ExecutionCheckpoint {
+    private final ExecutionLog log;
+    private final String executionId;
+    private final String workflowId;
+    private final Map<String, Object> inputs;
+    private final Map<String, Object> context;
+    private final Set<String> completedSteps;
+
+    ExecutionCheckpoint(ExecutionLog log, String executionId, String workflowId, Map<String, Object> inputs,
+                        Map<String, Object> context, Set<String> completedSteps) {
+        this.log = log;
+        this.executionId = executionId;
+        this.workflowId = workflowId;
+        this.inputs = inputs;
+        this.context = context;
+        this.completedSteps = completedSteps;
+    }
+
+    /**
+     * 记录步骤完成及其写入上下文的值，只追加到内存缓冲区，随下一批写盘
+     */
+    public void stepCompleted(String stepName, Map<String, Object> values) {
+        log.appendStep(executionId, stepName, values);
+    }
+
+    /**
+     * 步骤在之前的执行中是否已完成
+     */
+    public boolean isCompleted(String stepName) {
+        return completedSteps.contains(stepName);
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    public Map<String, Object> getInputs() {
+        return Collections.unmodifiableMap(inputs);
+    }
+
+    /**
+     * 恢复出的上下文，新执行时与输入相同
+     */
+    public Map<String, Object> getContext() {
+        return Collections.unmodifiableMap(context);
+    }
+
+    public Set<String> getCompletedSteps() {
+        return Collections.unmodifiableSet(completedSteps);
+    }
+}
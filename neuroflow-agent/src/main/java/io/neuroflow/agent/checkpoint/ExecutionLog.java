@@ -0,0 +1,830 @@
+package io.neuroflow.agent.checkpoint;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 工作流执行日志，保存每次执行的输入和已完成步骤的输出，节点重启后按执行ID从最后完成的步骤继续
+ *
+ * <p>日志是目录下按序号命名的只追加分段文件，每条记录为 {@code [长度][CRC32C][类型][JSON]}。追加只在锁内分配偏移并把
+ * 编码好的字节放入内存批次，后台线程每隔 flushInterval（或积累到 flushBytes）把整批一次写入并 fsync，
+ * 返回的 future 在该批落盘后完成。崩溃时最多丢失最后一批，对应步骤在恢复时重新执行。
+ *
+ * <p>启动时以内存映射方式扫描全部分段重建索引，遇到长度或校验和不对的记录（写到一半的尾部）即截断。
+ * 索引只保存未完成执行的记录位置，恢复某次执行时从映射的分段中读取这些记录重放。
+ *
+ * <p>执行结束后其记录全部失效；已封存分段中有效记录比例低于 compactionRatio 时，为仍引用该分段的执行写一条快照记录，
+ * 快照之前的记录随之失效，没有有效记录的分段被删除。读取状态和写入快照之间执行若已结束或以同一ID重新开始，快照直接丢弃。
+ * 开始时间早于 retention 的未完成执行在压缩时写入结束记录，失败后无人继续的执行不会一直占用内存和分段。
+ *
+ * <p>写盘失败后日志进入失败状态，不再接受追加也不再恢复执行：失败批次之后的记录不会写到空洞后面，
+ * 重启扫描时在空洞处截断，丢失的只有失败批次及其之后尚未确认的记录。
+ */
+public class ExecutionLog implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionLog.class);
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    // 每条记录的长度和校验和
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final byte START = 1;
+    private static final byte STEP = 2;
+    private static final byte SNAPSHOT = 3;
+    private static final byte END = 4;
+
+    private final ExecutionLogSettings settings;
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+
+    // 索引和待写入批次，由 lock 保护
+    private final Object lock = new Object();
+    private final Map<String, Execution> executions = new HashMap<>();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private List<Pending> pending = new ArrayList<>();
+    private long pendingBytes;
+    private CompletableFuture<Void> batch = new CompletableFuture<>();
+    private boolean closed;
+    private IOException failure;
+
+    // 文件写入、读取和删除，由 ioLock 串行化；需要同时持有时先取 ioLock
+    private final Object ioLock = new Object();
+    private FileChannel channel;
+    private long channelSegment = -1;
+
+    public ExecutionLog(ExecutionLogSettings settings) throws IOException {
+        if (settings.getSegmentBytes() <= HEADER_BYTES || settings.getSegmentBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentBytes must be between " + HEADER_BYTES + " and " + Integer.MAX_VALUE);
+        }
+        this.settings = settings;
+        this.directory = Path.of(settings.getDirectory());
+        Files.createDirectories(directory);
+        recover();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "neuroflow-execution-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushNanos = Math.max(1, settings.getFlushInterval().toNanos());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushNanos, flushNanos, TimeUnit.NANOSECONDS);
+        long compactionNanos = Math.max(1, settings.getCompactionInterval().toNanos());
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, compactionNanos, compactionNanos, TimeUnit.NANOSECONDS);
+        log.info("[ExecutionLog] 初始化完成，目录: {}，分段数: {}，未完成的执行: {}", directory, segments.size(), executions.size());
+    }
+
+    /**
+     * 开始记录一次执行
+     * @throws IllegalArgumentException 输入无法序列化
+     */
+    public ExecutionCheckpoint start(String executionId, String workflowId, Map<String, Object> inputs) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", executionId);
+        payload.put("workflow", workflowId);
+        payload.put("started", System.currentTimeMillis());
+        payload.put("inputs", inputs);
+        append(START, executionId, workflowId, null, payload);
+        log.debug("[ExecutionLog] 开始记录执行: {}，工作流: {}", executionId, workflowId);
+        return new ExecutionCheckpoint(this, executionId, workflowId, new HashMap<>(inputs), new HashMap<>(inputs),
+                new HashSet<>());
+    }
+
+    /**
+     * 读取未完成的执行
+     * @return 检查点，执行不存在或已结束时返回 null
+     */
+    public ExecutionCheckpoint resume(String executionId) throws IOException {
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Execution log is unavailable after a write failure", failure);
+            }
+        }
+        State state = load(executionId);
+        if (state == null) {
+            return null;
+        }
+        log.info("[ExecutionLog] 恢复执行: {}，工作流: {}，已完成步骤: {}", executionId, state.workflowId, state.steps);
+        return new ExecutionCheckpoint(this, executionId, state.workflowId, state.inputs, state.context, state.steps);
+    }
+
+    /**
+     * 记录执行结束，此后该执行的记录全部失效
+     * @return 结束记录落盘后完成
+     */
+    public CompletableFuture<Void> complete(String executionId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", executionId);
+        return append(END, executionId, null, null, payload);
+    }
+
+    void appendStep(String executionId, String stepName, Map<String, Object> values) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", executionId);
+        payload.put("step", stepName);
+        payload.put("values", values);
+        try {
+            append(STEP, executionId, null, null, payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("[ExecutionLog] 执行 {} 步骤 {} 的输出无法序列化，恢复时将重新执行: {}", executionId, stepName, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.debug("[ExecutionLog] 日志不可用，忽略执行 {} 步骤 {} 的检查点: {}", executionId, stepName, e.getMessage());
+        }
+    }
+
+    /**
+     * 执行是否已开始且尚未结束
+     */
+    public boolean isPending(String executionId) {
+        synchronized (lock) {
+            return executions.containsKey(executionId);
+        }
+    }
+
+    /**
+     * 未完成的执行，执行ID到工作流ID
+     */
+    public Map<String, String> getPendingExecutions() {
+        synchronized (lock) {
+            Map<String, String> pendingExecutions = new TreeMap<>();
+            executions.forEach((id, execution) -> pendingExecutions.put(id, execution.workflowId));
+            return pendingExecutions;
+        }
+    }
+
+    /**
+     * @return 记录所在批次落盘后完成；快照已过期被丢弃时返回 null
+     */
+    private CompletableFuture<Void> append(byte type, String executionId, String workflowId, Location through,
+                                           Map<String, Object> payload) {
+        // 编码和校验在锁外进行，锁内只分配偏移
+        byte[] body = encode(type, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        int checksum = (int) crc.getValue();
+        int frameBytes = HEADER_BYTES + body.length;
+
+        CompletableFuture<Void> future;
+        boolean flushNow;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Execution log is closed");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Execution log is unavailable after a write failure", failure);
+            }
+            if (type == SNAPSHOT && stale(executionId, through)) {
+                return null;
+            }
+            if (active.size > 0 && active.size + frameBytes > settings.getSegmentBytes()) {
+                roll();
+            }
+            Location location = new Location(active.id, active.size);
+            pending.add(new Pending(location, checksum, body));
+            active.size += frameBytes;
+            active.records++;
+            pendingBytes += frameBytes;
+            index(type, executionId, workflowId, through, started(payload.get("started")), location);
+            future = batch;
+            flushNow = pendingBytes >= settings.getFlushBytes();
+        }
+        if (flushNow) {
+            scheduler.execute(this::flushQuietly);
+        }
+        return future;
+    }
+
+    private static byte[] encode(byte type, Map<String, Object> payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(type);
+        try {
+            MAPPER.writeValue(out, payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Checkpoint payload is not serializable: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 快照基于压缩时读取的状态，写入前执行已结束或以同一ID重新开始时不再适用，调用方持有 lock
+     */
+    private boolean stale(String executionId, Location through) {
+        Execution execution = executions.get(executionId);
+        return execution == null || !execution.records.contains(through);
+    }
+
+    // 调用方持有 lock
+    private void index(byte type, String executionId, String workflowId, Location through, long started,
+                       Location location) {
+        Execution execution = executions.get(executionId);
+        switch (type) {
+            case START -> {
+                if (execution != null) {
+                    release(execution.records, location);
+                }
+                execution = new Execution(workflowId, started);
+                executions.put(executionId, execution);
+                keep(execution, location);
+            }
+            case STEP -> {
+                // 未知或已结束的执行，记录直接失效
+                if (execution != null) {
+                    keep(execution, location);
+                }
+            }
+            case SNAPSHOT -> {
+                // 运行时写入前已检查执行仍在且包含 through；恢复时它之前的记录可能已随分段删除，由快照重建执行
+                if (execution == null) {
+                    execution = new Execution(workflowId, started);
+                    executions.put(executionId, execution);
+                }
+                // 快照覆盖到 through 为止的记录，之后追加的步骤记录仍然有效，重放时排在快照之后
+                List<Location> superseded = superseded(execution.records, through);
+                release(superseded, location);
+                execution.records.removeAll(superseded);
+                execution.records.add(0, location);
+                segments.get(location.segment()).live++;
+            }
+            case END -> {
+                if (execution != null) {
+                    release(execution.records, location);
+                    executions.remove(executionId);
+                }
+            }
+            default -> log.warn("[ExecutionLog] 未知记录类型: {}，执行: {}", type, executionId);
+        }
+    }
+
+    private static List<Location> superseded(List<Location> records, Location through) {
+        int index = records.indexOf(through);
+        if (index >= 0) {
+            return new ArrayList<>(records.subList(0, index + 1));
+        }
+        // through 所在分段已删除（只发生在恢复时），按日志位置判断
+        List<Location> superseded = new ArrayList<>();
+        for (Location location : records) {
+            if (through != null && location.compareTo(through) <= 0) {
+                superseded.add(location);
+            }
+        }
+        return superseded;
+    }
+
+    private void keep(Execution execution, Location location) {
+        execution.records.add(location);
+        segments.get(location.segment()).live++;
+    }
+
+    /**
+     * 使记录失效，并在 tombstone 所在分段记下它覆盖的最早分段：那些分段删除之前这条记录必须保留，
+     * 否则重启后被覆盖的旧记录会重新生效
+     */
+    private void release(List<Location> locations, Location tombstone) {
+        Segment owner = segments.get(tombstone.segment());
+        for (Location location : locations) {
+            Segment segment = segments.get(location.segment());
+            if (segment != null) {
+                segment.live--;
+            }
+            if (location.segment() < tombstone.segment()) {
+                owner.covers = Math.min(owner.covers, location.segment());
+            }
+        }
+    }
+
+    // 调用方持有 lock
+    private void roll() {
+        long id = active.id + 1;
+        active = new Segment(id, segmentPath(id));
+        segments.put(id, active);
+        log.debug("[ExecutionLog] 切换到新分段: {}", id);
+    }
+
+    /**
+     * 把待写入的记录写盘并 fsync
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            List<Pending> writes;
+            CompletableFuture<Void> done;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                writes = pending;
+                done = batch;
+                pending = new ArrayList<>();
+                pendingBytes = 0;
+                batch = new CompletableFuture<>();
+            }
+            try {
+                write(writes);
+                channel.force(false);
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                fail(e instanceof IOException io ? io : new IOException(e));
+                done.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 进入失败状态：此后追加的记录会写在未确认的空洞之后，重启扫描时会随空洞一起截断，因此不再接受追加，
+     * 已分配但未写盘的记录一并失败。调用方持有 ioLock
+     */
+    private void fail(IOException e) {
+        CompletableFuture<Void> abandoned;
+        synchronized (lock) {
+            if (failure != null) {
+                return;
+            }
+            failure = e;
+            abandoned = batch;
+            pending = new ArrayList<>();
+            pendingBytes = 0;
+            batch = new CompletableFuture<>();
+        }
+        abandoned.completeExceptionally(e);
+        log.error("[ExecutionLog] 写入执行日志失败，日志停止接受新记录，重启后从最后确认的记录恢复", e);
+    }
+
+    // 同一分段内连续的记录合并成一次写入，调用方持有 ioLock
+    private void write(List<Pending> writes) throws IOException {
+        int i = 0;
+        while (i < writes.size()) {
+            long segment = writes.get(i).location.segment();
+            int j = i;
+            int bytes = 0;
+            while (j < writes.size() && writes.get(j).location.segment() == segment) {
+                bytes += HEADER_BYTES + writes.get(j).body.length;
+                j++;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(bytes);
+            for (int k = i; k < j; k++) {
+                Pending write = writes.get(k);
+                buffer.putInt(write.body.length).putInt(write.checksum).put(write.body);
+            }
+            buffer.flip();
+            FileChannel target = channel(segment);
+            long position = writes.get(i).location.offset();
+            while (buffer.hasRemaining()) {
+                position += target.write(buffer, position);
+            }
+            i = j;
+        }
+    }
+
+    private FileChannel channel(long segment) throws IOException {
+        if (channelSegment != segment) {
+            if (channel != null) {
+                // 切换分段前保证旧分段已落盘
+                channel.force(false);
+                channel.close();
+            }
+            channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channelSegment = segment;
+        }
+        return channel;
+    }
+
+    private State load(String executionId) throws IOException {
+        synchronized (ioLock) {
+            flush();
+            List<Location> locations;
+            synchronized (lock) {
+                Execution execution = executions.get(executionId);
+                if (execution == null) {
+                    return null;
+                }
+                locations = new ArrayList<>(execution.records);
+            }
+            State state = new State();
+            for (Location location : locations) {
+                apply(state, read(location));
+                state.last = location;
+            }
+            return state;
+        }
+    }
+
+    // 调用方持有 ioLock，分段不会在读取期间被删除
+    private ByteBuffer read(Location location) throws IOException {
+        ByteBuffer frame = view(location.segment()).duplicate();
+        int offset = (int) location.offset();
+        if (offset + HEADER_BYTES > frame.limit()) {
+            throw new IOException("Checkpoint record " + location + " is beyond the end of the segment");
+        }
+        int length = frame.getInt(offset);
+        int checksum = frame.getInt(offset + 4);
+        if (length <= 0 || offset + HEADER_BYTES + length > frame.limit()) {
+            throw new IOException("Corrupt checkpoint record " + location);
+        }
+        ByteBuffer body = frame.slice(offset + HEADER_BYTES, length);
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch for checkpoint record " + location);
+        }
+        return body;
+    }
+
+    // 已封存的分段不再变化，映射缓存复用；活动分段每次按当前大小重新映射
+    private ByteBuffer view(long id) throws IOException {
+        Segment segment;
+        boolean sealed;
+        synchronized (lock) {
+            segment = segments.get(id);
+            sealed = id < active.id;
+        }
+        if (segment == null) {
+            throw new IOException("Checkpoint segment " + id + " no longer exists");
+        }
+        if (sealed && segment.mapped != null) {
+            return segment.mapped;
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel reader = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            mapped = reader.map(FileChannel.MapMode.READ_ONLY, 0, reader.size());
+        }
+        if (sealed) {
+            segment.mapped = mapped;
+        }
+        return mapped;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void apply(State state, ByteBuffer body) throws IOException {
+        byte type = body.get(body.position());
+        Map<String, Object> payload = decode(body);
+        switch (type) {
+            case START -> {
+                state.workflowId = (String) payload.get("workflow");
+                state.started = started(payload.get("started"));
+                state.inputs = map(payload.get("inputs"));
+                state.context = new HashMap<>(state.inputs);
+                state.steps = new LinkedHashSet<>();
+            }
+            case STEP -> {
+                Map<String, Object> values = map(payload.get("values"));
+                state.context.putAll(values);
+                state.steps.add((String) payload.get("step"));
+            }
+            case SNAPSHOT -> {
+                state.workflowId = (String) payload.get("workflow");
+                state.started = started(payload.get("started"));
+                state.inputs = map(payload.get("inputs"));
+                state.context = map(payload.get("context"));
+                state.steps = new LinkedHashSet<>(payload.get("steps") != null ? (List<String>) payload.get("steps") : List.of());
+            }
+            default -> throw new IOException("Unexpected checkpoint record type " + type);
+        }
+    }
+
+    private static Map<String, Object> decode(ByteBuffer body) throws IOException {
+        ByteBuffer json = body.duplicate();
+        json.position(json.position() + 1);
+        return MAPPER.readValue(new ByteBufferBackedInputStream(json), MAP_TYPE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return value instanceof Map<?, ?> m ? new HashMap<>((Map<String, Object>) m) : new HashMap<>();
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids;
+        try (Stream<Path> files = Files.list(directory)) {
+            ids = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        synchronized (lock) {
+            for (long id : ids) {
+                Segment segment = new Segment(id, segmentPath(id));
+                segments.put(id, segment);
+                try (FileChannel file = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    long size = file.size();
+                    if (size > Integer.MAX_VALUE) {
+                        throw new IOException("Checkpoint segment " + segment.path + " is larger than 2GB");
+                    }
+                    long valid = size == 0 ? 0 : scan(segment, file.map(FileChannel.MapMode.READ_ONLY, 0, size));
+                    if (valid < size) {
+                        log.warn("[ExecutionLog] 分段 {} 在偏移 {} 处记录不完整，截断 {} 字节", segment.path, valid, size - valid);
+                        file.truncate(valid);
+                    }
+                    segment.size = valid;
+                }
+            }
+            if (segments.isEmpty()) {
+                active = new Segment(0, segmentPath(0));
+                segments.put(0L, active);
+            } else {
+                active = segments.lastEntry().getValue();
+            }
+        }
+    }
+
+    /**
+     * 扫描分段并重建索引
+     * @return 有效数据的长度
+     */
+    private int scan(Segment segment, ByteBuffer buffer) {
+        int position = 0;
+        int size = buffer.limit();
+        while (position + HEADER_BYTES <= size) {
+            int length = buffer.getInt(position);
+            int checksum = buffer.getInt(position + 4);
+            if (length <= 0 || length > size - position - HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + HEADER_BYTES, length);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            Map<String, Object> payload;
+            try {
+                payload = decode(body);
+            } catch (IOException e) {
+                break;
+            }
+            index(body.get(0), (String) payload.get("id"), (String) payload.get("workflow"),
+                    through(payload.get("through")), started(payload.get("started")), new Location(segment.id, position));
+            segment.records++;
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static Location through(Object value) {
+        if (value instanceof List<?> list && list.size() == 2
+                && list.get(0) instanceof Number segment && list.get(1) instanceof Number offset) {
+            return new Location(segment.longValue(), offset.longValue());
+        }
+        return null;
+    }
+
+    // 没有记录开始时间的执行从现在起计算保留时间
+    private static long started(Object value) {
+        return value instanceof Number millis ? millis.longValue() : System.currentTimeMillis();
+    }
+
+    /**
+     * 压缩：结束超过保留时间的执行，为有效记录比例过低的已封存分段中的执行写快照，然后删除没有有效记录的分段
+     */
+    public void compact() throws IOException {
+        synchronized (ioLock) {
+            synchronized (lock) {
+                if (failure != null || closed) {
+                    return;
+                }
+            }
+            expire();
+            flush();
+            Set<String> candidates = new HashSet<>();
+            synchronized (lock) {
+                for (Segment segment : segments.values()) {
+                    if (segment.id >= active.id || segment.live == 0
+                            || segment.live >= segment.records * settings.getCompactionRatio()) {
+                        continue;
+                    }
+                    executions.forEach((id, execution) -> {
+                        for (Location location : execution.records) {
+                            if (location.segment() == segment.id) {
+                                candidates.add(id);
+                                break;
+                            }
+                        }
+                    });
+                }
+            }
+            int snapshots = 0;
+            for (String executionId : candidates) {
+                State state = load(executionId);
+                if (state != null && state.last != null && snapshot(executionId, state)) {
+                    snapshots++;
+                }
+            }
+            flush();
+
+            // 从旧到新检查，前面的分段删除后后面的分段可能随之可删
+            List<Segment> removable = new ArrayList<>();
+            synchronized (lock) {
+                for (Segment segment : new ArrayList<>(segments.values())) {
+                    if (segment.id < active.id && segment.live == 0
+                            && (segment.covers >= segment.id || segments.subMap(segment.covers, segment.id).isEmpty())) {
+                        segments.remove(segment.id);
+                        removable.add(segment);
+                    }
+                }
+            }
+            for (Segment segment : removable) {
+                Files.deleteIfExists(segment.path);
+            }
+            if (snapshots > 0 || !removable.isEmpty()) {
+                log.info("[ExecutionLog] 压缩完成，写入快照: {}，删除分段: {}", snapshots, removable.size());
+            }
+        }
+    }
+
+    private void expire() {
+        Duration retention = settings.getRetention();
+        if (retention == null || retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        List<String> expired = new ArrayList<>();
+        synchronized (lock) {
+            executions.forEach((id, execution) -> {
+                if (execution.startedMillis < cutoff) {
+                    expired.add(id);
+                }
+            });
+        }
+        for (String executionId : expired) {
+            complete(executionId);
+        }
+        if (!expired.isEmpty()) {
+            log.info("[ExecutionLog] 结束超过保留时间 {} 的未完成执行: {}", retention, expired.size());
+        }
+    }
+
+    private boolean snapshot(String executionId, State state) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", executionId);
+        payload.put("workflow", state.workflowId);
+        payload.put("started", state.started);
+        payload.put("inputs", state.inputs);
+        payload.put("context", state.context);
+        payload.put("steps", new ArrayList<>(state.steps));
+        payload.put("through", List.of(state.last.segment(), state.last.offset()));
+        return append(SNAPSHOT, executionId, state.workflowId, state.last, payload) != null;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.error("[ExecutionLog] 写入执行日志失败", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.error("[ExecutionLog] 压缩执行日志失败", e);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    public Stats getStats() {
+        synchronized (lock) {
+            long bytes = 0;
+            long records = 0;
+            long live = 0;
+            for (Segment segment : segments.values()) {
+                bytes += segment.size;
+                records += segment.records;
+                live += segment.live;
+            }
+            return new Stats(segments.size(), bytes, records, live, executions.size());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        synchronized (ioLock) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            flush();
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                channelSegment = -1;
+            }
+        }
+        log.info("[ExecutionLog] 已关闭");
+    }
+
+    private record Location(long segment, long offset) implements Comparable<Location> {
+        @Override
+        public int compareTo(Location other) {
+            int bySegment = Long.compare(segment, other.segment);
+            return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+        }
+    }
+
+    private record Pending(Location location, int checksum, byte[] body) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        // 已分配的大小，包含尚未写盘的记录
+        private long size;
+        private long records;
+        private long live;
+        // 本分段中结束或快照记录覆盖的最早分段
+        private long covers = Long.MAX_VALUE;
+        private MappedByteBuffer mapped;
+
+        private Segment(long id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+    }
+
+    private static final class Execution {
+        private final String workflowId;
+        private final long startedMillis;
+        // 重放顺序的记录位置
+        private final List<Location> records = new ArrayList<>();
+
+        private Execution(String workflowId, long startedMillis) {
+            this.workflowId = workflowId;
+            this.startedMillis = startedMillis;
+        }
+    }
+
+    private static final class State {
+        private String workflowId;
+        private long started;
+        private Map<String, Object> inputs = new HashMap<>();
+        private Map<String, Object> context = new HashMap<>();
+        private Set<String> steps = new LinkedHashSet<>();
+        private Location last;
+    }
+
+    /**
+     * 执行日志统计快照
+     */
+    public static class Stats {
+        private final int segmentCount;
+        private final long totalBytes;
+        private final long recordCount;
+        private final long liveRecordCount;
+        private final int pendingExecutionCount;
+
+        public Stats(int segmentCount, long totalBytes, long recordCount, long liveRecordCount, int pendingExecutionCount) {
+            this.segmentCount = segmentCount;
+            this.totalBytes = totalBytes;
+            this.recordCount = recordCount;
+            this.liveRecordCount = liveRecordCount;
+            this.pendingExecutionCount = pendingExecutionCount;
+        }
+
+        public int getSegmentCount() { return segmentCount; }
+        public long getTotalBytes() { return totalBytes; }
+        public long getRecordCount() { return recordCount; }
+        public long getLiveRecordCount() { return liveRecordCount; }
+        public int getPendingExecutionCount() { return pendingExecutionCount; }
+    }
+}
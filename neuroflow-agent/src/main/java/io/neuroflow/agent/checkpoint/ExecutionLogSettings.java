@@ -0,0 +1,41 @@
+package io.neuroflow.agent.checkpoint;
+
+import java.time.Duration;
+
+/**
+ * 执行日志配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.agent.checkpoint} 配置项。
+ */
+public class ExecutionLogSettings {
+    // 日志目录
+    private String directory = "data/executions";
+    // 单个分段文件的大小上限，超出后写入新分段
+    private long segmentBytes = 64L * 1024 * 1024;
+    // 批量写盘并 fsync 的间隔，崩溃时最多丢失这段时间内的检查点，对应步骤在恢复时重新执行
+    private Duration flushInterval = Duration.ofMillis(10);
+    // 待写入数据超过该大小时不等间隔立即写盘
+    private int flushBytes = 1024 * 1024;
+    // 压缩检查间隔
+    private Duration compactionInterval = Duration.ofMinutes(5);
+    // 已封存分段中仍有效的记录比例低于该值时压缩
+    private double compactionRatio = 0.5;
+    // 未完成执行自开始起的保留时间，超过后在压缩时结束，不能再继续；为 0 时不过期
+    private Duration retention = Duration.ofDays(1);
+
+    // Getters and Setters
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+    public long getSegmentBytes() { return segmentBytes; }
+    public void setSegmentBytes(long segmentBytes) { this.segmentBytes = segmentBytes; }
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+    public int getFlushBytes() { return flushBytes; }
+    public void setFlushBytes(int flushBytes) { this.flushBytes = flushBytes; }
+    public Duration getCompactionInterval() { return compactionInterval; }
+    public void setCompactionInterval(Duration compactionInterval) { this.compactionInterval = compactionInterval; }
+    public double getCompactionRatio() { return compactionRatio; }
+    public void setCompactionRatio(double compactionRatio) { this.compactionRatio = compactionRatio; }
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+}
@@ -5,11 +5,22 @@ import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public abstract class AbstractStep implements Step {
     protected final Logger log;
     protected final String name;
+    // 显式声明的输入输出，与步骤自身推断出的合并
+    private Set<String> declaredInputs;
+    private Set<String> declaredOutputs;
+    // 开启结果缓存时设置
+    private StepResultCache resultCache;
+    private Duration cacheTtl;
 
     public AbstractStep(String name) {
         this.name = name;
@@ -21,11 +32,105 @@ public abstract class AbstractStep implements Step {
         return name;
     }
 
+    /**
+     * 声明步骤读取的上下文键，用于无法从提示词推断依赖的步骤（例如函数步骤以整个上下文作为参数）
+     */
+    public AbstractStep withInputs(String... keys) {
+        this.declaredInputs = Set.of(keys);
+        return this;
+    }
+
+    /**
+     * 声明步骤写入的上下文键
+     */
+    public AbstractStep withOutputs(String... keys) {
+        this.declaredOutputs = Set.of(keys);
+        return this;
+    }
+
+    /**
+     * 开启跨执行的结果缓存：读取的上下文值与之前某次执行相同时直接复用其结果和写入上下文的值，不再执行。
+     * 只用于结果只取决于输入、没有上下文之外副作用的步骤；流式执行不使用缓存。命中时返回的结果带有 {@code cached=true}
+     * @param cache 结果缓存，为 null 时关闭
+     * @param ttl 结果有效期
+     */
+    public AbstractStep cached(StepResultCache cache, Duration ttl) {
+        if (cache != null && (ttl == null || ttl.isZero() || ttl.isNegative())) {
+            throw new IllegalArgumentException("Cache TTL must be positive: " + ttl);
+        }
+        this.resultCache = cache;
+        this.cacheTtl = ttl;
+        return this;
+    }
+
+    @Override
+    public Set<String> getInputs() {
+        return combine(declaredInputs, inferInputs());
+    }
+
+    @Override
+    public Set<String> getOutputs() {
+        return combine(declaredOutputs, inferOutputs());
+    }
+
+    /**
+     * 从步骤配置推断出的输入，null 表示无法确定
+     */
+    protected Set<String> inferInputs() {
+        return null;
+    }
+
+    /**
+     * 从步骤配置推断出的输出，null 表示无法确定
+     */
+    protected Set<String> inferOutputs() {
+        return null;
+    }
+
+    /**
+     * 结果缓存中代表本步骤的标识，配置相同的步骤返回相等的值时可以跨工作流实例共享结果，默认为步骤实例本身；
+     * 返回 null 表示结果不能缓存
+     */
+    protected Object cacheIdentity() {
+        return this;
+    }
+
+    // 有显式声明时不再视为无法确定
+    private static Set<String> combine(Set<String> declared, Set<String> inferred) {
+        if (declared == null) {
+            return inferred;
+        }
+        if (inferred == null) {
+            return declared;
+        }
+        Set<String> keys = new LinkedHashSet<>(inferred);
+        keys.addAll(declared);
+        return keys;
+    }
+
     @Override
     public Mono<Map<String, Object>> execute(Map<String, Object> context) {
         log.info("[Step] 开始执行: {}，上下文: {}", name, context);
         try {
+            StepResultCache.Key key = resultCache != null ? resultCache.key(name, cacheIdentity(), readValues(context)) : null;
+            if (key != null) {
+                StepResultCache.Entry entry = resultCache.get(name, key);
+                if (entry != null) {
+                    log.info("[Step] {} 输入未变化，复用缓存结果", name);
+                    context.putAll(entry.getWrites());
+                    // 标记来自缓存，时间戳为本次返回的时间
+                    Map<String, Object> result = new HashMap<>(entry.getResult());
+                    result.put("cached", true);
+                    result.put("timestamp", System.currentTimeMillis());
+                    return Mono.just(result);
+                }
+            }
             return doExecute(context)
+                    .doOnNext(result -> {
+                        if (key != null) {
+                            resultCache.put(key, result, writtenValues(context), cacheTtl.toNanos());
+                        }
+                    })
                     .onErrorResume(e -> handleStepError(e, context))
                     .doOnSuccess(result -> log.info("[Step] {} 执行成功，输出: {}", name, result))
                     .doOnError(e -> log.error("[Step] {} 执行失败", name, e));
@@ -41,6 +146,42 @@ public abstract class AbstractStep implements Step {
                 .doOnError(e -> log.error("[Step] {} 流式执行失败", name, e));
     }
 
+    /**
+     * 步骤读取的上下文值：与输入键相同、以输入键为前缀或是输入键前缀的条目；
+     * 输入无法确定，或输出无法确定（命中时无法重放写入）时返回 null
+     */
+    private Map<String, Object> readValues(Map<String, Object> context) {
+        Set<String> inputs = getInputs();
+        if (inputs == null || getOutputs() == null) {
+            return null;
+        }
+        Map<String, Object> values = new TreeMap<>();
+        context.forEach((key, value) -> {
+            for (String input : inputs) {
+                if (key.equals(input) || key.startsWith(input + ".") || input.startsWith(key + ".")) {
+                    values.put(key, value);
+                    break;
+                }
+            }
+        });
+        return values;
+    }
+
+    // 步骤写入上下文的值，只在 readValues 不为 null（输出已确定）时调用
+    private Map<String, Object> writtenValues(Map<String, Object> context) {
+        Set<String> outputs = getOutputs();
+        Map<String, Object> values = new HashMap<>();
+        context.forEach((key, value) -> {
+            for (String output : outputs) {
+                if (key.equals(output) || key.startsWith(output + ".")) {
+                    values.put(key, value);
+                    break;
+                }
+            }
+        });
+        return values;
+    }
+
     protected abstract Mono<Map<String, Object>> doExecute(Map<String, Object> context);
     protected abstract Flux<String> doStream(Map<String, Object> context);
 
@@ -60,6 +201,18 @@ public abstract class AbstractStep implements Step {
         );
     }
 
+    /**
+     * 用上下文渲染提示词模板，缺少变量时抛出 CONTEXT_MISSING 类型的 {@link WorkflowExecutionException}
+     */
+    protected String renderPrompt(PromptTemplate prompt, Map<String, Object> context) {
+        try {
+            return prompt.render(context);
+        } catch (IllegalArgumentException e) {
+            throw new WorkflowExecutionException(getWorkflowId(context), name,
+                    WorkflowExecutionException.ErrorType.CONTEXT_MISSING, e.getMessage(), context, e);
+        }
+    }
+
     private Mono<Map<String, Object>> handleStepError(Throwable e, Map<String, Object> context) {
         if (e instanceof WorkflowExecutionException) {
             return Mono.error(e);
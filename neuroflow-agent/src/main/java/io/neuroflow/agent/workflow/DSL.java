@@ -1,7 +1,9 @@
 package io.neuroflow.agent.workflow;
 
 import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.function.FunctionExecutor;
 import io.neuroflow.core.function.FunctionRegistry;
+import io.neuroflow.core.memory.ConversationMemory;
 
 /**
  * 工作流 DSL 工具类
@@ -30,6 +32,31 @@ public class DSL {
     public static LLMCallStep llmStep(String name, String prompt, String model, NeuroFlowGateway gateway) {
         return new LLMCallStep(name, prompt, model, gateway);
     }
+
+    /**
+     * 创建带会话记忆的LLM步骤，上下文中的 conversationId 决定读写哪个会话
+     * @param name 步骤名称
+     * @param prompt 提示词
+     * @param model 模型名称
+     * @param gateway AI网关
+     * @param memory 会话记忆
+     * @return LLMCallStep实例
+     */
+    public static LLMCallStep llmStep(String name, String prompt, String model, NeuroFlowGateway gateway, ConversationMemory memory) {
+        return new LLMCallStep(name, prompt, model, gateway, memory);
+    }
+
+    /**
+     * 使用预编译模板创建LLM步骤，可通过模板指定缺少变量时的处理方式
+     * @param name 步骤名称
+     * @param prompt 提示词模板
+     * @param model 模型名称
+     * @param gateway AI网关
+     * @return LLMCallStep实例
+     */
+    public static LLMCallStep llmStep(String name, PromptTemplate prompt, String model, NeuroFlowGateway gateway) {
+        return new LLMCallStep(name, prompt, model, gateway, null);
+    }
     
     /**
      * 创建函数调用步骤
@@ -42,7 +69,95 @@ public class DSL {
     public static FunctionCallStep functionStep(String name, String functionName, FunctionRegistry registry, NeuroFlowGateway gateway) {
         return new FunctionCallStep(name, functionName, registry, gateway);
     }
+
+    /**
+     * 创建在函数执行器上运行的函数调用步骤，按函数做并发隔离和超时
+     * @param name 步骤名称
+     * @param functionName 函数名称
+     * @param registry 函数注册表
+     * @param gateway AI网关
+     * @param executor 函数执行器
+     * @return FunctionCallStep实例
+     */
+    public static FunctionCallStep functionStep(String name, String functionName, FunctionRegistry registry,
+                                                NeuroFlowGateway gateway, FunctionExecutor executor) {
+        return new FunctionCallStep(name, functionName, registry, gateway, executor);
+    }
     
+    /**
+     * 创建由模型选择函数的步骤，同一轮的多个工具调用并行执行
+     * @param name 步骤名称
+     * @param prompt 提示词
+     * @param model 模型名称
+     * @param gateway AI网关
+     * @param registry 函数注册表，其中的全部函数都提供给模型
+     * @return ToolCallingStep实例
+     */
+    public static ToolCallingStep toolStep(String name, String prompt, String model, NeuroFlowGateway gateway,
+                                           FunctionRegistry registry) {
+        return new ToolCallingStep(name, prompt, model, gateway, registry);
+    }
+
+    /**
+     * 创建由模型选择函数的步骤，指定提供的函数、执行器和并发上限
+     * @param name 步骤名称
+     * @param prompt 提示词
+     * @param model 模型名称
+     * @param gateway AI网关
+     * @param registry 函数注册表
+     * @param functionNames 提供给模型的函数，为 null 时提供全部函数
+     * @param executor 函数执行器，可为 null
+     * @param maxConcurrency 同一轮中同时执行的工具调用数上限
+     * @return ToolCallingStep实例
+     */
+    public static ToolCallingStep toolStep(String name, String prompt, String model, NeuroFlowGateway gateway,
+                                           FunctionRegistry registry, java.util.Collection<String> functionNames,
+                                           FunctionExecutor executor, int maxConcurrency) {
+        return new ToolCallingStep(name, PromptTemplate.compile(prompt), model, gateway, registry, functionNames,
+                executor, maxConcurrency, ToolCallingStep.DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * 创建流式请求模型的工具调用步骤，每个调用的参数一完整就开始执行，不等模型生成结束
+     * @param name 步骤名称
+     * @param prompt 提示词
+     * @param model 模型名称
+     * @param gateway AI网关
+     * @param registry 函数注册表
+     * @param functionNames 提供给模型的函数，为 null 时提供全部函数
+     * @param executor 函数执行器，可为 null
+     * @param maxConcurrency 同一轮中同时执行的工具调用数上限
+     * @return ToolCallingStep实例
+     */
+    public static ToolCallingStep streamingToolStep(String name, String prompt, String model, NeuroFlowGateway gateway,
+                                                    FunctionRegistry registry, java.util.Collection<String> functionNames,
+                                                    FunctionExecutor executor, int maxConcurrency) {
+        return new ToolCallingStep(name, PromptTemplate.compile(prompt), model, gateway, registry, functionNames,
+                executor, maxConcurrency, ToolCallingStep.DEFAULT_MAX_ROUNDS, true);
+    }
+
+    /**
+     * 创建并行步骤，子步骤同时执行，任一失败即取消其余子步骤
+     * @param name 步骤名称
+     * @param steps 子步骤
+     * @return ParallelStep实例
+     */
+    public static ParallelStep parallel(String name, Step... steps) {
+        return new ParallelStep(name, java.util.List.of(steps));
+    }
+
+    /**
+     * 创建并行步骤
+     * @param name 步骤名称
+     * @param maxConcurrency 同时执行的子步骤数上限
+     * @param errorMode 子步骤失败时的处理方式
+     * @param steps 子步骤
+     * @return ParallelStep实例
+     */
+    public static ParallelStep parallel(String name, int maxConcurrency, ParallelStep.ErrorMode errorMode, Step... steps) {
+        return new ParallelStep(name, java.util.List.of(steps), maxConcurrency, errorMode);
+    }
+
     /**
      * 创建条件步骤
      * @param name 步骤名称
@@ -1,16 +1,20 @@
 package io.neuroflow.agent.workflow;
 
-import io.neuroflow.agent.workflow.Workflow;
+import io.neuroflow.agent.checkpoint.ExecutionCheckpoint;
 import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.function.FunctionExecutor;
+import io.neuroflow.core.function.FunctionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DSLWorkflow implements Workflow {
     private static final Logger log = LoggerFactory.getLogger(DSLWorkflow.class);
@@ -48,27 +52,123 @@ public class DSLWorkflow implements Workflow {
         return steps.size();
     }
 
+    /**
+     * 按步骤声明的输入输出执行：互不依赖的步骤并发执行，有依赖的步骤等依赖完成后再开始，见 {@link WorkflowPlan}
+     */
     @Override
     public Mono<Object> execute(Map<String, Object> inputs) {
-        Map<String, Object> context = new HashMap<>(inputs);
+        return run(new WorkflowContext(inputs), null);
+    }
+
+    /**
+     * 带检查点执行：上下文从检查点恢复，已完成的步骤直接视为完成，其余步骤每完成一个就把它写入上下文的值记入检查点
+     */
+    @Override
+    public Mono<Object> execute(ExecutionCheckpoint checkpoint) {
+        if (!checkpoint.getCompletedSteps().isEmpty()) {
+            log.info("[DSLWorkflow] 工作流 {} 从检查点继续，跳过已完成步骤: {}", id, checkpoint.getCompletedSteps());
+        }
+        return run(new WorkflowContext(checkpoint.getContext()), checkpoint);
+    }
 
-        return Flux.fromIterable(steps)
-                .flatMapSequential(step -> step.execute(context))
+    private Mono<Object> run(Map<String, Object> context, ExecutionCheckpoint checkpoint) {
+        WorkflowPlan plan = plan();
+        List<Sinks.Empty<Void>> done = completions(plan);
+
+        return Flux.range(0, plan.getSteps().size())
+                .flatMap(i -> {
+                    Step step = plan.getSteps().get(i);
+                    if (checkpoint != null && checkpoint.isCompleted(step.getName())) {
+                        done.get(i).tryEmitEmpty();
+                        return Mono.empty();
+                    }
+                    return awaitDependencies(plan, done, i)
+                            .then(Mono.defer(() -> step.execute(context)))
+                            .doOnSuccess(result -> {
+                                if (checkpoint != null) {
+                                    checkpoint.stepCompleted(step.getName(), written(step, context));
+                                }
+                                done.get(i).tryEmitEmpty();
+                            });
+                }, Math.max(1, plan.getSteps().size()))
                 .then(Mono.fromCallable(() -> context.get("output")))
+                .contextWrite(FunctionRegistry.pinScope())
                 .doOnSuccess(result -> log.info("Workflow {} completed successfully", id))
                 .doOnError(e -> log.error("Workflow {} failed", id, e));
     }
 
+    /**
+     * 调度方式与 {@link #execute} 相同，各步骤的输出按声明顺序依次发出
+     */
     @Override
     public Flux<String> stream(Map<String, Object> inputs) {
-        Map<String, Object> context = new HashMap<>(inputs);
+        Map<String, Object> context = new WorkflowContext(inputs);
         context.put("streaming", true);
-
-        return Flux.fromIterable(steps)
-                .flatMapSequential(step -> step.stream(context))
+        WorkflowPlan plan = plan();
+        List<Sinks.Empty<Void>> done = completions(plan);
+
+        return Flux.range(0, plan.getSteps().size())
+                .flatMapSequential(i -> awaitDependencies(plan, done, i)
+                        .thenMany(Flux.defer(() -> plan.getSteps().get(i).stream(context)))
+                        .doOnComplete(() -> done.get(i).tryEmitEmpty()), Math.max(1, plan.getSteps().size()))
+                .contextWrite(FunctionRegistry.pinScope())
                 .doOnError(e -> log.error("Workflow {} streaming failed", id, e));
     }
 
+    /**
+     * 当前步骤的依赖图
+     */
+    public WorkflowPlan getPlan() {
+        return WorkflowPlan.of(steps);
+    }
+
+    private WorkflowPlan plan() {
+        WorkflowPlan plan = WorkflowPlan.of(steps);
+        log.debug("[DSLWorkflow] 工作流 {} 步骤依赖: {}", id, plan.describe());
+        return plan;
+    }
+
+    /**
+     * 步骤写入上下文的值：声明了输出时取对应的键（含以其为前缀的嵌套键），无法确定时保存整个上下文
+     */
+    private static Map<String, Object> written(Step step, Map<String, Object> context) {
+        Set<String> outputs = step.getOutputs();
+        if (outputs == null) {
+            return new HashMap<>(context);
+        }
+        Map<String, Object> values = new HashMap<>();
+        context.forEach((key, value) -> {
+            for (String output : outputs) {
+                if (key.equals(output) || key.startsWith(output + ".")) {
+                    values.put(key, value);
+                    break;
+                }
+            }
+        });
+        return values;
+    }
+
+    private static List<Sinks.Empty<Void>> completions(WorkflowPlan plan) {
+        List<Sinks.Empty<Void>> done = new ArrayList<>(plan.getSteps().size());
+        for (int i = 0; i < plan.getSteps().size(); i++) {
+            done.add(Sinks.empty());
+        }
+        return done;
+    }
+
+    // 步骤失败时不发出完成信号，flatMap 收到错误后会取消仍在等待的步骤
+    private static Mono<Void> awaitDependencies(WorkflowPlan plan, List<Sinks.Empty<Void>> done, int index) {
+        int[] dependencies = plan.getDependencies(index);
+        if (dependencies.length == 0) {
+            return Mono.empty();
+        }
+        List<Mono<Void>> signals = new ArrayList<>(dependencies.length);
+        for (int dependency : dependencies) {
+            signals.add(done.get(dependency).asMono());
+        }
+        return Mono.when(signals);
+    }
+
     @Override
     public WorkflowMetadata getMetadata() {
         return new WorkflowMetadata(id, "DSLWorkflow", "DSL Workflow: " + id);
@@ -85,11 +185,49 @@ public class DSLWorkflow implements Workflow {
         steps.add(new LLMCallStep(name, prompt, model, gateway));
         return this;
     }
-    public DSLWorkflow functionStep(String name, String functionName, io.neuroflow.core.function.FunctionRegistry registry) {
+    public DSLWorkflow llmStep(String name, String prompt, String model, io.neuroflow.core.memory.ConversationMemory memory) {
+        log.info("[DSLWorkflow] 添加带会话记忆的 LLM 步骤: {} (model: {})", name, model);
+        steps.add(new LLMCallStep(name, prompt, model, gateway, memory));
+        return this;
+    }
+    public DSLWorkflow functionStep(String name, String functionName, FunctionRegistry registry) {
         log.info("[DSLWorkflow] 添加函数调用步骤: {} (function: {})", name, functionName);
         steps.add(new FunctionCallStep(name, functionName, registry, gateway));
         return this;
     }
+    public DSLWorkflow functionStep(String name, String functionName, FunctionRegistry registry, FunctionExecutor executor) {
+        log.info("[DSLWorkflow] 添加函数调用步骤: {} (function: {})", name, functionName);
+        steps.add(new FunctionCallStep(name, functionName, registry, gateway, executor));
+        return this;
+    }
+    public DSLWorkflow toolStep(String name, String prompt, String model, FunctionRegistry registry) {
+        log.info("[DSLWorkflow] 添加工具调用步骤: {} (model: {})", name, model);
+        steps.add(new ToolCallingStep(name, prompt, model, gateway, registry));
+        return this;
+    }
+    public DSLWorkflow toolStep(String name, String prompt, String model, FunctionRegistry registry,
+                                java.util.Collection<String> functionNames, FunctionExecutor executor, int maxConcurrency) {
+        log.info("[DSLWorkflow] 添加工具调用步骤: {} (model: {}, maxConcurrency: {})", name, model, maxConcurrency);
+        steps.add(DSL.toolStep(name, prompt, model, gateway, registry, functionNames, executor, maxConcurrency));
+        return this;
+    }
+    public DSLWorkflow streamingToolStep(String name, String prompt, String model, FunctionRegistry registry,
+                                         java.util.Collection<String> functionNames, FunctionExecutor executor, int maxConcurrency) {
+        log.info("[DSLWorkflow] 添加流式工具调用步骤: {} (model: {}, maxConcurrency: {})", name, model, maxConcurrency);
+        steps.add(DSL.streamingToolStep(name, prompt, model, gateway, registry, functionNames, executor, maxConcurrency));
+        return this;
+    }
+    public DSLWorkflow parallel(String name, Step... steps) {
+        log.info("[DSLWorkflow] 添加并行步骤: {} (children: {})", name, steps.length);
+        this.steps.add(DSL.parallel(name, steps));
+        return this;
+    }
+    public DSLWorkflow parallel(String name, int maxConcurrency, ParallelStep.ErrorMode errorMode, Step... steps) {
+        log.info("[DSLWorkflow] 添加并行步骤: {} (children: {}, maxConcurrency: {}, errorMode: {})",
+                name, steps.length, maxConcurrency, errorMode);
+        this.steps.add(DSL.parallel(name, maxConcurrency, errorMode, steps));
+        return this;
+    }
     public DSLWorkflow conditionalStep(String name, java.util.function.Predicate<java.util.Map<String, Object>> condition, Step ifStep, Step elseStep) {
         log.info("[DSLWorkflow] 添加条件分支步骤: {}", name);
         steps.add(new ConditionalStep(name, condition, ifStep, elseStep));
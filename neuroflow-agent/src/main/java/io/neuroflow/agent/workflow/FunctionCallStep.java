@@ -1,6 +1,7 @@
 package io.neuroflow.agent.workflow;
 
 import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.function.FunctionExecutor;
 import io.neuroflow.core.function.FunctionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,29 +10,53 @@ import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class FunctionCallStep extends AbstractStep {
     private static final Logger log = LoggerFactory.getLogger(FunctionCallStep.class);
     private final String functionName;
     private final FunctionRegistry registry;
     private final NeuroFlowGateway gateway;
+    private final FunctionExecutor executor;
 
     public FunctionCallStep(String name, String functionName, FunctionRegistry registry, NeuroFlowGateway gateway) {
+        this(name, functionName, registry, gateway, null);
+    }
+
+    /**
+     * @param executor 函数执行器，按函数做并发隔离和超时；为 null 时使用 {@link FunctionExecutor#getDefault()}
+     */
+    public FunctionCallStep(String name, String functionName, FunctionRegistry registry, NeuroFlowGateway gateway,
+                            FunctionExecutor executor) {
         super(name);
         this.functionName = functionName;
         this.registry = registry;
         this.gateway = gateway;
+        this.executor = executor;
     }
 
     @Override
     protected Mono<Map<String, Object>> doExecute(Map<String, Object> context) {
         log.info("[FunctionCallStep] 执行: {}，函数: {}，参数: {}", name, functionName, context);
-        return Mono.fromCallable(() -> {
-            Object result = registry.call(functionName, context);
-            log.info("[FunctionCallStep] {} 执行结果: {}", name, result);
-            context.put(name + ".output", result);
-            return createOutput(result);
-        }).doOnError(e -> log.error("[FunctionCallStep] {} 执行异常", name, e));
+        // 使用本次执行固定的注册表版本，执行中途替换工具集不影响后续步骤
+        return Mono.deferContextual(ctx -> call(registry.snapshot(ctx), context))
+                .map(result -> {
+                    log.info("[FunctionCallStep] {} 执行结果: {}", name, result);
+                    context.put(name + ".output", result);
+                    return createOutput(result);
+                })
+                .doOnError(e -> log.error("[FunctionCallStep] {} 执行异常", name, e));
+    }
+
+    // 整个上下文都作为参数传入，输入无法推断，需要时用 withInputs 声明
+    @Override
+    protected Set<String> inferOutputs() {
+        return Set.of(name + ".output");
+    }
+
+    // 函数多为阻塞调用，不能在订阅线程（可能是 Netty 事件循环）上执行
+    private Mono<Object> call(FunctionRegistry.Snapshot snapshot, Map<String, Object> context) {
+        return (executor != null ? executor : FunctionExecutor.getDefault()).call(snapshot, functionName, context);
     }
 
     @Override
@@ -1,39 +1,69 @@
 package io.neuroflow.agent.workflow;
 
 import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.memory.ConversationMemory;
+import io.neuroflow.core.model.ChatMessage;
 import io.neuroflow.core.model.ModelRequest;
-import io.neuroflow.core.model.ModelResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class LLMCallStep extends AbstractStep {
     private static final Logger log = LoggerFactory.getLogger(LLMCallStep.class);
-    private final String prompt;
+    // 上下文中的会话ID，配置了会话记忆时按此ID读写历史
+    public static final String CONVERSATION_ID_KEY = "conversationId";
+    // 调度时代表会话记忆的输出键，使用同一记忆的步骤按声明顺序执行
+    private static final String MEMORY_KEY = CONVERSATION_ID_KEY + ".memory";
+
+    private final PromptTemplate prompt;
     private final String model;
     private final NeuroFlowGateway gateway;
+    private final ConversationMemory memory;
 
     public LLMCallStep(String name, String prompt, String model, NeuroFlowGateway gateway) {
+        this(name, prompt, model, gateway, null);
+    }
+
+    /**
+     * @param memory 会话记忆，上下文中有 conversationId 时把历史拼到本轮提示词之前，并在得到回复后写回；为 null 时每次只发送本轮提示词
+     */
+    public LLMCallStep(String name, String prompt, String model, NeuroFlowGateway gateway, ConversationMemory memory) {
+        this(name, PromptTemplate.compile(prompt), model, gateway, memory);
+    }
+
+    /**
+     * @param prompt 预编译的提示词模板，可指定缺少变量时的处理方式
+     */
+    public LLMCallStep(String name, PromptTemplate prompt, String model, NeuroFlowGateway gateway, ConversationMemory memory) {
         super(name);
         this.prompt = prompt;
         this.model = model;
         this.gateway = gateway;
+        this.memory = memory;
     }
 
     @Override
     protected Mono<Map<String, Object>> doExecute(Map<String, Object> context) {
         String renderedPrompt = renderPrompt(prompt, context);
         log.info("[LLMCallStep] 执行: {}，模型: {}，prompt: {}", name, model, renderedPrompt);
-        ModelRequest req = new ModelRequest();
-        req.setModel(model);
-        req.setPrompt(renderedPrompt);
+        String conversationId = conversationId(context);
+        ChatMessage userMessage = ChatMessage.of("user", renderedPrompt);
+        ModelRequest req = request(renderedPrompt, userMessage, conversationId);
         return gateway.execute(req)
                 .map(resp -> {
                     log.info("[LLMCallStep] {} 响应: {}", name, resp);
-                    context.put(name + ".output", resp.getChoices() != null && !resp.getChoices().isEmpty() ? resp.getChoices().get(0).getMessage().getContent() : null);
+                    String content = resp.getContent();
+                    context.put(name + ".output", content);
+                    if (conversationId != null && content != null) {
+                        memory.append(conversationId, List.of(userMessage, ChatMessage.of("assistant", content)));
+                    }
                     return createOutput(resp);
                 })
                 .doOnError(e -> log.error("[LLMCallStep] {} 执行异常", name, e));
@@ -43,20 +73,72 @@ public class LLMCallStep extends AbstractStep {
     protected Flux<String> doStream(Map<String, Object> context) {
         String renderedPrompt = renderPrompt(prompt, context);
         log.info("[LLMCallStep] 流式执行: {}，模型: {}，prompt: {}", name, model, renderedPrompt);
-        ModelRequest req = new ModelRequest();
-        req.setModel(model);
-        req.setPrompt(renderedPrompt);
+        String conversationId = conversationId(context);
+        ChatMessage userMessage = ChatMessage.of("user", renderedPrompt);
+        ModelRequest req = request(renderedPrompt, userMessage, conversationId);
         req.setStream(true);
-        return gateway.stream(req)
+        Flux<String> tokens = gateway.stream(req)
                 .doOnNext(token -> log.debug("[LLMCallStep] {} 流式响应: {}", name, token))
                 .doOnError(e -> log.error("[LLMCallStep] {} 流式异常", name, e));
+        // 完整回复在流结束后写入上下文和会话记忆，与非流式执行一致，后续步骤和并行合并都能读到
+        return Flux.defer(() -> {
+            StringBuilder reply = new StringBuilder();
+            return tokens
+                    .doOnNext(reply::append)
+                    .doOnComplete(() -> {
+                        String content = reply.toString();
+                        context.put(name + ".output", content);
+                        if (conversationId != null) {
+                            memory.append(conversationId, List.of(userMessage, ChatMessage.of("assistant", content)));
+                        }
+                    });
+        });
+    }
+
+    @Override
+    protected Set<String> inferInputs() {
+        Set<String> inputs = new LinkedHashSet<>(prompt.getVariables());
+        if (memory != null) {
+            inputs.add(CONVERSATION_ID_KEY);
+        }
+        return inputs;
+    }
+
+    @Override
+    protected Set<String> inferOutputs() {
+        return memory != null ? Set.of(name + ".output", MEMORY_KEY) : Set.of(name + ".output");
+    }
+
+    /**
+     * 名称、模型和模板相同的步骤共享缓存结果；配置了会话记忆时回复要写入历史，不缓存
+     */
+    @Override
+    protected Object cacheIdentity() {
+        if (memory != null) {
+            return null;
+        }
+        return Arrays.asList(LLMCallStep.class.getName(), name, model, prompt.toString(), prompt.getMissingPolicy());
+    }
+
+    private ModelRequest request(String renderedPrompt, ChatMessage userMessage, String conversationId) {
+        ModelRequest req = new ModelRequest();
+        req.setModel(model);
+        if (conversationId != null) {
+            req.setMessages(memory.assemble(conversationId, List.of(userMessage)));
+        } else {
+            req.setPrompt(renderedPrompt);
+        }
+        return req;
     }
 
-    private String renderPrompt(String prompt, Map<String, Object> context) {
-        String result = prompt;
-        for (Map.Entry<String, Object> entry : context.entrySet()) {
-            result = result.replace("{{" + entry.getKey() + "}}", String.valueOf(entry.getValue()));
+    /**
+     * 配置了会话记忆且上下文中有会话ID时返回会话ID，否则返回 null
+     */
+    private String conversationId(Map<String, Object> context) {
+        if (memory == null) {
+            return null;
         }
-        return result;
+        Object conversationId = context.get(CONVERSATION_ID_KEY);
+        return conversationId != null ? conversationId.toString() : null;
     }
-} 
\ No newline at end of file
+}
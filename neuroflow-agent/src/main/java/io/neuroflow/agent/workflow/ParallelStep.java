@@ -0,0 +1,223 @@
+package io.neuroflow.agent.workflow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 并行执行一组子步骤
+ *
+ * <p>子步骤同时运行，数量不超过 maxConcurrency。每个子步骤拿到开始前上下文的一份独立副本，读写互不影响，
+ * 全部结束后按声明顺序把各自新增或修改的键合并回上下文，结果与执行快慢无关。
+ *
+ * <p>{@link ErrorMode#FAIL_FAST} 下任一子步骤失败立即取消其余子步骤并使本步骤失败，上下文不做合并；
+ * {@link ErrorMode#COLLECT_ALL} 下等待全部子步骤结束，成功的照常合并，失败的错误信息写入
+ * {@code <子步骤名>.error}，本步骤本身不失败。
+ *
+ * <p>输出为子步骤名到其 output 的 Map，同时写入 {@code <步骤名>.output}。流式执行时各子步骤同时运行，
+ * 输出按声明顺序依次发出，不会交错。
+ */
+public class ParallelStep extends AbstractStep {
+    private static final Logger log = LoggerFactory.getLogger(ParallelStep.class);
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    public enum ErrorMode {
+        // 任一子步骤失败即取消其余子步骤
+        FAIL_FAST,
+        // 执行完全部子步骤，记录失败的错误
+        COLLECT_ALL
+    }
+
+    private final List<Step> steps;
+    private final int maxConcurrency;
+    private final ErrorMode errorMode;
+
+    public ParallelStep(String name, List<Step> steps) {
+        this(name, steps, DEFAULT_MAX_CONCURRENCY, ErrorMode.FAIL_FAST);
+    }
+
+    /**
+     * @param steps 子步骤，名称不能重复
+     * @param maxConcurrency 同时执行的子步骤数上限
+     * @param errorMode 子步骤失败时的处理方式
+     */
+    public ParallelStep(String name, List<Step> steps, int maxConcurrency, ErrorMode errorMode) {
+        super(name);
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("Parallel step " + name + " requires at least one child step");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        if (steps.stream().map(Step::getName).distinct().count() != steps.size()) {
+            throw new IllegalArgumentException("Parallel step " + name + " has duplicate child step names");
+        }
+        this.steps = List.copyOf(steps);
+        this.maxConcurrency = maxConcurrency;
+        this.errorMode = Objects.requireNonNull(errorMode, "errorMode");
+    }
+
+    @Override
+    protected Mono<Map<String, Object>> doExecute(Map<String, Object> context) {
+        log.info("[ParallelStep] 执行: {}，子步骤: {}，并发上限: {}，错误模式: {}", name, names(), maxConcurrency, errorMode);
+        Map<String, Object> base = new HashMap<>(context);
+        long start = System.nanoTime();
+        return Flux.fromIterable(steps)
+                .flatMapSequential(step -> {
+                    Map<String, Object> childContext = new HashMap<>(base);
+                    Mono<Branch> branch = step.execute(childContext)
+                            .map(result -> new Branch(step, childContext, result.get("output"), null))
+                            .defaultIfEmpty(new Branch(step, childContext, null, null));
+                    if (errorMode == ErrorMode.COLLECT_ALL) {
+                        branch = branch.onErrorResume(e -> {
+                            log.warn("[ParallelStep] {} 子步骤 {} 失败: {}", name, step.getName(), e.getMessage());
+                            return Mono.just(new Branch(step, childContext, null, e));
+                        });
+                    }
+                    return branch;
+                }, maxConcurrency)
+                .collectList()
+                .map(branches -> {
+                    Map<String, Object> outputs = merge(context, base, branches);
+                    log.info("[ParallelStep] {} 全部子步骤结束，耗时: {}ms", name, (System.nanoTime() - start) / 1_000_000);
+                    return createOutput(outputs);
+                })
+                .doOnError(e -> log.error("[ParallelStep] {} 执行异常", name, e));
+    }
+
+    @Override
+    protected Flux<String> doStream(Map<String, Object> context) {
+        log.info("[ParallelStep] 流式执行: {}，子步骤: {}，并发上限: {}，错误模式: {}", name, names(), maxConcurrency, errorMode);
+        Map<String, Object> base = new HashMap<>(context);
+        List<Branch> branches = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            branches.add(new Branch(step, new HashMap<>(base), null, null));
+        }
+        return Flux.fromIterable(branches)
+                .flatMapSequential(branch -> {
+                    Flux<String> tokens = branch.step.stream(branch.context);
+                    if (errorMode == ErrorMode.COLLECT_ALL) {
+                        tokens = tokens.onErrorResume(e -> {
+                            log.warn("[ParallelStep] {} 子步骤 {} 流式失败: {}", name, branch.step.getName(), e.getMessage());
+                            branch.error = e;
+                            return Flux.empty();
+                        });
+                    }
+                    return tokens;
+                }, maxConcurrency)
+                .doOnComplete(() -> merge(context, base, branches));
+    }
+
+    @Override
+    protected Set<String> inferInputs() {
+        Set<String> inputs = new LinkedHashSet<>();
+        for (Step step : steps) {
+            Set<String> keys = step.getInputs();
+            if (keys == null) {
+                return null;
+            }
+            inputs.addAll(keys);
+        }
+        return inputs;
+    }
+
+    @Override
+    protected Set<String> inferOutputs() {
+        Set<String> outputs = new LinkedHashSet<>();
+        outputs.add(name + ".output");
+        for (Step step : steps) {
+            Set<String> keys = step.getOutputs();
+            if (keys == null) {
+                return null;
+            }
+            outputs.addAll(keys);
+            outputs.add(step.getName() + ".error");
+        }
+        return outputs;
+    }
+
+    /**
+     * 任一子步骤不可缓存时整体不缓存；COLLECT_ALL 下结果可能包含失败的子步骤，也不缓存
+     */
+    @Override
+    protected Object cacheIdentity() {
+        if (errorMode == ErrorMode.COLLECT_ALL) {
+            return null;
+        }
+        for (Step step : steps) {
+            if (!(step instanceof AbstractStep child) || child.cacheIdentity() == null) {
+                return null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 按声明顺序把各子步骤新增或修改的键写回上下文
+     * @return 子步骤名到 output 的 Map
+     */
+    private Map<String, Object> merge(Map<String, Object> context, Map<String, Object> base, List<Branch> branches) {
+        Map<String, Object> outputs = new LinkedHashMap<>();
+        for (Branch branch : branches) {
+            String child = branch.step.getName();
+            if (branch.error != null) {
+                String message = branch.error.getMessage() != null ? branch.error.getMessage() : branch.error.getClass().getSimpleName();
+                context.put(child + ".error", message);
+                outputs.put(child, null);
+                continue;
+            }
+            branch.context.forEach((key, value) -> {
+                if (!base.containsKey(key) || base.get(key) != value) {
+                    context.put(key, value);
+                }
+            });
+            outputs.put(child, branch.output != null ? branch.output : branch.context.get(child + ".output"));
+        }
+        context.put(name + ".output", outputs);
+        return outputs;
+    }
+
+    private List<String> names() {
+        return steps.stream().map(Step::getName).toList();
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public ErrorMode getErrorMode() {
+        return errorMode;
+    }
+
+    /**
+     * 一个子步骤的执行结果
+     */
+    private static final class Branch {
+        private final Step step;
+        private final Map<String, Object> context;
+        private final Object output;
+        // 流式执行时在子步骤失败后写入，合并前由 flatMapSequential 的完成保证可见
+        private Throwable error;
+
+        private Branch(Step step, Map<String, Object> context, Object output, Throwable error) {
+            this.step = step;
+            this.context = context;
+            this.output = output;
+            this.error = error;
+        }
+    }
+}
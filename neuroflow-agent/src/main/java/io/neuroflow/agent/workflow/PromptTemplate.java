@@ -0,0 +1,239 @@
+package io.neuroflow.agent.workflow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的提示词模板
+ *
+ * <p>模板在构造时解析成字面量和 {@code {{变量}}} 占位符的片段列表，渲染时按片段顺序一次写入预估好容量的
+ * StringBuilder，只对模板实际用到的变量取值和转字符串，耗时与上下文大小无关。
+ *
+ * <p>变量名先按完整键在上下文中查找（如 {@code {{summarize.output}}}），找不到时按 {@code .} 拆分，
+ * 用最长的已存在前缀取值后逐级进入 Map 的键或 List 的下标（如 {@code {{user.address.city}}}、{@code {{items.0}}}）。
+ */
+public final class PromptTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // 每个占位符的预估渲染长度，只用于首次渲染时估算容量
+    private static final int PLACEHOLDER_ESTIMATE = 16;
+
+    /**
+     * 上下文中缺少变量时的处理方式
+     */
+    public enum MissingVariablePolicy {
+        /** 保留原始占位符文本 */
+        KEEP,
+        /** 替换为空字符串 */
+        EMPTY,
+        /** 抛出 {@link IllegalArgumentException} */
+        FAIL
+    }
+
+    private final String source;
+    private final Segment[] segments;
+    private final MissingVariablePolicy missingPolicy;
+    private final int literalLength;
+    private final int placeholderCount;
+    // 上一次渲染结果的长度，作为下一次的容量提示；并发下读到旧值只影响容量估算
+    private volatile int lastLength;
+
+    private PromptTemplate(String source, Segment[] segments, MissingVariablePolicy missingPolicy) {
+        this.source = source;
+        this.segments = segments;
+        this.missingPolicy = missingPolicy;
+        int literals = 0;
+        int placeholders = 0;
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                literals += literal.text.length();
+            } else {
+                placeholders++;
+            }
+        }
+        this.literalLength = literals;
+        this.placeholderCount = placeholders;
+    }
+
+    /**
+     * 编译模板，缺少变量时保留占位符
+     */
+    public static PromptTemplate compile(String template) {
+        return compile(template, MissingVariablePolicy.KEEP);
+    }
+
+    /**
+     * 编译模板
+     * @param template 模板文本，未闭合的 {@code {{} 和空变量名按字面量处理
+     * @param missingPolicy 缺少变量时的处理方式
+     */
+    public static PromptTemplate compile(String template, MissingVariablePolicy missingPolicy) {
+        List<Segment> segments = new ArrayList<>();
+        int pos = 0;
+        int literalStart = 0;
+        while (pos < template.length()) {
+            int open = template.indexOf(OPEN, pos);
+            if (open < 0) {
+                break;
+            }
+            int close = template.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String path = template.substring(open + OPEN.length(), close).trim();
+            if (path.isEmpty()) {
+                pos = close + CLOSE.length();
+                continue;
+            }
+            if (open > literalStart) {
+                segments.add(new Literal(template.substring(literalStart, open)));
+            }
+            segments.add(new Placeholder(path, template.substring(open, close + CLOSE.length())));
+            pos = close + CLOSE.length();
+            literalStart = pos;
+        }
+        if (literalStart < template.length()) {
+            segments.add(new Literal(template.substring(literalStart)));
+        }
+        return new PromptTemplate(template, segments.toArray(new Segment[0]), missingPolicy);
+    }
+
+    /**
+     * 用上下文渲染模板
+     * @throws IllegalArgumentException 缺少变量且策略为 {@link MissingVariablePolicy#FAIL}
+     */
+    public String render(Map<String, Object> context) {
+        if (placeholderCount == 0) {
+            return source;
+        }
+        StringBuilder out = new StringBuilder(Math.max(lastLength, literalLength + placeholderCount * PLACEHOLDER_ESTIMATE));
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                out.append(literal.text);
+                continue;
+            }
+            Placeholder placeholder = (Placeholder) segment;
+            Object value = placeholder.resolve(context);
+            if (value != MISSING) {
+                out.append(value);
+            } else if (missingPolicy == MissingVariablePolicy.KEEP) {
+                out.append(placeholder.raw);
+            } else if (missingPolicy == MissingVariablePolicy.FAIL) {
+                throw new IllegalArgumentException("Missing prompt variable: " + placeholder.path);
+            }
+        }
+        lastLength = out.length();
+        return out.toString();
+    }
+
+    /**
+     * 模板中引用的变量名，按出现顺序
+     */
+    public List<String> getVariables() {
+        List<String> variables = new ArrayList<>(placeholderCount);
+        for (Segment segment : segments) {
+            if (segment instanceof Placeholder placeholder) {
+                variables.add(placeholder.path);
+            }
+        }
+        return variables;
+    }
+
+    public MissingVariablePolicy getMissingPolicy() {
+        return missingPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static final Object MISSING = new Object();
+
+    private sealed interface Segment permits Literal, Placeholder {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private static final class Placeholder implements Segment {
+        private final String path;
+        private final String raw;
+        // 路径中每个 '.' 的位置，从右到左尝试，优先匹配最长的上下文键
+        private final int[] dots;
+
+        Placeholder(String path, String raw) {
+            this.path = path;
+            this.raw = raw;
+            int count = 0;
+            for (int i = 0; i < path.length(); i++) {
+                if (path.charAt(i) == '.') {
+                    count++;
+                }
+            }
+            this.dots = new int[count];
+            for (int i = path.length() - 1, j = 0; i >= 0; i--) {
+                if (path.charAt(i) == '.') {
+                    dots[j++] = i;
+                }
+            }
+        }
+
+        Object resolve(Map<String, Object> context) {
+            Object value = context.get(path);
+            if (value != null || context.containsKey(path)) {
+                return value;
+            }
+            for (int dot : dots) {
+                String prefix = path.substring(0, dot);
+                Object root = context.get(prefix);
+                if (root != null) {
+                    return navigate(root, dot + 1);
+                }
+            }
+            return MISSING;
+        }
+
+        private Object navigate(Object value, int from) {
+            while (from <= path.length()) {
+                int end = path.indexOf('.', from);
+                if (end < 0) {
+                    end = path.length();
+                }
+                String key = path.substring(from, end);
+                if (value instanceof Map<?, ?> map) {
+                    if (!map.containsKey(key)) {
+                        return MISSING;
+                    }
+                    value = map.get(key);
+                } else if (value instanceof List<?> list) {
+                    int index = parseIndex(key);
+                    if (index < 0 || index >= list.size()) {
+                        return MISSING;
+                    }
+                    value = list.get(index);
+                } else {
+                    return MISSING;
+                }
+                from = end + 1;
+            }
+            return value;
+        }
+
+        private static int parseIndex(String key) {
+            if (key.isEmpty() || key.length() > 9) {
+                return -1;
+            }
+            int index = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                index = index * 10 + (c - '0');
+            }
+            return index;
+        }
+    }
+}
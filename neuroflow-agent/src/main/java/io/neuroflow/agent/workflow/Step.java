@@ -4,9 +4,25 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface Step {
     String getName();
     Mono<Map<String, Object>> execute(Map<String, Object> context);
     Flux<String> stream(Map<String, Object> context);
-}
\ No newline at end of file
+
+    /**
+     * 步骤读取的上下文键，嵌套路径（如 a.output.city）会匹配写入其前缀的步骤；
+     * 返回 null 表示无法确定，调度时该步骤排在之前的全部步骤之后
+     */
+    default Set<String> getInputs() {
+        return null;
+    }
+
+    /**
+     * 步骤写入的上下文键；返回 null 表示无法确定，之后的全部步骤都排在它之后
+     */
+    default Set<String> getOutputs() {
+        return null;
+    }
+}
@@ -0,0 +1,216 @@
+package io.neuroflow.agent.workflow;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.neuroflow.core.cache.Fingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 跨执行的步骤结果缓存
+ *
+ * <p>只缓存通过 {@link AbstractStep#cached} 开启缓存的步骤。键由步骤标识（见 {@link AbstractStep#cacheIdentity()}）
+ * 和步骤读取的上下文值的规范化指纹组成，输入没变的步骤直接复用上次的结果，并把当时写入上下文的值重新写回，
+ * 后续步骤看到的上下文与实际执行时一致。输入或输出无法确定的步骤不缓存。
+ *
+ * <p>每个条目按步骤设置的有效期过期，总容量按结果和写入值序列化后的字节数计算，超出后由 Caffeine 按 W-TinyLFU 淘汰。
+ * 失败的执行不缓存；同一键的并发未命中各自执行，不做合并。
+ */
+public class StepResultCache {
+    private static final Logger log = LoggerFactory.getLogger(StepResultCache.class);
+    // 无法序列化时按该大小计算
+    private static final int DEFAULT_WEIGHT = 1024;
+
+    private final Cache<Key, Entry> cache;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param maximumBytes 缓存内容的总大小上限（按 JSON 序列化后的字节数估算）
+     */
+    public StepResultCache(long maximumBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, Entry entry) -> entry.weight)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("[StepResultCache] 初始化完成，容量: {} 字节", maximumBytes);
+    }
+
+    /**
+     * 计算缓存键，步骤不可缓存或输入无法计算指纹时返回 null
+     * @param step 步骤名称，用于统计
+     * @param identity 步骤标识
+     * @param inputs 步骤读取的上下文值
+     */
+    Key key(String step, Object identity, Map<String, Object> inputs) {
+        if (identity == null || inputs == null) {
+            counters(step).uncacheable.increment();
+            return null;
+        }
+        try {
+            return new Key(identity, Fingerprint.of(inputs));
+        } catch (IllegalArgumentException e) {
+            log.debug("[StepResultCache] 步骤 {} 输入无法计算指纹，跳过缓存: {}", step, e.getMessage());
+            counters(step).uncacheable.increment();
+            return null;
+        }
+    }
+
+    /**
+     * 命中时返回缓存条目
+     */
+    Entry get(String step, Key key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            counters(step).hits.increment();
+        } else {
+            counters(step).misses.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * 缓存一次成功执行的结果和它写入上下文的值
+     */
+    void put(Key key, Map<String, Object> result, Map<String, Object> writes, long ttlNanos) {
+        cache.put(key, new Entry(result, writes, weigh(result) + weigh(writes), ttlNanos));
+    }
+
+    private Counters counters(String step) {
+        return counters.computeIfAbsent(step, name -> new Counters());
+    }
+
+    private static int weigh(Object value) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            Fingerprint.canonicalMapper().writeValue(out, value);
+            return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(1, out.count));
+        } catch (IOException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("[StepResultCache] 缓存已清空");
+    }
+
+    /**
+     * 各步骤的命中统计
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        counters.forEach((step, c) -> stats.put(step,
+                new Stats(c.hits.sum(), c.misses.sum(), c.uncacheable.sum())));
+        return stats;
+    }
+
+    /**
+     * 当前缓存条目数和占用字节数
+     */
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    record Key(Object identity, String fingerprint) {
+    }
+
+    /**
+     * 缓存的步骤结果，writes 为执行时写入上下文的值
+     */
+    static final class Entry {
+        private final Map<String, Object> result;
+        private final Map<String, Object> writes;
+        private final int weight;
+        private final long ttlNanos;
+
+        private Entry(Map<String, Object> result, Map<String, Object> writes, int weight, long ttlNanos) {
+            this.result = result;
+            this.writes = new HashMap<>(writes);
+            this.weight = weight;
+            this.ttlNanos = ttlNanos;
+        }
+
+        Map<String, Object> getResult() {
+            return result;
+        }
+
+        Map<String, Object> getWrites() {
+            return writes;
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder uncacheable = new LongAdder();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * 单个步骤的缓存统计快照
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long uncacheableCount;
+
+        public Stats(long hitCount, long missCount, long uncacheableCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.uncacheableCount = uncacheableCount;
+        }
+
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getUncacheableCount() { return uncacheableCount; }
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package io.neuroflow.agent.workflow;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.client.codec.ToolCallAssembler;
+import io.neuroflow.core.function.FunctionDescriptor;
+import io.neuroflow.core.function.FunctionExecutor;
+import io.neuroflow.core.function.FunctionRegistry;
+import io.neuroflow.core.function.FunctionSpecs;
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.FunctionSpec;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.ToolCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 由模型决定调用哪些函数的步骤
+ *
+ * <p>把注册表中的函数作为 tools 发给模型；模型在一轮回复中发起的全部工具调用并行执行，同时执行的调用数不超过
+ * maxConcurrency，结果按调用顺序作为 tool 消息一次性放进下一轮请求。重复直到模型不再调用工具，
+ * 最后一轮不再提供工具，要求模型直接回答。
+ *
+ * <p>参数错误、超时和函数异常不会使步骤失败，而是把错误信息作为该调用的结果交给模型，由模型修正参数或改用其他方式。
+ *
+ * <p>开启 streaming 后每轮以流式请求模型，{@link ToolCallAssembler} 增量拼接参数片段，某个调用的参数一闭合就立即
+ * 开始执行，与模型继续生成其余调用和文本重叠；流式输出时各轮的文本随到随发。
+ */
+public class ToolCallingStep extends AbstractStep {
+    private static final Logger log = LoggerFactory.getLogger(ToolCallingStep.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final TypeReference<Map<String, Object>> ARGUMENTS_TYPE = new TypeReference<>() {};
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int DEFAULT_MAX_ROUNDS = 5;
+
+    private final PromptTemplate prompt;
+    private final String model;
+    private final NeuroFlowGateway gateway;
+    private final FunctionRegistry registry;
+    private final Collection<String> functionNames;
+    private final FunctionExecutor executor;
+    private final int maxConcurrency;
+    private final int maxRounds;
+    private final boolean streaming;
+
+    public ToolCallingStep(String name, String prompt, String model, NeuroFlowGateway gateway, FunctionRegistry registry) {
+        this(name, PromptTemplate.compile(prompt), model, gateway, registry, null, null,
+                DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_ROUNDS, false);
+    }
+
+    public ToolCallingStep(String name, PromptTemplate prompt, String model, NeuroFlowGateway gateway,
+                           FunctionRegistry registry, Collection<String> functionNames, FunctionExecutor executor,
+                           int maxConcurrency, int maxRounds) {
+        this(name, prompt, model, gateway, registry, functionNames, executor, maxConcurrency, maxRounds, false);
+    }
+
+    /**
+     * @param functionNames 提供给模型的函数，为 null 时提供注册表中的全部函数
+     * @param executor 函数执行器，按函数做并发隔离和超时；为 null 时使用 {@link FunctionExecutor#getDefault()}
+     * @param maxConcurrency 同一轮中同时执行的工具调用数上限
+     * @param maxRounds 最多允许模型调用工具的轮数
+     * @param streaming 是否以流式请求模型，并在每个调用的参数完整时立即执行
+     */
+    public ToolCallingStep(String name, PromptTemplate prompt, String model, NeuroFlowGateway gateway,
+                           FunctionRegistry registry, Collection<String> functionNames, FunctionExecutor executor,
+                           int maxConcurrency, int maxRounds, boolean streaming) {
+        super(name);
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        if (maxRounds < 0) {
+            throw new IllegalArgumentException("maxRounds must not be negative: " + maxRounds);
+        }
+        this.prompt = prompt;
+        this.model = model;
+        this.gateway = gateway;
+        this.registry = registry;
+        this.functionNames = functionNames;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.maxRounds = maxRounds;
+        this.streaming = streaming;
+    }
+
+    @Override
+    protected Mono<Map<String, Object>> doExecute(Map<String, Object> context) {
+        if (streaming) {
+            return streamRounds(context).then(Mono.fromCallable(() -> createOutput(context.get(name + ".output"))));
+        }
+        String renderedPrompt = renderPrompt(prompt, context);
+        log.info("[ToolCallingStep] 执行: {}，模型: {}，prompt: {}", name, model, renderedPrompt);
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(ChatMessage.of("user", renderedPrompt));
+        // 使用本次执行固定的注册表版本，多轮调用之间工具集保持一致
+        return Mono.deferContextual(ctx -> {
+                    FunctionRegistry.Snapshot snapshot = registry.snapshot(ctx);
+                    return round(snapshot, specs(snapshot), messages, 0);
+                })
+                .map(resp -> {
+                    log.info("[ToolCallingStep] {} 响应: {}", name, resp);
+                    String content = resp.getContent();
+                    context.put(name + ".output", content);
+                    return createOutput(resp);
+                })
+                .doOnError(e -> log.error("[ToolCallingStep] {} 执行异常", name, e));
+    }
+
+    @Override
+    protected Flux<String> doStream(Map<String, Object> context) {
+        if (streaming) {
+            return streamRounds(context);
+        }
+        // 中间轮次是工具调用，只输出最终回答
+        return doExecute(context).flatMapMany(output -> {
+            Object content = context.get(name + ".output");
+            return content != null ? Flux.just(content.toString()) : Flux.empty();
+        });
+    }
+
+    @Override
+    protected Set<String> inferInputs() {
+        return new LinkedHashSet<>(prompt.getVariables());
+    }
+
+    @Override
+    protected Set<String> inferOutputs() {
+        return Set.of(name + ".output");
+    }
+
+    /**
+     * 流式执行全部轮次，输出各轮的文本片段，最后一轮的文本写入上下文
+     */
+    private Flux<String> streamRounds(Map<String, Object> context) {
+        String renderedPrompt = renderPrompt(prompt, context);
+        log.info("[ToolCallingStep] 流式执行: {}，模型: {}，prompt: {}", name, model, renderedPrompt);
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(ChatMessage.of("user", renderedPrompt));
+        return Flux.deferContextual(ctx -> {
+                    FunctionRegistry.Snapshot snapshot = registry.snapshot(ctx);
+                    return streamRound(snapshot, specs(snapshot), messages, 0, context);
+                })
+                .doOnError(e -> log.error("[ToolCallingStep] {} 流式异常", name, e));
+    }
+
+    private Flux<String> streamRound(FunctionRegistry.Snapshot snapshot, List<FunctionSpec> specs,
+                                     List<ChatMessage> messages, int round, Map<String, Object> context) {
+        ModelRequest req = new ModelRequest();
+        req.setModel(model);
+        req.setMessages(new ArrayList<>(messages));
+        req.setStream(true);
+        boolean toolsOffered = round < maxRounds && !specs.isEmpty();
+        if (toolsOffered) {
+            req.setFunctions(specs);
+            req.setParallelToolCalls(true);
+        }
+        return Flux.defer(() -> {
+            ToolCallAssembler assembler = new ToolCallAssembler();
+            StringBuilder text = new StringBuilder();
+            long start = System.nanoTime();
+            // 文本片段和参数已完整的调用按到达顺序混在一个流里
+            Flux<Object> items = gateway.streamEvents(req)
+                    .<Object>concatMapIterable(event -> {
+                        List<ToolCall> completed = toolsOffered ? assembler.accept(event) : List.of();
+                        if (!event.hasContent()) {
+                            return completed;
+                        }
+                        text.append(event.getContent());
+                        List<Object> out = new ArrayList<>(completed.size() + 1);
+                        out.add(event.getContent());
+                        out.addAll(completed);
+                        return out;
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(toolsOffered ? assembler.finish() : List.of())));
+            return items.<Object>publish(shared -> Flux.<Object>merge(
+                            shared.ofType(String.class),
+                            // 调用一到就开始执行，不等模型生成结束；结果按调用顺序收集
+                            shared.ofType(ToolCall.class)
+                                    .doOnNext(call -> log.debug("[ToolCallingStep] {} 工具调用参数完整，开始执行: {}，距本轮开始: {}ms",
+                                            name, call, (System.nanoTime() - start) / 1_000_000))
+                                    .flatMapSequential(call -> invoke(snapshot, call), maxConcurrency)
+                                    .collectList()))
+                    .<String>concatMap(item -> {
+                        if (item instanceof String token) {
+                            return Flux.just(token);
+                        }
+                        @SuppressWarnings("unchecked")
+                        List<ChatMessage> results = (List<ChatMessage>) item;
+                        if (!toolsOffered || results.isEmpty()) {
+                            context.put(name + ".output", text.toString());
+                            return Flux.empty();
+                        }
+                        log.info("[ToolCallingStep] {} 第 {} 轮，流式执行了 {} 个工具调用", name, round + 1, results.size());
+                        ChatMessage assistant = ChatMessage.of("assistant", text.length() > 0 ? text.toString() : null);
+                        assistant.setToolCalls(assembler.getToolCalls());
+                        messages.add(assistant);
+                        messages.addAll(results);
+                        return streamRound(snapshot, specs, messages, round + 1, context);
+                    });
+        });
+    }
+
+    private Mono<ModelResponse> round(FunctionRegistry.Snapshot snapshot, List<FunctionSpec> specs,
+                                      List<ChatMessage> messages, int round) {
+        ModelRequest req = new ModelRequest();
+        req.setModel(model);
+        req.setMessages(new ArrayList<>(messages));
+        boolean toolsOffered = round < maxRounds && !specs.isEmpty();
+        if (toolsOffered) {
+            req.setFunctions(specs);
+            req.setParallelToolCalls(true);
+        }
+        return gateway.execute(req).flatMap(resp -> {
+            List<ToolCall> toolCalls = resp.getToolCalls();
+            if (!toolsOffered || toolCalls.isEmpty()) {
+                return Mono.just(resp);
+            }
+            log.info("[ToolCallingStep] {} 第 {} 轮，并行执行 {} 个工具调用", name, round + 1, toolCalls.size());
+            ChatMessage assistant = resp.getChoices().get(0).getMessage();
+            if (assistant.getRole() == null) {
+                assistant.setRole("assistant");
+            }
+            return Flux.fromIterable(toolCalls)
+                    .flatMapSequential(call -> invoke(snapshot, call), maxConcurrency)
+                    .collectList()
+                    .flatMap(results -> {
+                        messages.add(assistant);
+                        messages.addAll(results);
+                        return round(snapshot, specs, messages, round + 1);
+                    });
+        });
+    }
+
+    private Mono<ChatMessage> invoke(FunctionRegistry.Snapshot snapshot, ToolCall call) {
+        String function = call.getFunction() != null ? call.getFunction().getName() : null;
+        long start = System.nanoTime();
+        return Mono.defer(() -> {
+                    if (function == null || !isOffered(snapshot, function)) {
+                        return Mono.error(new IllegalArgumentException("Function not found: " + function));
+                    }
+                    Map<String, Object> args = arguments(call.getFunction().getArguments());
+                    return (executor != null ? executor : FunctionExecutor.getDefault()).call(snapshot, function, args);
+                })
+                .map(result -> {
+                    log.debug("[ToolCallingStep] {} 工具 {} 执行完成，耗时: {}ms", name, function,
+                            (System.nanoTime() - start) / 1_000_000);
+                    return ChatMessage.toolResult(call.getId(), function, serialize(result));
+                })
+                .defaultIfEmpty(ChatMessage.toolResult(call.getId(), function, ""))
+                .onErrorResume(e -> {
+                    log.warn("[ToolCallingStep] {} 工具 {} 执行失败: {}", name, function, e.getMessage());
+                    return Mono.just(ChatMessage.toolResult(call.getId(), function, "Error: " + errorMessage(e)));
+                });
+    }
+
+    private List<FunctionSpec> specs(FunctionRegistry.Snapshot snapshot) {
+        Collection<String> names = functionNames != null ? functionNames : snapshot.getRegisteredFunctions();
+        List<FunctionSpec> specs = new ArrayList<>(names.size());
+        for (String function : names) {
+            FunctionDescriptor descriptor = snapshot.getFunctionDescriptor(function);
+            if (descriptor == null) {
+                log.warn("[ToolCallingStep] {} 函数未注册，跳过: {}", name, function);
+                continue;
+            }
+            specs.add(FunctionSpecs.of(descriptor));
+        }
+        return specs;
+    }
+
+    private boolean isOffered(FunctionRegistry.Snapshot snapshot, String function) {
+        return snapshot.hasFunction(function) && (functionNames == null || functionNames.contains(function));
+    }
+
+    private static Map<String, Object> arguments(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            Map<String, Object> args = MAPPER.readValue(json, ARGUMENTS_TYPE);
+            return args != null ? args : Map.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Arguments are not a valid JSON object: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String serialize(Object result) {
+        if (result == null) {
+            return "";
+        }
+        if (result instanceof CharSequence text) {
+            return text.toString();
+        }
+        try {
+            return MAPPER.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            return result.toString();
+        }
+    }
+
+    // 包装异常的消息不含原因，取最内层的消息交给模型
+    private static String errorMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause && !(cause instanceof IllegalArgumentException)) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
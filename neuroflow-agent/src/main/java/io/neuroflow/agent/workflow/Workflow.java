@@ -1,5 +1,6 @@
 package io.neuroflow.agent.workflow;
 
+import io.neuroflow.agent.checkpoint.ExecutionCheckpoint;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -14,6 +15,13 @@ public interface Workflow {
     Mono<Object> execute(Map<String, Object> inputs);
     Flux<String> stream(Map<String, Object> inputs);
 
+    /**
+     * 从检查点执行，默认忽略已完成的步骤，按检查点中的输入从头执行
+     */
+    default Mono<Object> execute(ExecutionCheckpoint checkpoint) {
+        return execute(checkpoint.getInputs());
+    }
+
     // 获取工作流元数据
     WorkflowMetadata getMetadata();
 
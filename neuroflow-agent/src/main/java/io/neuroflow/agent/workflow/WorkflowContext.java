@@ -0,0 +1,99 @@
+package io.neuroflow.agent.workflow;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工作流执行上下文，供并发执行的步骤共享
+ *
+ * <p>基于 {@link ConcurrentHashMap}，读写不加锁，遍历和复制不会因其他步骤同时写入而抛出
+ * {@link java.util.ConcurrentModificationException}。与 ConcurrentHashMap 不同，允许 null 值
+ * （例如模型回复只有工具调用时写入的 output），内部以占位对象保存。
+ */
+public class WorkflowContext extends AbstractMap<String, Object> {
+    private static final Object NULL = new Object();
+
+    private final ConcurrentHashMap<String, Object> values = new ConcurrentHashMap<>();
+    private final Set<Entry<String, Object>> entrySet = new EntrySet();
+
+    public WorkflowContext() {
+    }
+
+    public WorkflowContext(Map<String, Object> initial) {
+        if (initial != null) {
+            putAll(initial);
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key == null ? null : unmask(values.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && values.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return unmask(values.put(key, value == null ? NULL : value));
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key == null ? null : unmask(values.remove(key));
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return entrySet;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL ? null : value;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            Iterator<Entry<String, Object>> it = values.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    Entry<String, Object> entry = it.next();
+                    return new SimpleImmutableEntry<>(entry.getKey(), unmask(entry.getValue()));
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+    }
+}
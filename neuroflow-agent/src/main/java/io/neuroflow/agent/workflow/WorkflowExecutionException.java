@@ -24,6 +24,7 @@ public class WorkflowExecutionException extends RuntimeException {
      */
     public enum ErrorType {
         WORKFLOW_NOT_FOUND,
+        EXECUTION_NOT_FOUND,
         STEP_EXECUTION_FAILED,
         TIMEOUT,
         INPUT_VALIDATION,
@@ -72,6 +73,14 @@ public class WorkflowExecutionException extends RuntimeException {
         );
     }
 
+    public static WorkflowExecutionException executionNotFound(String executionId) {
+        return new WorkflowExecutionException(
+                null, null, ErrorType.EXECUTION_NOT_FOUND,
+                "Execution not found or already completed: " + executionId,
+                Map.of("executionId", executionId), null
+        );
+    }
+
     public static WorkflowExecutionException stepFailure(String workflowId, String stepName,
                                                          String message, Map<String, Object> context,
                                                          Throwable cause) {
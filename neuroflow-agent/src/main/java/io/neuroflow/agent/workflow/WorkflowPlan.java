@@ -0,0 +1,90 @@
+package io.neuroflow.agent.workflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 工作流的步骤依赖图
+ *
+ * <p>按声明顺序比较每对步骤的 {@link Step#getInputs()} 和 {@link Step#getOutputs()}，后面的步骤在以下情况依赖前面的步骤：
+ * 读取了前者写入的键（例如提示词中的 {@code {{fetch_weather.output}}}）、两者写入同一个键、或者写入了前者读取的键。
+ * 键相同或一方是另一方的嵌套路径（{@code a.output} 与 {@code a.output.city}）即视为相同。
+ * 任一方的输入或输出无法确定时保守地认为存在依赖，因此未声明输入输出的自定义步骤仍按声明顺序执行。
+ */
+public final class WorkflowPlan {
+    private final List<Step> steps;
+    private final int[][] dependencies;
+
+    private WorkflowPlan(List<Step> steps, int[][] dependencies) {
+        this.steps = steps;
+        this.dependencies = dependencies;
+    }
+
+    public static WorkflowPlan of(List<Step> steps) {
+        int count = steps.size();
+        List<Set<String>> inputs = new ArrayList<>(count);
+        List<Set<String>> outputs = new ArrayList<>(count);
+        for (Step step : steps) {
+            inputs.add(step.getInputs());
+            outputs.add(step.getOutputs());
+        }
+        int[][] dependencies = new int[count][];
+        for (int i = 0; i < count; i++) {
+            List<Integer> deps = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (overlaps(inputs.get(i), outputs.get(j))
+                        || overlaps(outputs.get(i), outputs.get(j))
+                        || overlaps(outputs.get(i), inputs.get(j))) {
+                    deps.add(j);
+                }
+            }
+            dependencies[i] = deps.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new WorkflowPlan(List.copyOf(steps), dependencies);
+    }
+
+    // null 表示无法确定，视为与任何键重叠
+    private static boolean overlaps(Set<String> a, Set<String> b) {
+        if (a == null || b == null) {
+            return true;
+        }
+        for (String x : a) {
+            for (String y : b) {
+                if (x.equals(y) || x.startsWith(y + ".") || y.startsWith(x + ".")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * 第 index 个步骤直接依赖的步骤下标
+     */
+    public int[] getDependencies(int index) {
+        return dependencies[index].clone();
+    }
+
+    /**
+     * 步骤名到其直接依赖的步骤名
+     */
+    public Map<String, List<String>> describe() {
+        Map<String, List<String>> graph = new LinkedHashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            List<String> deps = new ArrayList<>(dependencies[i].length);
+            for (int j : dependencies[i]) {
+                deps.add(steps.get(j).getName());
+            }
+            graph.put(steps.get(i).getName(), Collections.unmodifiableList(deps));
+        }
+        return graph;
+    }
+}
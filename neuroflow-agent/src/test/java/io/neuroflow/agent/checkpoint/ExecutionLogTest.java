@@ -0,0 +1,226 @@
+package io.neuroflow.agent.checkpoint;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionLogTest {
+    private Path directory;
+    private ExecutionLog executionLog;
+    private Duration retention = Duration.ofDays(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("execution-log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (executionLog != null) {
+            executionLog.close();
+        }
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resumesCompletedStepsAfterRestart() throws IOException {
+        executionLog = open(64 * 1024);
+        ExecutionCheckpoint checkpoint = executionLog.start("e1", "wf", Map.of("query", "q"));
+        checkpoint.stepCompleted("search", Map.of("search.output", "hits"));
+        checkpoint.stepCompleted("answer", Map.of("answer.output", "done"));
+
+        ExecutionCheckpoint resumed = reopen(64 * 1024).resume("e1");
+
+        assertNotNull(resumed);
+        assertEquals("wf", resumed.getWorkflowId());
+        assertEquals(Set.of("search", "answer"), resumed.getCompletedSteps());
+        assertEquals("q", resumed.getContext().get("query"));
+        assertEquals("hits", resumed.getContext().get("search.output"));
+        assertEquals(Map.of("e1", "wf"), executionLog.getPendingExecutions());
+    }
+
+    @Test
+    void completedExecutionIsNotResumed() throws IOException {
+        executionLog = open(64 * 1024);
+        executionLog.start("e1", "wf", Map.of()).stepCompleted("a", Map.of("a.output", 1));
+        executionLog.complete("e1");
+
+        assertNull(reopen(64 * 1024).resume("e1"));
+        assertTrue(executionLog.getPendingExecutions().isEmpty());
+    }
+
+    @Test
+    void truncatesTornTailOnRecovery() throws IOException {
+        executionLog = open(64 * 1024);
+        executionLog.start("e1", "wf", Map.of()).stepCompleted("a", Map.of("a.output", 1));
+        executionLog.close();
+        Path segment = segments().get(0);
+        long valid = Files.size(segment);
+        // 写到一半的记录：长度声明 100 字节，实际只有 3 字节
+        Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        executionLog = open(64 * 1024);
+        assertEquals(valid, Files.size(segment));
+        ExecutionCheckpoint resumed = executionLog.resume("e1");
+        assertEquals(Set.of("a"), resumed.getCompletedSteps());
+
+        resumed.stepCompleted("b", Map.of("b.output", 2));
+        assertEquals(Set.of("a", "b"), reopen(64 * 1024).resume("e1").getCompletedSteps());
+    }
+
+    @Test
+    void compactionKeepsRunningExecutionsAndDeletesDeadSegments() throws IOException {
+        executionLog = open(512);
+        ExecutionCheckpoint running = executionLog.start("running", "wf", Map.of("query", "q"));
+        running.stepCompleted("first", Map.of("first.output", "x"));
+        for (int i = 0; i < 20; i++) {
+            executionLog.start("done-" + i, "wf", Map.of("i", i)).stepCompleted("a", Map.of("a.output", i));
+            executionLog.complete("done-" + i);
+        }
+        running.stepCompleted("second", Map.of("second.output", "y"));
+        executionLog.flush();
+        int before = executionLog.getStats().getSegmentCount();
+
+        executionLog.compact();
+        executionLog.compact();
+
+        assertTrue(executionLog.getStats().getSegmentCount() < before);
+        ExecutionCheckpoint resumed = reopen(512).resume("running");
+        assertEquals(Set.of("first", "second"), resumed.getCompletedSteps());
+        assertEquals("x", resumed.getContext().get("first.output"));
+        assertEquals(Map.of("running", "wf"), executionLog.getPendingExecutions());
+    }
+
+    @Test
+    void dropsSnapshotOfExecutionCompletedDuringCompaction() throws Exception {
+        executionLog = open(64 * 1024);
+        executionLog.start("e1", "wf", Map.of()).stepCompleted("a", Map.of("a.output", 1));
+        Object state = load("e1");
+        executionLog.complete("e1");
+
+        assertFalse(snapshot("e1", state));
+        assertTrue(executionLog.getPendingExecutions().isEmpty());
+        assertNull(reopen(64 * 1024).resume("e1"));
+    }
+
+    @Test
+    void dropsSnapshotOfExecutionRestartedDuringCompaction() throws Exception {
+        executionLog = open(64 * 1024);
+        executionLog.start("e1", "wf", Map.of("run", 1)).stepCompleted("a", Map.of("a.output", 1));
+        Object state = load("e1");
+        executionLog.start("e1", "wf", Map.of("run", 2));
+
+        assertFalse(snapshot("e1", state));
+        ExecutionCheckpoint resumed = reopen(64 * 1024).resume("e1");
+        assertEquals(2, resumed.getInputs().get("run"));
+        assertTrue(resumed.getCompletedSteps().isEmpty());
+    }
+
+    @Test
+    void rejectsAppendsAfterWriteFailure() throws IOException {
+        executionLog = open(256);
+        ExecutionCheckpoint checkpoint = executionLog.start("e1", "wf", Map.of());
+        executionLog.flush();
+        // 删除目录后切换分段时无法创建新文件
+        for (Path segment : segments()) {
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+        for (int i = 0; i < 10; i++) {
+            checkpoint.stepCompleted("step-" + i, Map.of("value", "x".repeat(32)));
+        }
+
+        assertThrows(IOException.class, executionLog::flush);
+        assertThrows(IllegalStateException.class, () -> executionLog.start("e2", "wf", Map.of()));
+        assertThrows(IOException.class, () -> executionLog.resume("e1"));
+    }
+
+    @Test
+    void compactionEndsExecutionsPastRetention() throws Exception {
+        executionLog = open(512);
+        executionLog.start("old", "wf", Map.of()).stepCompleted("a", Map.of("a.output", 1));
+        for (int i = 0; i < 20; i++) {
+            executionLog.start("done-" + i, "wf", Map.of("i", i));
+            executionLog.complete("done-" + i);
+        }
+        // 压缩时为 old 写快照，快照保留原来的开始时间
+        executionLog.compact();
+        assertTrue(executionLog.isPending("old"));
+
+        Thread.sleep(200);
+        retention = Duration.ofMillis(100);
+        reopen(512).start("new", "wf", Map.of());
+        executionLog.compact();
+
+        assertFalse(executionLog.isPending("old"));
+        assertTrue(executionLog.isPending("new"));
+        assertNull(reopen(512).resume("old"));
+        assertEquals(Map.of("new", "wf"), executionLog.getPendingExecutions());
+    }
+
+    private ExecutionLog open(long segmentBytes) throws IOException {
+        ExecutionLogSettings settings = new ExecutionLogSettings();
+        settings.setDirectory(directory.toString());
+        settings.setSegmentBytes(segmentBytes);
+        // 由测试显式触发写盘和压缩
+        settings.setFlushInterval(Duration.ofHours(1));
+        settings.setCompactionInterval(Duration.ofHours(1));
+        settings.setRetention(retention);
+        return new ExecutionLog(settings);
+    }
+
+    private ExecutionLog reopen(long segmentBytes) throws IOException {
+        executionLog.close();
+        executionLog = open(segmentBytes);
+        return executionLog;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    // 在读取状态和写入快照之间插入其他追加，模拟与压缩并发
+    private Object load(String executionId) throws Exception {
+        Method load = ExecutionLog.class.getDeclaredMethod("load", String.class);
+        load.setAccessible(true);
+        return load.invoke(executionLog, executionId);
+    }
+
+    private boolean snapshot(String executionId, Object state) throws Exception {
+        Method snapshot = ExecutionLog.class.getDeclaredMethod("snapshot", String.class, state.getClass());
+        snapshot.setAccessible(true);
+        try {
+            return (boolean) snapshot.invoke(executionLog, executionId, state);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
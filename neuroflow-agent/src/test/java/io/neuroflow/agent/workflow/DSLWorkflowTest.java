@@ -0,0 +1,81 @@
+package io.neuroflow.agent.workflow;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DSLWorkflowTest {
+
+    @Test
+    void independentStepsOverlapWhileDependentStepWaits() {
+        Map<String, Long> started = new ConcurrentHashMap<>();
+        Map<String, Long> finished = new ConcurrentHashMap<>();
+        DSLWorkflow workflow = new DSLWorkflow("overlap", null)
+                .step(new TimedStep("a", Set.of(), "a.output", started, finished))
+                .step(new TimedStep("b", Set.of(), "b.output", started, finished))
+                .step(new TimedStep("c", Set.of("a.output"), "output", started, finished));
+
+        Object output = workflow.execute(Map.of()).block(Duration.ofSeconds(5));
+
+        assertEquals("c", output);
+        // b 不依赖 a，在 a 完成前就已开始
+        assertTrue(started.get("b") < finished.get("a"));
+        // c 读取 a.output，等 a 完成后才开始
+        assertTrue(started.get("c") >= finished.get("a"));
+    }
+
+    private static final class TimedStep implements Step {
+        private final String name;
+        private final Set<String> inputs;
+        private final String output;
+        private final Map<String, Long> started;
+        private final Map<String, Long> finished;
+
+        TimedStep(String name, Set<String> inputs, String output, Map<String, Long> started, Map<String, Long> finished) {
+            this.name = name;
+            this.inputs = inputs;
+            this.output = output;
+            this.started = started;
+            this.finished = finished;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Mono<Map<String, Object>> execute(Map<String, Object> context) {
+            started.put(name, System.nanoTime());
+            return Mono.delay(Duration.ofMillis(200))
+                    .map(tick -> {
+                        context.put(output, name);
+                        finished.put(name, System.nanoTime());
+                        return Map.<String, Object>of("result", name);
+                    });
+        }
+
+        @Override
+        public Flux<String> stream(Map<String, Object> context) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Set<String> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public Set<String> getOutputs() {
+            return Set.of(output);
+        }
+    }
+}
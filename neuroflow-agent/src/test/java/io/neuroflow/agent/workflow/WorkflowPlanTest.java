@@ -0,0 +1,103 @@
+package io.neuroflow.agent.workflow;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkflowPlanTest {
+
+    @Test
+    void promptReadingEarlierOutputDependsOnIt() {
+        WorkflowPlan plan = WorkflowPlan.of(List.of(
+                new LLMCallStep("a", "天气：{{city}}", "model", null),
+                new LLMCallStep("b", "新闻：{{topic}}", "model", null),
+                new LLMCallStep("c", "总结：{{a.output}}", "model", null)));
+
+        assertArrayEquals(new int[0], plan.getDependencies(0));
+        assertArrayEquals(new int[0], plan.getDependencies(1));
+        assertArrayEquals(new int[]{0}, plan.getDependencies(2));
+        assertEquals(Map.of("a", List.of(), "b", List.of(), "c", List.of("a")), plan.describe());
+    }
+
+    @Test
+    void nestedPathOverlapsItsPrefix() {
+        WorkflowPlan plan = WorkflowPlan.of(List.of(
+                new LLMCallStep("a", "天气：{{city}}", "model", null),
+                new LLMCallStep("ab", "无关：{{topic}}", "model", null),
+                new LLMCallStep("c", "城市：{{a.output.city}}", "model", null)));
+
+        // ab.output 只是字符串前缀相同，不是 a.output 的嵌套路径
+        assertArrayEquals(new int[]{0}, plan.getDependencies(2));
+    }
+
+    @Test
+    void writeAfterReadAndWriteAfterWriteKeepDeclarationOrder() {
+        WorkflowPlan plan = WorkflowPlan.of(List.of(
+                new KeyStep("read", Set.of("shared"), Set.of("read.output")),
+                new KeyStep("overwrite", Set.of(), Set.of("shared")),
+                new KeyStep("rewrite", Set.of(), Set.of("shared.value")),
+                new KeyStep("other", Set.of(), Set.of("other.output"))));
+
+        assertArrayEquals(new int[]{0}, plan.getDependencies(1));
+        assertArrayEquals(new int[]{0, 1}, plan.getDependencies(2));
+        assertArrayEquals(new int[0], plan.getDependencies(3));
+    }
+
+    @Test
+    void stepWithUnknownKeysIsBarrier() {
+        WorkflowPlan plan = WorkflowPlan.of(List.of(
+                new KeyStep("a", Set.of(), Set.of("a.output")),
+                new KeyStep("b", Set.of(), Set.of("b.output")),
+                new KeyStep("unknown", null, null),
+                new KeyStep("c", Set.of(), Set.of("c.output")),
+                new KeyStep("d", Set.of(), Set.of("d.output"))));
+
+        assertArrayEquals(new int[]{0, 1}, plan.getDependencies(2));
+        assertArrayEquals(new int[]{2}, plan.getDependencies(3));
+        assertArrayEquals(new int[]{2}, plan.getDependencies(4));
+    }
+
+    private static final class KeyStep implements Step {
+        private final String name;
+        private final Set<String> inputs;
+        private final Set<String> outputs;
+
+        KeyStep(String name, Set<String> inputs, Set<String> outputs) {
+            this.name = name;
+            this.inputs = inputs;
+            this.outputs = outputs;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Mono<Map<String, Object>> execute(Map<String, Object> context) {
+            return Mono.just(Map.of());
+        }
+
+        @Override
+        public Flux<String> stream(Map<String, Object> context) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Set<String> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public Set<String> getOutputs() {
+            return outputs;
+        }
+    }
+}
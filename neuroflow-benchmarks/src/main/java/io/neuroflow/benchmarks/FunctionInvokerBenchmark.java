@@ -0,0 +1,110 @@
+package io.neuroflow.benchmarks;
+
+import io.neuroflow.core.function.DefaultValue;
+import io.neuroflow.core.function.FunctionDescriptor;
+import io.neuroflow.core.function.FunctionInvoker;
+import io.neuroflow.core.function.FunctionParameter;
+import io.neuroflow.core.function.Param;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 函数调用：预编译的 MethodHandle 调用器与逐次 {@link Method#invoke} 的对比
+ *
+ * <p>分别测量包含参数准备的完整调用和只有方法调用本身的开销，直接调用作为下限。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionInvokerBenchmark {
+    private WeatherFunctions target;
+    private Method method;
+    private List<FunctionParameter> parameters;
+    private FunctionInvoker invoker;
+    private Map<String, Object> args;
+    private Object[] values;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        target = new WeatherFunctions();
+        method = WeatherFunctions.class.getMethod("forecast", String.class, int.class, boolean.class);
+        parameters = new ArrayList<>();
+        for (var parameter : method.getParameters()) {
+            parameters.add(FunctionParameter.fromMethodParameter(parameter));
+        }
+        FunctionDescriptor descriptor = new FunctionDescriptor();
+        descriptor.setName("forecast");
+        descriptor.setMethod(method);
+        descriptor.setTarget(target);
+        descriptor.setParameters(parameters);
+        invoker = FunctionInvoker.compile(descriptor);
+        // 参数已是声明类型，两条路径都不需要转换
+        args = Map.of("city", "杭州", "days", 3, "metric", Boolean.TRUE);
+        values = invoker.prepare(args);
+    }
+
+    /**
+     * 改造前 FunctionRegistry 的做法：按参数列表逐个取值，再反射调用
+     */
+    @Benchmark
+    public Object reflectiveCall() throws Exception {
+        Object[] params = new Object[parameters.size()];
+        for (int i = 0; i < parameters.size(); i++) {
+            FunctionParameter parameter = parameters.get(i);
+            Object value = args.get(parameter.getName());
+            if (value == null && parameter.isRequired()) {
+                throw new IllegalArgumentException("Missing required parameter: " + parameter.getName());
+            }
+            if (value == null && parameter.getDefaultValue() != null) {
+                value = parameter.getDefaultValue();
+            }
+            params[i] = value;
+        }
+        return method.invoke(target, params);
+    }
+
+    @Benchmark
+    public Object compiledInvoker() throws Throwable {
+        return invoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object reflectiveInvokeOnly() throws Exception {
+        return method.invoke(target, values);
+    }
+
+    @Benchmark
+    public Object methodHandleInvokeOnly() throws Throwable {
+        return invoker.invoke(values);
+    }
+
+    @Benchmark
+    public Object directCall() {
+        return target.forecast((String) values[0], (Integer) values[1], (Boolean) values[2]);
+    }
+
+    public static class WeatherFunctions {
+        public String forecast(@Param(name = "city") String city,
+                               @Param(name = "days") int days,
+                               @Param(name = "metric") @DefaultValue("true") boolean metric) {
+            return city.length() + days + (metric ? "C" : "F");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.neuroflow.benchmarks;
+
+import io.neuroflow.agent.workflow.PromptTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 提示词渲染：预编译模板与逐个上下文键 {@code String.replace} 的对比
+ *
+ * <p>上下文中除模板用到的三个变量外，还有 contextSize 个前面步骤写入的无关键值，模拟工作流执行到后段的情况。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplateBenchmark {
+    private static final String PROMPT = """
+            你是一名资深的数据分析师。请根据以下检索结果回答用户的问题，引用时注明来源编号。
+
+            用户问题：{{query}}
+
+            检索结果：
+            {{search.output}}
+
+            用户偏好：{{user.profile}}
+            """;
+
+    @Param({"4", "32", "128"})
+    private int contextSize;
+
+    private Map<String, Object> context;
+    private PromptTemplate template;
+
+    @Setup
+    public void setUp() {
+        context = new HashMap<>();
+        context.put("query", "上季度华东区的销售额为什么下降？");
+        context.put("search.output", List.of("[1] 华东区 Q3 销售额同比下降 12%", "[2] 主要客户推迟了采购计划",
+                "[3] 竞品在 8 月降价 15%"));
+        context.put("user.profile", Map.of("language", "zh", "detail", "简洁"));
+        for (int i = 0; i < contextSize; i++) {
+            context.put("step" + i + ".output", Map.of("rows", i, "status", "ok", "note", "中间结果 " + i));
+        }
+        template = PromptTemplate.compile(PROMPT);
+    }
+
+    /**
+     * 改造前 LLMCallStep 的做法：每个上下文键都构造占位符、转字符串并扫描一遍提示词
+     */
+    @Benchmark
+    public String replaceEachKey() {
+        String result = PROMPT;
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            result = result.replace("{{" + entry.getKey() + "}}", String.valueOf(entry.getValue()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return template.render(context);
+    }
+
+    /**
+     * 每次渲染都重新编译，对应没有缓存模板的调用方
+     */
+    @Benchmark
+    public String compileAndRender() {
+        return PromptTemplate.compile(PROMPT).render(context);
+    }
+}
@@ -1,17 +1,49 @@
 package io.neuroflow.core;
 
+import io.neuroflow.core.batch.BatchSubmitter;
+import io.neuroflow.core.cache.Fingerprint;
+import io.neuroflow.core.cache.RequestCoalescer;
+import io.neuroflow.core.cache.ResponseCache;
 import io.neuroflow.core.client.ModelClient;
 import io.neuroflow.core.model.ModelRequest;
 import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.ratelimit.ProviderRateLimiter;
+import io.neuroflow.core.ratelimit.RateLimiterRegistry;
+import io.neuroflow.core.resilience.CallNotPermittedException;
+import io.neuroflow.core.resilience.CircuitBreaker;
+import io.neuroflow.core.resilience.CircuitBreakerRegistry;
+import io.neuroflow.core.resilience.Failures;
+import io.neuroflow.core.resilience.HedgingPolicy;
+import io.neuroflow.core.resilience.RetryPolicy;
+import io.neuroflow.core.scheduling.DeadlineExceededException;
+import io.neuroflow.core.scheduling.PriorityDispatcher;
+import io.neuroflow.core.token.TokenBudgetExceededException;
+import io.neuroflow.core.token.TokenBudgetPolicy;
+import io.neuroflow.core.token.TokenizerRegistry;
+import io.neuroflow.core.routing.AdaptiveRouter;
+import io.neuroflow.core.routing.ModelHealth;
+import io.neuroflow.core.routing.ModelHealthTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Component
 public class NeuroFlowGateway {
@@ -19,6 +51,20 @@ public class NeuroFlowGateway {
 
     private final Map<String, ModelClient> modelClients = new HashMap<>();
     private final List<String> modelPriority;
+    private ResponseCache responseCache;
+    private RequestCoalescer requestCoalescer;
+    private ModelHealthTracker healthTracker;
+    private AdaptiveRouter modelRouter;
+    private HedgingPolicy hedgingPolicy;
+    private Duration timeout;
+    private Map<String, Duration> clientTimeouts = Collections.emptyMap();
+    private RetryPolicy retryPolicy;
+    private CircuitBreakerRegistry circuitBreakers;
+    private RateLimiterRegistry rateLimiters;
+    private BatchSubmitter batchSubmitter;
+    private PriorityDispatcher dispatcher;
+    private TokenizerRegistry tokenizers;
+    private TokenBudgetPolicy tokenBudgetPolicy;
 
     public NeuroFlowGateway(Map<String, ModelClient> modelClients, List<String> modelPriority) {
         this.modelClients.putAll(modelClients);
@@ -26,35 +72,718 @@ public class NeuroFlowGateway {
         log.info("NeuroFlowGateway initialized with {} models", modelClients.size());
     }
 
+    /**
+     * 设置响应缓存，为 null 时关闭缓存
+     * @param responseCache 响应缓存
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * 设置在途请求合并器，为 null 时关闭合并
+     * @param requestCoalescer 请求合并器
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * 设置模型健康度跟踪，为 null 时不记录延迟和错误率
+     * @param healthTracker 模型健康度跟踪
+     */
+    public void setHealthTracker(ModelHealthTracker healthTracker) {
+        this.healthTracker = healthTracker;
+    }
+
+    public ModelHealthTracker getHealthTracker() {
+        return healthTracker;
+    }
+
+    /**
+     * 设置自适应路由，需要同时设置健康度跟踪；为 null 时按固定优先级选择模型
+     * @param modelRouter 自适应路由
+     */
+    public void setModelRouter(AdaptiveRouter modelRouter) {
+        this.modelRouter = modelRouter;
+    }
+
+    public AdaptiveRouter getModelRouter() {
+        return modelRouter;
+    }
+
+    /**
+     * 设置对冲请求策略，为 null 时关闭对冲。按延迟分位数对冲时需要同时设置健康度跟踪
+     * @param hedgingPolicy 对冲策略
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * 设置模型调用超时，为 null 时不限制。流式请求按相邻两个事件的间隔计算超时
+     * @param timeout 默认超时
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * 按模型客户端名称覆盖调用超时
+     * @param clientTimeouts 模型客户端名称到超时的映射
+     */
+    public void setClientTimeouts(Map<String, Duration> clientTimeouts) {
+        this.clientTimeouts = clientTimeouts != null ? Map.copyOf(clientTimeouts) : Collections.emptyMap();
+    }
+
+    /**
+     * 设置重试策略，为 null 时不重试
+     * @param retryPolicy 重试策略
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * 设置熔断器，为 null 时关闭熔断。熔断的模型在路由时被跳过，调用被拒绝时转移到下一个可用模型
+     * @param circuitBreakers 熔断器
+     */
+    public void setCircuitBreakers(CircuitBreakerRegistry circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * 设置提供方限流器，为 null 时不限流。超出限额的请求排队等待，不计入调用超时
+     * @param rateLimiters 提供方限流器
+     */
+    public void setRateLimiters(RateLimiterRegistry rateLimiters) {
+        this.rateLimiters = rateLimiters;
+    }
+
+    public RateLimiterRegistry getRateLimiters() {
+        return rateLimiters;
+    }
+
+    /**
+     * 设置离线批处理提交器，为 null 时不支持批处理
+     * @param batchSubmitter 批处理提交器
+     */
+    public void setBatchSubmitter(BatchSubmitter batchSubmitter) {
+        this.batchSubmitter = batchSubmitter;
+    }
+
+    public BatchSubmitter getBatchSubmitter() {
+        return batchSubmitter;
+    }
+
+    /**
+     * 设置优先级调度，为 null 时请求不排队直接发出。调度在限流之前，排队时间不计入调用超时
+     * @param dispatcher 优先级调度
+     */
+    public void setDispatcher(PriorityDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public PriorityDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * 设置本地分词器，用于限流的 token 估算；为 null 时按字符数近似估算
+     * @param tokenizers 分词器
+     */
+    public void setTokenizers(TokenizerRegistry tokenizers) {
+        this.tokenizers = tokenizers;
+    }
+
+    public TokenizerRegistry getTokenizers() {
+        return tokenizers;
+    }
+
+    /**
+     * 设置 token 预算策略，为 null 时不检查。超出预算的请求按策略拒绝或截断，不发给提供方
+     * @param tokenBudgetPolicy token 预算策略
+     */
+    public void setTokenBudgetPolicy(TokenBudgetPolicy tokenBudgetPolicy) {
+        this.tokenBudgetPolicy = tokenBudgetPolicy;
+    }
+
+    public TokenBudgetPolicy getTokenBudgetPolicy() {
+        return tokenBudgetPolicy;
+    }
+
+    /**
+     * 获取各模型的实时路由评分
+     * @return 路由评分，未启用自适应路由时返回空列表
+     */
+    public List<AdaptiveRouter.RouteScore> getRoutingScores() {
+        AdaptiveRouter router = this.modelRouter;
+        ModelHealthTracker tracker = this.healthTracker;
+        if (router == null || tracker == null) {
+            return Collections.emptyList();
+        }
+        return router.scores(modelClients.keySet(), tracker);
+    }
+
     public Mono<ModelResponse> execute(ModelRequest request) {
-        String model = selectModel(request.getModel());
+        String model = selectModel(request);
         log.info("[NeuroFlowGateway] 执行请求，模型: {}，原始请求模型: {}", model, request.getModel());
         log.debug("[NeuroFlowGateway] 请求详情: {}", request);
-        return modelClients.get(model).call(request)
+        ModelRequest budgeted;
+        try {
+            budgeted = applyTokenBudget(model, request);
+        } catch (TokenBudgetExceededException e) {
+            return Mono.error(e);
+        }
+        return execute(model, budgeted);
+    }
+
+    private Mono<ModelResponse> execute(String model, ModelRequest request) {
+        ResponseCache cache = this.responseCache;
+        RequestCoalescer coalescer = this.requestCoalescer;
+        boolean cacheable = cache != null && cache.isCacheable(request);
+        if (!cacheable && coalescer == null) {
+            return withDeadline(model, request, hedgedCall(model, request));
+        }
+
+        String key = requestKey(model, request);
+        if (cacheable) {
+            ModelResponse cached = cache.get(key);
+            if (cached != null) {
+                log.info("[NeuroFlowGateway] 命中响应缓存，模型: {}，响应ID: {}", model, cached.getId());
+                return Mono.just(cached);
+            }
+        }
+        // 只有真正发出上游调用的一方写缓存
+        Supplier<Mono<ModelResponse>> upstream = cacheable
+                ? () -> hedgedCall(model, request).doOnNext(resp -> cache.put(key, resp))
+                : () -> hedgedCall(model, request);
+        return withDeadline(model, request, coalescer != null ? coalescer.call(key, upstream) : upstream.get());
+    }
+
+    /**
+     * 请求设置了截止时间时，以剩余时间作为整个请求（含排队、重试和对冲）的超时
+     */
+    private Mono<ModelResponse> withDeadline(String model, ModelRequest request, Mono<ModelResponse> response) {
+        Instant deadline = request.getDeadline();
+        if (deadline == null) {
+            return response;
+        }
+        return Mono.defer(() -> {
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            if (remaining.isZero() || remaining.isNegative()) {
+                return Mono.error(new DeadlineExceededException(model, deadline));
+            }
+            return response.timeout(remaining, Mono.error(() -> new DeadlineExceededException(model, deadline)));
+        });
+    }
+
+    private Flux<StreamEvent> withDeadline(String model, ModelRequest request, Flux<StreamEvent> events) {
+        Instant deadline = request.getDeadline();
+        if (deadline == null) {
+            return events;
+        }
+        return Flux.defer(() -> {
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            if (remaining.isZero() || remaining.isNegative()) {
+                return Flux.error(new DeadlineExceededException(model, deadline));
+            }
+            // 每个事件后按剩余时间重新计时，等价于整个流的总超时
+            return events.timeout(Mono.delay(remaining),
+                    event -> Mono.delay(Duration.between(Instant.now(), deadline)),
+                    Flux.error(() -> new DeadlineExceededException(model, deadline)));
+        });
+    }
+
+    /**
+     * 以离线批处理方式执行请求，适合没有延迟要求的大量请求。
+     * 请求不经过路由、缓存和限流，直接交给批处理提供方，model 需为提供方的模型名称
+     * @param request 模型请求
+     * @return 批处理结束后的响应，订阅时入队
+     */
+    public Mono<ModelResponse> submitBatch(ModelRequest request) {
+        BatchSubmitter submitter = this.batchSubmitter;
+        if (submitter == null) {
+            return Mono.error(new IllegalStateException("Batch submission is not enabled"));
+        }
+        log.debug("[NeuroFlowGateway] 批处理请求，模型: {}", request.getModel());
+        return submitter.submit(request);
+    }
+
+    /**
+     * 以离线批处理方式执行一组请求
+     * @param requests 模型请求
+     * @return 与请求一一对应的响应
+     */
+    public List<Mono<ModelResponse>> submitBatch(List<ModelRequest> requests) {
+        List<Mono<ModelResponse>> responses = new ArrayList<>(requests.size());
+        for (ModelRequest request : requests) {
+            responses.add(submitBatch(request));
+        }
+        return responses;
+    }
+
+    /**
+     * 按对冲策略发出请求：主请求发出后超过对冲延迟未返回时再发出一个对冲请求，先返回的结果生效，
+     * 另一个请求被取消。主请求在对冲延迟内失败时直接返回错误，不再对冲。对冲延迟从主请求通过调度和限流、
+     * 真正发给提供方时开始计算，排队时间不会触发对冲。
+     */
+    private Mono<ModelResponse> hedgedCall(String model, ModelRequest request) {
+        HedgingPolicy policy = this.hedgingPolicy;
+        if (policy == null) {
+            return resilientCall(model, request);
+        }
+        return Mono.defer(() -> {
+            ModelHealthTracker tracker = this.healthTracker;
+            Duration delay = policy.delayFor(tracker != null ? tracker.get(model) : null);
+            policy.onRequest();
+            if (delay == null) {
+                return resilientCall(model, request);
+            }
+
+            String hedgeModel = policy.isAlternateModel() ? alternateModel(model, request) : model;
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primarySent = Sinks.one();
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            Mono<ModelResponse> primary = resilientCall(model, request, () -> primarySent.tryEmitValue(Boolean.TRUE))
+                    .doOnError(e -> {
+                        primaryError.set(e);
+                        primaryFailed.tryEmitValue(Boolean.TRUE);
+                    });
+            Mono<ModelResponse> hedge = primarySent.asMono()
+                    .flatMap(sent -> Mono.delay(delay))
+                    .takeUntilOther(primaryFailed.asMono())
+                    .filter(tick -> policy.tryHedge())
+                    .flatMap(tick -> {
+                        log.info("[NeuroFlowGateway] 请求超过 {}ms 未返回，发出对冲请求，模型: {} -> {}",
+                                delay.toMillis(), model, hedgeModel);
+                        return resilientCall(hedgeModel, request).doOnNext(resp -> policy.onHedgeWin());
+                    });
+            // 两个请求都失败时返回主请求的错误
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    /**
+     * 选择对冲请求的备选模型：请求指定了模型时仍使用原模型，否则在等价模型组或优先级列表中选择另一个模型
+     */
+    private String alternateModel(String model, ModelRequest request) {
+        List<String> candidates = new ArrayList<>(available(request.getEquivalentModels()));
+        if (candidates.isEmpty()) {
+            String preferredModel = request.getModel();
+            if (preferredModel != null && isAvailable(preferredModel)) {
+                return model;
+            }
+            candidates.addAll(available(modelPriority));
+        }
+        candidates.remove(model);
+        if (candidates.isEmpty()) {
+            return model;
+        }
+        AdaptiveRouter router = this.modelRouter;
+        ModelHealthTracker tracker = this.healthTracker;
+        return router != null && tracker != null ? router.select(candidates, tracker) : candidates.get(0);
+    }
+
+    /**
+     * 带重试和故障转移的调用：瞬时故障按重试策略重试，熔断器拒绝调用时转移到下一个可用模型
+     */
+    private Mono<ModelResponse> resilientCall(String model, ModelRequest request) {
+        return resilientCall(model, request, null);
+    }
+
+    /**
+     * @param onSend 每次调用通过调度、限流和熔断器、真正发给提供方时执行，可为 null
+     */
+    private Mono<ModelResponse> resilientCall(String model, ModelRequest request, Runnable onSend) {
+        return Mono.defer(() -> resilientCall(model, request, new HashSet<>(), onSend));
+    }
+
+    private Mono<ModelResponse> resilientCall(String model, ModelRequest request, Set<String> tried, Runnable onSend) {
+        RetryPolicy retry = this.retryPolicy;
+        Mono<ModelResponse> attempt = call(model, request, onSend);
+        if (retry != null) {
+            Mono<ModelResponse> once = attempt;
+            attempt = Mono.defer(() -> {
+                retry.onRequest();
+                return once.retryWhen(retry.toRetry(model));
+            });
+        }
+        return attempt.onErrorResume(CallNotPermittedException.class, e -> {
+            String next = failoverModel(model, request, tried);
+            return next != null ? resilientCall(next, request, tried, onSend) : Mono.error(e);
+        });
+    }
+
+    /**
+     * 依次经过熔断器预检、优先级调度、限流和熔断器许可后发出调用。熔断器许可和健康统计的计时都在通过调度和限流之后
+     * 才开始，排队时间不计入模型延迟，半开状态的探测许可也不会被排队中的请求占住
+     */
+    private Mono<ModelResponse> call(String model, ModelRequest request, Runnable onSend) {
+        Mono<ModelResponse> response = modelClients.get(model).call(request);
+        Duration callTimeout = timeoutFor(model);
+        if (callTimeout != null) {
+            response = response.timeout(callTimeout);
+        }
+        ModelHealthTracker tracker = this.healthTracker;
+        if (tracker != null) {
+            ModelHealth health = tracker.get(model);
+            Mono<ModelResponse> untracked = response;
+            response = Mono.defer(() -> {
+                health.onStart();
+                long start = System.nanoTime();
+                return untracked.doFinally(signal -> {
+                    switch (signal) {
+                        case ON_COMPLETE -> health.onSuccess(System.nanoTime() - start);
+                        case ON_ERROR -> health.onFailure(System.nanoTime() - start);
+                        default -> health.onCancel();
+                    }
+                });
+            });
+        }
+        if (onSend != null) {
+            Mono<ModelResponse> unsent = response;
+            response = Mono.defer(() -> {
+                onSend.run();
+                return unsent;
+            });
+        }
+        response = guard(model, response);
+        ProviderRateLimiter limiter = rateLimiters != null ? rateLimiters.get(model) : null;
+        if (limiter != null) {
+            long estimatedTokens = estimateTokens(model, request);
+            response = limiter.acquire(estimatedTokens).then(response
+                    .doOnNext(resp -> limiter.onResponse(resp.getRateLimitHeaders(), estimatedTokens,
+                            resp.getUsage() != null ? resp.getUsage().getTotalTokens() : null))
+                    .doOnError(limiter::onError));
+        }
+        PriorityDispatcher priorityDispatcher = this.dispatcher;
+        if (priorityDispatcher != null) {
+            response = priorityDispatcher.dispatch(model, request, response);
+        }
+        return rejectIfOpen(model, response)
                 .doOnSuccess(resp -> log.info("[NeuroFlowGateway] 请求执行成功，模型: {}，响应ID: {}", model, resp.getId()))
                 .doOnError(e -> log.error("[NeuroFlowGateway] 请求执行失败，模型: {}", model, e));
     }
 
+    /**
+     * 熔断器已打开时不进入调度队列，直接拒绝以便尽快转移到其他模型；不占用许可
+     */
+    private Mono<ModelResponse> rejectIfOpen(String model, Mono<ModelResponse> response) {
+        CircuitBreakerRegistry breakers = this.circuitBreakers;
+        if (breakers == null) {
+            return response;
+        }
+        CircuitBreaker breaker = breakers.get(model);
+        return Mono.defer(() -> breaker.isCallPermitted() ? response : Mono.error(new CallNotPermittedException(model)));
+    }
+
+    /**
+     * 在熔断器许可下发出调用，瞬时故障计入熔断器，其他错误和取消只释放许可
+     */
+    private Mono<ModelResponse> guard(String model, Mono<ModelResponse> response) {
+        CircuitBreakerRegistry breakers = this.circuitBreakers;
+        if (breakers == null) {
+            return response;
+        }
+        CircuitBreaker breaker = breakers.get(model);
+        return Mono.defer(() -> {
+            long permit = breaker.tryAcquire();
+            if (permit < 0) {
+                return Mono.error(new CallNotPermittedException(model));
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return response
+                    .doOnSuccess(resp -> {
+                        if (released.compareAndSet(false, true)) {
+                            breaker.onSuccess(permit);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            onBreakerError(breaker, permit, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            breaker.onIgnored(permit);
+                        }
+                    });
+        });
+    }
+
+    private Flux<StreamEvent> guardStream(String model, Flux<StreamEvent> events) {
+        CircuitBreakerRegistry breakers = this.circuitBreakers;
+        if (breakers == null) {
+            return events;
+        }
+        CircuitBreaker breaker = breakers.get(model);
+        return Flux.defer(() -> {
+            long permit = breaker.tryAcquire();
+            if (permit < 0) {
+                return Flux.error(new CallNotPermittedException(model));
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return events
+                    .doOnComplete(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            breaker.onSuccess(permit);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            onBreakerError(breaker, permit, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            breaker.onIgnored(permit);
+                        }
+                    });
+        });
+    }
+
+    private void onBreakerError(CircuitBreaker breaker, long permit, Throwable error) {
+        if (Failures.isTransient(error)) {
+            breaker.onFailure(permit);
+        } else {
+            breaker.onIgnored(permit);
+        }
+    }
+
+    /**
+     * 选择故障转移的目标模型：在等价模型组或优先级列表中选择下一个未尝试过且未熔断的模型
+     * @return 目标模型，没有可用模型时返回 null
+     */
+    private String failoverModel(String model, ModelRequest request, Set<String> tried) {
+        tried.add(model);
+        List<String> candidates = available(request.getEquivalentModels());
+        if (candidates.isEmpty()) {
+            candidates = available(modelPriority);
+        }
+        for (String candidate : candidates) {
+            if (!tried.contains(candidate)) {
+                log.warn("[NeuroFlowGateway] 模型 {} 已熔断，转移到模型: {}", model, candidate);
+                return candidate;
+            }
+        }
+        log.warn("[NeuroFlowGateway] 模型 {} 已熔断，没有可转移的模型", model);
+        return null;
+    }
+
+    private Duration timeoutFor(String model) {
+        Duration clientTimeout = clientTimeouts.get(model);
+        Duration effective = clientTimeout != null ? clientTimeout : this.timeout;
+        return effective != null && !effective.isZero() && !effective.isNegative() ? effective : null;
+    }
+
     public Flux<String> stream(ModelRequest request) {
-        String model = selectModel(request.getModel());
+        return streamEvents(request)
+                .filter(StreamEvent::hasContent)
+                .map(StreamEvent::getContent);
+    }
+
+    /**
+     * 类型化流式请求，返回文本增量、结束原因、usage 和函数调用片段
+     * @param request 模型请求
+     * @return 增量事件流
+     */
+    public Flux<StreamEvent> streamEvents(ModelRequest request) {
+        String model = selectModel(request);
         log.info("[NeuroFlowGateway] 流式请求，模型: {}，原始请求模型: {}", model, request.getModel());
         log.debug("[NeuroFlowGateway] 流式请求详情: {}", request);
-        return modelClients.get(model).stream(request)
-                .doOnNext(token -> log.debug("[NeuroFlowGateway] 流式响应: {} -> {}", model, token))
+        ModelRequest budgeted;
+        try {
+            budgeted = applyTokenBudget(model, request);
+        } catch (TokenBudgetExceededException e) {
+            return Flux.error(e);
+        }
+        return streamEvents(model, budgeted);
+    }
+
+    private Flux<StreamEvent> streamEvents(String model, ModelRequest request) {
+        RequestCoalescer coalescer = this.requestCoalescer;
+        if (coalescer == null) {
+            return withDeadline(model, request, resilientStream(model, request));
+        }
+        return withDeadline(model, request,
+                coalescer.stream(requestKey(model, request), () -> resilientStream(model, request)));
+    }
+
+    /**
+     * 流式请求已经输出的内容无法撤回，因此不重试，只在熔断器拒绝调用时转移到下一个可用模型
+     */
+    private Flux<StreamEvent> resilientStream(String model, ModelRequest request) {
+        return Flux.defer(() -> resilientStream(model, request, new HashSet<>()));
+    }
+
+    private Flux<StreamEvent> resilientStream(String model, ModelRequest request, Set<String> tried) {
+        return callStream(model, request).onErrorResume(CallNotPermittedException.class, e -> {
+            String next = failoverModel(model, request, tried);
+            return next != null ? resilientStream(next, request, tried) : Flux.error(e);
+        });
+    }
+
+    private Flux<StreamEvent> callStream(String model, ModelRequest request) {
+        Flux<StreamEvent> events = modelClients.get(model).streamEvents(request);
+        Duration eventTimeout = timeoutFor(model);
+        if (eventTimeout != null) {
+            events = events.timeout(eventTimeout);
+        }
+        ModelHealthTracker tracker = this.healthTracker;
+        if (tracker != null) {
+            // 流式请求的总耗时取决于输出长度，延迟按首个事件到达时间记录
+            ModelHealth health = tracker.get(model);
+            Flux<StreamEvent> untracked = events;
+            events = Flux.defer(() -> {
+                health.onStart();
+                long start = System.nanoTime();
+                long[] firstEvent = {-1L};
+                return untracked
+                        .doOnNext(event -> {
+                            if (firstEvent[0] < 0) {
+                                firstEvent[0] = System.nanoTime() - start;
+                            }
+                        })
+                        .doFinally(signal -> {
+                            switch (signal) {
+                                case ON_COMPLETE -> health.onSuccess(firstEvent[0] >= 0 ? firstEvent[0] : System.nanoTime() - start);
+                                case ON_ERROR -> health.onFailure(System.nanoTime() - start);
+                                default -> health.onCancel();
+                            }
+                        });
+            });
+        }
+        events = guardStream(model, events);
+        ProviderRateLimiter limiter = rateLimiters != null ? rateLimiters.get(model) : null;
+        if (limiter != null) {
+            long estimatedTokens = estimateTokens(model, request);
+            events = limiter.acquire(estimatedTokens).thenMany(events
+                    .doOnNext(event -> {
+                        if (event.getUsage() != null && event.getUsage().getTotalTokens() != null) {
+                            limiter.onResponse(null, estimatedTokens, event.getUsage().getTotalTokens());
+                        }
+                    })
+                    .doOnError(limiter::onError));
+        }
+        PriorityDispatcher priorityDispatcher = this.dispatcher;
+        if (priorityDispatcher != null) {
+            events = priorityDispatcher.dispatchMany(model, request, events);
+        }
+        CircuitBreakerRegistry breakers = this.circuitBreakers;
+        if (breakers != null) {
+            CircuitBreaker breaker = breakers.get(model);
+            Flux<StreamEvent> admitted = events;
+            events = Flux.defer(() -> breaker.isCallPermitted() ? admitted : Flux.error(new CallNotPermittedException(model)));
+        }
+        return events
+                .doOnNext(event -> log.debug("[NeuroFlowGateway] 流式响应: {} -> {}", model, event))
                 .doOnComplete(() -> log.info("[NeuroFlowGateway] 流式请求完成，模型: {}", model))
                 .doOnError(e -> log.error("[NeuroFlowGateway] 流式请求失败，模型: {}", model, e));
     }
 
+    /**
+     * 请求指纹，路由后的模型名称参与计算，缓存和请求合并共用
+     */
+    private String requestKey(String model, ModelRequest request) {
+        return Fingerprint.of(model, request);
+    }
+
+    private ModelRequest applyTokenBudget(String model, ModelRequest request) {
+        TokenBudgetPolicy policy = this.tokenBudgetPolicy;
+        return policy != null ? policy.apply(model, request) : request;
+    }
+
+    private long estimateTokens(String model, ModelRequest request) {
+        TokenizerRegistry registry = this.tokenizers;
+        return registry != null
+                ? ProviderRateLimiter.estimateTokens(request, registry.forRequest(model, request))
+                : ProviderRateLimiter.estimateTokens(request);
+    }
+
+    /**
+     * 选择模型：请求指定了等价模型组时在组内选择，否则使用偏好模型，偏好模型不可用时按优先级列表选择。
+     * 启用自适应路由时在候选模型中选择代价最低的一个，否则取第一个候选模型。
+     */
+    private String selectModel(ModelRequest request) {
+        List<String> equivalents = available(request.getEquivalentModels());
+        AdaptiveRouter router = this.modelRouter;
+        ModelHealthTracker tracker = this.healthTracker;
+        if (router == null || tracker == null) {
+            return selectModel(equivalents.isEmpty() ? request.getModel() : equivalents.get(0));
+        }
+
+        List<String> candidates = equivalents;
+        if (candidates.isEmpty()) {
+            String preferredModel = request.getModel();
+            candidates = preferredModel != null && isAvailable(preferredModel)
+                    ? List.of(preferredModel)
+                    : available(modelPriority);
+        }
+        if (candidates.isEmpty()) {
+            return selectModel(request.getModel());
+        }
+        String model = router.select(candidates, tracker);
+        log.info("[NeuroFlowGateway] 自适应路由选择模型: {}，候选模型: {}", model, candidates);
+        return model;
+    }
+
+    private List<String> available(List<String> models) {
+        if (models == null || models.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> available = new ArrayList<>(models.size());
+        for (String model : models) {
+            if (isAvailable(model) && !available.contains(model)) {
+                available.add(model);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * 模型客户端存在且熔断器未打开
+     */
+    private boolean isAvailable(String model) {
+        if (!modelClients.containsKey(model)) {
+            return false;
+        }
+        CircuitBreakerRegistry breakers = this.circuitBreakers;
+        return breakers == null || breakers.get(model).isCallPermitted();
+    }
+
     private String selectModel(String preferredModel) {
         log.debug("[NeuroFlowGateway] 选择模型，偏好模型: {}，可用模型: {}", preferredModel, modelClients.keySet());
         
-        if (preferredModel != null && modelClients.containsKey(preferredModel)) {
+        if (preferredModel != null && isAvailable(preferredModel)) {
             log.info("[NeuroFlowGateway] 使用偏好模型: {}", preferredModel);
             return preferredModel;
         }
 
         for (String model : modelPriority) {
-            if (modelClients.containsKey(model)) {
+            if (isAvailable(model)) {
                 log.info("[NeuroFlowGateway] 按优先级选择模型: {} (偏好模型 {} 不可用)", model, preferredModel);
                 return model;
             }
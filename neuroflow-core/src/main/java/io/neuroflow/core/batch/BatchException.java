@@ -0,0 +1,22 @@
+package io.neuroflow.core.batch;
+
+/**
+ * 批处理任务失败，或单个请求在批处理中失败
+ */
+public class BatchException extends RuntimeException {
+    private final String batchId;
+
+    public BatchException(String batchId, String message) {
+        super(message);
+        this.batchId = batchId;
+    }
+
+    public BatchException(String batchId, String message, Throwable cause) {
+        super(message, cause);
+        this.batchId = batchId;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+}
@@ -0,0 +1,174 @@
+package io.neuroflow.core.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import io.neuroflow.core.client.codec.LineSplitter;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批处理 JSONL 文件的读写
+ *
+ * <p>请求体和响应体按提供方接口格式使用 snake_case 字段名。
+ */
+public final class BatchFiles {
+    public static final String CHAT_COMPLETIONS_URL = "/v1/chat/completions";
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private BatchFiles() {
+    }
+
+    /**
+     * 写入批处理请求文件
+     * @param file 目标文件
+     * @param requests custom_id 到请求的映射
+     */
+    public static void writeRequests(Path file, Map<String, ModelRequest> requests) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (Map.Entry<String, ModelRequest> entry : requests.entrySet()) {
+                try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out)) {
+                    gen.writeStartObject();
+                    gen.writeStringField("custom_id", entry.getKey());
+                    gen.writeStringField("method", "POST");
+                    gen.writeStringField("url", CHAT_COMPLETIONS_URL);
+                    gen.writeFieldName("body");
+                    MAPPER.writeValue(gen, entry.getValue());
+                    gen.writeEndObject();
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 读取批处理请求文件
+     * @param file 请求文件
+     * @return custom_id 与请求，保持文件顺序
+     */
+    public static List<Map.Entry<String, ModelRequest>> readRequests(Path file) throws IOException {
+        List<Map.Entry<String, ModelRequest>> requests = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = MAPPER.readTree(line);
+                requests.add(Map.entry(node.path("custom_id").asText(),
+                        MAPPER.treeToValue(node.path("body"), ModelRequest.class)));
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * 把单个请求的结果写成一行结果 JSON，格式与 OpenAI Batch API 的输出文件相同
+     * @param out 输出流
+     * @param result 结果
+     */
+    public static void writeResult(OutputStream out, BatchResult result) throws IOException {
+        try (JsonGenerator gen = MAPPER.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("custom_id", result.getCustomId());
+            if (result.isSuccess()) {
+                gen.writeObjectFieldStart("response");
+                gen.writeNumberField("status_code", 200);
+                gen.writeFieldName("body");
+                MAPPER.writeValue(gen, result.getResponse());
+                gen.writeEndObject();
+                gen.writeNullField("error");
+            } else {
+                gen.writeNullField("response");
+                gen.writeObjectFieldStart("error");
+                gen.writeStringField("message", result.getError());
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+        out.write('\n');
+    }
+
+    /**
+     * 解析一行结果 JSON。非 2xx 响应和 error 字段都视为该请求失败
+     */
+    public static BatchResult parseResult(byte[] buf, int off, int len) throws IOException {
+        JsonNode node = MAPPER.readTree(buf, off, len);
+        String customId = node.path("custom_id").asText(null);
+        JsonNode error = node.path("error");
+        if (!error.isMissingNode() && !error.isNull()) {
+            return BatchResult.failure(customId, error.path("message").asText(error.toString()));
+        }
+        JsonNode response = node.path("response");
+        int statusCode = response.path("status_code").asInt(200);
+        JsonNode body = response.path("body");
+        if (statusCode / 100 != 2) {
+            String message = body.path("error").path("message").asText("HTTP " + statusCode);
+            return BatchResult.failure(customId, message);
+        }
+        try {
+            return BatchResult.success(customId, MAPPER.treeToValue(body, ModelResponse.class));
+        } catch (JsonProcessingException e) {
+            return BatchResult.failure(customId, "Unparseable response body: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * 把结果文件的字节流逐行解析为结果，不把整个文件读入内存
+     * @param content 结果文件内容
+     * @return 逐条结果
+     */
+    public static Flux<BatchResult> parseResults(Flux<DataBuffer> content) {
+        return Flux.defer(() -> {
+            LineSplitter lines = new LineSplitter();
+            return content.concatMapIterable(buffer -> {
+                List<BatchResult> results = new ArrayList<>();
+                try {
+                    lines.feed(buffer, (b, off, len) -> addResult(b, off, len, results));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to parse batch results", e);
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+                return results;
+            }).concatWith(Flux.defer(() -> {
+                List<BatchResult> results = new ArrayList<>(1);
+                try {
+                    lines.finish((b, off, len) -> addResult(b, off, len, results));
+                } catch (IOException e) {
+                    return Flux.error(new UncheckedIOException("Failed to parse batch results", e));
+                }
+                return Flux.fromIterable(results);
+            }));
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static void addResult(byte[] buf, int off, int len, List<BatchResult> results) throws IOException {
+        if (len > 0) {
+            results.add(parseResult(buf, off, len));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.neuroflow.core.batch;
+
+import java.util.Locale;
+
+/**
+ * 批处理任务状态
+ */
+public class BatchJob {
+
+    public enum Status {
+        VALIDATING, IN_PROGRESS, FINALIZING, COMPLETED, FAILED, EXPIRED, CANCELLING, CANCELLED;
+
+        /**
+         * 按 OpenAI Batch API 的状态字符串转换，未知状态视为处理中
+         */
+        public static Status of(String value) {
+            if (value == null) {
+                return IN_PROGRESS;
+            }
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return IN_PROGRESS;
+            }
+        }
+    }
+
+    private String id;
+    private Status status;
+    private String outputFileId;
+    private String errorFileId;
+    private int totalCount;
+    private int completedCount;
+    private int failedCount;
+
+    public BatchJob() {
+    }
+
+    public BatchJob(String id, Status status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    /**
+     * @return 任务已结束（完成、失败、过期或取消），不会再变化
+     */
+    public boolean isTerminal() {
+        return status == Status.COMPLETED || status == Status.FAILED
+                || status == Status.EXPIRED || status == Status.CANCELLED;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getOutputFileId() { return outputFileId; }
+    public void setOutputFileId(String outputFileId) { this.outputFileId = outputFileId; }
+    public String getErrorFileId() { return errorFileId; }
+    public void setErrorFileId(String errorFileId) { this.errorFileId = errorFileId; }
+    public int getTotalCount() { return totalCount; }
+    public void setTotalCount(int totalCount) { this.totalCount = totalCount; }
+    public int getCompletedCount() { return completedCount; }
+    public void setCompletedCount(int completedCount) { this.completedCount = completedCount; }
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    @Override
+    public String toString() {
+        return "BatchJob{id='" + id + "', status=" + status + ", total=" + totalCount
+                + ", completed=" + completedCount + ", failed=" + failedCount + '}';
+    }
+}
@@ -0,0 +1,44 @@
+package io.neuroflow.core.batch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+
+/**
+ * 批处理提供方 SPI
+ *
+ * <p>批处理文件为 JSONL，每行一个请求，格式与 OpenAI Batch API 相同：
+ * <pre>
+ * {"custom_id": "req-1", "method": "POST", "url": "/v1/chat/completions", "body": {...}}
+ * </pre>
+ * 结果按 {@code custom_id} 与请求对应，顺序不保证与输入一致。
+ */
+public interface BatchProvider {
+
+    /**
+     * @return 提供方名称
+     */
+    String getName();
+
+    /**
+     * 提交批处理文件
+     * @param batchFile JSONL 批处理文件，返回的 Mono 结束后即可删除
+     * @return 已创建的批处理任务
+     */
+    Mono<BatchJob> submit(Path batchFile);
+
+    /**
+     * 查询批处理任务状态
+     * @param batchId 批处理任务ID
+     * @return 最新的任务状态
+     */
+    Mono<BatchJob> status(String batchId);
+
+    /**
+     * 读取已结束任务的结果，包括成功结果和单个请求的错误
+     * @param job 已结束的批处理任务
+     * @return 逐条结果
+     */
+    Flux<BatchResult> results(BatchJob job);
+}
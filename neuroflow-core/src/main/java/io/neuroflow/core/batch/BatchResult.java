@@ -0,0 +1,34 @@
+package io.neuroflow.core.batch;
+
+import io.neuroflow.core.model.ModelResponse;
+
+/**
+ * 批处理中单个请求的结果
+ */
+public class BatchResult {
+    private final String customId;
+    private final ModelResponse response;
+    private final String error;
+
+    private BatchResult(String customId, ModelResponse response, String error) {
+        this.customId = customId;
+        this.response = response;
+        this.error = error;
+    }
+
+    public static BatchResult success(String customId, ModelResponse response) {
+        return new BatchResult(customId, response, null);
+    }
+
+    public static BatchResult failure(String customId, String error) {
+        return new BatchResult(customId, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null && response != null;
+    }
+
+    public String getCustomId() { return customId; }
+    public ModelResponse getResponse() { return response; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,255 @@
+package io.neuroflow.core.batch;
+
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 离线批处理提交器
+ *
+ * <p>收集没有延迟要求的请求，攒够 {@code maxBatchSize} 条或每隔 {@code flushInterval} 写成一个 JSONL 批处理文件
+ * 交给 {@link BatchProvider}，之后按 {@code pollInterval} 轮询任务状态，任务结束后按 custom_id
+ * 把结果分发回每个请求各自的 Mono。批处理不占用在线请求的连接和限额，提供方通常也按更低的价格计费。
+ *
+ * <p>请求在订阅时入队；已经写入批处理文件前取消的请求会从缓冲区移除，之后取消只会丢弃结果。
+ */
+public class BatchSubmitter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BatchSubmitter.class);
+
+    private final BatchProvider provider;
+    private final Path workDirectory;
+    private final int maxBatchSize;
+    private final Duration pollInterval;
+    private final Duration maxWait;
+    private final Disposable flushTimer;
+    private final AtomicLong sequence = new AtomicLong();
+    private Map<String, Pending> buffer = new LinkedHashMap<>();
+
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final LongAdder submittedRequests = new LongAdder();
+    private final LongAdder submittedBatches = new LongAdder();
+    private final LongAdder completedBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    /**
+     * @param provider 批处理提供方
+     * @param workDirectory 批处理文件的临时目录
+     * @param maxBatchSize 单个批处理的最大请求数，攒够后立即提交
+     * @param flushInterval 定时提交间隔
+     * @param pollInterval 任务状态轮询间隔
+     * @param maxWait 等待任务结束的最长时间，超过后所有请求以错误结束
+     */
+    public BatchSubmitter(BatchProvider provider, Path workDirectory, int maxBatchSize,
+                          Duration flushInterval, Duration pollInterval, Duration maxWait) {
+        this.provider = provider;
+        this.workDirectory = workDirectory;
+        this.maxBatchSize = maxBatchSize;
+        this.pollInterval = pollInterval;
+        this.maxWait = maxWait;
+        this.flushTimer = Flux.interval(flushInterval, flushInterval)
+                .subscribe(tick -> flush());
+        log.info("[BatchSubmitter] 初始化完成，提供方: {}，批大小: {}，提交间隔: {}",
+                provider.getName(), maxBatchSize, flushInterval);
+    }
+
+    /**
+     * 提交一个请求到批处理
+     * @param request 模型请求，model 为提供方的模型名称
+     * @return 批处理结束后的响应
+     */
+    public Mono<ModelResponse> submit(ModelRequest request) {
+        return Mono.defer(() -> {
+            String customId = "req-" + sequence.incrementAndGet();
+            Pending pending = new Pending(request);
+            Map<String, Pending> full = null;
+            synchronized (this) {
+                buffer.put(customId, pending);
+                if (buffer.size() >= maxBatchSize) {
+                    full = drainBuffer();
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return pending.result.asMono()
+                    .doOnCancel(() -> remove(customId, pending));
+        });
+    }
+
+    private synchronized void remove(String customId, Pending pending) {
+        buffer.remove(customId, pending);
+    }
+
+    /**
+     * 立即提交缓冲区中的请求
+     */
+    public void flush() {
+        Map<String, Pending> batch;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            batch = drainBuffer();
+        }
+        dispatch(batch);
+    }
+
+    private Map<String, Pending> drainBuffer() {
+        Map<String, Pending> batch = buffer;
+        buffer = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, Pending> batch) {
+        submittedRequests.add(batch.size());
+        inFlightRequests.addAndGet(batch.size());
+        Mono.usingWhen(
+                        Mono.fromCallable(() -> writeBatchFile(batch)).subscribeOn(Schedulers.boundedElastic()),
+                        provider::submit,
+                        file -> Mono.fromRunnable(() -> deleteQuietly(file)).subscribeOn(Schedulers.boundedElastic()))
+                .doOnNext(job -> {
+                    submittedBatches.increment();
+                    log.info("[BatchSubmitter] 批处理已提交，任务: {}，请求数: {}", job.getId(), batch.size());
+                })
+                .flatMap(this::awaitCompletion)
+                .flatMapMany(job -> {
+                    if (job.getStatus() != BatchJob.Status.COMPLETED) {
+                        return Flux.error(new BatchException(job.getId(), "Batch ended with status " + job.getStatus()));
+                    }
+                    completedBatches.increment();
+                    log.info("[BatchSubmitter] 批处理任务完成: {}", job);
+                    return provider.results(job)
+                            .doOnNext(result -> deliver(job.getId(), batch, result))
+                            .doOnComplete(() -> failRemaining(batch,
+                                    new BatchException(job.getId(), "No result for request in batch " + job.getId())));
+                })
+                .subscribe(null, e -> {
+                    failedBatches.increment();
+                    log.error("[BatchSubmitter] 批处理失败，请求数: {}", batch.size(), e);
+                    failRemaining(batch, e instanceof BatchException ? e : new BatchException(null, "Batch failed", e));
+                });
+    }
+
+    private Path writeBatchFile(Map<String, Pending> batch) throws IOException {
+        Files.createDirectories(workDirectory);
+        Path file = Files.createTempFile(workDirectory, "batch-", ".jsonl");
+        Map<String, ModelRequest> requests = new LinkedHashMap<>();
+        batch.forEach((customId, pending) -> requests.put(customId, pending.request));
+        BatchFiles.writeRequests(file, requests);
+        return file;
+    }
+
+    private Mono<BatchJob> awaitCompletion(BatchJob submitted) {
+        if (submitted.isTerminal()) {
+            return Mono.just(submitted);
+        }
+        return Flux.interval(pollInterval)
+                .concatMap(tick -> provider.status(submitted.getId()))
+                .doOnNext(job -> log.debug("[BatchSubmitter] 批处理任务状态: {}", job))
+                .filter(BatchJob::isTerminal)
+                .next()
+                .timeout(maxWait, Mono.error(() ->
+                        new BatchException(submitted.getId(), "Batch did not finish within " + maxWait)));
+    }
+
+    private void deliver(String batchId, Map<String, Pending> batch, BatchResult result) {
+        Pending pending = batch.remove(result.getCustomId());
+        if (pending == null) {
+            log.warn("[BatchSubmitter] 批处理结果没有对应的请求，任务: {}，custom_id: {}", batchId, result.getCustomId());
+            return;
+        }
+        inFlightRequests.decrementAndGet();
+        if (result.isSuccess()) {
+            pending.result.tryEmitValue(result.getResponse());
+        } else {
+            pending.result.tryEmitError(new BatchException(batchId, result.getError()));
+        }
+    }
+
+    private void failRemaining(Map<String, Pending> batch, Throwable error) {
+        batch.values().forEach(pending -> {
+            inFlightRequests.decrementAndGet();
+            pending.result.tryEmitError(error);
+        });
+        batch.clear();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("[BatchSubmitter] 删除批处理文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 停止定时提交，并提交缓冲区中剩余的请求
+     */
+    @Override
+    public void close() {
+        flushTimer.dispose();
+        flush();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(provider.getName(), buffer.size(), inFlightRequests.get(), submittedRequests.sum(),
+                submittedBatches.sum(), completedBatches.sum(), failedBatches.sum());
+    }
+
+    private static final class Pending {
+        private final ModelRequest request;
+        private final Sinks.One<ModelResponse> result = Sinks.one();
+
+        Pending(ModelRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * 批处理统计快照
+     */
+    public static class Stats {
+        private final String provider;
+        private final int bufferedRequests;
+        private final int inFlightRequests;
+        private final long submittedRequests;
+        private final long submittedBatches;
+        private final long completedBatches;
+        private final long failedBatches;
+
+        public Stats(String provider, int bufferedRequests, int inFlightRequests, long submittedRequests,
+                     long submittedBatches, long completedBatches, long failedBatches) {
+            this.provider = provider;
+            this.bufferedRequests = bufferedRequests;
+            this.inFlightRequests = inFlightRequests;
+            this.submittedRequests = submittedRequests;
+            this.submittedBatches = submittedBatches;
+            this.completedBatches = completedBatches;
+            this.failedBatches = failedBatches;
+        }
+
+        public String getProvider() { return provider; }
+        public int getBufferedRequests() { return bufferedRequests; }
+        public int getInFlightRequests() { return inFlightRequests; }
+        public long getSubmittedRequests() { return submittedRequests; }
+        public long getSubmittedBatches() { return submittedBatches; }
+        public long getCompletedBatches() { return completedBatches; }
+        public long getFailedBatches() { return failedBatches; }
+    }
+}
@@ -0,0 +1,132 @@
+package io.neuroflow.core.batch;
+
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 基于本地文件的批处理提供方，用于测试和本地开发
+ *
+ * <p>提交的文件复制到工作目录，后台逐条交给执行函数处理，结果按 OpenAI Batch API 的输出格式
+ * 写入 {@code <batchId>.output.jsonl}，状态和结果读取与真实提供方走同一套流程。
+ */
+public class LocalFileBatchProvider implements BatchProvider {
+    private static final Logger log = LoggerFactory.getLogger(LocalFileBatchProvider.class);
+
+    private final Path directory;
+    private final Function<ModelRequest, Mono<ModelResponse>> executor;
+    private final int concurrency;
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory 工作目录
+     * @param executor 执行单个请求的函数，例如 {@code gateway::execute}
+     * @param concurrency 同时执行的请求数
+     */
+    public LocalFileBatchProvider(Path directory, Function<ModelRequest, Mono<ModelResponse>> executor, int concurrency) {
+        this.directory = directory;
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public Mono<BatchJob> submit(Path batchFile) {
+        return Mono.fromCallable(() -> {
+            Files.createDirectories(directory);
+            String batchId = "batch_local_" + UUID.randomUUID().toString().replace("-", "");
+            Path input = directory.resolve(batchId + ".input.jsonl");
+            Files.copy(batchFile, input, StandardCopyOption.REPLACE_EXISTING);
+            List<Map.Entry<String, ModelRequest>> requests = BatchFiles.readRequests(input);
+
+            BatchJob job = new BatchJob(batchId, BatchJob.Status.IN_PROGRESS);
+            job.setTotalCount(requests.size());
+            jobs.put(batchId, job);
+            process(job, requests);
+            log.info("[LocalFileBatchProvider] 批处理任务已创建: {}", job);
+            return snapshot(job);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void process(BatchJob job, List<Map.Entry<String, ModelRequest>> requests) {
+        Path output = directory.resolve(job.getId() + ".output.jsonl");
+        Flux.fromIterable(requests)
+                .flatMap(entry -> executor.apply(entry.getValue())
+                        .map(response -> BatchResult.success(entry.getKey(), response))
+                        .onErrorResume(e -> Mono.just(BatchResult.failure(entry.getKey(), String.valueOf(e.getMessage())))),
+                        concurrency)
+                .collectList()
+                .flatMap(results -> Mono.fromCallable(() -> {
+                    try (OutputStream out = Files.newOutputStream(output)) {
+                        for (BatchResult result : results) {
+                            BatchFiles.writeResult(out, result);
+                        }
+                    }
+                    return results;
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .subscribe(results -> {
+                    long failed = results.stream().filter(r -> !r.isSuccess()).count();
+                    synchronized (job) {
+                        job.setOutputFileId(output.toString());
+                        job.setCompletedCount((int) (results.size() - failed));
+                        job.setFailedCount((int) failed);
+                        job.setStatus(BatchJob.Status.COMPLETED);
+                    }
+                    log.info("[LocalFileBatchProvider] 批处理任务完成: {}", job);
+                }, e -> {
+                    synchronized (job) {
+                        job.setStatus(BatchJob.Status.FAILED);
+                    }
+                    log.error("[LocalFileBatchProvider] 批处理任务失败: {}", job.getId(), e);
+                });
+    }
+
+    @Override
+    public Mono<BatchJob> status(String batchId) {
+        BatchJob job = jobs.get(batchId);
+        return job != null
+                ? Mono.just(snapshot(job))
+                : Mono.error(new BatchException(batchId, "Unknown batch: " + batchId));
+    }
+
+    @Override
+    public Flux<BatchResult> results(BatchJob job) {
+        if (job.getOutputFileId() == null) {
+            return Flux.empty();
+        }
+        return BatchFiles.parseResults(
+                DataBufferUtils.read(Path.of(job.getOutputFileId()), DefaultDataBufferFactory.sharedInstance, 8192));
+    }
+
+    private static BatchJob snapshot(BatchJob job) {
+        synchronized (job) {
+            BatchJob copy = new BatchJob(job.getId(), job.getStatus());
+            copy.setOutputFileId(job.getOutputFileId());
+            copy.setErrorFileId(job.getErrorFileId());
+            copy.setTotalCount(job.getTotalCount());
+            copy.setCompletedCount(job.getCompletedCount());
+            copy.setFailedCount(job.getFailedCount());
+            return copy;
+        }
+    }
+}
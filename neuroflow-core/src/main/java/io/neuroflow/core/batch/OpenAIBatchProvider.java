@@ -0,0 +1,113 @@
+package io.neuroflow.core.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * OpenAI Batch API 提供方
+ *
+ * <p>先通过 {@code /files} 上传批处理文件（purpose=batch），再调用 {@code /batches} 创建任务；
+ * 结果和错误分别在任务的输出文件和错误文件中，下载时按行流式解析。
+ */
+public class OpenAIBatchProvider implements BatchProvider {
+    private static final Logger log = LoggerFactory.getLogger(OpenAIBatchProvider.class);
+    private static final String DEFAULT_ENDPOINT = "https://api.openai.com/v1";
+
+    private final WebClient webClient;
+    private final String completionWindow;
+
+    /**
+     * @param apiKey API Key
+     * @param endpoint 接口地址
+     * @param webClientBuilder 已绑定连接池的 WebClient.Builder，见 {@link io.neuroflow.core.client.http.ModelHttpClients}
+     * @param completionWindow 任务完成时限，目前 OpenAI 只支持 "24h"
+     */
+    public OpenAIBatchProvider(String apiKey, String endpoint, WebClient.Builder webClientBuilder, String completionWindow) {
+        this.webClient = webClientBuilder
+                .baseUrl(endpoint != null ? endpoint : DEFAULT_ENDPOINT)
+                .defaultHeader("Authorization", "Bearer " + apiKey)
+                .build();
+        this.completionWindow = completionWindow;
+    }
+
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
+    @Override
+    public Mono<BatchJob> submit(Path batchFile) {
+        MultipartBodyBuilder multipart = new MultipartBodyBuilder();
+        multipart.part("purpose", "batch");
+        multipart.part("file", new FileSystemResource(batchFile));
+        return webClient.post()
+                .uri("/files")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(multipart.build()))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .flatMap(file -> {
+                    String fileId = file.path("id").asText();
+                    log.info("[OpenAIBatchProvider] 批处理文件上传完成，文件ID: {}", fileId);
+                    return webClient.post()
+                            .uri("/batches")
+                            .bodyValue(Map.of(
+                                    "input_file_id", fileId,
+                                    "endpoint", BatchFiles.CHAT_COMPLETIONS_URL,
+                                    "completion_window", completionWindow))
+                            .retrieve()
+                            .bodyToMono(JsonNode.class);
+                })
+                .map(this::toJob)
+                .doOnSuccess(job -> log.info("[OpenAIBatchProvider] 批处理任务已创建: {}", job))
+                .doOnError(e -> log.error("[OpenAIBatchProvider] 批处理任务提交失败", e));
+    }
+
+    @Override
+    public Mono<BatchJob> status(String batchId) {
+        return webClient.get()
+                .uri("/batches/{id}", batchId)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(this::toJob);
+    }
+
+    @Override
+    public Flux<BatchResult> results(BatchJob job) {
+        return Flux.concat(fileResults(job.getOutputFileId()), fileResults(job.getErrorFileId()));
+    }
+
+    private Flux<BatchResult> fileResults(String fileId) {
+        if (fileId == null) {
+            return Flux.empty();
+        }
+        Flux<DataBuffer> content = webClient.get()
+                .uri("/files/{id}/content", fileId)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        return BatchFiles.parseResults(content);
+    }
+
+    private BatchJob toJob(JsonNode node) {
+        BatchJob job = new BatchJob(node.path("id").asText(), BatchJob.Status.of(node.path("status").asText(null)));
+        job.setOutputFileId(node.path("output_file_id").asText(null));
+        job.setErrorFileId(node.path("error_file_id").asText(null));
+        JsonNode counts = node.path("request_counts");
+        job.setTotalCount(counts.path("total").asInt());
+        job.setCompletedCount(counts.path("completed").asInt());
+        job.setFailedCount(counts.path("failed").asInt());
+        return job;
+    }
+}
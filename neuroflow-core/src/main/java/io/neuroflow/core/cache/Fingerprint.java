@@ -0,0 +1,110 @@
+package io.neuroflow.core.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 规范化指纹工具
+ *
+ * <p>将任意对象按属性名、Map 键排序后序列化为 JSON，并计算 SHA-256。
+ * 字段顺序、Map 插入顺序和值为 null 的字段都不会影响结果，适合作为缓存键。
+ * 整数值的浮点数按整数写出，Integer 1、Long 1 和 Double 1.0 的指纹相同；java.time 等类型由类路径上的
+ * Jackson 模块序列化。
+ */
+public final class Fingerprint {
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .findAndAddModules()
+            .addModule(new SimpleModule("canonical-numbers")
+                    .addSerializer(Double.class, CanonicalNumberSerializer.INSTANCE)
+                    .addSerializer(double.class, CanonicalNumberSerializer.INSTANCE)
+                    .addSerializer(Float.class, CanonicalNumberSerializer.INSTANCE)
+                    .addSerializer(float.class, CanonicalNumberSerializer.INSTANCE)
+                    .addSerializer(BigDecimal.class, CanonicalNumberSerializer.INSTANCE))
+            .build();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private Fingerprint() {
+    }
+
+    /**
+     * 计算若干对象组合后的规范化指纹
+     * @param parts 参与计算的对象，按顺序组合
+     * @return 十六进制 SHA-256 字符串
+     */
+    public static String of(Object... parts) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        // 直接把 JSON 写进摘要，避免生成中间字节数组
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            CANONICAL_MAPPER.writeValue(out, parts);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to fingerprint value", e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 规范化序列化使用的 ObjectMapper，供需要相同规则的组件复用
+     */
+    public static ObjectMapper canonicalMapper() {
+        return CANONICAL_MAPPER;
+    }
+
+    /**
+     * 整数值的浮点数和 BigDecimal 按整数写出，其余去掉末尾的 0
+     */
+    private static final class CanonicalNumberSerializer extends StdSerializer<Number> {
+        private static final CanonicalNumberSerializer INSTANCE = new CanonicalNumberSerializer();
+        // 2^63，超出 long 范围的整数值浮点数按原样写出
+        private static final double LONG_RANGE = 0x1p63;
+
+        private CanonicalNumberSerializer() {
+            super(Number.class);
+        }
+
+        @Override
+        public void serialize(Number value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value instanceof BigDecimal decimal) {
+                BigDecimal stripped = decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+                if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 18) {
+                    gen.writeNumber(stripped.longValueExact());
+                } else {
+                    gen.writeNumber(stripped);
+                }
+                return;
+            }
+            double d = value.doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < LONG_RANGE) {
+                gen.writeNumber((long) d);
+            } else {
+                gen.writeNumber(d);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.neuroflow.core.cache;
+
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 相同在途请求合并（single-flight）
+ *
+ * <p>以请求指纹为键维护在途请求表，并发的相同请求只向上游发出一次调用，
+ * 所有调用方订阅同一个共享的上游序列：
+ * <ul>
+ *   <li>单个订阅者取消只会退出自己的订阅，其他订阅者继续接收结果；</li>
+ *   <li>所有订阅者都取消后上游调用才会被取消；</li>
+ *   <li>流式请求会把已经发出的增量事件重放给后加入的订阅者。</li>
+ * </ul>
+ * 上游结束（完成、出错或被取消）后条目立即从表中移除，不会缓存结果。
+ */
+public class RequestCoalescer {
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final ConcurrentMap<String, Flux<ModelResponse>> inFlightCalls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Flux<StreamEvent>> inFlightStreams = new ConcurrentHashMap<>();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * 合并普通调用
+     * @param key 请求指纹
+     * @param upstream 真正发起调用的函数，只有第一个调用方会触发
+     * @return 共享的调用结果
+     */
+    public Mono<ModelResponse> call(String key, Supplier<Mono<ModelResponse>> upstream) {
+        return Mono.defer(() -> join(inFlightCalls, key, () -> upstream.get().flux()).singleOrEmpty());
+    }
+
+    /**
+     * 合并流式调用，后加入的订阅者会先收到已经发出的事件
+     * @param key 请求指纹
+     * @param upstream 真正发起流式调用的函数，只有第一个调用方会触发
+     * @return 共享的增量事件流
+     */
+    public Flux<StreamEvent> stream(String key, Supplier<Flux<StreamEvent>> upstream) {
+        return Flux.defer(() -> join(inFlightStreams, key, upstream));
+    }
+
+    private <T> Flux<T> join(ConcurrentMap<String, Flux<T>> table, String key, Supplier<Flux<T>> upstream) {
+        Flux<T> existing = table.get(key);
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.debug("[RequestCoalescer] 合并到在途请求: {}", key);
+            return existing;
+        }
+
+        AtomicReference<Flux<T>> self = new AtomicReference<>();
+        Flux<T> shared = Flux.defer(upstream)
+                // 上游终止或被全部订阅者取消后移除，只移除自己，避免误删新一轮请求
+                .doFinally(signal -> table.remove(key, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+
+        Flux<T> winner = table.putIfAbsent(key, shared);
+        if (winner != null) {
+            coalescedCalls.increment();
+            return winner;
+        }
+        upstreamCalls.increment();
+        return shared;
+    }
+
+    /**
+     * 获取合并统计
+     * @return 上游调用次数、被合并的调用次数和当前在途数量
+     */
+    public Stats getStats() {
+        return new Stats(upstreamCalls.sum(), coalescedCalls.sum(), inFlightCalls.size() + inFlightStreams.size());
+    }
+
+    /**
+     * 请求合并统计快照
+     */
+    public static class Stats {
+        private final long upstreamCalls;
+        private final long coalescedCalls;
+        private final int inFlight;
+
+        public Stats(long upstreamCalls, long coalescedCalls, int inFlight) {
+            this.upstreamCalls = upstreamCalls;
+            this.coalescedCalls = coalescedCalls;
+            this.inFlight = inFlight;
+        }
+
+        public long getUpstreamCalls() { return upstreamCalls; }
+        public long getCoalescedCalls() { return coalescedCalls; }
+        public int getInFlight() { return inFlight; }
+    }
+}
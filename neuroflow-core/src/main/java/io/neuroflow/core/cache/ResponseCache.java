@@ -0,0 +1,105 @@
+package io.neuroflow.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * 模型响应精确匹配缓存
+ *
+ * <p>以 {@link Fingerprint} 计算的请求指纹为键，底层使用 Caffeine 的 W-TinyLFU
+ * 淘汰策略：新条目只有在访问频率高于被淘汰候选时才会被接纳，一次性请求不会冲掉热点响应。
+ *
+ * <p>默认只缓存确定性请求（temperature 显式为 0）；temperature 为空或大于 0 的请求
+ * 需要开启 {@code cacheNonDeterministic} 才会进入缓存。缓存的响应对象会被多个调用方共享，
+ * 调用方不应修改它。
+ */
+public class ResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final Cache<String, ModelResponse> cache;
+    private final boolean cacheNonDeterministic;
+
+    public ResponseCache(long maximumSize, Duration ttl, boolean cacheNonDeterministic) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.cacheNonDeterministic = cacheNonDeterministic;
+        log.info("[ResponseCache] 初始化完成，容量: {}，TTL: {}，缓存非确定性请求: {}",
+                maximumSize, ttl, cacheNonDeterministic);
+    }
+
+    /**
+     * 判断请求是否允许进入缓存
+     * @param request 模型请求
+     * @return 流式请求和非确定性请求（未开启时）返回 false
+     */
+    public boolean isCacheable(ModelRequest request) {
+        if (Boolean.TRUE.equals(request.getStream())) {
+            return false;
+        }
+        if (cacheNonDeterministic) {
+            return true;
+        }
+        Double temperature = request.getTemperature();
+        return temperature != null && temperature <= 0.0;
+    }
+
+    public ModelResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, ModelResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("[ResponseCache] 缓存已清空");
+    }
+
+    /**
+     * 获取缓存统计
+     * @return 命中、未命中、淘汰次数快照
+     */
+    public Stats getStats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = cache.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    /**
+     * 缓存统计快照
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long size;
+
+        public Stats(long hitCount, long missCount, long evictionCount, long size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+        }
+
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getEvictionCount() { return evictionCount; }
+        public long getSize() { return size; }
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total > 0 ? (double) hitCount / total * 100 : 0.0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.neuroflow.core.client;
 import io.neuroflow.core.model.ModelRequest;
 import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 /**
@@ -12,4 +13,14 @@ import reactor.core.publisher.Mono;
 public interface ModelClient {
     Mono<ModelResponse> call(ModelRequest request);
     Flux<String> stream(ModelRequest request);
+
+    /**
+     * 类型化的流式调用，返回包含文本增量、结束原因、usage 和函数调用片段的事件流
+     *
+     * <p>默认实现把 {@link #stream(ModelRequest)} 的每个文本块包装成事件，
+     * 能解析提供方流式帧的客户端应覆盖此方法。
+     */
+    default Flux<StreamEvent> streamEvents(ModelRequest request) {
+        return stream(request).map(StreamEvent::ofContent);
+    }
 }
\ No newline at end of file
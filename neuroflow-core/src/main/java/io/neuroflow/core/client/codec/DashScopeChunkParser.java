@@ -0,0 +1,118 @@
+package io.neuroflow.core.client.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.neuroflow.core.model.StreamEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 阿里云 DashScope（Qwen）流式帧解析器
+ *
+ * <p>支持 {@code output.text} 和 {@code output.choices[].message} 两种输出格式，
+ * usage 使用 input_tokens/output_tokens 命名。DashScope 用字符串 "null" 表示未结束。
+ *
+ * <p>未开启 {@code incremental_output} 时每帧的文本是到目前为止的全部输出，解析器与上一帧比较后只输出新增部分；
+ * 文本不是上一帧的延续时（开启了增量输出）按原样输出。解析器因此带有状态，每个流使用一个新实例。
+ */
+public class DashScopeChunkParser implements StreamChunkParser {
+    // 到上一帧为止的完整输出
+    private String emitted = "";
+
+    @Override
+    public void parse(byte[] buf, int off, int len, List<StreamEvent> out) throws IOException {
+        try (JsonParser p = OpenAIChunkParser.JSON.createParser(buf, off, len)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            StreamEvent event = new StreamEvent();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "request_id" -> event.setId(p.getValueAsString());
+                    case "output" -> parseOutput(p, event);
+                    case "usage" -> event.setUsage(OpenAIChunkParser.parseUsage(p));
+                    default -> p.skipChildren();
+                }
+            }
+            if (event.getContent() != null) {
+                event.setContent(delta(event.getContent()));
+            }
+            out.add(event);
+        }
+    }
+
+    private void parseOutput(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "text" -> event.setContent(p.getValueAsString());
+                case "finish_reason" -> event.setFinishReason(finishReason(p.getValueAsString()));
+                case "choices" -> parseChoices(p, event);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private void parseChoices(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        // 流式输出只有一个 choice，其余忽略
+        boolean first = true;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (!first) {
+                p.skipChildren();
+                continue;
+            }
+            first = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "finish_reason" -> event.setFinishReason(finishReason(p.getValueAsString()));
+                    case "message" -> parseMessage(p, event);
+                    default -> p.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void parseMessage(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "role" -> event.setRole(p.getValueAsString());
+                case "content" -> event.setContent(p.getValueAsString());
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private String delta(String text) {
+        if (text.startsWith(emitted)) {
+            String delta = text.substring(emitted.length());
+            emitted = text;
+            return delta;
+        }
+        emitted += text;
+        return text;
+    }
+
+    private static String finishReason(String value) {
+        return value == null || "null".equals(value) ? null : value;
+    }
+}
@@ -0,0 +1,85 @@
+package io.neuroflow.core.client.codec;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 字节级按行切分器
+ *
+ * <p>把连续到达的 {@link DataBuffer} 切成行（兼容 \n 和 \r\n），跨缓冲区的半行会保留到下一次输入。
+ * 回调拿到的是内部数组的切片，只在回调期间有效。非线程安全，每个响应流使用独立实例。
+ */
+public class LineSplitter {
+
+    /**
+     * 行回调
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        void onLine(byte[] buf, int off, int len) throws IOException;
+    }
+
+    private byte[] buf;
+    private int length;
+
+    public LineSplitter() {
+        this(8192);
+    }
+
+    public LineSplitter(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    /**
+     * 输入一个缓冲区，对其中每个完整的行调用回调
+     * @param dataBuffer 输入缓冲区，读取后由调用方释放
+     * @param handler 行回调
+     */
+    public void feed(DataBuffer dataBuffer, LineHandler handler) throws IOException {
+        int readable = dataBuffer.readableByteCount();
+        ensureCapacity(length + readable);
+        dataBuffer.read(buf, length, readable);
+
+        // 已缓存的半行里不会有换行符，只需扫描新读入的部分
+        int scanFrom = length;
+        length += readable;
+        int lineStart = 0;
+        for (int i = scanFrom; i < length; i++) {
+            if (buf[i] == '\n') {
+                emit(lineStart, i, handler);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart > 0) {
+            System.arraycopy(buf, lineStart, buf, 0, length - lineStart);
+            length -= lineStart;
+        }
+    }
+
+    /**
+     * 输入结束，把最后一个没有换行符结尾的行交给回调
+     * @param handler 行回调
+     */
+    public void finish(LineHandler handler) throws IOException {
+        if (length > 0) {
+            int end = length;
+            length = 0;
+            emit(0, end, handler);
+        }
+    }
+
+    private void emit(int start, int end, LineHandler handler) throws IOException {
+        if (end > start && buf[end - 1] == '\r') {
+            end--;
+        }
+        handler.onLine(buf, start, end - start);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length * 2));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON（application/x-ndjson）增量解码器
+ *
+ * <p>每行一个 JSON 对象，直接在 {@link DataBuffer} 字节上按行切分后交给 {@link StreamChunkParser}，
+ * 空行忽略，跨缓冲区的半行保留到下一个缓冲区。与 {@link ServerSentEventDecoder} 一样不做字符解码。
+ */
+public class NdjsonDecoder {
+    private final StreamChunkParser parser;
+    private final LineSplitter lines = new LineSplitter();
+    private List<StreamEvent> out;
+
+    public NdjsonDecoder(StreamChunkParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * 把响应体字节流解码为增量事件流，每个订阅使用独立的解码状态
+     * @param body 响应体
+     * @param parser 行解析器
+     * @return 增量事件流
+     */
+    public static Flux<StreamEvent> decode(Flux<DataBuffer> body, StreamChunkParser parser) {
+        return Flux.defer(() -> {
+            NdjsonDecoder decoder = new NdjsonDecoder(parser);
+            return body.concatMapIterable(decoder::decode)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.flush())));
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * 解码一个缓冲区
+     * @param buffer 输入缓冲区，处理后释放
+     * @return 本次解析出的事件，可能为空
+     */
+    public List<StreamEvent> decode(DataBuffer buffer) {
+        try {
+            out = new ArrayList<>(2);
+            lines.feed(buffer, this::onLine);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode NDJSON line", e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * 输入结束，处理最后一个没有换行符结尾的行
+     * @return 剩余事件
+     */
+    public List<StreamEvent> flush() {
+        try {
+            out = new ArrayList<>(1);
+            lines.finish(this::onLine);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode NDJSON line", e);
+        }
+    }
+
+    private void onLine(byte[] buf, int off, int len) throws IOException {
+        if (len > 0) {
+            parser.parse(buf, off, len, out);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.neuroflow.core.client.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Ollama {@code /api/chat} 响应解析器
+ *
+ * <p>流式响应每行一个对象，{@code message.content} 为文本增量，最后一行 {@code done=true}
+ * 并带有 done_reason 和 prompt_eval_count/eval_count 用量；非流式响应是同样格式的单个对象。
+ * 工具调用的参数是 JSON 对象而不是字符串，这里重新序列化为参数字符串，与其他提供方保持一致。
+ * 服务端在流中间出错时返回 {@code {"error": "..."}}，以 {@link IOException} 结束。
+ */
+public class OllamaChunkParser implements StreamChunkParser {
+
+    @Override
+    public void parse(byte[] buf, int off, int len, List<StreamEvent> out) throws IOException {
+        try (JsonParser p = OpenAIChunkParser.JSON.createParser(buf, off, len)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            StreamEvent event = new StreamEvent();
+            event.setIndex(0);
+            boolean done = false;
+            String doneReason = null;
+            Integer promptTokens = null;
+            Integer completionTokens = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "model" -> event.setModel(p.getValueAsString());
+                    case "created_at" -> event.setId(p.getValueAsString());
+                    case "message" -> parseMessage(p, event);
+                    case "done" -> done = p.getValueAsBoolean();
+                    case "done_reason" -> doneReason = p.getValueAsString();
+                    case "prompt_eval_count" -> promptTokens = p.getValueAsInt();
+                    case "eval_count" -> completionTokens = p.getValueAsInt();
+                    case "error" -> throw new IOException("Ollama error: " + p.getValueAsString());
+                    default -> p.skipChildren();
+                }
+            }
+            if (done) {
+                event.setFinishReason(event.getFunctionCalls() != null ? "tool_calls"
+                        : doneReason != null ? doneReason : "stop");
+                if (promptTokens != null || completionTokens != null) {
+                    ModelResponse.Usage usage = new ModelResponse.Usage();
+                    usage.setPromptTokens(promptTokens);
+                    usage.setCompletionTokens(completionTokens);
+                    usage.setTotalTokens((promptTokens != null ? promptTokens : 0)
+                            + (completionTokens != null ? completionTokens : 0));
+                    event.setUsage(usage);
+                }
+            }
+            out.add(event);
+        }
+    }
+
+    private void parseMessage(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "role" -> event.setRole(p.getValueAsString());
+                case "content" -> event.setContent(p.getValueAsString());
+                case "tool_calls" -> parseToolCalls(p, event);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private void parseToolCalls(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        // Ollama 每次给出完整的工具调用，按出现顺序编号
+        int index = 0;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            StreamEvent.FunctionCallDelta delta = new StreamEvent.FunctionCallDelta();
+            delta.setIndex(index++);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                if ("function".equals(field) && p.currentToken() == JsonToken.START_OBJECT) {
+                    parseFunction(p, delta);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            event.addFunctionCall(delta);
+        }
+    }
+
+    private void parseFunction(JsonParser p, StreamEvent.FunctionCallDelta delta) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> delta.setName(p.getValueAsString());
+                case "arguments" -> delta.setArguments(p.currentToken() == JsonToken.VALUE_STRING
+                        ? p.getValueAsString()
+                        : copyStructure(p));
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private static String copyStructure(JsonParser p) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator gen = OpenAIChunkParser.JSON.createGenerator(writer)) {
+            gen.copyCurrentStructure(p);
+        }
+        return writer.toString();
+    }
+}
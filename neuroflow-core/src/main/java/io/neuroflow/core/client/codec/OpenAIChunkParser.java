@@ -0,0 +1,168 @@
+package io.neuroflow.core.client.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * OpenAI chat.completion.chunk 帧解析器
+ *
+ * <p>使用 Jackson 流式 API 逐个 token 解析，不构建 JSON 树。每个 choice 生成一个事件，
+ * 只包含 usage 的帧（choices 为空）单独生成一个事件。兼容 OpenAI 协议的服务同样适用。
+ */
+public class OpenAIChunkParser implements StreamChunkParser {
+    static final JsonFactory JSON = new JsonFactory();
+
+    @Override
+    public void parse(byte[] buf, int off, int len, List<StreamEvent> out) throws IOException {
+        try (JsonParser p = JSON.createParser(buf, off, len)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            int first = out.size();
+            String id = null;
+            String model = null;
+            ModelResponse.Usage usage = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "id" -> id = p.getValueAsString();
+                    case "model" -> model = p.getValueAsString();
+                    case "choices" -> parseChoices(p, out);
+                    case "usage" -> usage = parseUsage(p);
+                    default -> p.skipChildren();
+                }
+            }
+            if (usage != null && out.size() == first) {
+                out.add(new StreamEvent());
+            }
+            for (int i = first; i < out.size(); i++) {
+                StreamEvent event = out.get(i);
+                event.setId(id);
+                event.setModel(model);
+            }
+            if (usage != null) {
+                out.get(out.size() - 1).setUsage(usage);
+            }
+        }
+    }
+
+    private void parseChoices(JsonParser p, List<StreamEvent> out) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            StreamEvent event = new StreamEvent();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "index" -> event.setIndex(p.getIntValue());
+                    case "delta", "message" -> parseDelta(p, event);
+                    case "finish_reason" -> event.setFinishReason(p.getValueAsString());
+                    default -> p.skipChildren();
+                }
+            }
+            out.add(event);
+        }
+    }
+
+    private void parseDelta(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "role" -> event.setRole(p.getValueAsString());
+                case "content" -> event.setContent(p.getValueAsString());
+                case "function_call" -> {
+                    // 旧版单函数调用，视为 index 0 的工具调用
+                    StreamEvent.FunctionCallDelta delta = parseFunction(p);
+                    if (delta != null) {
+                        delta.setIndex(0);
+                        event.addFunctionCall(delta);
+                    }
+                }
+                case "tool_calls" -> parseToolCalls(p, event);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private void parseToolCalls(JsonParser p, StreamEvent event) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            StreamEvent.FunctionCallDelta delta = new StreamEvent.FunctionCallDelta();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "index" -> delta.setIndex(p.getIntValue());
+                    case "id" -> delta.setId(p.getValueAsString());
+                    case "function" -> {
+                        StreamEvent.FunctionCallDelta function = parseFunction(p);
+                        if (function != null) {
+                            delta.setName(function.getName());
+                            delta.setArguments(function.getArguments());
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            event.addFunctionCall(delta);
+        }
+    }
+
+    private StreamEvent.FunctionCallDelta parseFunction(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        StreamEvent.FunctionCallDelta delta = new StreamEvent.FunctionCallDelta();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> delta.setName(p.getValueAsString());
+                case "arguments" -> delta.setArguments(p.getValueAsString());
+                default -> p.skipChildren();
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * 解析 usage 对象，兼容 prompt/completion 和 input/output 两种命名
+     */
+    static ModelResponse.Usage parseUsage(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        ModelResponse.Usage usage = new ModelResponse.Usage();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "prompt_tokens", "input_tokens" -> usage.setPromptTokens(p.getValueAsInt());
+                case "completion_tokens", "output_tokens" -> usage.setCompletionTokens(p.getValueAsInt());
+                case "total_tokens" -> usage.setTotalTokens(p.getValueAsInt());
+                default -> p.skipChildren();
+            }
+        }
+        return usage;
+    }
+}
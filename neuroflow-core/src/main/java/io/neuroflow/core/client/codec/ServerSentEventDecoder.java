@@ -0,0 +1,146 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SSE（text/event-stream）增量解码器
+ *
+ * <p>直接在 Netty 的 {@link DataBuffer} 字节上切分 SSE 帧：多行 data 按规范用换行拼接，
+ * 注释行和其他字段忽略，遇到 {@code [DONE]} 后不再产生事件。帧负载交给
+ * {@link StreamChunkParser} 从字节解析，整个过程不做字符解码。
+ */
+public class ServerSentEventDecoder {
+    private static final byte[] DATA_FIELD = {'d', 'a', 't', 'a'};
+    private static final byte[] DONE = {'[', 'D', 'O', 'N', 'E', ']'};
+
+    private final StreamChunkParser parser;
+    private final LineSplitter lines = new LineSplitter();
+    private byte[] data = new byte[1024];
+    private int dataLength;
+    private int dataLines;
+    private boolean done;
+    private List<StreamEvent> out;
+
+    public ServerSentEventDecoder(StreamChunkParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * 把响应体字节流解码为增量事件流，每个订阅使用独立的解码状态
+     * @param body 响应体
+     * @param parser 帧解析器
+     * @return 增量事件流
+     */
+    public static Flux<StreamEvent> decode(Flux<DataBuffer> body, StreamChunkParser parser) {
+        return Flux.defer(() -> {
+            ServerSentEventDecoder decoder = new ServerSentEventDecoder(parser);
+            return body.concatMapIterable(decoder::decode)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.flush())));
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * 解码一个缓冲区
+     * @param buffer 输入缓冲区，处理后释放
+     * @return 本次解析出的事件，可能为空
+     */
+    public List<StreamEvent> decode(DataBuffer buffer) {
+        try {
+            if (done) {
+                return Collections.emptyList();
+            }
+            out = new ArrayList<>(2);
+            lines.feed(buffer, this::onLine);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode server-sent event", e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * 输入结束，处理最后一个没有空行结尾的事件
+     * @return 剩余事件
+     */
+    public List<StreamEvent> flush() {
+        try {
+            out = new ArrayList<>(1);
+            lines.finish(this::onLine);
+            dispatch();
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode server-sent event", e);
+        }
+    }
+
+    private void onLine(byte[] buf, int off, int len) throws IOException {
+        if (done) {
+            return;
+        }
+        if (len == 0) {
+            dispatch();
+            return;
+        }
+        if (buf[off] == ':') {
+            return; // 注释行
+        }
+        if (!startsWith(buf, off, len, DATA_FIELD) || (len > 4 && buf[off + 4] != ':')) {
+            return; // event、id、retry 等字段不影响负载
+        }
+        int valueStart = off + Math.min(len, 5);
+        if (valueStart < off + len && buf[valueStart] == ' ') {
+            valueStart++;
+        }
+        appendData(buf, valueStart, off + len - valueStart);
+    }
+
+    private void appendData(byte[] buf, int off, int len) {
+        int required = dataLength + len + 1;
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+        }
+        if (dataLines > 0) {
+            data[dataLength++] = '\n';
+        }
+        System.arraycopy(buf, off, data, dataLength, len);
+        dataLength += len;
+        dataLines++;
+    }
+
+    private void dispatch() throws IOException {
+        if (dataLines == 0) {
+            return;
+        }
+        int len = dataLength;
+        dataLength = 0;
+        dataLines = 0;
+        if (len == DONE.length && startsWith(data, 0, len, DONE)) {
+            done = true;
+            return;
+        }
+        parser.parse(data, 0, len, out);
+    }
+
+    private static boolean startsWith(byte[] buf, int off, int len, byte[] prefix) {
+        if (len < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf[off + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 流式响应帧解析器，把一帧 JSON 负载解析成增量事件
+ *
+ * <p>各提供方的帧格式不同，由对应实现负责；负载以字节切片传入，实现应直接从字节解析，
+ * 不要先转换成字符串。
+ */
+@FunctionalInterface
+public interface StreamChunkParser {
+
+    /**
+     * 解析一帧负载
+     * @param buf 字节数组
+     * @param off 负载起始位置
+     * @param len 负载长度
+     * @param out 解析出的事件追加到此列表
+     */
+    void parse(byte[] buf, int off, int len, List<StreamEvent> out) throws IOException;
+}
@@ -0,0 +1,162 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.model.ToolCall;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 把流式响应中的函数调用片段拼接成完整的工具调用
+ *
+ * <p>按 index 累积每个调用的 id、名称和参数片段，对新到达的参数字符增量扫描 JSON 结构（只跟踪嵌套深度和字符串、
+ * 转义状态，不做完整解析），顶层对象闭合的那一刻该调用即完成，由 {@link #accept} 返回，调用方可以在模型继续生成
+ * 其余内容时先执行它。流结束时用 {@link #finish()} 取出参数未闭合或为空的剩余调用。
+ *
+ * <p>非线程安全，一个实例对应一次流式响应，事件需按顺序传入。
+ */
+public final class ToolCallAssembler {
+    private final Map<Integer, Pending> calls = new TreeMap<>();
+    private int nextIndex;
+
+    /**
+     * 处理一个流式事件
+     * @return 因本事件完成的调用，没有时返回空列表
+     */
+    public List<ToolCall> accept(StreamEvent event) {
+        if (event.getFunctionCalls() == null) {
+            return List.of();
+        }
+        List<ToolCall> completed = null;
+        for (StreamEvent.FunctionCallDelta delta : event.getFunctionCalls()) {
+            int index = delta.getIndex() != null ? delta.getIndex() : 0;
+            Pending call = calls.get(index);
+            // Ollama 每帧从 0 编号完整调用：已完成的下标再次出现名称时视为新调用
+            if (call != null && call.emitted && delta.getName() != null) {
+                index = nextIndex;
+                call = null;
+            }
+            if (call == null) {
+                call = new Pending(index);
+                calls.put(index, call);
+                nextIndex = Math.max(nextIndex, index + 1);
+            }
+            if (call.emitted) {
+                // 完成后的多余片段（例如尾部空白）忽略
+                continue;
+            }
+            call.append(delta);
+            if (call.isComplete()) {
+                call.emitted = true;
+                if (completed == null) {
+                    completed = new ArrayList<>(2);
+                }
+                completed.add(call.toToolCall());
+            }
+        }
+        return completed != null ? completed : List.of();
+    }
+
+    /**
+     * 流结束时调用，返回有名称但参数未闭合（或没有参数）的剩余调用，参数为空时按 {@code {}} 处理
+     */
+    public List<ToolCall> finish() {
+        List<ToolCall> remaining = new ArrayList<>(0);
+        for (Pending call : calls.values()) {
+            if (!call.emitted && call.name != null) {
+                call.emitted = true;
+                remaining.add(call.toToolCall());
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 已完成的全部调用，按 index 排序
+     */
+    public List<ToolCall> getToolCalls() {
+        List<ToolCall> toolCalls = new ArrayList<>(calls.size());
+        for (Pending call : calls.values()) {
+            if (call.emitted) {
+                toolCalls.add(call.toToolCall());
+            }
+        }
+        return toolCalls;
+    }
+
+    private static final class Pending {
+        private final int index;
+        private final StringBuilder arguments = new StringBuilder();
+        private String id;
+        private String name;
+        private boolean emitted;
+
+        // 参数 JSON 的增量扫描状态
+        private int scanned;
+        private int depth;
+        private boolean started;
+        private boolean inString;
+        private boolean escaped;
+        private boolean closed;
+        private boolean malformed;
+
+        private Pending(int index) {
+            this.index = index;
+        }
+
+        private void append(StreamEvent.FunctionCallDelta delta) {
+            if (delta.getId() != null) {
+                id = delta.getId();
+            }
+            if (delta.getName() != null && !delta.getName().isEmpty()) {
+                name = delta.getName();
+            }
+            if (delta.getArguments() != null) {
+                arguments.append(delta.getArguments());
+                scan();
+            }
+        }
+
+        private void scan() {
+            int length = arguments.length();
+            while (scanned < length && !closed && !malformed) {
+                char c = arguments.charAt(scanned++);
+                if (!started) {
+                    if (c == '{') {
+                        started = true;
+                        depth = 1;
+                    } else if (!Character.isWhitespace(c)) {
+                        // 不是 JSON 对象，等流结束后原样交给调用方
+                        malformed = true;
+                    }
+                } else if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    closed = true;
+                }
+            }
+        }
+
+        private boolean isComplete() {
+            return closed && name != null;
+        }
+
+        private ToolCall toToolCall() {
+            // 闭合后追加的片段不属于参数
+            String json = closed ? arguments.substring(0, scanned) : arguments.toString();
+            return ToolCall.of(id != null ? id : "call_" + index, name, json.isBlank() ? "{}" : json);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.neuroflow.core.client.http;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 模型客户端 HTTP 连接池配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.gateway.connection-pool} 及按提供方覆盖的配置项。
+ */
+@Getter
+@Setter
+public class ConnectionPoolSettings {
+    // 每个远端地址的最大连接数
+    private int maxConnections = 100;
+    // 等待获取连接的最大排队数，超出后立即失败
+    private int pendingAcquireMaxCount = 500;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    // 后台清理空闲连接的间隔，为 0 时只在获取连接时清理
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private boolean keepAlive = true;
+    // 开启后优先协商 HTTP/2，多个请求复用同一连接
+    private boolean http2 = false;
+}
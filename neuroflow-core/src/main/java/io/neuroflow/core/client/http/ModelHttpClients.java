@@ -0,0 +1,187 @@
+package io.neuroflow.core.client.http;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模型客户端共享的 HTTP 连接池工厂
+ *
+ * <p>每个模型提供方（openai、qwen、ollama 等）对应一个 Reactor Netty 连接池，
+ * 同一提供方的所有客户端共享该连接池。连接池参数来自默认配置，可按提供方覆盖。
+ * 同时记录连接池实时状态（活跃、空闲、排队）和获取连接的耗时。
+ */
+public class ModelHttpClients implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ModelHttpClients.class);
+
+    private final ConnectionPoolSettings defaults;
+    private final Map<String, ConnectionPoolSettings> overrides;
+    private final Map<String, ProviderPool> pools = new ConcurrentHashMap<>();
+
+    public ModelHttpClients() {
+        this(new ConnectionPoolSettings(), Collections.emptyMap());
+    }
+
+    public ModelHttpClients(ConnectionPoolSettings defaults, Map<String, ConnectionPoolSettings> overrides) {
+        this.defaults = defaults;
+        this.overrides = overrides != null ? overrides : Collections.emptyMap();
+    }
+
+    /**
+     * 获取绑定到提供方连接池的 WebClient.Builder
+     * @param provider 提供方名称
+     * @return 新的 WebClient.Builder，调用方可继续设置 baseUrl、默认请求头等
+     */
+    public WebClient.Builder webClientBuilder(String provider) {
+        ProviderPool pool = pools.computeIfAbsent(provider, this::createPool);
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(pool.httpClient));
+    }
+
+    /**
+     * 获取所有提供方连接池的状态快照
+     * @return 提供方名称到连接池状态的映射
+     */
+    public Map<String, PoolStats> getPoolStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        pools.forEach((provider, pool) -> stats.put(provider, pool.snapshot()));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(pool -> pool.provider.disposeLater().block());
+        pools.clear();
+        log.info("[ModelHttpClients] 连接池已释放");
+    }
+
+    private ProviderPool createPool(String provider) {
+        ConnectionPoolSettings settings = overrides.getOrDefault(provider, defaults);
+        ProviderPool pool = new ProviderPool();
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("neuroflow-" + provider)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                .metrics(true, () -> pool);
+        if (!settings.getEvictionInterval().isZero()) {
+            builder.evictInBackground(settings.getEvictionInterval());
+        }
+        pool.provider = builder.build();
+        pool.maxConnections = settings.getMaxConnections();
+
+        HttpClient httpClient = HttpClient.create(pool.provider)
+                .keepAlive(settings.isKeepAlive())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .mapConnect(connect -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return connect.doOnSuccess(c -> pool.recordAcquire(System.nanoTime() - start));
+                }));
+        if (settings.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        pool.httpClient = httpClient;
+
+        log.info("[ModelHttpClients] 创建连接池: {}，最大连接数: {}，最大排队数: {}，HTTP/2: {}",
+                provider, settings.getMaxConnections(), settings.getPendingAcquireMaxCount(), settings.isHttp2());
+        return pool;
+    }
+
+    /**
+     * 单个提供方的连接池及其指标
+     *
+     * <p>Reactor Netty 按远端地址分别建池，这里汇总同一提供方下所有远端地址的指标。
+     */
+    private static class ProviderPool implements ConnectionProvider.MeterRegistrar {
+        private final Map<SocketAddress, ConnectionPoolMetrics> metrics = new ConcurrentHashMap<>();
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private ConnectionProvider provider;
+        private HttpClient httpClient;
+        private int maxConnections;
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics poolMetrics) {
+            metrics.put(remoteAddress, poolMetrics);
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            metrics.remove(remoteAddress);
+        }
+
+        void recordAcquire(long nanos) {
+            acquireCount.increment();
+            acquireNanos.add(nanos);
+            maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        PoolStats snapshot() {
+            List<ConnectionPoolMetrics> all = List.copyOf(metrics.values());
+            long count = acquireCount.sum();
+            return new PoolStats(
+                    all.stream().mapToInt(ConnectionPoolMetrics::acquiredSize).sum(),
+                    all.stream().mapToInt(ConnectionPoolMetrics::idleSize).sum(),
+                    all.stream().mapToInt(ConnectionPoolMetrics::pendingAcquireSize).sum(),
+                    maxConnections,
+                    all.size(),
+                    count,
+                    count > 0 ? (double) acquireNanos.sum() / count / 1_000_000 : 0.0,
+                    maxAcquireNanos.get() / 1_000_000.0
+            );
+        }
+    }
+
+    /**
+     * 连接池状态快照
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int pendingAcquires;
+        private final int maxConnections;
+        private final int remoteHosts;
+        private final long acquireCount;
+        private final double averageAcquireMillis;
+        private final double maxAcquireMillis;
+
+        public PoolStats(int active, int idle, int pendingAcquires, int maxConnections, int remoteHosts,
+                         long acquireCount, double averageAcquireMillis, double maxAcquireMillis) {
+            this.active = active;
+            this.idle = idle;
+            this.pendingAcquires = pendingAcquires;
+            this.maxConnections = maxConnections;
+            this.remoteHosts = remoteHosts;
+            this.acquireCount = acquireCount;
+            this.averageAcquireMillis = averageAcquireMillis;
+            this.maxAcquireMillis = maxAcquireMillis;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getPendingAcquires() { return pendingAcquires; }
+        public int getMaxConnections() { return maxConnections; }
+        public int getRemoteHosts() { return remoteHosts; }
+        public long getAcquireCount() { return acquireCount; }
+        public double getAverageAcquireMillis() { return averageAcquireMillis; }
+        public double getMaxAcquireMillis() { return maxAcquireMillis; }
+    }
+}
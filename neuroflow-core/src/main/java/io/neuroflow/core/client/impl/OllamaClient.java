@@ -0,0 +1,248 @@
+package io.neuroflow.core.client.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.neuroflow.core.client.ModelClient;
+import io.neuroflow.core.client.codec.NdjsonDecoder;
+import io.neuroflow.core.client.codec.OllamaChunkParser;
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.FunctionSpec;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.model.ToolCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地 Ollama 服务客户端
+ *
+ * <p>调用 {@code /api/chat}，流式响应为 NDJSON，按行增量解码。每个客户端绑定一个本地模型，
+ * 请求中的 model 只用于网关路由，不发送给 Ollama。设置 keepAlive 后每个请求都带上
+ * {@code keep_alive}，模型在空闲期间保持加载；{@link #warmUp()} 可以在启动时提前加载模型，
+ * 避免第一个请求承担模型加载时间。
+ */
+public class OllamaClient implements ModelClient {
+    private static final Logger log = LoggerFactory.getLogger(OllamaClient.class);
+    private static final OllamaChunkParser CHUNK_PARSER = new OllamaChunkParser();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> ARGUMENTS_TYPE = new TypeReference<>() {};
+    private static final String DEFAULT_BASE_URL = "http://localhost:11434";
+
+    private final WebClient webClient;
+    private final String model;
+    private final String keepAlive;
+
+    public OllamaClient(String baseUrl, String model) {
+        this(baseUrl, model, null, WebClient.builder());
+    }
+
+    /**
+     * @param baseUrl Ollama 服务地址
+     * @param model 本地模型名称，例如 llama3
+     * @param keepAlive 模型空闲后保持加载的时间，例如 "30m"，"-1" 表示一直保持；为 null 时使用服务端默认值
+     * @param webClientBuilder 已绑定连接池的 WebClient.Builder，见 {@link io.neuroflow.core.client.http.ModelHttpClients}
+     */
+    public OllamaClient(String baseUrl, String model, String keepAlive, WebClient.Builder webClientBuilder) {
+        this.model = model;
+        this.keepAlive = keepAlive;
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl != null ? baseUrl : DEFAULT_BASE_URL)
+                .build();
+    }
+
+    @Override
+    public Mono<ModelResponse> call(ModelRequest request) {
+        log.info("[OllamaClient] 发送请求到 Ollama，模型: {}", model);
+        log.debug("[OllamaClient] 请求详情: {}", request);
+        return webClient.post()
+                .uri("/api/chat")
+                .bodyValue(chatBody(request, false))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .flatMap(body -> Mono.fromCallable(() -> toResponse(body)))
+                .doOnSuccess(res -> {
+                    log.info("[OllamaClient] 收到 Ollama 响应，模型: {}", model);
+                    if (res.getUsage() != null) {
+                        log.debug("[OllamaClient] Token 使用情况: 提示词={}, 完成={}, 总计={}",
+                                res.getUsage().getPromptTokens(),
+                                res.getUsage().getCompletionTokens(),
+                                res.getUsage().getTotalTokens());
+                    }
+                })
+                .doOnError(e -> log.error("[OllamaClient] Ollama 请求失败，模型: {}", model, e));
+    }
+
+    @Override
+    public Flux<String> stream(ModelRequest request) {
+        return streamEvents(request)
+                .filter(StreamEvent::hasContent)
+                .map(StreamEvent::getContent);
+    }
+
+    @Override
+    public Flux<StreamEvent> streamEvents(ModelRequest request) {
+        log.info("[OllamaClient] 发送流式请求到 Ollama，模型: {}", model);
+        log.debug("[OllamaClient] 流式请求详情: {}", request);
+        Flux<DataBuffer> body = webClient.post()
+                .uri("/api/chat")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(chatBody(request, true))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        return NdjsonDecoder.decode(body, CHUNK_PARSER)
+                .doOnNext(event -> log.debug("[OllamaClient] 流式响应事件: {}", event))
+                .doOnComplete(() -> log.info("[OllamaClient] Ollama 流式请求完成，模型: {}", model))
+                .doOnError(e -> log.error("[OllamaClient] Ollama 流式请求失败，模型: {}", model, e));
+    }
+
+    /**
+     * 预热：发送不带提示词的 {@code /api/generate} 请求，让 Ollama 把模型加载到内存并按 keepAlive 保持
+     * @return 模型加载完成后结束
+     */
+    public Mono<Void> warmUp() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        if (keepAlive != null) {
+            body.put("keep_alive", keepAlive);
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            log.info("[OllamaClient] 开始预热模型: {}", model);
+            return webClient.post()
+                    .uri("/api/generate")
+                    .bodyValue(body)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .doOnSuccess(entity -> log.info("[OllamaClient] 模型预热完成: {}，耗时: {}ms",
+                            model, (System.nanoTime() - start) / 1_000_000))
+                    .doOnError(e -> log.warn("[OllamaClient] 模型预热失败: {}", model, e))
+                    .then();
+        });
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    private Map<String, Object> chatBody(ModelRequest request, boolean stream) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        try {
+            body.put("messages", messages(request));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid tool call arguments in request messages", e);
+        }
+        body.put("stream", stream);
+        Map<String, Object> options = new LinkedHashMap<>();
+        if (request.getTemperature() != null) {
+            options.put("temperature", request.getTemperature());
+        }
+        if (request.getMaxTokens() != null) {
+            options.put("num_predict", request.getMaxTokens());
+        }
+        if (!options.isEmpty()) {
+            body.put("options", options);
+        }
+        if (request.getFunctions() != null && !request.getFunctions().isEmpty()) {
+            List<Map<String, Object>> tools = new ArrayList<>(request.getFunctions().size());
+            for (FunctionSpec function : request.getFunctions()) {
+                tools.add(Map.of("type", "function", "function", function));
+            }
+            body.put("tools", tools);
+        }
+        if (keepAlive != null) {
+            body.put("keep_alive", keepAlive);
+        }
+        return body;
+    }
+
+    private static List<Map<String, Object>> messages(ModelRequest request) throws IOException {
+        List<Map<String, Object>> messages = new ArrayList<>();
+        if (request.getMessages() != null) {
+            for (ChatMessage message : request.getMessages()) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                // Ollama 用 tool 角色承载函数结果
+                m.put("role", "function".equals(message.getRole()) ? "tool" : message.getRole());
+                m.put("content", message.getContent() != null ? message.getContent() : "");
+                if (message.getToolCalls() != null && !message.getToolCalls().isEmpty()) {
+                    m.put("tool_calls", toolCalls(message.getToolCalls()));
+                }
+                messages.add(m);
+            }
+        }
+        if (request.getPrompt() != null) {
+            messages.add(Map.of("role", "user", "content", request.getPrompt()));
+        }
+        return messages;
+    }
+
+    // Ollama 的工具调用参数是 JSON 对象而不是字符串，也没有调用 id
+    private static List<Map<String, Object>> toolCalls(List<ToolCall> toolCalls) throws IOException {
+        List<Map<String, Object>> calls = new ArrayList<>(toolCalls.size());
+        for (ToolCall call : toolCalls) {
+            Map<String, Object> function = new LinkedHashMap<>();
+            function.put("name", call.getFunction().getName());
+            String arguments = call.getFunction().getArguments();
+            function.put("arguments", arguments != null && !arguments.isBlank()
+                    ? MAPPER.readValue(arguments, ARGUMENTS_TYPE) : Map.of());
+            calls.add(Map.of("function", function));
+        }
+        return calls;
+    }
+
+    private ModelResponse toResponse(byte[] body) throws IOException {
+        List<StreamEvent> events = new ArrayList<>(1);
+        CHUNK_PARSER.parse(body, 0, body.length, events);
+        if (events.isEmpty()) {
+            throw new IOException("Empty response from Ollama");
+        }
+        StreamEvent event = events.get(0);
+
+        ChatMessage message = new ChatMessage();
+        message.setRole(event.getRole() != null ? event.getRole() : "assistant");
+        message.setContent(event.getContent());
+        ModelResponse.Choice choice = new ModelResponse.Choice();
+        choice.setIndex(0);
+        choice.setMessage(message);
+        choice.setFinishReason(event.getFinishReason());
+
+        ModelResponse response = new ModelResponse();
+        // Ollama 响应没有 ID，用生成时间代替
+        response.setId(event.getId());
+        response.setObject("chat.completion");
+        response.setModel(event.getModel() != null ? event.getModel() : model);
+        response.setChoices(List.of(choice));
+        response.setUsage(event.getUsage());
+        if (event.getFunctionCalls() != null) {
+            List<ToolCall> toolCalls = new ArrayList<>(event.getFunctionCalls().size());
+            for (StreamEvent.FunctionCallDelta call : event.getFunctionCalls()) {
+                // Ollama 不返回调用 id，按下标生成，结果消息用它对应回调用
+                String id = call.getId() != null ? call.getId() : "call_" + toolCalls.size();
+                toolCalls.add(ToolCall.of(id, call.getName(), call.getArguments() != null ? call.getArguments() : "{}"));
+            }
+            message.setToolCalls(toolCalls);
+
+            // 兼容只读取单个 functionCall 的调用方
+            StreamEvent.FunctionCallDelta call = event.getFunctionCalls().get(0);
+            ModelResponse.FunctionCall functionCall = new ModelResponse.FunctionCall();
+            functionCall.setName(call.getName());
+            if (call.getArguments() != null) {
+                functionCall.setArguments(MAPPER.readValue(call.getArguments(), ARGUMENTS_TYPE));
+            }
+            response.setFunctionCall(functionCall);
+        }
+        return response;
+    }
+}
@@ -2,24 +2,41 @@ package io.neuroflow.core.client.impl;
 
 
 import io.neuroflow.core.client.ModelClient;
+import io.neuroflow.core.client.codec.OpenAIChunkParser;
+import io.neuroflow.core.client.codec.ServerSentEventDecoder;
 import io.neuroflow.core.model.ModelRequest;
 import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.ratelimit.RateLimitHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class OpenAIClient implements ModelClient {
     private static final Logger log = LoggerFactory.getLogger(OpenAIClient.class);
+    private static final OpenAIChunkParser CHUNK_PARSER = new OpenAIChunkParser();
+    private static final String DEFAULT_ENDPOINT = "https://api.openai.com/v1";
 
     private final WebClient webClient;
     private final String apiKey;
 
     public OpenAIClient(String apiKey) {
+        this(apiKey, DEFAULT_ENDPOINT, WebClient.builder());
+    }
+
+    /**
+     * @param apiKey API Key
+     * @param endpoint 接口地址
+     * @param webClientBuilder 已绑定连接池的 WebClient.Builder，见 {@link io.neuroflow.core.client.http.ModelHttpClients}
+     */
+    public OpenAIClient(String apiKey, String endpoint, WebClient.Builder webClientBuilder) {
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
-                .baseUrl("https://api.openai.com/v1")
+        this.webClient = webClientBuilder
+                .baseUrl(endpoint != null ? endpoint : DEFAULT_ENDPOINT)
                 .defaultHeader("Authorization", "Bearer " + apiKey)
                 .build();
     }
@@ -32,7 +49,14 @@ public class OpenAIClient implements ModelClient {
                 .uri("/chat/completions")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(ModelResponse.class)
+                .toEntity(ModelResponse.class)
+                .mapNotNull(entity -> {
+                    ModelResponse body = entity.getBody();
+                    if (body != null) {
+                        body.setRateLimitHeaders(RateLimitHeaders.extract(entity.getHeaders()));
+                    }
+                    return body;
+                })
                 .doOnSuccess(res -> {
                     log.info("[OpenAIClient] 收到 OpenAI 响应，模型: {}，响应ID: {}", request.getModel(), res.getId());
                     if (res.getUsage() != null) {
@@ -47,14 +71,23 @@ public class OpenAIClient implements ModelClient {
 
     @Override
     public Flux<String> stream(ModelRequest request) {
+        return streamEvents(request)
+                .filter(StreamEvent::hasContent)
+                .map(StreamEvent::getContent);
+    }
+
+    @Override
+    public Flux<StreamEvent> streamEvents(ModelRequest request) {
         log.info("[OpenAIClient] 发送流式请求到 OpenAI，模型: {}", request.getModel());
         log.debug("[OpenAIClient] 流式请求详情: {}", request);
-        return webClient.post()
+        Flux<DataBuffer> body = webClient.post()
                 .uri("/chat/completions")
+                .accept(MediaType.TEXT_EVENT_STREAM)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToFlux(String.class)
-                .doOnNext(chunk -> log.debug("[OpenAIClient] 流式响应块: {}", chunk))
+                .bodyToFlux(DataBuffer.class);
+        return ServerSentEventDecoder.decode(body, CHUNK_PARSER)
+                .doOnNext(event -> log.debug("[OpenAIClient] 流式响应事件: {}", event))
                 .doOnComplete(() -> log.info("[OpenAIClient] OpenAI 流式请求完成，模型: {}", request.getModel()))
                 .doOnError(e -> log.error("[OpenAIClient] OpenAI 流式请求失败，模型: {}", request.getModel(), e));
     }
@@ -1,10 +1,16 @@
 package io.neuroflow.core.client.impl;
 
 import io.neuroflow.core.client.ModelClient;
+import io.neuroflow.core.client.codec.DashScopeChunkParser;
+import io.neuroflow.core.client.codec.ServerSentEventDecoder;
 import io.neuroflow.core.model.ModelRequest;
 import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.ratelimit.RateLimitHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -16,8 +22,17 @@ public class QwenClient implements ModelClient {
     private final String apiKey;
 
     public QwenClient(String apiKey, String endpoint) {
+        this(apiKey, endpoint, WebClient.builder());
+    }
+
+    /**
+     * @param apiKey API Key
+     * @param endpoint 接口地址
+     * @param webClientBuilder 已绑定连接池的 WebClient.Builder，见 {@link io.neuroflow.core.client.http.ModelHttpClients}
+     */
+    public QwenClient(String apiKey, String endpoint, WebClient.Builder webClientBuilder) {
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
+        this.webClient = webClientBuilder
                 .baseUrl(endpoint)
                 .defaultHeader("Authorization", "Bearer " + apiKey)
                 .build();
@@ -31,7 +46,14 @@ public class QwenClient implements ModelClient {
                 .uri("/api/v1/services/aigc/text-generation/generation")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(ModelResponse.class)
+                .toEntity(ModelResponse.class)
+                .mapNotNull(entity -> {
+                    ModelResponse body = entity.getBody();
+                    if (body != null) {
+                        body.setRateLimitHeaders(RateLimitHeaders.extract(entity.getHeaders()));
+                    }
+                    return body;
+                })
                 .doOnSuccess(res -> {
                     log.info("[QwenClient] 收到 Qwen 响应，模型: {}，响应ID: {}", request.getModel(), res.getId());
                     if (res.getUsage() != null) {
@@ -46,14 +68,25 @@ public class QwenClient implements ModelClient {
 
     @Override
     public Flux<String> stream(ModelRequest request) {
+        return streamEvents(request)
+                .filter(StreamEvent::hasContent)
+                .map(StreamEvent::getContent);
+    }
+
+    @Override
+    public Flux<StreamEvent> streamEvents(ModelRequest request) {
         log.info("[QwenClient] 发送流式请求到 Qwen，模型: {}", request.getModel());
         log.debug("[QwenClient] 流式请求详情: {}", request);
-        return webClient.post()
+        Flux<DataBuffer> body = webClient.post()
                 .uri("/api/v1/services/aigc/text-generation/generation")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("X-DashScope-SSE", "enable")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToFlux(String.class)
-                .doOnNext(chunk -> log.debug("[QwenClient] 流式响应块: {}", chunk))
+                .bodyToFlux(DataBuffer.class);
+        // 解析器记录已输出的文本，每次订阅使用新实例
+        return Flux.defer(() -> ServerSentEventDecoder.decode(body, new DashScopeChunkParser()))
+                .doOnNext(event -> log.debug("[QwenClient] 流式响应事件: {}", event))
                 .doOnComplete(() -> log.info("[QwenClient] Qwen 流式请求完成，模型: {}", request.getModel()))
                 .doOnError(e -> log.error("[QwenClient] Qwen 流式请求失败，模型: {}", request.getModel(), e));
     }
@@ -9,4 +9,10 @@ public @interface AIFunction {
     String name();
     String description() default "";
     int timeout() default 3000;
+    // 同时执行的最大调用数，0 表示使用 neuroflow.functions.default-max-concurrency
+    int maxConcurrency() default 0;
+    // 相同参数总是返回相同结果（地理编码、商品目录、天气等），开启后注册表会缓存结果
+    boolean idempotent() default false;
+    // 结果缓存时间（秒），只对 idempotent 的函数生效
+    long cacheTtl() default 300;
 } 
\ No newline at end of file
@@ -0,0 +1,469 @@
+package io.neuroflow.core.function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * 函数参数转换器
+ *
+ * <p>模型给出的工具调用参数是 JSON 类型：整数可能是 Integer 而方法需要 long，枚举是字符串，对象是嵌套 Map。
+ * 注册时按参数的声明类型（含泛型）编译出一个转换器，调用时只执行对应类型的转换逻辑：
+ * 基本类型和包装类型（整数做范围和精度检查）、String、枚举（不区分大小写）、BigDecimal/BigInteger、
+ * java.time 日期时间和 Duration（ISO-8601）、UUID、数组、List/Set/Collection、Map、Optional，
+ * 其余类型（record、POJO）由嵌套 Map 通过 Jackson 绑定。
+ *
+ * <p>无法转换时抛出 {@link IllegalArgumentException}，消息说明失败原因，期望类型见 {@link #getExpectedType()}。
+ */
+public final class ArgumentConverter {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .build();
+    // 错误信息中实际值的最大长度
+    private static final int MAX_ACTUAL_LENGTH = 80;
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            int.class, Integer.class, long.class, Long.class, short.class, Short.class, byte.class, Byte.class,
+            double.class, Double.class, float.class, Float.class, boolean.class, Boolean.class, char.class, Character.class);
+
+    private final String expectedType;
+    private final Function<Object, Object> conversion;
+
+    private ArgumentConverter(String expectedType, Function<Object, Object> conversion) {
+        this.expectedType = expectedType;
+        this.conversion = conversion;
+    }
+
+    /**
+     * 转换参数值，null 原样返回
+     * @throws IllegalArgumentException 值无法转换为目标类型
+     */
+    public Object convert(Object value) {
+        return value == null ? null : conversion.apply(value);
+    }
+
+    /**
+     * 面向模型的期望类型描述，例如 integer、one of [LOW, HIGH]、array of string
+     */
+    public String getExpectedType() {
+        return expectedType;
+    }
+
+    /**
+     * 按声明类型编译转换器
+     */
+    public static ArgumentConverter forType(Type type) {
+        if (type instanceof Class<?> c) {
+            return forClass(c);
+        }
+        if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> raw) {
+            Type[] args = p.getActualTypeArguments();
+            if (Optional.class == raw) {
+                ArgumentConverter element = forType(args[0]);
+                return new ArgumentConverter(element.expectedType, value -> value instanceof Optional<?> o
+                        ? o.map(element::convert) : Optional.ofNullable(element.convert(value)));
+            }
+            if (Collection.class.isAssignableFrom(raw)) {
+                return collection(raw, forType(args[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return map(forType(args[1]));
+            }
+            return bean(MAPPER.constructType(type));
+        }
+        if (type instanceof GenericArrayType g) {
+            ArgumentConverter element = forType(g.getGenericComponentType());
+            Class<?> component = MAPPER.constructType(g.getGenericComponentType()).getRawClass();
+            return array(component, element);
+        }
+        // 类型变量、通配符等无法确定具体类型，按原值传入
+        return forClass(Object.class);
+    }
+
+    private static ArgumentConverter forClass(Class<?> c) {
+        if (c == Object.class) {
+            return new ArgumentConverter("any", value -> value);
+        }
+        Class<?> boxed = c.isPrimitive() ? WRAPPERS.get(c) : c;
+        if (boxed == String.class) {
+            return new ArgumentConverter("string", value -> {
+                if (value instanceof String) {
+                    return value;
+                }
+                if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Character) {
+                    return value.toString();
+                }
+                throw mismatch(value);
+            });
+        }
+        if (boxed == Integer.class) {
+            return integral("integer", Integer.MIN_VALUE, Integer.MAX_VALUE, v -> (int) v);
+        }
+        if (boxed == Long.class) {
+            return integral("integer", Long.MIN_VALUE, Long.MAX_VALUE, v -> v);
+        }
+        if (boxed == Short.class) {
+            return integral("integer", Short.MIN_VALUE, Short.MAX_VALUE, v -> (short) v);
+        }
+        if (boxed == Byte.class) {
+            return integral("integer", Byte.MIN_VALUE, Byte.MAX_VALUE, v -> (byte) v);
+        }
+        if (boxed == Double.class) {
+            return floating(v -> v);
+        }
+        if (boxed == Float.class) {
+            return floating(v -> (float) v);
+        }
+        if (boxed == Boolean.class) {
+            return new ArgumentConverter("boolean", value -> {
+                if (value instanceof Boolean) {
+                    return value;
+                }
+                if (value instanceof String s) {
+                    if ("true".equalsIgnoreCase(s.trim())) {
+                        return Boolean.TRUE;
+                    }
+                    if ("false".equalsIgnoreCase(s.trim())) {
+                        return Boolean.FALSE;
+                    }
+                }
+                throw mismatch(value);
+            });
+        }
+        if (boxed == Character.class) {
+            return new ArgumentConverter("single character", value -> {
+                if (value instanceof Character) {
+                    return value;
+                }
+                if (value instanceof String s && s.length() == 1) {
+                    return s.charAt(0);
+                }
+                throw mismatch(value);
+            });
+        }
+        if (c == BigDecimal.class) {
+            return new ArgumentConverter("number", value -> {
+                if (value instanceof BigDecimal) {
+                    return value;
+                }
+                return parse(value, s -> new BigDecimal(s.toString()));
+            });
+        }
+        if (c == BigInteger.class) {
+            return new ArgumentConverter("integer", value -> {
+                if (value instanceof BigInteger) {
+                    return value;
+                }
+                return parse(value, s -> new BigDecimal(s.toString()).toBigIntegerExact());
+            });
+        }
+        if (c.isEnum()) {
+            return enumeration(c);
+        }
+        if (c == LocalDate.class) {
+            return text("ISO-8601 date (yyyy-MM-dd)", LocalDate.class, LocalDate::parse);
+        }
+        if (c == LocalDateTime.class) {
+            return text("ISO-8601 local date-time", LocalDateTime.class, LocalDateTime::parse);
+        }
+        if (c == LocalTime.class) {
+            return text("ISO-8601 time", LocalTime.class, LocalTime::parse);
+        }
+        if (c == OffsetDateTime.class) {
+            return text("ISO-8601 date-time with offset", OffsetDateTime.class, OffsetDateTime::parse);
+        }
+        if (c == ZonedDateTime.class) {
+            return text("ISO-8601 date-time with zone", ZonedDateTime.class, ZonedDateTime::parse);
+        }
+        if (c == Duration.class) {
+            return text("ISO-8601 duration (e.g. PT30S)", Duration.class, Duration::parse);
+        }
+        if (c == UUID.class) {
+            return text("UUID", UUID.class, UUID::fromString);
+        }
+        if (c == Instant.class) {
+            return new ArgumentConverter("ISO-8601 instant or epoch milliseconds", value -> {
+                if (value instanceof Instant) {
+                    return value;
+                }
+                if (value instanceof Long || value instanceof Integer) {
+                    return Instant.ofEpochMilli(((Number) value).longValue());
+                }
+                return parse(value, s -> Instant.parse(s.toString()));
+            });
+        }
+        if (c.isArray()) {
+            return array(c.getComponentType(), forClass(c.getComponentType()));
+        }
+        if (Collection.class.isAssignableFrom(c)) {
+            return collection(c, forClass(Object.class));
+        }
+        if (Map.class.isAssignableFrom(c)) {
+            return map(forClass(Object.class));
+        }
+        return bean(MAPPER.constructType(c));
+    }
+
+    private static ArgumentConverter integral(String expected, long min, long max, LongFunction<Object> box) {
+        return new ArgumentConverter(expected, value -> {
+            long v;
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                v = ((Number) value).longValue();
+            } else if (value instanceof Number || value instanceof String) {
+                BigDecimal decimal = (BigDecimal) parse(value, s -> new BigDecimal(s.toString().trim()));
+                try {
+                    v = decimal.longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("not a whole number in range");
+                }
+            } else {
+                throw mismatch(value);
+            }
+            if (v < min || v > max) {
+                throw new IllegalArgumentException("out of range [" + min + ", " + max + "]");
+            }
+            return box.apply(v);
+        });
+    }
+
+    private static ArgumentConverter floating(DoubleFunction<Object> box) {
+        return new ArgumentConverter("number", value -> {
+            if (value instanceof Number n) {
+                return box.apply(n.doubleValue());
+            }
+            if (value instanceof String s) {
+                try {
+                    return box.apply(Double.parseDouble(s.trim()));
+                } catch (NumberFormatException e) {
+                    throw mismatch(value);
+                }
+            }
+            throw mismatch(value);
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentConverter enumeration(Class<?> type) {
+        Object[] constants = type.getEnumConstants();
+        Map<String, Object> byName = new HashMap<>();
+        for (Object constant : constants) {
+            byName.put(((Enum) constant).name().toUpperCase(Locale.ROOT), constant);
+        }
+        return new ArgumentConverter("one of " + Arrays.toString(constants), value -> {
+            if (type.isInstance(value)) {
+                return value;
+            }
+            if (value instanceof String s) {
+                Object constant = byName.get(s.trim().toUpperCase(Locale.ROOT));
+                if (constant != null) {
+                    return constant;
+                }
+            }
+            throw new IllegalArgumentException("not an allowed value");
+        });
+    }
+
+    private static ArgumentConverter text(String expected, Class<?> type, Function<String, Object> parser) {
+        return new ArgumentConverter(expected, value -> {
+            if (type.isInstance(value)) {
+                return value;
+            }
+            if (value instanceof String s) {
+                try {
+                    return parser.apply(s.trim());
+                } catch (DateTimeParseException | IllegalArgumentException e) {
+                    throw new IllegalArgumentException("cannot be parsed");
+                }
+            }
+            throw mismatch(value);
+        });
+    }
+
+    private static ArgumentConverter array(Class<?> component, ArgumentConverter element) {
+        return new ArgumentConverter("array of " + element.expectedType, value -> {
+            List<?> items = items(value);
+            Object array = Array.newInstance(component, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Object item = convertElement(element, items.get(i), i);
+                if (item == null && component.isPrimitive()) {
+                    throw new IllegalArgumentException("element " + i + " is null");
+                }
+                Array.set(array, i, item);
+            }
+            return array;
+        });
+    }
+
+    private static ArgumentConverter collection(Class<?> raw, ArgumentConverter element) {
+        boolean set = Set.class.isAssignableFrom(raw);
+        return new ArgumentConverter("array of " + element.expectedType, value -> {
+            List<?> items = items(value);
+            Collection<Object> result = set ? new LinkedHashSet<>() : new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                result.add(convertElement(element, items.get(i), i));
+            }
+            return result;
+        });
+    }
+
+    private static ArgumentConverter map(ArgumentConverter values) {
+        return new ArgumentConverter("object of " + values.expectedType, value -> {
+            value = parseJsonText(value, '{');
+            if (!(value instanceof Map<?, ?> source)) {
+                throw mismatch(value);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                try {
+                    result.put(key, values.convert(entry.getValue()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("entry '" + key + "' " + e.getMessage());
+                }
+            }
+            return result;
+        });
+    }
+
+    private static ArgumentConverter bean(JavaType type) {
+        Class<?> raw = type.getRawClass();
+        return new ArgumentConverter("object " + raw.getSimpleName(), value -> {
+            if (raw.isInstance(value) && !type.hasContentType()) {
+                return value;
+            }
+            value = parseJsonText(value, '{');
+            if (!(value instanceof Map)) {
+                throw mismatch(value);
+            }
+            try {
+                return MAPPER.convertValue(value, type);
+            } catch (IllegalArgumentException e) {
+                String message = e.getMessage() != null ? e.getMessage() : e.toString();
+                int lineEnd = message.indexOf('\n');
+                throw new IllegalArgumentException(lineEnd > 0 ? message.substring(0, lineEnd) : message);
+            }
+        });
+    }
+
+    private static List<?> items(Object value) {
+        value = parseJsonText(value, '[');
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(value, i));
+            }
+            return list;
+        }
+        throw mismatch(value);
+    }
+
+    private static Object convertElement(ArgumentConverter element, Object item, int index) {
+        try {
+            return element.convert(item);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("element " + index + " " + e.getMessage());
+        }
+    }
+
+    /**
+     * 模型有时把数组或对象编码成 JSON 字符串传入，@DefaultValue 也只能写字符串，以对应括号开头时先解析
+     */
+    private static Object parseJsonText(Object value, char open) {
+        if (value instanceof String s) {
+            String text = s.trim();
+            if (!text.isEmpty() && text.charAt(0) == open) {
+                try {
+                    return MAPPER.readValue(text, Object.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return value;
+    }
+
+    private static Object parse(Object value, Function<Object, Object> parser) {
+        if (!(value instanceof Number) && !(value instanceof String)) {
+            throw mismatch(value);
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+            throw new IllegalArgumentException("cannot be parsed");
+        }
+    }
+
+    private static IllegalArgumentException mismatch(Object value) {
+        return new IllegalArgumentException("wrong type " + jsonType(value));
+    }
+
+    private static String jsonType(Object value) {
+        if (value instanceof Map) {
+            return "object";
+        }
+        if (value instanceof Collection || value.getClass().isArray()) {
+            return "array";
+        }
+        if (value instanceof Number) {
+            return "number";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        if (value instanceof CharSequence) {
+            return "string";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    /**
+     * 错误信息中展示的实际值，过长时截断
+     */
+    static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String text = value instanceof CharSequence ? "\"" + value + "\"" : String.valueOf(value);
+        return text.length() > MAX_ACTUAL_LENGTH ? text.substring(0, MAX_ACTUAL_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,32 @@
+package io.neuroflow.core.function;
+
+/**
+ * 单个函数参数的校验错误，描述期望的类型和实际收到的值，便于模型修正后重新调用
+ */
+public class ArgumentError {
+    private final String parameter;
+    private final String expected;
+    private final String actual;
+    private final String message;
+
+    public ArgumentError(String parameter, String expected, String actual, String message) {
+        this.parameter = parameter;
+        this.expected = expected;
+        this.actual = actual;
+        this.message = message;
+    }
+
+    public static ArgumentError missing(String parameter, String expected) {
+        return new ArgumentError(parameter, expected, null, "missing required parameter");
+    }
+
+    public String getParameter() { return parameter; }
+    public String getExpected() { return expected; }
+    public String getActual() { return actual; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return parameter + ": " + message + " (expected " + expected + (actual != null ? ", got " + actual : "") + ")";
+    }
+}
@@ -0,0 +1,29 @@
+package io.neuroflow.core.function;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 函数参数校验失败，调用前一次性收集所有参数的错误
+ *
+ * <p>异常消息逐条列出参数名、期望类型和实际值，可以直接作为工具调用结果返回给模型。
+ */
+public class FunctionArgumentException extends IllegalArgumentException {
+    private final String function;
+    private final List<ArgumentError> errors;
+
+    public FunctionArgumentException(String function, List<ArgumentError> errors) {
+        super("Invalid arguments for function " + function + ": "
+                + errors.stream().map(ArgumentError::toString).collect(Collectors.joining("; ")));
+        this.function = function;
+        this.errors = List.copyOf(errors);
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public List<ArgumentError> getErrors() {
+        return errors;
+    }
+}
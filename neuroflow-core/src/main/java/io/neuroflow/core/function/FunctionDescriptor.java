@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.List;
 
 @Getter
@@ -15,4 +16,11 @@ public class FunctionDescriptor {
     private Method method;
     private Object target;
     private List<FunctionParameter> parameters;
+    // 调用超时（毫秒），不大于 0 时使用执行器的默认超时
+    private long timeout;
+    // 同时执行的最大调用数，不大于 0 时使用执行器的默认值
+    private int maxConcurrency;
+    // 相同参数总是返回相同结果，开启后结果会在 cacheTtl 内被缓存
+    private boolean idempotent;
+    private Duration cacheTtl;
 }
\ No newline at end of file
@@ -0,0 +1,394 @@
+package io.neuroflow.core.function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 函数执行器
+ *
+ * <p>函数通常是阻塞调用（JDBC、HTTP），直接在订阅线程上执行会占住 Netty 事件循环。执行器把调用放到独立的
+ * 线程池（平台线程或 Java 21 的虚拟线程）上执行，并对每个函数分别限制：
+ * <ul>
+ *   <li>并发隔离：同一函数最多同时执行 {@code maxConcurrency} 个调用，超出的排队，队列满时以
+ *   {@link RejectedExecutionException} 拒绝，一个慢函数不会耗尽其他函数的线程；</li>
+ *   <li>硬超时：排队加执行超过超时时间以 {@link FunctionTimeoutException} 结束，正在执行的线程会被中断，
+ *   并发许可在函数真正返回后才释放，因此并发上限约束的是实际占用的线程数。</li>
+ * </ul>
+ *
+ * <p>没有指定执行器的函数步骤使用 {@link #getDefault()}，Spring Boot 中为自动配置的执行器，否则按默认配置创建。
+ */
+public class FunctionExecutor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(FunctionExecutor.class);
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int defaultMaxConcurrency;
+    private final int maxQueueSize;
+    private final Duration defaultTimeout;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private static volatile FunctionExecutor defaultExecutor;
+
+    public FunctionExecutor(FunctionExecutorSettings settings) {
+        this(settings, createExecutor(settings.getThreadMode()), true);
+    }
+
+    /**
+     * @param executor 执行函数的线程池，由调用方负责关闭
+     */
+    public FunctionExecutor(FunctionExecutorSettings settings, ExecutorService executor) {
+        this(settings, executor, false);
+    }
+
+    private FunctionExecutor(FunctionExecutorSettings settings, ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.defaultMaxConcurrency = Math.max(1, settings.getDefaultMaxConcurrency());
+        this.maxQueueSize = settings.getMaxQueueSize();
+        this.defaultTimeout = settings.getDefaultTimeout();
+        log.info("[FunctionExecutor] 初始化完成，线程类型: {}，默认并发: {}，默认超时: {}ms",
+                settings.getThreadMode(), defaultMaxConcurrency, defaultTimeout.toMillis());
+    }
+
+    private static ExecutorService createExecutor(FunctionExecutorSettings.ThreadMode mode) {
+        if (mode == FunctionExecutorSettings.ThreadMode.VIRTUAL) {
+            try {
+                // 按 Java 17 编译，虚拟线程通过反射创建
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("[FunctionExecutor] 当前 JVM 不支持虚拟线程，改用平台线程: {}", Runtime.version());
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "neuroflow-function-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * 未指定执行器时使用的执行器，未设置时按默认配置创建
+     */
+    public static FunctionExecutor getDefault() {
+        FunctionExecutor current = defaultExecutor;
+        if (current == null) {
+            synchronized (FunctionExecutor.class) {
+                current = defaultExecutor;
+                if (current == null) {
+                    current = new FunctionExecutor(new FunctionExecutorSettings());
+                    defaultExecutor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 设置未指定执行器时使用的执行器，在调用时解析，已创建的步骤同样生效
+     */
+    public static void setDefault(FunctionExecutor executor) {
+        synchronized (FunctionExecutor.class) {
+            defaultExecutor = executor;
+        }
+    }
+
+    /**
+     * 在执行器上调用函数
+     * @param snapshot 注册表版本，函数描述中的 timeout 和 maxConcurrency 决定超时和并发上限
+     * @param name 函数名称
+     * @param args 函数参数
+     * @return 函数返回值，返回 null 时为空 Mono
+     */
+    public Mono<Object> call(FunctionRegistry.Snapshot snapshot, String name, Map<String, Object> args) {
+        return Mono.defer(() -> {
+            FunctionDescriptor descriptor = snapshot.getFunctionDescriptor(name);
+            if (descriptor == null) {
+                return Mono.error(new IllegalArgumentException("Function not found: " + name));
+            }
+            Duration timeout = descriptor.getTimeout() > 0 ? Duration.ofMillis(descriptor.getTimeout()) : defaultTimeout;
+            int limit = descriptor.getMaxConcurrency() > 0 ? descriptor.getMaxConcurrency() : defaultMaxConcurrency;
+            Bulkhead bulkhead = bulkheads.computeIfAbsent(name, Bulkhead::new);
+            return Mono.create((MonoSink<Object> sink) -> bulkhead.submit(new Task(bulkhead, sink, snapshot, args), limit))
+                    .timeout(timeout, Mono.error(() -> {
+                        bulkhead.timeouts.increment();
+                        log.warn("[FunctionExecutor] 函数 {} 超时: {}ms", name, timeout.toMillis());
+                        return new FunctionTimeoutException(name, timeout);
+                    }));
+        });
+    }
+
+    /**
+     * 各函数的排队和执行统计
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        bulkheads.forEach((name, bulkhead) -> stats.put(name, bulkhead.snapshot()));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        synchronized (FunctionExecutor.class) {
+            if (defaultExecutor == this) {
+                defaultExecutor = null;
+            }
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 单个函数的并发隔离和统计
+     */
+    private final class Bulkhead {
+        private final String name;
+        private final ArrayDeque<Task> queue = new ArrayDeque<>();
+        private int limit;
+        private int running;
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final AtomicLong totalQueueNanos = new AtomicLong();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final AtomicLong totalExecutionNanos = new AtomicLong();
+        private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+        Bulkhead(String name) {
+            this.name = name;
+        }
+
+        void submit(Task task, int limit) {
+            boolean start = false;
+            boolean full = false;
+            synchronized (this) {
+                // 工具集替换后并发上限可能变化，以最新的描述为准
+                this.limit = limit;
+                if (running < limit && queue.isEmpty()) {
+                    running++;
+                    start = true;
+                } else if (queue.size() >= maxQueueSize) {
+                    full = true;
+                } else {
+                    queue.add(task);
+                }
+            }
+            if (full) {
+                rejected.increment();
+                log.warn("[FunctionExecutor] 函数 {} 排队已满，拒绝调用", name);
+                task.sink.error(new RejectedExecutionException("Function " + name + " queue is full"));
+                return;
+            }
+            task.sink.onCancel(task::cancel);
+            if (start) {
+                dispatch(task);
+            } else {
+                log.debug("[FunctionExecutor] 函数 {} 并发已满，排队等待", name);
+            }
+        }
+
+        private void dispatch(Task task) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.sink.error(e);
+                release();
+            }
+        }
+
+        /**
+         * 从队列中移除还没有分配许可的调用
+         */
+        synchronized boolean remove(Task task) {
+            return queue.remove(task);
+        }
+
+        void release() {
+            List<Task> next = new ArrayList<>();
+            synchronized (this) {
+                running--;
+                while (running < limit && !queue.isEmpty()) {
+                    running++;
+                    next.add(queue.poll());
+                }
+            }
+            next.forEach(this::dispatch);
+        }
+
+        void onStarted(long queueNanos) {
+            started.increment();
+            totalQueueNanos.addAndGet(queueNanos);
+            maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+        }
+
+        void onFinished(long executionNanos, boolean success) {
+            (success ? completed : failed).increment();
+            totalExecutionNanos.addAndGet(executionNanos);
+            maxExecutionNanos.accumulateAndGet(executionNanos, Math::max);
+        }
+
+        Stats snapshot() {
+            int queueDepth;
+            int inFlight;
+            int currentLimit;
+            synchronized (this) {
+                queueDepth = queue.size();
+                inFlight = running;
+                currentLimit = limit;
+            }
+            long startedCount = started.sum();
+            long finishedCount = completed.sum() + failed.sum();
+            return new Stats(currentLimit, inFlight, queueDepth, completed.sum(), failed.sum(), timeouts.sum(),
+                    rejected.sum(),
+                    startedCount == 0 ? 0.0 : totalQueueNanos.get() / 1_000_000.0 / startedCount,
+                    maxQueueNanos.get() / 1_000_000.0,
+                    finishedCount == 0 ? 0.0 : totalExecutionNanos.get() / 1_000_000.0 / finishedCount,
+                    maxExecutionNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * 一次函数调用。状态变化和中断都在任务锁内进行，保证中断只会落在本次调用的执行线程上
+     */
+    private static final class Task implements Runnable {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int FINISHED = 2;
+        private static final int CANCELLED = 3;
+
+        private final Bulkhead bulkhead;
+        private final MonoSink<Object> sink;
+        private final FunctionRegistry.Snapshot snapshot;
+        private final Map<String, Object> args;
+        private final long submittedNanos = System.nanoTime();
+        private int state = QUEUED;
+        private Thread runner;
+
+        Task(Bulkhead bulkhead, MonoSink<Object> sink, FunctionRegistry.Snapshot snapshot, Map<String, Object> args) {
+            this.bulkhead = bulkhead;
+            this.sink = sink;
+            this.snapshot = snapshot;
+            this.args = args;
+        }
+
+        @Override
+        public void run() {
+            boolean cancelled;
+            synchronized (this) {
+                cancelled = state != QUEUED;
+                if (!cancelled) {
+                    state = RUNNING;
+                    runner = Thread.currentThread();
+                }
+            }
+            if (cancelled) {
+                // 分配许可后、开始执行前被取消
+                bulkhead.release();
+                return;
+            }
+            long start = System.nanoTime();
+            bulkhead.onStarted(start - submittedNanos);
+            Object result = null;
+            Throwable error = null;
+            try {
+                result = snapshot.call(bulkhead.name, args);
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                synchronized (this) {
+                    state = FINISHED;
+                    runner = null;
+                    // 清除超时中断留下的中断状态，线程池中的线程会继续复用
+                    Thread.interrupted();
+                }
+                bulkhead.onFinished(System.nanoTime() - start, error == null);
+                bulkhead.release();
+            }
+            if (error != null) {
+                sink.error(error);
+            } else {
+                sink.success(result);
+            }
+        }
+
+        void cancel() {
+            if (bulkhead.remove(this)) {
+                return;
+            }
+            synchronized (this) {
+                if (state == QUEUED) {
+                    state = CANCELLED;
+                } else if (state == RUNNING) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个函数的执行统计快照
+     */
+    public static class Stats {
+        private final int maxConcurrency;
+        private final int inFlight;
+        private final int queueDepth;
+        private final long completedCount;
+        private final long failedCount;
+        private final long timeoutCount;
+        private final long rejectedCount;
+        private final double averageQueueMillis;
+        private final double maxQueueMillis;
+        private final double averageExecutionMillis;
+        private final double maxExecutionMillis;
+
+        public Stats(int maxConcurrency, int inFlight, int queueDepth, long completedCount, long failedCount,
+                     long timeoutCount, long rejectedCount, double averageQueueMillis, double maxQueueMillis,
+                     double averageExecutionMillis, double maxExecutionMillis) {
+            this.maxConcurrency = maxConcurrency;
+            this.inFlight = inFlight;
+            this.queueDepth = queueDepth;
+            this.completedCount = completedCount;
+            this.failedCount = failedCount;
+            this.timeoutCount = timeoutCount;
+            this.rejectedCount = rejectedCount;
+            this.averageQueueMillis = averageQueueMillis;
+            this.maxQueueMillis = maxQueueMillis;
+            this.averageExecutionMillis = averageExecutionMillis;
+            this.maxExecutionMillis = maxExecutionMillis;
+        }
+
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public int getInFlight() { return inFlight; }
+        public int getQueueDepth() { return queueDepth; }
+        public long getCompletedCount() { return completedCount; }
+        public long getFailedCount() { return failedCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getRejectedCount() { return rejectedCount; }
+        public double getAverageQueueMillis() { return averageQueueMillis; }
+        public double getMaxQueueMillis() { return maxQueueMillis; }
+        public double getAverageExecutionMillis() { return averageExecutionMillis; }
+        public double getMaxExecutionMillis() { return maxExecutionMillis; }
+    }
+}
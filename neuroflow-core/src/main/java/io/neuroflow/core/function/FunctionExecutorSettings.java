@@ -0,0 +1,33 @@
+package io.neuroflow.core.function;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 函数执行器配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.functions} 配置项。
+ */
+@Getter
+@Setter
+public class FunctionExecutorSettings {
+    /**
+     * 执行函数的线程类型
+     */
+    public enum ThreadMode {
+        /** 按需创建的平台线程，总数受各函数的并发上限约束 */
+        PLATFORM,
+        /** 每次调用一个虚拟线程，需要 Java 21 及以上，低版本回退为平台线程 */
+        VIRTUAL
+    }
+
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+    // 单个函数同时执行的最大调用数，@AIFunction 未指定 maxConcurrency 时使用
+    private int defaultMaxConcurrency = 16;
+    // 单个函数的最大排队调用数，超出后立即拒绝
+    private int maxQueueSize = 100;
+    // 函数未指定超时时的默认超时，包含排队时间
+    private Duration defaultTimeout = Duration.ofSeconds(30);
+}
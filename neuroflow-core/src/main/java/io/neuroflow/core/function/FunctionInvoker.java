@@ -0,0 +1,139 @@
+package io.neuroflow.core.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的函数调用器
+ *
+ * <p>注册时把 {@link FunctionDescriptor} 的方法绑定到目标对象，转换成签名固定为 {@code (Object[])Object} 的
+ * {@link MethodHandle}，参数名、是否必需、默认值按参数下标展开成数组。每次调用只需按下标从参数 Map 取值并
+ * {@code invokeExact}，不再经过 {@link Method#invoke} 的访问检查和参数适配。
+ *
+ * <p>每个参数值先经过 {@link FunctionParameter#getConverter()} 转换成声明类型，所有参数的缺失和类型错误在调用前
+ * 一次性收集，以 {@link FunctionArgumentException} 抛出，函数本身不会被调用。
+ */
+public final class FunctionInvoker {
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object[].class);
+
+    private final String name;
+    private final MethodHandle handle;
+    private final String[] names;
+    private final boolean[] required;
+    private final boolean[] primitive;
+    private final Object[] defaults;
+    private final ArgumentConverter[] converters;
+
+    private FunctionInvoker(String name, MethodHandle handle, List<FunctionParameter> parameters) {
+        this.name = name;
+        this.handle = handle;
+        int count = parameters.size();
+        this.names = new String[count];
+        this.required = new boolean[count];
+        this.primitive = new boolean[count];
+        this.defaults = new Object[count];
+        this.converters = new ArgumentConverter[count];
+        for (int i = 0; i < count; i++) {
+            FunctionParameter parameter = parameters.get(i);
+            names[i] = parameter.getName();
+            required[i] = parameter.isRequired();
+            primitive[i] = parameter.getType().isPrimitive();
+            defaults[i] = parameter.getDefaultValue();
+            converters[i] = parameter.getConverter();
+        }
+    }
+
+    /**
+     * 编译函数描述
+     * @throws IllegalArgumentException 参数数量与方法不一致，或方法无法访问
+     */
+    public static FunctionInvoker compile(FunctionDescriptor descriptor) {
+        Method method = descriptor.getMethod();
+        List<FunctionParameter> parameters = descriptor.getParameters();
+        if (parameters.size() != method.getParameterCount()) {
+            throw new IllegalArgumentException("Function " + descriptor.getName() + " declares " + parameters.size()
+                    + " parameters but method " + method.getName() + " takes " + method.getParameterCount());
+        }
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(descriptor.getTarget());
+            }
+            handle = handle.asSpreader(Object[].class, parameters.size()).asType(GENERIC);
+            return new FunctionInvoker(descriptor.getName(), handle, parameters);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access method " + method + " for function " + descriptor.getName(), e);
+        }
+    }
+
+    /**
+     * 按参数名从 args 取值、转换并调用函数，缺少的可选参数使用默认值
+     * @throws FunctionArgumentException 缺少必需参数，或参数无法转换为声明类型
+     * @throws Throwable 函数本身抛出的异常
+     */
+    public Object invoke(Map<String, Object> args) throws Throwable {
+        return invoke(prepare(args));
+    }
+
+    /**
+     * 用已转换的参数调用函数
+     * @param values {@link #prepare} 的结果
+     */
+    public Object invoke(Object[] values) throws Throwable {
+        return (Object) handle.invokeExact(values);
+    }
+
+    /**
+     * 按参数名从 args 取值并转换成声明类型，缺少的可选参数使用默认值
+     * @throws FunctionArgumentException 缺少必需参数，或参数无法转换为声明类型
+     */
+    public Object[] prepare(Map<String, Object> args) {
+        Object[] values = new Object[names.length];
+        List<ArgumentError> errors = null;
+        for (int i = 0; i < names.length; i++) {
+            Object raw = args.get(names[i]);
+            Object value;
+            if (raw == null) {
+                value = defaults[i];
+                if (value == null && (required[i] || primitive[i])) {
+                    errors = add(errors, ArgumentError.missing(names[i], converters[i].getExpectedType()));
+                    continue;
+                }
+            } else {
+                try {
+                    value = converters[i].convert(raw);
+                } catch (IllegalArgumentException e) {
+                    errors = add(errors, new ArgumentError(names[i], converters[i].getExpectedType(),
+                            ArgumentConverter.describe(raw), e.getMessage()));
+                    continue;
+                }
+            }
+            values[i] = value;
+        }
+        if (errors != null) {
+            throw new FunctionArgumentException(name, errors);
+        }
+        return values;
+    }
+
+    private static List<ArgumentError> add(List<ArgumentError> errors, ArgumentError error) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(error);
+        return errors;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
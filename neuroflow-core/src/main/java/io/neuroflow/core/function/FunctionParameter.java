@@ -11,14 +11,25 @@ public class FunctionParameter {
     private final boolean required;
     private final Object defaultValue;
     private final Class<? extends Annotation> annotationType;
+    private final Type genericType;
+    // 注册时按声明类型编译的参数转换器
+    private final ArgumentConverter converter;
 
     public FunctionParameter(String name, Class<?> type, String description,
                              boolean required, Object defaultValue,
                              Class<? extends Annotation> annotationType) {
+        this(name, type, type, description, required, defaultValue, annotationType);
+    }
+
+    public FunctionParameter(String name, Class<?> type, Type genericType, String description,
+                             boolean required, Object defaultValue,
+                             Class<? extends Annotation> annotationType) {
         this.name = name;
         this.type = type;
+        this.genericType = genericType;
         this.description = description;
         this.required = required;
+        this.converter = ArgumentConverter.forType(genericType);
         this.defaultValue = defaultValue;
         this.annotationType = annotationType;
     }
@@ -27,6 +38,7 @@ public class FunctionParameter {
     public static FunctionParameter fromMethodParameter(Parameter parameter) {
         String name = parameter.getName();
         Class<?> type = parameter.getType();
+        Type genericType = parameter.getParameterizedType();
         String description = "";
         boolean required = true;
         Object defaultValue = null;
@@ -44,29 +56,23 @@ public class FunctionParameter {
         // 处理@DefaultValue注解
         if (parameter.isAnnotationPresent(DefaultValue.class)) {
             DefaultValue dv = parameter.getAnnotation(DefaultValue.class);
-            defaultValue = parseDefaultValue(dv.value(), type);
+            defaultValue = parseDefaultValue(name, dv.value(), genericType);
             required = false; // 有默认值就不是必须的
             if (annotationType == null) {
                 annotationType = DefaultValue.class;
             }
         }
 
-        return new FunctionParameter(name, type, description, required, defaultValue, annotationType);
+        return new FunctionParameter(name, type, genericType, description, required, defaultValue, annotationType);
     }
 
-    private static Object parseDefaultValue(String value, Class<?> type) {
-        if (type == String.class) {
-            return value;
-        } else if (type == Integer.class || type == int.class) {
-            return Integer.parseInt(value);
-        } else if (type == Long.class || type == long.class) {
-            return Long.parseLong(value);
-        } else if (type == Double.class || type == double.class) {
-            return Double.parseDouble(value);
-        } else if (type == Boolean.class || type == boolean.class) {
-            return Boolean.parseBoolean(value);
+    // 默认值按参数类型解析，与模型传入的字符串参数使用同一个转换器
+    private static Object parseDefaultValue(String name, String value, Type type) {
+        try {
+            return ArgumentConverter.forType(type).convert(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid @DefaultValue \"" + value + "\" for parameter " + name + ": " + e.getMessage(), e);
         }
-        return value; // 无法解析时返回字符串
     }
 
     // Getters
@@ -76,6 +82,8 @@ public class FunctionParameter {
     public boolean isRequired() { return required; }
     public Object getDefaultValue() { return defaultValue; }
     public Class<? extends Annotation> getAnnotationType() { return annotationType; }
+    public Type getGenericType() { return genericType; }
+    public ArgumentConverter getConverter() { return converter; }
 
     @Override
     public String toString() {
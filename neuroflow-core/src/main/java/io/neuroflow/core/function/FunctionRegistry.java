@@ -2,80 +2,225 @@ package io.neuroflow.core.function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.lang.reflect.Method;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
+/**
+ * 函数注册表
+ *
+ * <p>注册的函数保存在不可变的 {@link Snapshot} 中，读操作只读一次 volatile 引用；注册、注销和整体替换都基于当前版本
+ * 构造新快照并通过 CAS 发布，版本号递增，正在进行的调用继续使用旧快照，不需要停止流量。
+ *
+ * <p>设置了 {@link FunctionResultCache} 后，描述中 {@code idempotent} 的函数按转换后的参数缓存结果。
+ *
+ * <p>在 Reactor 上下文中写入 {@link #pinScope()} 后，同一次执行内通过 {@link #snapshot(ContextView)} 取到的
+ * 始终是该执行第一次用到本注册表时的版本，执行中途替换工具集不会影响它。
+ */
 public class FunctionRegistry {
     private static final Logger log = LoggerFactory.getLogger(FunctionRegistry.class);
-    private final Map<String, FunctionDescriptor> functions = new HashMap<>();
+    // Reactor 上下文中保存本次执行已固定的注册表版本
+    private static final String PIN_KEY = FunctionRegistry.class.getName() + ".pinned";
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(0, Map.of(), null));
 
     public void registerFunction(String name, FunctionDescriptor descriptor) {
-        log.info("[FunctionRegistry] 注册函数: {}，描述: {}，参数数量: {}", 
+        log.info("[FunctionRegistry] 注册函数: {}，描述: {}，参数数量: {}",
                 name, descriptor.getDescription(), descriptor.getParameters().size());
-        functions.put(name, descriptor);
-        log.debug("[FunctionRegistry] 函数 {} 注册成功，目标: {}，方法: {}", 
-                name, descriptor.getTarget().getClass().getSimpleName(), descriptor.getMethod().getName());
+        FunctionInvoker invoker = FunctionInvoker.compile(descriptor);
+        Snapshot published = update(functions -> {
+            functions.put(name, new Entry(descriptor, invoker));
+            return functions;
+        });
+        log.debug("[FunctionRegistry] 函数 {} 注册成功，版本: {}，目标: {}，方法: {}", name, published.getVersion(),
+                descriptor.getTarget().getClass().getSimpleName(), descriptor.getMethod().getName());
     }
 
-    public Object call(String name, Map<String, Object> args) {
-        log.info("[FunctionRegistry] 调用函数: {}，参数: {}", name, args);
-        FunctionDescriptor descriptor = functions.get(name);
-        if (descriptor == null) {
-            log.error("[FunctionRegistry] 函数未找到: {}", name);
-            throw new IllegalArgumentException("Function not found: " + name);
+    /**
+     * 注销函数，已固定旧版本的执行仍可以调用它
+     * @return 函数是否存在
+     */
+    public boolean unregisterFunction(String name) {
+        while (true) {
+            Snapshot before = current.get();
+            if (!before.hasFunction(name)) {
+                return false;
+            }
+            Map<String, Entry> functions = new HashMap<>(before.functions);
+            functions.remove(name);
+            Snapshot after = new Snapshot(before.version + 1, functions, before.resultCache);
+            if (current.compareAndSet(before, after)) {
+                log.info("[FunctionRegistry] 注销函数: {}，版本: {}", name, after.getVersion());
+                return true;
+            }
         }
+    }
 
-        try {
-            Object[] params = prepareArguments(descriptor, args);
-            log.debug("[FunctionRegistry] 函数 {} 参数准备完成: {}", name, params);
-            Object result = descriptor.getMethod().invoke(descriptor.getTarget(), params);
-            log.info("[FunctionRegistry] 函数 {} 调用成功，结果: {}", name, result);
-            return result;
-        } catch (Exception e) {
-            log.error("[FunctionRegistry] 函数 {} 调用失败", name, e);
-            throw new RuntimeException("Failed to execute function: " + name, e);
-        }
+    /**
+     * 用一组函数整体替换当前工具集，新版本一次性生效
+     * @param descriptors 函数名到函数描述，编译失败时抛出异常且当前版本不变
+     * @return 新版本号
+     */
+    public long replaceFunctions(Map<String, FunctionDescriptor> descriptors) {
+        Map<String, Entry> compiled = new HashMap<>();
+        descriptors.forEach((name, descriptor) -> compiled.put(name, new Entry(descriptor, FunctionInvoker.compile(descriptor))));
+        Snapshot published = update(functions -> compiled);
+        log.info("[FunctionRegistry] 工具集已替换，函数数量: {}，版本: {}", compiled.size(), published.getVersion());
+        return published.getVersion();
     }
 
-    private Object[] prepareArguments(FunctionDescriptor descriptor, Map<String, Object> args) {
-        log.debug("[FunctionRegistry] 准备函数参数，函数: {}，输入参数: {}", descriptor.getName(), args);
-        Object[] params = new Object[descriptor.getParameters().size()];
-        for (int i = 0; i < descriptor.getParameters().size(); i++) {
-            FunctionParameter param = descriptor.getParameters().get(i);
-            Object value = args.get(param.getName());
-            if (value == null && param.isRequired()) {
-                log.error("[FunctionRegistry] 缺少必需参数: {}，函数: {}", param.getName(), descriptor.getName());
-                throw new IllegalArgumentException("Missing required parameter: " + param.getName());
+    private Snapshot update(UnaryOperator<Map<String, Entry>> change) {
+        while (true) {
+            Snapshot before = current.get();
+            Map<String, Entry> functions = change.apply(new HashMap<>(before.functions));
+            Snapshot after = new Snapshot(before.version + 1, functions, before.resultCache);
+            if (current.compareAndSet(before, after)) {
+                return after;
             }
-            if (value == null && param.getDefaultValue() != null) {
-                value = param.getDefaultValue();
-                log.debug("[FunctionRegistry] 使用默认值: {} = {}，函数: {}", param.getName(), value, descriptor.getName());
+        }
+    }
+
+    public Object call(String name, Map<String, Object> args) {
+        return snapshot().call(name, args);
+    }
+
+    /**
+     * 设置幂等函数的结果缓存，为 null 时不缓存
+     */
+    public void setResultCache(FunctionResultCache resultCache) {
+        while (true) {
+            Snapshot before = current.get();
+            Snapshot after = new Snapshot(before.version, before.functions, resultCache);
+            if (current.compareAndSet(before, after)) {
+                return;
             }
-            params[i] = value;
         }
-        log.debug("[FunctionRegistry] 参数准备完成: {}", params);
-        return params;
     }
-    
+
+    public FunctionResultCache getResultCache() {
+        return snapshot().resultCache;
+    }
+
+    /**
+     * 当前版本的快照
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * 本次执行固定的快照：上下文中有 {@link #pinScope()} 时返回本次执行第一次用到的版本，否则返回当前版本
+     */
+    public Snapshot snapshot(ContextView context) {
+        Map<FunctionRegistry, Snapshot> pinned = context.getOrDefault(PIN_KEY, null);
+        if (pinned == null) {
+            return snapshot();
+        }
+        return pinned.computeIfAbsent(this, registry -> registry.snapshot());
+    }
+
+    /**
+     * 为一次执行开启版本固定，已开启时保持不变，用法：{@code mono.contextWrite(FunctionRegistry.pinScope())}
+     */
+    public static UnaryOperator<Context> pinScope() {
+        return context -> context.hasKey(PIN_KEY) ? context : context.put(PIN_KEY, new ConcurrentHashMap<FunctionRegistry, Snapshot>());
+    }
+
+    public long getVersion() {
+        return snapshot().getVersion();
+    }
+
     /**
      * 获取所有注册的函数名称
      */
-    public java.util.Set<String> getRegisteredFunctions() {
-        return functions.keySet();
+    public Set<String> getRegisteredFunctions() {
+        return snapshot().getRegisteredFunctions();
     }
-    
+
     /**
      * 检查函数是否存在
      */
     public boolean hasFunction(String name) {
-        return functions.containsKey(name);
+        return snapshot().hasFunction(name);
     }
-    
+
     /**
      * 获取函数描述
      */
     public FunctionDescriptor getFunctionDescriptor(String name) {
-        return functions.get(name);
+        return snapshot().getFunctionDescriptor(name);
+    }
+
+    private record Entry(FunctionDescriptor descriptor, FunctionInvoker invoker) {
+    }
+
+    /**
+     * 注册表的不可变版本
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, Entry> functions;
+        private final FunctionResultCache resultCache;
+
+        private Snapshot(long version, Map<String, Entry> functions, FunctionResultCache resultCache) {
+            this.version = version;
+            this.functions = functions;
+            this.resultCache = resultCache;
+        }
+
+        public Object call(String name, Map<String, Object> args) {
+            log.debug("[FunctionRegistry] 调用函数: {}，参数: {}，版本: {}", name, args, version);
+            Entry entry = functions.get(name);
+            if (entry == null) {
+                log.error("[FunctionRegistry] 函数未找到: {}，版本: {}", name, version);
+                throw new IllegalArgumentException("Function not found: " + name);
+            }
+
+            try {
+                Object result = invoke(name, entry, args);
+                log.debug("[FunctionRegistry] 函数 {} 调用成功，结果: {}", name, result);
+                return result;
+            } catch (FunctionArgumentException e) {
+                // 参数错误原样抛出，调用方可以把错误明细交给模型修正
+                log.warn("[FunctionRegistry] 函数 {} 参数校验失败: {}", name, e.getErrors());
+                throw e;
+            } catch (Throwable e) {
+                log.error("[FunctionRegistry] 函数 {} 调用失败", name, e);
+                throw new RuntimeException("Failed to execute function: " + name, e);
+            }
+        }
+
+        private Object invoke(String name, Entry entry, Map<String, Object> args) throws Throwable {
+            FunctionDescriptor descriptor = entry.descriptor;
+            if (resultCache == null || !descriptor.isIdempotent()
+                    || descriptor.getCacheTtl() == null || descriptor.getCacheTtl().isZero() || descriptor.getCacheTtl().isNegative()) {
+                return entry.invoker.invoke(args);
+            }
+            return resultCache.get(name, entry.invoker, entry.invoker.prepare(args), descriptor.getCacheTtl());
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Set<String> getRegisteredFunctions() {
+            return Collections.unmodifiableSet(functions.keySet());
+        }
+
+        public boolean hasFunction(String name) {
+            return functions.containsKey(name);
+        }
+
+        public FunctionDescriptor getFunctionDescriptor(String name) {
+            Entry entry = functions.get(name);
+            return entry != null ? entry.descriptor : null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package io.neuroflow.core.function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.neuroflow.core.cache.Fingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 幂等函数的结果缓存
+ *
+ * <p>只缓存 {@code @AIFunction(idempotent = true)} 的函数。键由函数的调用器和转换后参数的规范化指纹组成，
+ * 参数里 Map 的键顺序、数值写成 1 还是 1.0 都不影响命中；函数重新注册后调用器变化，旧结果自然失效。
+ * 每个条目按函数的 {@code cacheTtl} 过期，总容量按结果序列化后的字节数计算，超出后由 Caffeine 按
+ * W-TinyLFU 淘汰。null 结果和抛出的异常不缓存。
+ */
+public class FunctionResultCache {
+    private static final Logger log = LoggerFactory.getLogger(FunctionResultCache.class);
+    // 结果无法序列化时按该大小计算
+    private static final int DEFAULT_WEIGHT = 1024;
+
+    private final Cache<Key, Cached> cache;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param maximumBytes 缓存结果的总大小上限（按 JSON 序列化后的字节数估算）
+     */
+    public FunctionResultCache(long maximumBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, Cached cached) -> cached.weight)
+                .expireAfter(new Expiry<Key, Cached>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Cached cached, long currentTime) {
+                        return cached.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Cached cached, long currentTime, long currentDuration) {
+                        return cached.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Cached cached, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("[FunctionResultCache] 初始化完成，容量: {} 字节", maximumBytes);
+    }
+
+    /**
+     * 命中时返回缓存结果，否则调用函数并缓存非 null 结果
+     * @param function 函数名称，用于统计
+     * @param invoker 函数调用器
+     * @param values 已转换的参数
+     * @param ttl 结果有效期
+     */
+    Object get(String function, FunctionInvoker invoker, Object[] values, Duration ttl) throws Throwable {
+        Counters stats = counters.computeIfAbsent(function, name -> new Counters());
+        Key key;
+        try {
+            key = new Key(invoker, Fingerprint.of(values));
+        } catch (IllegalArgumentException e) {
+            // 参数无法规范化序列化时不走缓存
+            log.debug("[FunctionResultCache] 函数 {} 参数无法计算指纹，跳过缓存: {}", function, e.getMessage());
+            stats.uncacheable.increment();
+            return invoker.invoke(values);
+        }
+        Cached cached = cache.getIfPresent(key);
+        if (cached != null) {
+            stats.hits.increment();
+            return cached.value;
+        }
+        stats.misses.increment();
+        Object result = invoker.invoke(values);
+        if (result != null) {
+            cache.put(key, new Cached(result, weigh(result), ttl.toNanos()));
+        }
+        return result;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof CharSequence text) {
+            return Math.max(1, text.length());
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            Fingerprint.canonicalMapper().writeValue(out, value);
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1, out.count));
+        } catch (IOException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("[FunctionResultCache] 缓存已清空");
+    }
+
+    /**
+     * 各函数的命中统计
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        counters.forEach((function, c) -> stats.put(function,
+                new Stats(c.hits.sum(), c.misses.sum(), c.uncacheable.sum())));
+        return stats;
+    }
+
+    /**
+     * 当前缓存条目数和占用字节数
+     */
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private record Key(FunctionInvoker invoker, String fingerprint) {
+    }
+
+    private record Cached(Object value, int weight, long ttlNanos) {
+    }
+
+    private static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder uncacheable = new LongAdder();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * 单个函数的缓存统计快照
+     */
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long uncacheableCount;
+
+        public Stats(long hitCount, long missCount, long uncacheableCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.uncacheableCount = uncacheableCount;
+        }
+
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getUncacheableCount() { return uncacheableCount; }
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+}
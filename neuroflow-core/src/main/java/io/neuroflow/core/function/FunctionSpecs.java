@@ -0,0 +1,161 @@
+package io.neuroflow.core.function;
+
+import io.neuroflow.core.model.FunctionSpec;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 由函数描述生成发送给模型的 {@link FunctionSpec}
+ *
+ * <p>参数的 JSON Schema 按声明类型生成，与 {@link ArgumentConverter} 接受的类型对应：整数为 integer，
+ * 浮点数和 BigDecimal 为 number，枚举为带 enum 的 string，日期时间、Duration、UUID 为带 format 的 string，
+ * 数组和集合为 array，Map、record 和 POJO 为 object。
+ */
+public final class FunctionSpecs {
+
+    private FunctionSpecs() {
+    }
+
+    public static FunctionSpec of(FunctionDescriptor descriptor) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        for (FunctionParameter parameter : descriptor.getParameters()) {
+            Map<String, Object> property = schema(parameter.getGenericType());
+            if (parameter.getDescription() != null && !parameter.getDescription().isEmpty()) {
+                property.put("description", parameter.getDescription());
+            }
+            Object defaultValue = parameter.getDefaultValue();
+            // 只写出 JSON 标量默认值，其余类型的默认值只在调用时生效
+            if (defaultValue instanceof String || defaultValue instanceof Number || defaultValue instanceof Boolean) {
+                property.put("default", defaultValue);
+            } else if (defaultValue instanceof Enum<?> constant) {
+                property.put("default", constant.name());
+            }
+            properties.put(parameter.getName(), property);
+            if (parameter.isRequired() && parameter.getDefaultValue() == null) {
+                required.add(parameter.getName());
+            }
+        }
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("type", "object");
+        parameters.put("properties", properties);
+        if (!required.isEmpty()) {
+            parameters.put("required", required);
+        }
+
+        FunctionSpec spec = new FunctionSpec();
+        spec.setName(descriptor.getName());
+        spec.setDescription(descriptor.getDescription());
+        spec.setParameters(parameters);
+        return spec;
+    }
+
+    static Map<String, Object> schema(Type type) {
+        if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> raw) {
+            Type[] args = p.getActualTypeArguments();
+            if (Optional.class == raw) {
+                return schema(args[0]);
+            }
+            if (Collection.class.isAssignableFrom(raw)) {
+                return array(schema(args[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                Map<String, Object> schema = simple("object");
+                schema.put("additionalProperties", schema(args[1]));
+                return schema;
+            }
+            return simple("object");
+        }
+        if (type instanceof GenericArrayType g) {
+            return array(schema(g.getGenericComponentType()));
+        }
+        if (!(type instanceof Class<?> c)) {
+            return new LinkedHashMap<>();
+        }
+        if (c == String.class || c == char.class || c == Character.class) {
+            return simple("string");
+        }
+        if (c == boolean.class || c == Boolean.class) {
+            return simple("boolean");
+        }
+        if (c == int.class || c == long.class || c == short.class || c == byte.class
+                || c == Integer.class || c == Long.class || c == Short.class || c == Byte.class || c == BigInteger.class) {
+            return simple("integer");
+        }
+        if (c == double.class || c == float.class || c == Double.class || c == Float.class || c == BigDecimal.class) {
+            return simple("number");
+        }
+        if (c.isEnum()) {
+            List<String> values = new ArrayList<>();
+            for (Object constant : c.getEnumConstants()) {
+                values.add(((Enum<?>) constant).name());
+            }
+            Map<String, Object> schema = simple("string");
+            schema.put("enum", values);
+            return schema;
+        }
+        if (c == LocalDate.class) {
+            return formatted("date");
+        }
+        if (c == LocalTime.class) {
+            return formatted("time");
+        }
+        if (c == LocalDateTime.class || c == OffsetDateTime.class || c == ZonedDateTime.class || c == Instant.class
+                || Temporal.class.isAssignableFrom(c)) {
+            return formatted("date-time");
+        }
+        if (c == Duration.class) {
+            return formatted("duration");
+        }
+        if (c == UUID.class) {
+            return formatted("uuid");
+        }
+        if (c.isArray()) {
+            return array(schema(c.getComponentType()));
+        }
+        if (Collection.class.isAssignableFrom(c)) {
+            return array(new LinkedHashMap<>());
+        }
+        if (c == Object.class) {
+            return new LinkedHashMap<>();
+        }
+        return simple("object");
+    }
+
+    private static Map<String, Object> simple(String type) {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", type);
+        return schema;
+    }
+
+    private static Map<String, Object> formatted(String format) {
+        Map<String, Object> schema = simple("string");
+        schema.put("format", format);
+        return schema;
+    }
+
+    private static Map<String, Object> array(Map<String, Object> items) {
+        Map<String, Object> schema = simple("array");
+        schema.put("items", items);
+        return schema;
+    }
+}
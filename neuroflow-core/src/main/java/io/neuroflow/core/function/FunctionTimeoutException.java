@@ -0,0 +1,25 @@
+package io.neuroflow.core.function;
+
+import java.time.Duration;
+
+/**
+ * 函数调用超过超时时间，执行中的线程已被中断
+ */
+public class FunctionTimeoutException extends RuntimeException {
+    private final String function;
+    private final Duration timeout;
+
+    public FunctionTimeoutException(String function, Duration timeout) {
+        super("Function " + function + " did not complete within " + timeout.toMillis() + "ms");
+        this.function = function;
+        this.timeout = timeout;
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
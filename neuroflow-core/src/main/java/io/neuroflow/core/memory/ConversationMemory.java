@@ -0,0 +1,291 @@
+package io.neuroflow.core.memory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.token.TokenCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 会话记忆：按会话保存消息历史，并把历史控制在固定的 token 预算内
+ *
+ * <p>追加消息后，超出 {@code maxTokens} 的最早消息从历史中移出，交给后台用便宜的模型合并进会话摘要；
+ * 组装请求时按“摘要 + 最近的历史 + 本轮消息”的顺序输出，多轮对话的提示词长度因此基本保持不变。
+ * 摘要在后台生成，不阻塞当前请求；同一会话同时只有一个摘要任务，期间移出的消息在下一次摘要时一并处理。
+ * 已移出但还没有合并进摘要的消息在组装时仍原样输出，摘要生成期间的请求不会丢失这部分上下文，
+ * 代价是这段时间内的提示词会暂时超出 {@code maxTokens}。
+ * 摘要失败时被移出的消息保留到下一次重试，积压超过 {@code maxPendingTokens} 时丢弃最早的部分。
+ *
+ * <p>会话按空闲时间和数量淘汰，只保存在内存中。
+ */
+public class ConversationMemory {
+    private static final Logger log = LoggerFactory.getLogger(ConversationMemory.class);
+    private static final String SUMMARY_PREFIX = "以下是之前对话的摘要：\n";
+
+    private final MemorySettings settings;
+    private final TokenCounter counter;
+    private final Function<ModelRequest, Mono<ModelResponse>> summarizer;
+    private final Cache<String, Conversation> conversations;
+
+    private final LongAdder summaries = new LongAdder();
+    private final LongAdder summaryFailures = new LongAdder();
+    private final LongAdder evictedMessages = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+
+    /**
+     * @param settings 配置
+     * @param counter 计算历史 token 数的分词器
+     * @param summarizer 执行摘要请求的函数，例如 {@code gateway::execute}；为 null 时移出的消息直接丢弃
+     */
+    public ConversationMemory(MemorySettings settings, TokenCounter counter,
+                              Function<ModelRequest, Mono<ModelResponse>> summarizer) {
+        this.settings = settings;
+        this.counter = counter;
+        this.summarizer = summarizer;
+        this.conversations = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxConversations())
+                .expireAfterAccess(settings.getIdleTimeout())
+                .build();
+        log.info("[ConversationMemory] 初始化完成，历史 token 上限: {}，摘要模型: {}",
+                settings.getMaxTokens(), settings.getSummaryModel());
+    }
+
+    /**
+     * 组装发送给模型的消息：会话摘要（作为 system 消息）、保留的历史和本轮新消息
+     * @param conversationId 会话ID
+     * @param newMessages 本轮新消息，不会写入历史，需要在得到回复后调用 {@link #append}
+     * @return 新的消息列表
+     */
+    public List<ChatMessage> assemble(String conversationId, List<ChatMessage> newMessages) {
+        Conversation conversation = conversations.getIfPresent(conversationId);
+        List<ChatMessage> messages;
+        if (conversation == null) {
+            messages = new ArrayList<>(newMessages.size());
+        } else {
+            synchronized (conversation) {
+                messages = new ArrayList<>(conversation.inFlight.size() + conversation.pending.size()
+                        + conversation.history.size() + newMessages.size() + 1);
+                if (conversation.summary != null) {
+                    messages.add(ChatMessage.of("system", SUMMARY_PREFIX + conversation.summary));
+                }
+                // 摘要尚未覆盖的消息按时间顺序排在历史之前：正在摘要的批次早于排队中的消息
+                for (Entry entry : conversation.inFlight) {
+                    messages.add(entry.message);
+                }
+                for (Entry entry : conversation.pending) {
+                    messages.add(entry.message);
+                }
+                for (Entry entry : conversation.history) {
+                    messages.add(entry.message);
+                }
+            }
+        }
+        messages.addAll(newMessages);
+        return messages;
+    }
+
+    /**
+     * 把一轮对话的消息写入历史，超出预算的最早消息移出并在后台合并进摘要
+     * @param conversationId 会话ID
+     * @param messages 本轮的消息，通常是用户消息和模型回复
+     */
+    public void append(String conversationId, List<ChatMessage> messages) {
+        Conversation conversation = conversations.get(conversationId, id -> new Conversation());
+        boolean startSummary;
+        synchronized (conversation) {
+            for (ChatMessage message : messages) {
+                int tokens = counter.countMessage(message);
+                conversation.history.addLast(new Entry(message, tokens));
+                conversation.historyTokens += tokens;
+            }
+            int evicted = 0;
+            while (conversation.history.size() > settings.getMinRecentMessages()
+                    && conversation.summaryTokens + conversation.historyTokens > settings.getMaxTokens()) {
+                Entry oldest = conversation.history.pollFirst();
+                conversation.historyTokens -= oldest.tokens;
+                conversation.pending.addLast(oldest);
+                conversation.pendingTokens += oldest.tokens;
+                evicted++;
+            }
+            evictedMessages.add(evicted);
+            dropExcessPending(conversation);
+            startSummary = !conversation.pending.isEmpty() && !conversation.summarizing;
+            if (startSummary) {
+                conversation.summarizing = true;
+            }
+        }
+        if (startSummary) {
+            summarize(conversationId, conversation);
+        }
+    }
+
+    /**
+     * 清除会话
+     * @param conversationId 会话ID
+     */
+    public void clear(String conversationId) {
+        conversations.invalidate(conversationId);
+    }
+
+    /**
+     * 获取会话当前的摘要
+     * @return 摘要，没有时返回 null
+     */
+    public String getSummary(String conversationId) {
+        Conversation conversation = conversations.getIfPresent(conversationId);
+        if (conversation == null) {
+            return null;
+        }
+        synchronized (conversation) {
+            return conversation.summary;
+        }
+    }
+
+    private void summarize(String conversationId, Conversation conversation) {
+        if (summarizer == null) {
+            synchronized (conversation) {
+                droppedMessages.add(conversation.pending.size());
+                conversation.pending.clear();
+                conversation.pendingTokens = 0;
+                conversation.summarizing = false;
+            }
+            return;
+        }
+        List<Entry> batch;
+        String previousSummary;
+        synchronized (conversation) {
+            batch = new ArrayList<>(conversation.pending);
+            conversation.pending.clear();
+            conversation.pendingTokens = 0;
+            conversation.inFlight = batch;
+            previousSummary = conversation.summary;
+        }
+        log.debug("[ConversationMemory] 开始生成摘要，会话: {}，消息数: {}", conversationId, batch.size());
+        Mono.defer(() -> summarizer.apply(summaryRequest(previousSummary, batch)))
+                .subscribe(response -> onSummary(conversationId, conversation, batch, response),
+                        e -> onSummaryFailure(conversationId, conversation, batch, e));
+    }
+
+    private void onSummary(String conversationId, Conversation conversation, List<Entry> batch, ModelResponse response) {
+        String summary = response.getContent();
+        if (summary == null || summary.isBlank()) {
+            onSummaryFailure(conversationId, conversation, batch, new IllegalStateException("Empty summary"));
+            return;
+        }
+        summaries.increment();
+        boolean again;
+        synchronized (conversation) {
+            conversation.summary = summary.strip();
+            conversation.summaryTokens = counter.countMessage(ChatMessage.of("system", SUMMARY_PREFIX + conversation.summary));
+            conversation.inFlight = List.of();
+            again = !conversation.pending.isEmpty();
+            conversation.summarizing = again;
+        }
+        log.info("[ConversationMemory] 摘要已更新，会话: {}，合并消息数: {}", conversationId, batch.size());
+        if (again) {
+            summarize(conversationId, conversation);
+        }
+    }
+
+    private void onSummaryFailure(String conversationId, Conversation conversation, List<Entry> batch, Throwable e) {
+        summaryFailures.increment();
+        log.warn("[ConversationMemory] 摘要生成失败，下次追加消息时重试，会话: {}", conversationId, e);
+        synchronized (conversation) {
+            conversation.inFlight = List.of();
+            // 放回队首，保持时间顺序
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                conversation.pending.addFirst(batch.get(i));
+                conversation.pendingTokens += batch.get(i).tokens;
+            }
+            dropExcessPending(conversation);
+            conversation.summarizing = false;
+        }
+    }
+
+    private void dropExcessPending(Conversation conversation) {
+        while (conversation.pendingTokens > settings.getMaxPendingTokens() && conversation.pending.size() > 1) {
+            Entry dropped = conversation.pending.pollFirst();
+            conversation.pendingTokens -= dropped.tokens;
+            droppedMessages.increment();
+        }
+    }
+
+    private ModelRequest summaryRequest(String previousSummary, List<Entry> batch) {
+        StringBuilder prompt = new StringBuilder(
+                "请把下面的对话内容合并进已有摘要，保留事实、结论、用户偏好和未完成的事项，"
+                        + "使用与对话相同的语言，只输出新的摘要。\n\n");
+        prompt.append("已有摘要：\n").append(previousSummary != null ? previousSummary : "（无）").append("\n\n对话：\n");
+        for (Entry entry : batch) {
+            prompt.append(entry.message.getRole()).append(": ").append(entry.message.getContent()).append('\n');
+        }
+        ModelRequest request = new ModelRequest();
+        request.setModel(settings.getSummaryModel());
+        request.setPrompt(prompt.toString());
+        request.setMaxTokens(settings.getSummaryMaxTokens());
+        request.setTemperature(0.0);
+        return request;
+    }
+
+    public Stats getStats() {
+        return new Stats(conversations.estimatedSize(), summaries.sum(), summaryFailures.sum(),
+                evictedMessages.sum(), droppedMessages.sum());
+    }
+
+    private static final class Conversation {
+        private final Deque<Entry> history = new ArrayDeque<>();
+        private final Deque<Entry> pending = new ArrayDeque<>();
+        // 正在生成摘要的批次，摘要写入后清空
+        private List<Entry> inFlight = List.of();
+        private int historyTokens;
+        private int pendingTokens;
+        private String summary;
+        private int summaryTokens;
+        private boolean summarizing;
+    }
+
+    private static final class Entry {
+        private final ChatMessage message;
+        private final int tokens;
+
+        Entry(ChatMessage message, int tokens) {
+            this.message = message;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * 会话记忆统计快照
+     */
+    public static class Stats {
+        private final long conversations;
+        private final long summaries;
+        private final long summaryFailures;
+        private final long evictedMessages;
+        private final long droppedMessages;
+
+        public Stats(long conversations, long summaries, long summaryFailures, long evictedMessages, long droppedMessages) {
+            this.conversations = conversations;
+            this.summaries = summaries;
+            this.summaryFailures = summaryFailures;
+            this.evictedMessages = evictedMessages;
+            this.droppedMessages = droppedMessages;
+        }
+
+        public long getConversations() { return conversations; }
+        public long getSummaries() { return summaries; }
+        public long getSummaryFailures() { return summaryFailures; }
+        public long getEvictedMessages() { return evictedMessages; }
+        public long getDroppedMessages() { return droppedMessages; }
+    }
+}
@@ -0,0 +1,30 @@
+package io.neuroflow.core.memory;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 会话记忆配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.agent.memory} 配置项。
+ */
+@Getter
+@Setter
+public class MemorySettings {
+    // 每个会话保留的历史（含摘要）的 token 上限
+    private int maxTokens = 2000;
+    // 无论 token 上限如何，始终原样保留的最近消息数
+    private int minRecentMessages = 2;
+    // 生成摘要使用的模型，建议使用便宜的小模型
+    private String summaryModel;
+    // 摘要的最大输出 token 数
+    private int summaryMaxTokens = 256;
+    // 摘要失败时最多积压的待摘要 token 数，超出后丢弃最早的消息
+    private int maxPendingTokens = 8000;
+    // 保留的最大会话数
+    private long maxConversations = 10_000;
+    // 会话空闲超过该时间后被清除
+    private Duration idleTimeout = Duration.ofHours(1);
+}
@@ -1,9 +1,44 @@
 package io.neuroflow.core.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
 public class ChatMessage {
-    private String role; // system, user, assistant, function
+    private String role; // system, user, assistant, function, tool
     private String content;
     private String name; // function name when role is function
+    // assistant 消息中模型发起的工具调用，同一轮可以有多个
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("tool_calls")
+    private List<ToolCall> toolCalls;
+    // role 为 tool 时对应的工具调用 id
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("tool_call_id")
+    private String toolCallId;
+
+    /**
+     * 指定角色和文本内容的消息
+     */
+    public static ChatMessage of(String role, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    /**
+     * 工具调用结果消息
+     */
+    public static ChatMessage toolResult(String toolCallId, String name, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setRole("tool");
+        message.setToolCallId(toolCallId);
+        message.setName(name);
+        message.setContent(content);
+        return message;
+    }
 
     // Getters and Setters
     public String getRole() { return role; }
@@ -12,4 +47,8 @@ public class ChatMessage {
     public void setContent(String content) { this.content = content; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public List<ToolCall> getToolCalls() { return toolCalls; }
+    public void setToolCalls(List<ToolCall> toolCalls) { this.toolCalls = toolCalls; }
+    public String getToolCallId() { return toolCallId; }
+    public void setToolCallId(String toolCallId) { this.toolCallId = toolCallId; }
 }
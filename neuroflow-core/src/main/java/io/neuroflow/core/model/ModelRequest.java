@@ -1,5 +1,11 @@
 package io.neuroflow.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -10,8 +16,43 @@ public class ModelRequest {
     private Double temperature;
     private Integer maxTokens;
     private Boolean stream;
+    // 以 tools 字段发送，见 getTools()
+    @JsonIgnore
     private List<FunctionSpec> functions;
     private Map<String, Object> functionCall;
+    // 是否允许模型在一轮回复中同时发起多个工具调用，为 null 时使用提供方默认值
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("parallel_tool_calls")
+    private Boolean parallelToolCalls;
+    // 可以互相替代的模型组，网关在组内按健康度路由，不发送给提供方
+    @JsonIgnore
+    private List<String> equivalentModels;
+    // 调度优先级，为 null 时按 STANDARD 处理
+    @JsonIgnore
+    private RequestPriority priority;
+    // 截止时间，超过后请求以错误结束
+    @JsonIgnore
+    private Instant deadline;
+
+    /**
+     * 浅拷贝，网关改写请求（例如截断消息）时使用，不影响调用方持有的请求
+     */
+    public ModelRequest copy() {
+        ModelRequest copy = new ModelRequest();
+        copy.model = model;
+        copy.prompt = prompt;
+        copy.messages = messages;
+        copy.temperature = temperature;
+        copy.maxTokens = maxTokens;
+        copy.stream = stream;
+        copy.functions = functions;
+        copy.functionCall = functionCall;
+        copy.parallelToolCalls = parallelToolCalls;
+        copy.equivalentModels = equivalentModels;
+        copy.priority = priority;
+        copy.deadline = deadline;
+        return copy;
+    }
 
     // Getters and Setters
     public String getModel() { return model; }
@@ -30,4 +71,60 @@ public class ModelRequest {
     public void setFunctions(List<FunctionSpec> functions) { this.functions = functions; }
     public Map<String, Object> getFunctionCall() { return functionCall; }
     public void setFunctionCall(Map<String, Object> functionCall) { this.functionCall = functionCall; }
+    public Boolean getParallelToolCalls() { return parallelToolCalls; }
+    public void setParallelToolCalls(Boolean parallelToolCalls) { this.parallelToolCalls = parallelToolCalls; }
+
+    /**
+     * functions 的 tools 形式，序列化时使用。旧的 functions 字段每轮最多返回一个调用，
+     * tools 允许模型在一轮中同时发起多个工具调用
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<Tool> getTools() {
+        if (functions == null) {
+            return null;
+        }
+        List<Tool> tools = new ArrayList<>(functions.size());
+        for (FunctionSpec function : functions) {
+            tools.add(new Tool(function));
+        }
+        return tools;
+    }
+
+    public void setTools(List<Tool> tools) {
+        if (tools == null) {
+            this.functions = null;
+            return;
+        }
+        List<FunctionSpec> specs = new ArrayList<>(tools.size());
+        for (Tool tool : tools) {
+            if (tool.getFunction() != null) {
+                specs.add(tool.getFunction());
+            }
+        }
+        this.functions = specs;
+    }
+    public List<String> getEquivalentModels() { return equivalentModels; }
+    public void setEquivalentModels(List<String> equivalentModels) { this.equivalentModels = equivalentModels; }
+    public RequestPriority getPriority() { return priority; }
+    public void setPriority(RequestPriority priority) { this.priority = priority; }
+    public Instant getDeadline() { return deadline; }
+    public void setDeadline(Instant deadline) { this.deadline = deadline; }
+
+    public static class Tool {
+        private String type = "function";
+        private FunctionSpec function;
+
+        public Tool() {
+        }
+
+        public Tool(FunctionSpec function) {
+            this.function = function;
+        }
+
+        // Getters and Setters
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+        public FunctionSpec getFunction() { return function; }
+        public void setFunction(FunctionSpec function) { this.function = function; }
+    }
 }
@@ -1,5 +1,7 @@
 package io.neuroflow.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +13,9 @@ public class ModelResponse {
     private List<Choice> choices;
     private Usage usage;
     private FunctionCall functionCall;
+    // 提供方返回的限流响应头（x-ratelimit-*、retry-after），不参与序列化
+    @JsonIgnore
+    private Map<String, String> rateLimitHeaders;
 
     // Getters and Setters
     public String getId() { return id; }
@@ -27,6 +32,31 @@ public class ModelResponse {
     public void setUsage(Usage usage) { this.usage = usage; }
     public FunctionCall getFunctionCall() { return functionCall; }
     public void setFunctionCall(FunctionCall functionCall) { this.functionCall = functionCall; }
+    public Map<String, String> getRateLimitHeaders() { return rateLimitHeaders; }
+    public void setRateLimitHeaders(Map<String, String> rateLimitHeaders) { this.rateLimitHeaders = rateLimitHeaders; }
+
+    /**
+     * 第一个候选回复的文本内容，没有时返回 null
+     */
+    @JsonIgnore
+    public String getContent() {
+        if (choices == null || choices.isEmpty() || choices.get(0).getMessage() == null) {
+            return null;
+        }
+        return choices.get(0).getMessage().getContent();
+    }
+
+    /**
+     * 第一个候选回复中的全部工具调用，没有时返回空列表
+     */
+    @JsonIgnore
+    public List<ToolCall> getToolCalls() {
+        if (choices == null || choices.isEmpty() || choices.get(0).getMessage() == null) {
+            return List.of();
+        }
+        List<ToolCall> toolCalls = choices.get(0).getMessage().getToolCalls();
+        return toolCalls != null ? toolCalls : List.of();
+    }
 
     // Inner classes
     public static class Choice {
@@ -0,0 +1,13 @@
+package io.neuroflow.core.model;
+
+/**
+ * 请求优先级
+ */
+public enum RequestPriority {
+    // 用户正在等待结果的交互式请求
+    INTERACTIVE,
+    // 默认优先级
+    STANDARD,
+    // 后台任务，可以让出资源
+    BACKGROUND
+}
@@ -0,0 +1,94 @@
+package io.neuroflow.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式响应中的一个增量事件
+ *
+ * <p>由提供方的流式帧解析而来，content 为本次新增的文本片段；函数调用的名称和参数
+ * 以片段形式出现在 {@link FunctionCallDelta} 中，需要按 index 拼接。
+ */
+public class StreamEvent {
+    private String id;
+    private String model;
+    private Integer index;
+    private String role;
+    private String content;
+    private String finishReason;
+    private ModelResponse.Usage usage;
+    private List<FunctionCallDelta> functionCalls;
+
+    public static StreamEvent ofContent(String content) {
+        StreamEvent event = new StreamEvent();
+        event.setContent(content);
+        return event;
+    }
+
+    /**
+     * 是否携带非空文本内容
+     */
+    public boolean hasContent() {
+        return content != null && !content.isEmpty();
+    }
+
+    public void addFunctionCall(FunctionCallDelta delta) {
+        if (functionCalls == null) {
+            functionCalls = new ArrayList<>(1);
+        }
+        functionCalls.add(delta);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    public String getFinishReason() { return finishReason; }
+    public void setFinishReason(String finishReason) { this.finishReason = finishReason; }
+    public ModelResponse.Usage getUsage() { return usage; }
+    public void setUsage(ModelResponse.Usage usage) { this.usage = usage; }
+    public List<FunctionCallDelta> getFunctionCalls() { return functionCalls; }
+    public void setFunctionCalls(List<FunctionCallDelta> functionCalls) { this.functionCalls = functionCalls; }
+
+    @Override
+    public String toString() {
+        return "StreamEvent{" +
+                "index=" + index +
+                (content != null ? ", content='" + content + '\'' : "") +
+                (finishReason != null ? ", finishReason=" + finishReason : "") +
+                (functionCalls != null ? ", functionCalls=" + functionCalls : "") +
+                '}';
+    }
+
+    /**
+     * 函数调用片段
+     */
+    public static class FunctionCallDelta {
+        private Integer index;
+        private String id;
+        private String name;
+        private String arguments; // 参数 JSON 的片段
+
+        // Getters and Setters
+        public Integer getIndex() { return index; }
+        public void setIndex(Integer index) { this.index = index; }
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getArguments() { return arguments; }
+        public void setArguments(String arguments) { this.arguments = arguments; }
+
+        @Override
+        public String toString() {
+            return "FunctionCallDelta{index=" + index + ", name=" + name + ", arguments=" + arguments + '}';
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.neuroflow.core.model;
+
+/**
+ * 模型在一次回复中发起的一个工具调用
+ *
+ * <p>与 OpenAI 的 {@code tool_calls} 结构一致：同一轮可以有多个调用，每个调用有自己的 id，
+ * 执行结果以 {@code tool} 角色、带相同 {@code tool_call_id} 的消息返回给模型。
+ * 参数保持提供方返回的 JSON 字符串，由调用方解析。
+ */
+public class ToolCall {
+    private String id;
+    private String type = "function";
+    private Function function;
+
+    public static ToolCall of(String id, String name, String arguments) {
+        ToolCall call = new ToolCall();
+        call.setId(id);
+        Function function = new Function();
+        function.setName(name);
+        function.setArguments(arguments);
+        call.setFunction(function);
+        return call;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Function getFunction() { return function; }
+    public void setFunction(Function function) { this.function = function; }
+
+    @Override
+    public String toString() {
+        return "ToolCall{" +
+                "id='" + id + '\'' +
+                (function != null ? ", name='" + function.getName() + "', arguments=" + function.getArguments() : "") +
+                '}';
+    }
+
+    public static class Function {
+        private String name;
+        private String arguments; // 参数 JSON
+
+        // Getters and Setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getArguments() { return arguments; }
+        public void setArguments(String arguments) { this.arguments = arguments; }
+    }
+}
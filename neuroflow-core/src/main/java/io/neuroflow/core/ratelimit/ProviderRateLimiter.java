@@ -0,0 +1,424 @@
+package io.neuroflow.core.ratelimit;
+
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.token.ApproximateTokenCounter;
+import io.neuroflow.core.token.TokenCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个模型客户端的提供方限流器
+ *
+ * <p>同时维护每分钟请求数（RPM）和每分钟 token 数（TPM）两个令牌桶，令牌按时间连续补充。
+ * 超出限额的请求按到达顺序在有界队列中等待，令牌补充后由调度器唤醒，队列满或等待超时才拒绝。
+ * 限额可以来自配置，也会根据响应中的 {@code x-ratelimit-*} 响应头自动调整：
+ * <ul>
+ *   <li>响应头给出的限额低于配置时按响应头限流；</li>
+ *   <li>剩余额度低于本地估算时以提供方为准（同一个 Key 可能被多个实例共用）；</li>
+ *   <li>剩余额度耗尽或收到 429 时暂停放行，直到重置时间或 retry-after 之后。</li>
+ * </ul>
+ * token 数在请求前按 {@link #estimateTokens} 估算，收到 usage 后用实际用量修正。
+ */
+public class ProviderRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(ProviderRateLimiter.class);
+    private static final long MIN_DRAIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String model;
+    private final long configuredRequestsPerMinute;
+    private final long configuredTokensPerMinute;
+    private final int maxQueueSize;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+    private final Bucket requests;
+    private final Bucket tokens;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private long blockedUntilNanos;
+    private boolean drainScheduled;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ProviderRateLimiter(String model, RateLimitSettings settings) {
+        this(model, settings, Schedulers.parallel());
+    }
+
+    public ProviderRateLimiter(String model, RateLimitSettings settings, Scheduler scheduler) {
+        long now = System.nanoTime();
+        this.model = model;
+        this.configuredRequestsPerMinute = settings.getRequestsPerMinute();
+        this.configuredTokensPerMinute = settings.getTokensPerMinute();
+        this.maxQueueSize = settings.getMaxQueueSize();
+        this.maxWait = settings.getMaxWait();
+        this.scheduler = scheduler;
+        this.requests = new Bucket(configuredRequestsPerMinute, now);
+        this.tokens = new Bucket(configuredTokensPerMinute, now);
+        this.blockedUntilNanos = now;
+    }
+
+    /**
+     * 申请一次调用的额度，额度不足时排队等待
+     * @param estimatedTokens 估算的 token 数
+     * @return 获得额度后完成；队列已满或等待超时以 {@link RateLimitExceededException} 结束
+     */
+    public Mono<Void> acquire(long estimatedTokens) {
+        Mono<Void> permit = Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, estimatedTokens, System.nanoTime());
+            boolean granted = false;
+            boolean full = false;
+            synchronized (this) {
+                if (waiters.isEmpty() && tryConsume(estimatedTokens, waiter.enqueuedNanos)) {
+                    granted = true;
+                } else if (waiters.size() >= maxQueueSize) {
+                    full = true;
+                } else {
+                    waiters.addLast(waiter);
+                    scheduleDrain(waiter.enqueuedNanos);
+                }
+            }
+            if (granted) {
+                acquired.increment();
+                sink.success();
+            } else if (full) {
+                rejected.increment();
+                log.warn("[ProviderRateLimiter] 限流队列已满，拒绝请求，模型: {}，队列长度: {}", model, maxQueueSize);
+                sink.error(new RateLimitExceededException(model, "Rate limit queue is full"));
+            } else {
+                queued.increment();
+                log.debug("[ProviderRateLimiter] 超出限额，排队等待，模型: {}，估算 token: {}", model, estimatedTokens);
+                sink.onCancel(() -> remove(waiter));
+            }
+        });
+        return permit.timeout(maxWait, Mono.error(() -> {
+            rejected.increment();
+            log.warn("[ProviderRateLimiter] 排队等待超过 {}ms，拒绝请求，模型: {}", maxWait.toMillis(), model);
+            return new RateLimitExceededException(model, "Rate limit wait timed out");
+        }));
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private boolean tryConsume(long estimatedTokens, long now) {
+        if (now - blockedUntilNanos < 0) {
+            return false;
+        }
+        requests.refill(now);
+        tokens.refill(now);
+        if (!requests.hasAvailable(1) || !tokens.hasAvailable(estimatedTokens)) {
+            return false;
+        }
+        requests.consume(1);
+        tokens.consume(estimatedTokens);
+        return true;
+    }
+
+    private void scheduleDrain(long now) {
+        if (drainScheduled || waiters.isEmpty()) {
+            return;
+        }
+        Waiter head = waiters.peekFirst();
+        long delay = Math.max(blockedUntilNanos - now,
+                Math.max(requests.nanosUntil(1), tokens.nanosUntil(head.tokens)));
+        drainScheduled = true;
+        scheduler.schedule(this::drain, Math.max(MIN_DRAIN_DELAY_NANOS, delay), TimeUnit.NANOSECONDS);
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            drainScheduled = false;
+            while (!waiters.isEmpty()) {
+                Waiter head = waiters.peekFirst();
+                if (!tryConsume(head.tokens, now)) {
+                    break;
+                }
+                waiters.pollFirst();
+                granted.add(head);
+            }
+            scheduleDrain(now);
+        }
+        for (Waiter waiter : granted) {
+            long waitNanos = now - waiter.enqueuedNanos;
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            waited.increment();
+            acquired.increment();
+            waiter.sink.success();
+        }
+    }
+
+    /**
+     * 根据成功响应的限流响应头和实际 token 用量调整限额
+     * @param headers 限流响应头，见 {@link RateLimitHeaders#extract}
+     * @param estimatedTokens 请求前估算的 token 数
+     * @param actualTokens 实际 token 用量，未知时传 null
+     */
+    public void onResponse(Map<String, String> headers, long estimatedTokens, Integer actualTokens) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (actualTokens != null) {
+                // 估算偏多时退还，偏少时记为欠额
+                tokens.refund(estimatedTokens - actualTokens);
+            }
+            if (headers != null && !headers.isEmpty()) {
+                adjust(headers, now);
+            }
+            scheduleDrain(now);
+        }
+    }
+
+    /**
+     * 根据错误响应调整限额，429 时暂停放行直到 retry-after 或重置时间之后
+     * @param error 错误
+     */
+    public void onError(Throwable error) {
+        if (!(error instanceof WebClientResponseException response)) {
+            return;
+        }
+        Map<String, String> headers = RateLimitHeaders.extract(response.getHeaders());
+        long now = System.nanoTime();
+        synchronized (this) {
+            adjust(headers, now);
+            if (response.getStatusCode().value() == 429) {
+                requests.drain();
+                Duration retryAfter = RateLimitHeaders.parseDuration(headers.get(RateLimitHeaders.RETRY_AFTER));
+                Duration pause = retryAfter != null ? retryAfter : Duration.ofSeconds(1);
+                blockUntil(now + pause.toNanos());
+                log.warn("[ProviderRateLimiter] 收到 429，暂停放行 {}ms，模型: {}", pause.toMillis(), model);
+            }
+            scheduleDrain(now);
+        }
+    }
+
+    private void adjust(Map<String, String> headers, long now) {
+        long requestLimit = RateLimitHeaders.parseLong(headers.get(RateLimitHeaders.LIMIT_REQUESTS));
+        if (requestLimit > 0) {
+            requests.setLimit(effectiveLimit(configuredRequestsPerMinute, requestLimit), now);
+        }
+        long tokenLimit = RateLimitHeaders.parseLong(headers.get(RateLimitHeaders.LIMIT_TOKENS));
+        if (tokenLimit > 0) {
+            tokens.setLimit(effectiveLimit(configuredTokensPerMinute, tokenLimit), now);
+        }
+        adjustRemaining(requests, headers.get(RateLimitHeaders.REMAINING_REQUESTS),
+                headers.get(RateLimitHeaders.RESET_REQUESTS), now);
+        adjustRemaining(tokens, headers.get(RateLimitHeaders.REMAINING_TOKENS),
+                headers.get(RateLimitHeaders.RESET_TOKENS), now);
+    }
+
+    private void adjustRemaining(Bucket bucket, String remainingHeader, String resetHeader, long now) {
+        long remaining = RateLimitHeaders.parseLong(remainingHeader);
+        if (remaining < 0) {
+            return;
+        }
+        bucket.capAvailable(remaining, now);
+        if (remaining == 0) {
+            Duration reset = RateLimitHeaders.parseDuration(resetHeader);
+            if (reset != null) {
+                blockUntil(now + reset.toNanos());
+            }
+        }
+    }
+
+    private void blockUntil(long nanos) {
+        if (nanos - blockedUntilNanos > 0) {
+            blockedUntilNanos = nanos;
+        }
+    }
+
+    private static long effectiveLimit(long configured, long fromHeader) {
+        return configured > 0 ? Math.min(configured, fromHeader) : fromHeader;
+    }
+
+    /**
+     * 估算请求消耗的 token 数：输出上限加上提示词的近似 token 数
+     * @param request 模型请求
+     * @return 估算的 token 数
+     */
+    public static long estimateTokens(ModelRequest request) {
+        return estimateTokens(request, ApproximateTokenCounter.INSTANCE);
+    }
+
+    /**
+     * 用指定的分词器估算请求消耗的 token 数：输出上限加上输入 token 数
+     * @param request 模型请求
+     * @param counter 分词器
+     * @return 估算的 token 数
+     */
+    public static long estimateTokens(ModelRequest request, TokenCounter counter) {
+        long maxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : 0;
+        return maxTokens + counter.countRequest(request);
+    }
+
+    public String getModel() { return model; }
+
+    public synchronized Stats getStats() {
+        long now = System.nanoTime();
+        requests.refill(now);
+        tokens.refill(now);
+        long waitedCount = waited.sum();
+        return new Stats(model, requests.getLimit(), tokens.getLimit(),
+                requests.getAvailable(), tokens.getAvailable(), waiters.size(),
+                acquired.sum(), queued.sum(), rejected.sum(),
+                waitedCount == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / waitedCount,
+                maxWaitNanos.get() / 1_000_000.0,
+                Math.max(0, (blockedUntilNanos - now) / 1_000_000));
+    }
+
+    /**
+     * 按分钟限额连续补充的令牌桶，限额为 0 表示不限制
+     */
+    private static final class Bucket {
+        private long limit;
+        private double ratePerNano;
+        private double available;
+        private long lastRefillNanos;
+
+        Bucket(long limitPerMinute, long now) {
+            this.limit = limitPerMinute;
+            this.ratePerNano = limitPerMinute / 60e9;
+            this.available = limitPerMinute;
+            this.lastRefillNanos = now;
+        }
+
+        void setLimit(long limitPerMinute, long now) {
+            if (limitPerMinute == limit) {
+                return;
+            }
+            refill(now);
+            boolean wasUnlimited = limit <= 0;
+            limit = limitPerMinute;
+            ratePerNano = limitPerMinute / 60e9;
+            available = wasUnlimited ? limitPerMinute : Math.min(available, limitPerMinute);
+        }
+
+        void refill(long now) {
+            if (limit > 0) {
+                available = Math.min(limit, available + (now - lastRefillNanos) * ratePerNano);
+            }
+            lastRefillNanos = now;
+        }
+
+        boolean hasAvailable(long amount) {
+            // 单个请求超过整个桶容量时按桶满放行，避免永远等不到
+            return limit <= 0 || available >= Math.min(amount, limit);
+        }
+
+        void consume(long amount) {
+            if (limit > 0) {
+                available -= Math.min(amount, limit);
+            }
+        }
+
+        void refund(long amount) {
+            if (limit > 0) {
+                available = Math.min(limit, available + amount);
+            }
+        }
+
+        void capAvailable(long remaining, long now) {
+            if (limit > 0) {
+                refill(now);
+                available = Math.min(available, remaining);
+            }
+        }
+
+        void drain() {
+            if (limit > 0) {
+                available = Math.min(available, 0);
+            }
+        }
+
+        long nanosUntil(long amount) {
+            if (limit <= 0) {
+                return 0;
+            }
+            double deficit = Math.min(amount, limit) - available;
+            return deficit <= 0 ? 0 : (long) Math.ceil(deficit / ratePerNano);
+        }
+
+        long getLimit() { return limit; }
+        double getAvailable() { return limit > 0 ? available : -1; }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Void> sink;
+        private final long tokens;
+        private final long enqueuedNanos;
+
+        Waiter(MonoSink<Void> sink, long tokens, long enqueuedNanos) {
+            this.sink = sink;
+            this.tokens = tokens;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * 限流状态快照
+     */
+    public static class Stats {
+        private final String model;
+        private final long requestsPerMinute;
+        private final long tokensPerMinute;
+        // 未限制时为 -1
+        private final double availableRequests;
+        private final double availableTokens;
+        private final int queueDepth;
+        private final long acquiredCount;
+        private final long queuedCount;
+        private final long rejectedCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long blockedMillis;
+
+        public Stats(String model, long requestsPerMinute, long tokensPerMinute, double availableRequests,
+                     double availableTokens, int queueDepth, long acquiredCount, long queuedCount, long rejectedCount,
+                     double averageWaitMillis, double maxWaitMillis, long blockedMillis) {
+            this.model = model;
+            this.requestsPerMinute = requestsPerMinute;
+            this.tokensPerMinute = tokensPerMinute;
+            this.availableRequests = availableRequests;
+            this.availableTokens = availableTokens;
+            this.queueDepth = queueDepth;
+            this.acquiredCount = acquiredCount;
+            this.queuedCount = queuedCount;
+            this.rejectedCount = rejectedCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.blockedMillis = blockedMillis;
+        }
+
+        public String getModel() { return model; }
+        public long getRequestsPerMinute() { return requestsPerMinute; }
+        public long getTokensPerMinute() { return tokensPerMinute; }
+        public double getAvailableRequests() { return availableRequests; }
+        public double getAvailableTokens() { return availableTokens; }
+        public int getQueueDepth() { return queueDepth; }
+        public long getAcquiredCount() { return acquiredCount; }
+        public long getQueuedCount() { return queuedCount; }
+        public long getRejectedCount() { return rejectedCount; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        public long getBlockedMillis() { return blockedMillis; }
+    }
+}
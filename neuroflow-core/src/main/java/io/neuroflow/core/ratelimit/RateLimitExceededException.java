@@ -0,0 +1,17 @@
+package io.neuroflow.core.ratelimit;
+
+/**
+ * 请求超出提供方限额且无法排队（队列已满或等待超时）
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final String model;
+
+    public RateLimitExceededException(String model, String message) {
+        super(message + ": " + model);
+        this.model = model;
+    }
+
+    public String getModel() {
+        return model;
+    }
+}
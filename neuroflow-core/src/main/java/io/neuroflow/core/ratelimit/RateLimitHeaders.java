@@ -0,0 +1,100 @@
+package io.neuroflow.core.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 提供方限流响应头
+ *
+ * <p>OpenAI 兼容接口返回 {@code x-ratelimit-limit-requests}、{@code x-ratelimit-remaining-tokens}、
+ * {@code x-ratelimit-reset-requests} 等响应头，429 响应可能带 {@code retry-after}。
+ */
+public final class RateLimitHeaders {
+    public static final String LIMIT_REQUESTS = "x-ratelimit-limit-requests";
+    public static final String LIMIT_TOKENS = "x-ratelimit-limit-tokens";
+    public static final String REMAINING_REQUESTS = "x-ratelimit-remaining-requests";
+    public static final String REMAINING_TOKENS = "x-ratelimit-remaining-tokens";
+    public static final String RESET_REQUESTS = "x-ratelimit-reset-requests";
+    public static final String RESET_TOKENS = "x-ratelimit-reset-tokens";
+    public static final String RETRY_AFTER = "retry-after";
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private RateLimitHeaders() {
+    }
+
+    /**
+     * 提取限流相关的响应头，名称统一为小写
+     * @param headers HTTP 响应头
+     * @return 限流响应头，没有时返回空 Map
+     */
+    public static Map<String, String> extract(HttpHeaders headers) {
+        if (headers == null || headers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> result = null;
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            if ((name.startsWith("x-ratelimit-") || name.equals(RETRY_AFTER)) && !entry.getValue().isEmpty()) {
+                if (result == null) {
+                    result = new HashMap<>();
+                }
+                result.put(name, entry.getValue().get(0));
+            }
+        }
+        return result != null ? result : Collections.emptyMap();
+    }
+
+    /**
+     * 解析整数响应头
+     * @return 解析失败返回 -1
+     */
+    static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 解析重置时间，支持 "20ms"、"1s"、"6m0s"、"1h2m3.5s" 以及纯数字秒数
+     * @return 解析失败返回 null
+     */
+    static Duration parseDuration(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return Duration.ofMillis(Math.round(Double.parseDouble(text) * 1000));
+        } catch (NumberFormatException ignored) {
+            // 不是纯数字，按单位解析
+        }
+        Matcher matcher = DURATION_PART.matcher(text);
+        double millis = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1_000;
+                default -> amount;
+            };
+        }
+        return matched ? Duration.ofMillis(Math.round(millis)) : null;
+    }
+}
@@ -0,0 +1,24 @@
+package io.neuroflow.core.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 提供方限流配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.gateway.rate-limits.<模型客户端名称>} 配置项。
+ */
+@Getter
+@Setter
+public class RateLimitSettings {
+    // 每分钟请求数（RPM），为 0 时只按响应头中的限额限流
+    private long requestsPerMinute = 0;
+    // 每分钟 token 数（TPM），为 0 时只按响应头中的限额限流
+    private long tokensPerMinute = 0;
+    // 排队等待的最大请求数，超出后立即拒绝
+    private int maxQueueSize = 100;
+    // 排队的最长等待时间
+    private Duration maxWait = Duration.ofSeconds(30);
+}
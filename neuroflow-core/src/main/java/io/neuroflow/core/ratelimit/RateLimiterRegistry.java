@@ -0,0 +1,38 @@
+package io.neuroflow.core.ratelimit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 按模型客户端名称维护 {@link ProviderRateLimiter}，只有配置了限流的模型客户端才会限流
+ */
+public class RateLimiterRegistry {
+    private final Map<String, ProviderRateLimiter> limiters;
+
+    /**
+     * @param settings 模型客户端名称到限流配置的映射
+     */
+    public RateLimiterRegistry(Map<String, RateLimitSettings> settings) {
+        Map<String, ProviderRateLimiter> limiters = new HashMap<>();
+        settings.forEach((model, s) -> limiters.put(model, new ProviderRateLimiter(model, s)));
+        this.limiters = Collections.unmodifiableMap(limiters);
+    }
+
+    /**
+     * @return 模型客户端的限流器，未配置限流时返回 null
+     */
+    public ProviderRateLimiter get(String model) {
+        return limiters.get(model);
+    }
+
+    /**
+     * @return 各模型限流状态，按模型名称排序
+     */
+    public Map<String, ProviderRateLimiter.Stats> getStats() {
+        Map<String, ProviderRateLimiter.Stats> stats = new TreeMap<>();
+        limiters.forEach((model, limiter) -> stats.put(model, limiter.getStats()));
+        return stats;
+    }
+}
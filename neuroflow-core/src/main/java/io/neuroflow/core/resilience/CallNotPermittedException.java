@@ -0,0 +1,17 @@
+package io.neuroflow.core.resilience;
+
+/**
+ * 熔断器打开时拒绝调用
+ */
+public class CallNotPermittedException extends RuntimeException {
+    private final String model;
+
+    public CallNotPermittedException(String model) {
+        super("Circuit breaker is open for model: " + model);
+        this.model = model;
+    }
+
+    public String getModel() {
+        return model;
+    }
+}
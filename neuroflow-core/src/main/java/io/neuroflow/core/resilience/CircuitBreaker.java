@@ -0,0 +1,193 @@
+package io.neuroflow.core.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 单个模型客户端的熔断器
+ *
+ * <p>状态转换：
+ * <ul>
+ *   <li>CLOSED：正常放行，按调用次数的滑动窗口统计失败率，失败率超过阈值或连续失败次数过多时进入 OPEN；</li>
+ *   <li>OPEN：拒绝所有调用，经过熔断时间后进入 HALF_OPEN；</li>
+ *   <li>HALF_OPEN：只放行少量探测请求，全部成功后回到 CLOSED，任何一次失败重新进入 OPEN。</li>
+ * </ul>
+ * 每次状态转换都会换代，上一代放行的调用结束时不再影响当前状态。
+ * 状态更新频率不高，使用 synchronized 保证转换的原子性。
+ */
+public class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String model;
+    private final CircuitBreakerSettings settings;
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private int consecutiveFailures;
+    private State state = State.CLOSED;
+    private long generation;
+    private long openUntilNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long openCount;
+    private long rejectedCount;
+
+    public CircuitBreaker(String model, CircuitBreakerSettings settings) {
+        this.model = model;
+        this.settings = settings;
+        this.window = new boolean[Math.max(1, settings.getSlidingWindowSize())];
+    }
+
+    /**
+     * 申请调用许可
+     * @return 许可代号，调用结束时传给 {@link #onSuccess}、{@link #onFailure} 或 {@link #onIgnored}；被拒绝时返回 -1
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                rejectedCount++;
+                return -1;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= settings.getHalfOpenPermits()) {
+                rejectedCount++;
+                return -1;
+            }
+            halfOpenInFlight++;
+        }
+        return generation;
+    }
+
+    /**
+     * 只判断当前是否可能放行，不占用许可，用于路由时跳过已熔断的模型
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.nanoTime() - openUntilNanos >= 0;
+            case HALF_OPEN -> halfOpenInFlight < settings.getHalfOpenPermits();
+        };
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= settings.getHalfOpenPermits()) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            consecutiveFailures++;
+            record(true);
+            if (consecutiveFailures >= settings.getConsecutiveFailures()) {
+                log.warn("[CircuitBreaker] 连续失败 {} 次，熔断模型: {}", consecutiveFailures, model);
+                transitionTo(State.OPEN);
+            } else if (windowCount >= settings.getMinimumCalls() && getFailureRate() >= settings.getFailureRateThreshold()) {
+                log.warn("[CircuitBreaker] 失败率 {} 超过阈值，熔断模型: {}", getFailureRate(), model);
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 调用被取消或失败不属于模型故障时释放许可，不计入统计
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        log.info("[CircuitBreaker] 状态变更，模型: {}，{} -> {}", model, state, next);
+        state = next;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openCount++;
+            openUntilNanos = System.nanoTime() + settings.getOpenDuration().toNanos();
+        } else if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+            consecutiveFailures = 0;
+        }
+    }
+
+    public String getModel() { return model; }
+    public synchronized State getState() { return state; }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(state, getFailureRate(), windowCount, consecutiveFailures, openCount, rejectedCount);
+    }
+
+    /**
+     * 熔断器状态快照
+     */
+    public static class Stats {
+        private final State state;
+        private final double failureRate;
+        private final int bufferedCalls;
+        private final int consecutiveFailures;
+        private final long openCount;
+        private final long rejectedCount;
+
+        public Stats(State state, double failureRate, int bufferedCalls, int consecutiveFailures,
+                     long openCount, long rejectedCount) {
+            this.state = state;
+            this.failureRate = failureRate;
+            this.bufferedCalls = bufferedCalls;
+            this.consecutiveFailures = consecutiveFailures;
+            this.openCount = openCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        public State getState() { return state; }
+        public double getFailureRate() { return failureRate; }
+        public int getBufferedCalls() { return bufferedCalls; }
+        public int getConsecutiveFailures() { return consecutiveFailures; }
+        public long getOpenCount() { return openCount; }
+        public long getRejectedCount() { return rejectedCount; }
+    }
+}
@@ -0,0 +1,30 @@
+package io.neuroflow.core.resilience;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按模型客户端名称维护 {@link CircuitBreaker}
+ */
+public class CircuitBreakerRegistry {
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final CircuitBreakerSettings settings;
+
+    public CircuitBreakerRegistry(CircuitBreakerSettings settings) {
+        this.settings = settings;
+    }
+
+    public CircuitBreaker get(String model) {
+        return breakers.computeIfAbsent(model, m -> new CircuitBreaker(m, settings));
+    }
+
+    /**
+     * @return 各模型熔断器状态，按模型名称排序
+     */
+    public Map<String, CircuitBreaker.Stats> getStats() {
+        Map<String, CircuitBreaker.Stats> stats = new TreeMap<>();
+        breakers.forEach((model, breaker) -> stats.put(model, breaker.getStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,28 @@
+package io.neuroflow.core.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 熔断器配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.gateway.circuit-breaker} 配置项。
+ */
+@Getter
+@Setter
+public class CircuitBreakerSettings {
+    // 滑动窗口内失败率达到该值时熔断
+    private double failureRateThreshold = 0.5;
+    // 按调用次数计算的滑动窗口大小
+    private int slidingWindowSize = 20;
+    // 窗口内调用数不足时不按失败率熔断
+    private int minimumCalls = 10;
+    // 连续失败达到该次数时立即熔断（离群剔除），不等失败率
+    private int consecutiveFailures = 5;
+    // 熔断持续时间，之后进入半开状态放行探测请求
+    private Duration openDuration = Duration.ofSeconds(30);
+    // 半开状态放行的探测请求数，全部成功后恢复
+    private int halfOpenPermits = 3;
+}
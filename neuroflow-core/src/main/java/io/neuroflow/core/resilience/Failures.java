@@ -0,0 +1,35 @@
+package io.neuroflow.core.resilience;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 模型调用失败分类
+ */
+public final class Failures {
+
+    private Failures() {
+    }
+
+    /**
+     * 判断是否为瞬时故障：超时、连接失败、429 限流和 5xx 服务端错误。
+     * 瞬时故障可以重试，并计入熔断器；其余错误（如 400 参数错误）重试也不会成功
+     * @param error 调用错误
+     * @return 是瞬时故障返回 true
+     */
+    public static boolean isTransient(Throwable error) {
+        if (error instanceof TimeoutException
+                || error instanceof ConnectException
+                || error instanceof WebClientRequestException) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package io.neuroflow.core.resilience;
+
+import io.neuroflow.core.routing.ModelHealth;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲请求策略
+ *
+ * <p>请求发出后超过对冲延迟仍未返回时，再向同一个或备选模型发出一个相同请求，
+ * 先返回的结果生效，另一个请求被取消。对冲延迟可以固定，也可以取该模型最近延迟的分位数（默认 p95），
+ * 这样只有落在长尾里的请求才会触发对冲。额外请求数受 {@link RequestBudget} 限制。
+ */
+public class HedgingPolicy {
+    private final Duration delay;
+    private final double percentile;
+    private final Duration minDelay;
+    private final int minSamples;
+    private final boolean alternateModel;
+    private final RequestBudget budget;
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param delay 固定对冲延迟，为 null 时按延迟分位数计算
+     * @param percentile 延迟分位数，例如 0.95
+     * @param minDelay 对冲延迟下限，避免延迟样本偏小时过早对冲
+     * @param minSamples 按分位数计算时需要的最少样本数，样本不足时不对冲
+     * @param alternateModel 是否把对冲请求发给备选模型
+     * @param budget 对冲预算
+     */
+    public HedgingPolicy(Duration delay, double percentile, Duration minDelay, int minSamples,
+                         boolean alternateModel, RequestBudget budget) {
+        this.delay = delay;
+        this.percentile = percentile;
+        this.minDelay = minDelay != null ? minDelay : Duration.ZERO;
+        this.minSamples = minSamples;
+        this.alternateModel = alternateModel;
+        this.budget = budget;
+    }
+
+    /**
+     * 计算对冲延迟
+     * @param health 主请求模型的健康度，未启用健康度跟踪时为 null
+     * @return 对冲延迟，返回 null 表示不对冲
+     */
+    public Duration delayFor(ModelHealth health) {
+        if (delay != null) {
+            return delay;
+        }
+        if (health == null || health.getLatencySampleCount() < minSamples) {
+            return null;
+        }
+        Duration observed = Duration.ofNanos(health.getLatencyPercentileNanos(percentile));
+        return observed.compareTo(minDelay) < 0 ? minDelay : observed;
+    }
+
+    /**
+     * 记录一个主请求，为预算存入令牌
+     */
+    public void onRequest() {
+        budget.onRequest();
+    }
+
+    /**
+     * 尝试发出对冲请求
+     * @return 预算充足返回 true
+     */
+    public boolean tryHedge() {
+        if (!budget.tryAcquire()) {
+            return false;
+        }
+        hedged.increment();
+        return true;
+    }
+
+    /**
+     * 对冲请求先于主请求返回
+     */
+    public void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    public boolean isAlternateModel() { return alternateModel; }
+    public RequestBudget getBudget() { return budget; }
+
+    public Stats getStats() {
+        return new Stats(hedged.sum(), hedgeWins.sum(), budget.getRejectedCount(), budget.getAvailable());
+    }
+
+    /**
+     * 对冲统计快照
+     */
+    public static class Stats {
+        private final long hedgedCount;
+        private final long hedgeWinCount;
+        private final long budgetRejectedCount;
+        private final double budgetAvailable;
+
+        public Stats(long hedgedCount, long hedgeWinCount, long budgetRejectedCount, double budgetAvailable) {
+            this.hedgedCount = hedgedCount;
+            this.hedgeWinCount = hedgeWinCount;
+            this.budgetRejectedCount = budgetRejectedCount;
+            this.budgetAvailable = budgetAvailable;
+        }
+
+        public long getHedgedCount() { return hedgedCount; }
+        public long getHedgeWinCount() { return hedgeWinCount; }
+        public long getBudgetRejectedCount() { return budgetRejectedCount; }
+        public double getBudgetAvailable() { return budgetAvailable; }
+    }
+}
@@ -0,0 +1,76 @@
+package io.neuroflow.core.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按比例分配的额外请求预算（令牌桶）
+ *
+ * <p>每个正常请求存入 {@code ratio} 个令牌，每个额外请求（对冲、重试）取出 1 个令牌，
+ * 令牌数不超过 {@code burst}。长期来看额外请求数不会超过正常请求数的 {@code ratio} 倍，
+ * 下游变慢或故障时不会因为额外请求而放大负载。
+ */
+public class RequestBudget {
+    // 令牌以千分之一为单位存储，避免在 CAS 中使用 double
+    private static final long SCALE = 1000;
+
+    private final double ratio;
+    private final int burst;
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param ratio 额外请求与正常请求的比例，例如 0.05 表示最多多发 5% 的请求
+     * @param burst 令牌桶容量，初始为满，允许短时间内的突发
+     */
+    public RequestBudget(double ratio, int burst) {
+        if (ratio < 0 || burst < 1) {
+            throw new IllegalArgumentException("ratio must be >= 0 and burst must be >= 1");
+        }
+        this.ratio = ratio;
+        this.burst = burst;
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = burst * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * 记录一个正常请求，存入令牌
+     */
+    public void onRequest() {
+        balance.accumulateAndGet(deposit, (current, d) -> Math.min(capacity, current + d));
+    }
+
+    /**
+     * 尝试为一个额外请求取出令牌
+     * @return 预算充足返回 true
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                rejected.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        acquired.increment();
+        return true;
+    }
+
+    public double getRatio() { return ratio; }
+    public int getBurst() { return burst; }
+
+    /**
+     * @return 当前可用的令牌数
+     */
+    public double getAvailable() {
+        return (double) balance.get() / SCALE;
+    }
+
+    public long getAcquiredCount() { return acquired.sum(); }
+    public long getRejectedCount() { return rejected.sum(); }
+}
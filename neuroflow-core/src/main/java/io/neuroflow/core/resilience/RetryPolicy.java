@@ -0,0 +1,92 @@
+package io.neuroflow.core.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 模型调用重试策略
+ *
+ * <p>只重试 {@link Failures#isTransient 瞬时故障}，退避时间按指数增长并加入随机抖动，
+ * 避免大量请求在同一时刻重试。重试次数受 {@link RequestBudget} 限制，
+ * 上游大面积故障时重试不会把负载放大数倍。
+ *
+ * <p>超时的请求提供方可能已经在生成并计费，重试会再次计费，默认不重试超时，需要时通过 retryTimeouts 开启。
+ */
+public class RetryPolicy {
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double jitter;
+    private final RequestBudget budget;
+    private final boolean retryTimeouts;
+
+    /**
+     * @param maxRetries 最大重试次数
+     * @param initialBackoff 首次重试的退避时间
+     * @param maxBackoff 退避时间上限
+     * @param jitter 抖动系数，取值 0~1
+     * @param budget 重试预算
+     */
+    public RetryPolicy(int maxRetries, Duration initialBackoff, Duration maxBackoff, double jitter, RequestBudget budget) {
+        this(maxRetries, initialBackoff, maxBackoff, jitter, budget, false);
+    }
+
+    /**
+     * @param retryTimeouts 是否重试超时的请求
+     */
+    public RetryPolicy(int maxRetries, Duration initialBackoff, Duration maxBackoff, double jitter, RequestBudget budget,
+                       boolean retryTimeouts) {
+        this.retryTimeouts = retryTimeouts;
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+        this.budget = budget;
+    }
+
+    /**
+     * 记录一次正常请求，为重试预算存入令牌
+     */
+    public void onRequest() {
+        budget.onRequest();
+    }
+
+    /**
+     * 创建重试规则，重试耗尽或被预算拒绝时抛出最后一次的原始错误。
+     * 只有确定会重试时才从预算取令牌，最后一次失败不再占用令牌
+     * @param model 模型名称，用于日志
+     * @return Reactor 重试规则
+     */
+    public Retry toRetry(String model) {
+        RetryBackoffSpec backoff = Retry.backoff(maxRetries, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter)
+                .filter(this::isRetryable)
+                .doBeforeRetry(signal -> log.warn("[RetryPolicy] 模型调用失败，第 {} 次重试，模型: {}，原因: {}",
+                        signal.totalRetries() + 1, model, signal.failure().toString()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        // 退避规则在 filter 之后才检查次数，预算要在这里按次数判断后再取
+        return Retry.from(signals -> backoff.generateCompanion(signals.handle((signal, sink) -> {
+            if (signal.totalRetries() < maxRetries && isRetryable(signal.failure()) && !budget.tryAcquire()) {
+                sink.error(signal.failure());
+            } else {
+                sink.next(signal);
+            }
+        })));
+    }
+
+    private boolean isRetryable(Throwable error) {
+        return Failures.isTransient(error) && (retryTimeouts || !(error instanceof TimeoutException));
+    }
+
+    public int getMaxRetries() { return maxRetries; }
+    public boolean isRetryTimeouts() { return retryTimeouts; }
+    public RequestBudget getBudget() { return budget; }
+}
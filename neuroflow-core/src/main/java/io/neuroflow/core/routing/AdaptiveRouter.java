@@ -0,0 +1,165 @@
+package io.neuroflow.core.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于延迟和错误率的自适应模型路由
+ *
+ * <p>在候选模型中选择代价最低的一个，代价为：
+ * <pre>
+ *   延迟EWMA × (在途请求数 + 1) × (1 + 错误惩罚系数 × 错误率) / 权重
+ * </pre>
+ * 在途请求数让并发高的模型自动分流。还没有延迟样本的模型按先验延迟计算：有样本的候选模型的平均延迟，
+ * 都没有样本时为 defaultLatencyMillis；失败照常计入错误率，一直失败的模型不会因为没有成功样本而被优先选中。
+ * 另有一小部分流量随机分配给候选模型，保证冷门模型的健康度持续更新。
+ */
+public class AdaptiveRouter {
+    public static final double DEFAULT_LATENCY_MILLIS = 1000.0;
+
+    private final Map<String, Double> weights;
+    private final double errorPenalty;
+    private final double explorationRatio;
+    private final double defaultLatencyMillis;
+
+    public AdaptiveRouter(Map<String, Double> weights, double errorPenalty, double explorationRatio) {
+        this(weights, errorPenalty, explorationRatio, DEFAULT_LATENCY_MILLIS);
+    }
+
+    /**
+     * @param defaultLatencyMillis 所有候选模型都没有延迟样本时使用的先验延迟（毫秒）
+     */
+    public AdaptiveRouter(Map<String, Double> weights, double errorPenalty, double explorationRatio,
+                          double defaultLatencyMillis) {
+        if (defaultLatencyMillis <= 0) {
+            throw new IllegalArgumentException("defaultLatencyMillis must be positive: " + defaultLatencyMillis);
+        }
+        this.weights = weights != null ? Map.copyOf(weights) : Collections.emptyMap();
+        this.errorPenalty = errorPenalty;
+        this.explorationRatio = explorationRatio;
+        this.defaultLatencyMillis = defaultLatencyMillis;
+    }
+
+    /**
+     * 从候选模型中选择一个
+     * @param candidates 候选模型，按优先级排列，代价相同时取靠前的
+     * @param tracker 模型健康度
+     * @return 选中的模型
+     */
+    public String select(List<String> candidates, ModelHealthTracker tracker) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (explorationRatio > 0 && random.nextDouble() < explorationRatio) {
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+
+        double prior = priorLatency(candidates, tracker);
+        String best = candidates.get(0);
+        double bestCost = Double.MAX_VALUE;
+        for (String candidate : candidates) {
+            double cost = cost(candidate, tracker.get(candidate), prior);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 计算模型的路由代价，越小越优先，没有延迟样本时按 defaultLatencyMillis 计算
+     */
+    public double cost(String model, ModelHealth health) {
+        return cost(model, health, defaultLatencyMillis);
+    }
+
+    /**
+     * @param priorLatencyMillis 没有延迟样本时使用的延迟
+     */
+    public double cost(String model, ModelHealth health, double priorLatencyMillis) {
+        double latency = health.hasSamples() ? health.getLatencyMillis() : priorLatencyMillis;
+        double load = health.getInFlight() + 1;
+        double errors = 1 + errorPenalty * health.getErrorRate();
+        return latency * load * errors / getWeight(model);
+    }
+
+    /**
+     * 有样本的模型的平均延迟，都没有样本时返回 defaultLatencyMillis
+     */
+    private double priorLatency(Collection<String> models, ModelHealthTracker tracker) {
+        double total = 0;
+        int count = 0;
+        for (String model : models) {
+            ModelHealth health = tracker.get(model);
+            if (health.hasSamples()) {
+                total += health.getLatencyMillis();
+                count++;
+            }
+        }
+        return count > 0 ? total / count : defaultLatencyMillis;
+    }
+
+    public double getWeight(String model) {
+        Double weight = weights.get(model);
+        return weight != null && weight > 0 ? weight : 1.0;
+    }
+
+    /**
+     * 获取各模型的实时路由评分
+     * @param models 参与路由的模型
+     * @param tracker 模型健康度
+     * @return 路由评分快照
+     */
+    public List<RouteScore> scores(Collection<String> models, ModelHealthTracker tracker) {
+        List<RouteScore> scores = new ArrayList<>(models.size());
+        double prior = priorLatency(models, tracker);
+        for (String model : models) {
+            ModelHealth health = tracker.get(model);
+            scores.add(new RouteScore(model, health.hasSamples() ? health.getLatencyMillis() : null,
+                    health.getErrorRate(), health.getInFlight(), health.getSuccessCount(), health.getFailureCount(),
+                    getWeight(model), cost(model, health, prior)));
+        }
+        return scores;
+    }
+
+    /**
+     * 路由评分快照
+     */
+    public static class RouteScore {
+        private final String model;
+        private final Double latencyMillis;
+        private final double errorRate;
+        private final int inFlight;
+        private final long successCount;
+        private final long failureCount;
+        private final double weight;
+        private final double cost;
+
+        public RouteScore(String model, Double latencyMillis, double errorRate, int inFlight,
+                          long successCount, long failureCount, double weight, double cost) {
+            this.model = model;
+            this.latencyMillis = latencyMillis;
+            this.errorRate = errorRate;
+            this.inFlight = inFlight;
+            this.successCount = successCount;
+            this.failureCount = failureCount;
+            this.weight = weight;
+            this.cost = cost;
+        }
+
+        public String getModel() { return model; }
+        public Double getLatencyMillis() { return latencyMillis; }
+        public double getErrorRate() { return errorRate; }
+        public int getInFlight() { return inFlight; }
+        public long getSuccessCount() { return successCount; }
+        public long getFailureCount() { return failureCount; }
+        public double getWeight() { return weight; }
+        public double getCost() { return cost; }
+    }
+}
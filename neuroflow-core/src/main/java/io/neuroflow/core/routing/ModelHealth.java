@@ -0,0 +1,165 @@
+package io.neuroflow.core.routing;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个模型客户端的健康度
+ *
+ * <p>延迟和错误率都使用指数加权移动平均（EWMA），通过 CAS 更新 double 的位表示，
+ * 记录路径上没有锁。错误率在长时间没有样本时会逐渐衰减，让曾经故障的模型有机会重新获得流量；
+ * 新样本在衰减后的值上计入，恢复后的第一次成功不会让错误率回升。
+ * 另外用环形缓冲保留最近的成功延迟样本，用于计算延迟分位数。
+ */
+public class ModelHealth {
+    private static final double UNSET = Double.NaN;
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final String model;
+    private final double alpha;
+    private final long errorDecayNanos;
+    private final AtomicLong latencyBits = new AtomicLong(Double.doubleToRawLongBits(UNSET));
+    private final AtomicReference<ErrorRate> errorRate = new AtomicReference<>(new ErrorRate(0.0, System.nanoTime()));
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLongArray latencyRing = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicLong latencyCursor = new AtomicLong();
+
+    public ModelHealth(String model, double alpha, long errorDecayNanos) {
+        this.model = model;
+        this.alpha = alpha;
+        this.errorDecayNanos = errorDecayNanos;
+    }
+
+    /**
+     * 请求开始
+     */
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求成功，延迟计入 EWMA
+     * @param latencyNanos 请求耗时（纳秒）
+     */
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        successes.increment();
+        update(latencyBits, latencyNanos / 1_000_000.0);
+        latencyRing.set((int) (latencyCursor.getAndIncrement() % LATENCY_SAMPLES), latencyNanos);
+        updateErrorRate(0.0);
+    }
+
+    /**
+     * 请求失败。耗时只在已有延迟 EWMA 且比它更慢时计入（例如超时），快速失败不会让模型看起来更快；
+     * 没有成功样本的模型由路由按先验延迟计算
+     * @param latencyNanos 请求耗时（纳秒）
+     */
+    public void onFailure(long latencyNanos) {
+        inFlight.decrementAndGet();
+        failures.increment();
+        double millis = latencyNanos / 1_000_000.0;
+        double current = getLatencyMillis();
+        if (!Double.isNaN(current) && millis > current) {
+            update(latencyBits, millis);
+        }
+        updateErrorRate(1.0);
+    }
+
+    /**
+     * 请求被取消，只释放在途计数
+     */
+    public void onCancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(AtomicLong bits, double sample) {
+        long prev;
+        long next;
+        do {
+            prev = bits.get();
+            double old = Double.longBitsToDouble(prev);
+            double value = Double.isNaN(old) ? sample : old + alpha * (sample - old);
+            next = Double.doubleToRawLongBits(value);
+        } while (!bits.compareAndSet(prev, next));
+    }
+
+    /**
+     * 先按距上次样本的空闲时间衰减已有错误率，再计入新样本，与读取时看到的值保持连续
+     */
+    private void updateErrorRate(double sample) {
+        ErrorRate prev;
+        ErrorRate next;
+        do {
+            prev = errorRate.get();
+            long now = System.nanoTime();
+            double decayed = prev.decayed(now, errorDecayNanos);
+            next = new ErrorRate(decayed + alpha * (sample - decayed), now);
+        } while (!errorRate.compareAndSet(prev, next));
+    }
+
+    public String getModel() { return model; }
+
+    /**
+     * @return 延迟 EWMA（毫秒），没有样本时返回 NaN
+     */
+    public double getLatencyMillis() {
+        return Double.longBitsToDouble(latencyBits.get());
+    }
+
+    /**
+     * @return 按空闲时间衰减后的错误率 EWMA，取值 0~1
+     */
+    public double getErrorRate() {
+        return errorRate.get().decayed(System.nanoTime(), errorDecayNanos);
+    }
+
+    /**
+     * 计算最近成功请求的延迟分位数
+     * @param percentile 分位数，取值 0~1，例如 0.95
+     * @return 延迟（纳秒），没有样本时返回 -1
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+        int count = getLatencySampleCount();
+        if (count == 0) {
+            return -1;
+        }
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = latencyRing.get(i);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * @return 环形缓冲中的延迟样本数，最多 256 个
+     */
+    public int getLatencySampleCount() {
+        return (int) Math.min(latencyCursor.get(), LATENCY_SAMPLES);
+    }
+
+    public int getInFlight() { return inFlight.get(); }
+    public long getSuccessCount() { return successes.sum(); }
+    public long getFailureCount() { return failures.sum(); }
+    public boolean hasSamples() { return !Double.isNaN(getLatencyMillis()); }
+
+    /**
+     * 错误率 EWMA 和最后一次样本的时间，作为整体原子替换
+     */
+    private record ErrorRate(double rate, long updatedNanos) {
+        double decayed(long now, long decayNanos) {
+            if (decayNanos <= 0) {
+                return rate;
+            }
+            long idle = Math.max(0, now - updatedNanos);
+            return rate * Math.exp(-(double) idle / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.neuroflow.core.routing;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按模型客户端名称维护 {@link ModelHealth}
+ */
+public class ModelHealthTracker {
+    private final Map<String, ModelHealth> health = new ConcurrentHashMap<>();
+    private final double alpha;
+    private final long errorDecayNanos;
+
+    public ModelHealthTracker() {
+        this(0.2, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param alpha EWMA 平滑系数，越大越看重最近的样本
+     * @param errorDecay 错误率衰减时间常数，模型空闲这么久后错误率降为约 37%
+     */
+    public ModelHealthTracker(double alpha, Duration errorDecay) {
+        this.alpha = alpha;
+        this.errorDecayNanos = errorDecay.toNanos();
+    }
+
+    public ModelHealth get(String model) {
+        return health.computeIfAbsent(model, m -> new ModelHealth(m, alpha, errorDecayNanos));
+    }
+
+    public Collection<ModelHealth> getAll() {
+        return Collections.unmodifiableCollection(health.values());
+    }
+}
@@ -0,0 +1,19 @@
+package io.neuroflow.core.scheduling;
+
+import java.time.Instant;
+
+/**
+ * 请求在截止时间前没有完成
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private final Instant deadline;
+
+    public DeadlineExceededException(String model, Instant deadline) {
+        super("Deadline " + deadline + " exceeded for model: " + model);
+        this.deadline = deadline;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+}
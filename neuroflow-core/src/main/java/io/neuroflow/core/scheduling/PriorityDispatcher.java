@@ -0,0 +1,392 @@
+package io.neuroflow.core.scheduling;
+
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按优先级调度发往模型客户端的请求
+ *
+ * <p>每个模型客户端最多同时发出 {@code maxConcurrency} 个请求，超出的请求按优先级进入各自的队列：
+ * <ul>
+ *   <li>队列之间按权重做平滑加权轮询，交互式请求多放行，后台请求少放行但不会停止；</li>
+ *   <li>同一队列内截止时间早的先放行（EDF），没有截止时间的按到达顺序排在后面；</li>
+ *   <li>队首请求等待超过 {@code agingThreshold} 时直接放行，防止持续的高优先级流量饿死低优先级请求；</li>
+ *   <li>出队时已经过了截止时间的请求直接以 {@link DeadlineExceededException} 结束，不再占用并发。</li>
+ * </ul>
+ * 并发许可在请求结束、失败或取消时释放，之后立即从队列中放行下一个请求。
+ */
+public class PriorityDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(PriorityDispatcher.class);
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+    private static final Comparator<Waiter> EARLIEST_DEADLINE_FIRST = Comparator
+            .comparingLong((Waiter waiter) -> waiter.deadlineNanos)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final int maxConcurrency;
+    private final int[] weights = new int[PRIORITIES.length];
+    private final long agingThresholdNanos;
+    private final int maxQueueSize;
+    private final Map<String, ModelQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LaneMetrics[] metrics = new LaneMetrics[PRIORITIES.length];
+
+    public PriorityDispatcher(SchedulingSettings settings) {
+        this.maxConcurrency = Math.max(1, settings.getMaxConcurrency());
+        this.weights[RequestPriority.INTERACTIVE.ordinal()] = Math.max(1, settings.getInteractiveWeight());
+        this.weights[RequestPriority.STANDARD.ordinal()] = Math.max(1, settings.getStandardWeight());
+        this.weights[RequestPriority.BACKGROUND.ordinal()] = Math.max(1, settings.getBackgroundWeight());
+        this.agingThresholdNanos = settings.getAgingThreshold().toNanos();
+        this.maxQueueSize = settings.getMaxQueueSize();
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i] = new LaneMetrics();
+        }
+        log.info("[PriorityDispatcher] 初始化完成，单模型并发: {}，权重: {}/{}/{}，防饥饿阈值: {}ms",
+                maxConcurrency, weights[0], weights[1], weights[2], settings.getAgingThreshold().toMillis());
+    }
+
+    /**
+     * 取得并发许可后发出调用，许可在调用结束或取消时释放
+     * @param model 模型客户端名称
+     * @param request 模型请求，按其优先级和截止时间排队
+     * @param call 实际调用
+     * @return 调用结果；排队已满以 {@link RejectedExecutionException} 结束，排队超过截止时间以 {@link DeadlineExceededException} 结束
+     */
+    public <T> Mono<T> dispatch(String model, ModelRequest request, Mono<T> call) {
+        return Mono.usingWhen(acquire(model, request), permit -> call, Permit::release);
+    }
+
+    /**
+     * 流式调用的调度，许可在整个流结束或取消时释放
+     */
+    public <T> Flux<T> dispatchMany(String model, ModelRequest request, Flux<T> call) {
+        return Flux.usingWhen(acquire(model, request), permit -> call, Permit::release);
+    }
+
+    private Mono<Permit> acquire(String model, ModelRequest request) {
+        RequestPriority priority = request.getPriority() != null ? request.getPriority() : RequestPriority.STANDARD;
+        Instant deadline = request.getDeadline();
+        ModelQueue queue = queues.computeIfAbsent(model, ModelQueue::new);
+        return Mono.create(sink -> queue.enqueue(new Waiter(sink, priority, deadline, System.nanoTime())));
+    }
+
+    /**
+     * 当前各优先级的排队情况，按所有模型客户端汇总
+     */
+    public Map<RequestPriority, LaneStats> getStats() {
+        int[] depth = new int[PRIORITIES.length];
+        int inFlight = 0;
+        for (ModelQueue queue : queues.values()) {
+            synchronized (queue) {
+                inFlight += queue.inFlight;
+                for (int i = 0; i < depth.length; i++) {
+                    depth[i] += queue.lanes[i].size();
+                }
+            }
+        }
+        Map<RequestPriority, LaneStats> stats = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : PRIORITIES) {
+            int i = priority.ordinal();
+            stats.put(priority, metrics[i].snapshot(weights[i], depth[i]));
+        }
+        return stats;
+    }
+
+    /**
+     * 各模型客户端正在执行的请求数
+     */
+    public Map<String, Integer> getInFlight() {
+        Map<String, Integer> inFlight = new TreeMap<>();
+        queues.forEach((model, queue) -> {
+            synchronized (queue) {
+                inFlight.put(model, queue.inFlight);
+            }
+        });
+        return inFlight;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 单个模型客户端的并发许可和各优先级队列
+     */
+    private final class ModelQueue {
+        private final String model;
+        @SuppressWarnings("unchecked")
+        private final PriorityQueue<Waiter>[] lanes = new PriorityQueue[PRIORITIES.length];
+        // 平滑加权轮询的当前权重
+        private final long[] currentWeights = new long[PRIORITIES.length];
+        private int inFlight;
+
+        ModelQueue(String model) {
+            this.model = model;
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new PriorityQueue<>(EARLIEST_DEADLINE_FIRST);
+            }
+        }
+
+        void enqueue(Waiter waiter) {
+            LaneMetrics lane = metrics[waiter.priority.ordinal()];
+            if (waiter.isExpired(waiter.enqueuedNanos)) {
+                lane.expired.increment();
+                waiter.sink.error(new DeadlineExceededException(model, waiter.deadline));
+                return;
+            }
+            // 先注册取消回调：许可分配后、交给订阅方之前被取消时也能归还
+            waiter.sink.onCancel(() -> cancel(waiter));
+            boolean granted = false;
+            boolean full = false;
+            synchronized (this) {
+                if (inFlight < maxConcurrency && isEmpty()) {
+                    inFlight++;
+                    waiter.permit = new Permit(this);
+                    granted = true;
+                } else if (lanes[waiter.priority.ordinal()].size() >= maxQueueSize) {
+                    full = true;
+                } else {
+                    lanes[waiter.priority.ordinal()].add(waiter);
+                }
+            }
+            if (granted) {
+                lane.onDispatched(0);
+                waiter.sink.success(waiter.permit);
+            } else if (full) {
+                lane.rejected.increment();
+                log.warn("[PriorityDispatcher] 调度队列已满，拒绝请求，模型: {}，优先级: {}", model, waiter.priority);
+                waiter.sink.error(new RejectedExecutionException(
+                        "Dispatch queue is full for model " + model + ", priority " + waiter.priority));
+            } else {
+                lane.queued.increment();
+                log.debug("[PriorityDispatcher] 并发已满，排队等待，模型: {}，优先级: {}", model, waiter.priority);
+            }
+        }
+
+        private void cancel(Waiter waiter) {
+            Permit permit;
+            synchronized (this) {
+                permit = waiter.permit;
+                if (permit == null) {
+                    lanes[waiter.priority.ordinal()].remove(waiter);
+                }
+            }
+            // 已经分配了许可但还没有交给订阅方时，由这里归还；许可只会释放一次
+            if (permit != null) {
+                permit.releaseOnce();
+            }
+        }
+
+        void release() {
+            List<Waiter> granted = new ArrayList<>();
+            List<Waiter> expired = new ArrayList<>();
+            long now = System.nanoTime();
+            synchronized (this) {
+                inFlight--;
+                while (inFlight < maxConcurrency) {
+                    Waiter next = next(now);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.isExpired(now)) {
+                        expired.add(next);
+                        continue;
+                    }
+                    inFlight++;
+                    next.permit = new Permit(this);
+                    granted.add(next);
+                }
+            }
+            for (Waiter waiter : expired) {
+                metrics[waiter.priority.ordinal()].expired.increment();
+                log.warn("[PriorityDispatcher] 请求排队超过截止时间，模型: {}，优先级: {}", model, waiter.priority);
+                waiter.sink.error(new DeadlineExceededException(model, waiter.deadline));
+            }
+            for (Waiter waiter : granted) {
+                metrics[waiter.priority.ordinal()].onDispatched(now - waiter.enqueuedNanos);
+                waiter.sink.success(waiter.permit);
+            }
+        }
+
+        /**
+         * 选择下一个放行的请求：先看是否有队首请求等待超过防饥饿阈值，再按平滑加权轮询选择队列
+         */
+        private Waiter next(long now) {
+            PriorityQueue<Waiter> aged = null;
+            for (PriorityQueue<Waiter> lane : lanes) {
+                Waiter head = lane.peek();
+                if (head != null && now - head.enqueuedNanos >= agingThresholdNanos
+                        && (aged == null || head.enqueuedNanos < aged.peek().enqueuedNanos)) {
+                    aged = lane;
+                }
+            }
+            if (aged != null) {
+                metrics[aged.peek().priority.ordinal()].aged.increment();
+                return aged.poll();
+            }
+
+            int best = -1;
+            long totalWeight = 0;
+            for (int i = 0; i < lanes.length; i++) {
+                if (lanes[i].isEmpty()) {
+                    continue;
+                }
+                currentWeights[i] += weights[i];
+                totalWeight += weights[i];
+                if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return null;
+            }
+            currentWeights[best] -= totalWeight;
+            return lanes[best].poll();
+        }
+
+        private boolean isEmpty() {
+            for (PriorityQueue<Waiter> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 并发许可，只能释放一次
+     */
+    private static final class Permit {
+        private final ModelQueue queue;
+        private boolean released;
+
+        Permit(ModelQueue queue) {
+            this.queue = queue;
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseOnce);
+        }
+
+        void releaseOnce() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            queue.release();
+        }
+    }
+
+    private final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final RequestPriority priority;
+        private final Instant deadline;
+        private final long deadlineNanos;
+        private final long enqueuedNanos;
+        private final long sequence;
+        // 分配到的许可，由 ModelQueue 的锁保护
+        private Permit permit;
+
+        Waiter(MonoSink<Permit> sink, RequestPriority priority, Instant deadline, long enqueuedNanos) {
+            this.sink = sink;
+            this.priority = priority;
+            this.deadline = deadline;
+            this.enqueuedNanos = enqueuedNanos;
+            this.sequence = PriorityDispatcher.this.sequence.incrementAndGet();
+            // 截止时间换算到 nanoTime，便于比较和判断是否过期
+            this.deadlineNanos = deadline != null
+                    ? enqueuedNanos + Duration.between(Instant.now(), deadline).toNanos()
+                    : Long.MAX_VALUE;
+        }
+
+        boolean isExpired(long now) {
+            return deadline != null && now - deadlineNanos >= 0;
+        }
+    }
+
+    private static final class LaneMetrics {
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final LongAdder aged = new LongAdder();
+        private final LongAdder waited = new LongAdder();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void onDispatched(long waitNanos) {
+            dispatched.increment();
+            if (waitNanos > 0) {
+                waited.increment();
+                totalWaitNanos.addAndGet(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            }
+        }
+
+        LaneStats snapshot(int weight, int queueDepth) {
+            long waitedCount = waited.sum();
+            return new LaneStats(weight, queueDepth, dispatched.sum(), queued.sum(), rejected.sum(), expired.sum(),
+                    aged.sum(), waitedCount == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / waitedCount,
+                    maxWaitNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * 单个优先级的调度统计快照
+     */
+    public static class LaneStats {
+        private final int weight;
+        private final int queueDepth;
+        private final long dispatchedCount;
+        private final long queuedCount;
+        private final long rejectedCount;
+        private final long deadlineExceededCount;
+        private final long agedCount;
+        private final double averageQueueMillis;
+        private final double maxQueueMillis;
+
+        public LaneStats(int weight, int queueDepth, long dispatchedCount, long queuedCount, long rejectedCount,
+                         long deadlineExceededCount, long agedCount, double averageQueueMillis, double maxQueueMillis) {
+            this.weight = weight;
+            this.queueDepth = queueDepth;
+            this.dispatchedCount = dispatchedCount;
+            this.queuedCount = queuedCount;
+            this.rejectedCount = rejectedCount;
+            this.deadlineExceededCount = deadlineExceededCount;
+            this.agedCount = agedCount;
+            this.averageQueueMillis = averageQueueMillis;
+            this.maxQueueMillis = maxQueueMillis;
+        }
+
+        public int getWeight() { return weight; }
+        public int getQueueDepth() { return queueDepth; }
+        public long getDispatchedCount() { return dispatchedCount; }
+        public long getQueuedCount() { return queuedCount; }
+        public long getRejectedCount() { return rejectedCount; }
+        public long getDeadlineExceededCount() { return deadlineExceededCount; }
+        public long getAgedCount() { return agedCount; }
+        public double getAverageQueueMillis() { return averageQueueMillis; }
+        public double getMaxQueueMillis() { return maxQueueMillis; }
+    }
+}
@@ -0,0 +1,26 @@
+package io.neuroflow.core.scheduling;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 优先级调度配置
+ *
+ * <p>可直接绑定到 {@code neuroflow.gateway.scheduling} 配置项。
+ */
+@Getter
+@Setter
+public class SchedulingSettings {
+    // 每个模型客户端同时发出的最大请求数，超出后按优先级排队
+    private int maxConcurrency = 32;
+    // 各优先级的调度权重，队列都不为空时按权重比例放行
+    private int interactiveWeight = 8;
+    private int standardWeight = 3;
+    private int backgroundWeight = 1;
+    // 队首请求等待超过该时间后不再按权重，优先放行，防止低优先级请求饿死
+    private Duration agingThreshold = Duration.ofSeconds(10);
+    // 每个模型客户端每个优先级的最大排队请求数，超出后立即拒绝
+    private int maxQueueSize = 1000;
+}
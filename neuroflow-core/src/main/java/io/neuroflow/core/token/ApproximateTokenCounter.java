@@ -0,0 +1,55 @@
+package io.neuroflow.core.token;
+
+/**
+ * 不需要词表的近似 token 计数
+ *
+ * <p>按字符类别一次扫描：连续的字母数字按每 4 个字符一个 token 计算（四舍五入，至少一个），标点符号各算一个，
+ * CJK 等非拉丁文字每个字符算一个，空白不单独计数。英文文本的误差通常在 10% 左右，
+ * 中文文本略偏少。没有对应模型的词表时使用。
+ */
+public class ApproximateTokenCounter implements TokenCounter {
+    public static final ApproximateTokenCounter INSTANCE = new ApproximateTokenCounter();
+
+    private static final int CHARS_PER_WORD_TOKEN = 4;
+
+    @Override
+    public int count(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int wordLength = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (Character.isLetterOrDigit(c)) {
+                    wordLength++;
+                    continue;
+                }
+                tokens += wordTokens(wordLength);
+                wordLength = 0;
+                if (!Character.isWhitespace(c)) {
+                    tokens++;
+                }
+            } else {
+                tokens += wordTokens(wordLength);
+                wordLength = 0;
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    i++;
+                }
+                if (!Character.isWhitespace(c)) {
+                    tokens++;
+                }
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private static int wordTokens(int wordLength) {
+        if (wordLength == 0) {
+            return 0;
+        }
+        return Math.max(1, (wordLength + CHARS_PER_WORD_TOKEN / 2) / CHARS_PER_WORD_TOKEN);
+    }
+}
@@ -0,0 +1,234 @@
+package io.neuroflow.core.token;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 字节级 BPE 分词器，与 tiktoken 的分词结果一致
+ *
+ * <p>先用编码对应的正则把文本切成片段，每个片段转成 UTF-8 字节后按词表 rank 反复合并相邻字节对，
+ * 直到没有可合并的字节对。片段本身在词表中时直接算一个 token。正则匹配器、字节缓冲和合并用的数组
+ * 都按线程复用，计数过程除正则引擎内部外不分配对象。特殊 token（如 {@code <|endoftext|>}）按普通文本处理。
+ */
+public class BpeTokenizer implements TokenCounter {
+    // cl100k_base 的预分词正则，Qwen、Llama 3 等基于 tiktoken 的词表使用同样的规则
+    public static final String CL100K_PATTERN =
+            "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+    // o200k_base 的预分词正则
+    public static final String O200K_PATTERN = String.join("|",
+            "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+(?i:'s|'t|'re|'ve|'m|'ll|'d)?",
+            "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*(?i:'s|'t|'re|'ve|'m|'ll|'d)?",
+            "\\p{N}{1,3}",
+            " ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*",
+            "\\s*[\\r\\n]+",
+            "\\s+(?!\\S)",
+            "\\s+");
+
+    private static final int NO_RANK = Integer.MAX_VALUE;
+
+    private final String name;
+    private final Pattern pattern;
+    private final BytePairRanks ranks;
+    private final ThreadLocal<Scratch> scratch;
+
+    BpeTokenizer(String name, Pattern pattern, BytePairRanks ranks) {
+        this.name = name;
+        this.pattern = pattern;
+        this.ranks = ranks;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(pattern));
+    }
+
+    /**
+     * 从 tiktoken 格式的词表创建分词器
+     * @param name 编码名称，例如 cl100k_base
+     * @param pattern 预分词正则
+     * @param rankFile 词表文件内容，读取后由调用方关闭
+     */
+    public static BpeTokenizer load(String name, String pattern, InputStream rankFile) throws IOException {
+        // tiktoken 的 \s 匹配 Unicode 空白
+        return new BpeTokenizer(name, Pattern.compile(pattern, Pattern.UNICODE_CHARACTER_CLASS), BytePairRanks.load(rankFile));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVocabularySize() {
+        return ranks.size();
+    }
+
+    @Override
+    public int count(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return 0;
+        }
+        Scratch s = scratch.get();
+        Matcher matcher = s.matcher.reset(text);
+        int tokens = 0;
+        try {
+            while (matcher.find()) {
+                int len = s.encodeUtf8(text, matcher.start(), matcher.end());
+                tokens += merge(s, len) - 1;
+            }
+        } finally {
+            // 不持有调用方的文本
+            matcher.reset("");
+        }
+        return tokens;
+    }
+
+    /**
+     * 把文本编码为 token rank 序列
+     * @param text 文本
+     * @return token 序列
+     */
+    public int[] encode(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return new int[0];
+        }
+        Scratch s = scratch.get();
+        Matcher matcher = s.matcher.reset(text);
+        int[] out = new int[Math.max(16, text.length() / 3)];
+        int size = 0;
+        try {
+            while (matcher.find()) {
+                int len = s.encodeUtf8(text, matcher.start(), matcher.end());
+                int parts = merge(s, len);
+                if (size + parts > out.length) {
+                    out = Arrays.copyOf(out, Math.max(size + parts, out.length * 2));
+                }
+                for (int i = 0; i < parts - 1; i++) {
+                    int start = s.starts[i];
+                    out[size++] = ranks.rank(s.bytes, start, s.starts[i + 1] - start);
+                }
+            }
+        } finally {
+            matcher.reset("");
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    /**
+     * 对一个片段做 BPE 合并，合并结果的边界留在 {@code s.starts} 中
+     * @return 边界数，即 token 数加一
+     */
+    private int merge(Scratch s, int len) {
+        byte[] piece = s.bytes;
+        s.ensureParts(len + 1);
+        int[] starts = s.starts;
+        int[] partRanks = s.ranks;
+        if (len == 1 || ranks.rank(piece, 0, len) >= 0) {
+            starts[0] = 0;
+            starts[1] = len;
+            return 2;
+        }
+        int parts = len + 1;
+        for (int i = 0; i < parts; i++) {
+            starts[i] = i;
+            partRanks[i] = i < len - 1 ? rankOrMax(piece, i, 2) : NO_RANK;
+        }
+        while (parts > 2) {
+            int minRank = NO_RANK;
+            int minIndex = -1;
+            for (int i = 0; i < parts - 2; i++) {
+                if (partRanks[i] < minRank) {
+                    minRank = partRanks[i];
+                    minIndex = i;
+                }
+            }
+            if (minIndex < 0) {
+                break;
+            }
+            // 合并 minIndex 和 minIndex+1，更新受影响的两个相邻字节对
+            if (minIndex > 0) {
+                partRanks[minIndex - 1] = pairRank(piece, starts, parts, minIndex - 1);
+            }
+            partRanks[minIndex] = pairRank(piece, starts, parts, minIndex);
+            System.arraycopy(starts, minIndex + 2, starts, minIndex + 1, parts - minIndex - 2);
+            System.arraycopy(partRanks, minIndex + 2, partRanks, minIndex + 1, parts - minIndex - 2);
+            parts--;
+        }
+        return parts;
+    }
+
+    /**
+     * 合并 i 和 i+1 之后，新片段与下一个片段组成的字节对的 rank（合并前的下标）
+     */
+    private int pairRank(byte[] piece, int[] starts, int parts, int i) {
+        if (i + 3 >= parts) {
+            return NO_RANK;
+        }
+        return rankOrMax(piece, starts[i], starts[i + 3] - starts[i]);
+    }
+
+    private int rankOrMax(byte[] piece, int off, int len) {
+        int rank = ranks.rank(piece, off, len);
+        return rank >= 0 ? rank : NO_RANK;
+    }
+
+    /**
+     * 每个线程复用的缓冲区
+     */
+    private static final class Scratch {
+        private final Matcher matcher;
+        private byte[] bytes = new byte[256];
+        private int[] starts = new int[257];
+        private int[] ranks = new int[257];
+
+        Scratch(Pattern pattern) {
+            this.matcher = pattern.matcher("");
+        }
+
+        /**
+         * 把 text[start, end) 编码为 UTF-8 写入 bytes，未配对的代理字符按 U+FFFD 处理
+         * @return 字节数
+         */
+        int encodeUtf8(CharSequence text, int start, int end) {
+            if ((end - start) * 3 > bytes.length) {
+                bytes = new byte[(end - start) * 3];
+            }
+            byte[] out = bytes;
+            int n = 0;
+            for (int i = start; i < end; i++) {
+                int c = text.charAt(i);
+                if (c < 0x80) {
+                    out[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[n++] = (byte) (0xc0 | (c >> 6));
+                    out[n++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isSurrogate((char) c)) {
+                    int cp = 0xfffd;
+                    if (Character.isHighSurrogate((char) c) && i + 1 < end
+                            && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        cp = Character.toCodePoint((char) c, text.charAt(++i));
+                    }
+                    if (cp == 0xfffd) {
+                        out[n++] = (byte) 0xef;
+                        out[n++] = (byte) 0xbf;
+                        out[n++] = (byte) 0xbd;
+                    } else {
+                        out[n++] = (byte) (0xf0 | (cp >> 18));
+                        out[n++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                        out[n++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                        out[n++] = (byte) (0x80 | (cp & 0x3f));
+                    }
+                } else {
+                    out[n++] = (byte) (0xe0 | (c >> 12));
+                    out[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    out[n++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return n;
+        }
+
+        void ensureParts(int required) {
+            if (required > starts.length) {
+                starts = new int[required];
+                ranks = new int[required];
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.neuroflow.core.token;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * BPE 词表：字节序列到合并优先级（rank）的映射
+ *
+ * <p>读取 tiktoken 格式的词表文件（每行 {@code base64(token) rank}）。所有 token 的字节连续存放在一个数组中，
+ * 用开放寻址哈希表按字节切片查找，查找时不分配对象。
+ */
+final class BytePairRanks {
+    private final byte[] bytes;
+    private final int[] offsets;
+    private final int[] ranks;
+    private final int[] table;
+    private final int mask;
+
+    private BytePairRanks(byte[] bytes, int[] offsets, int[] ranks, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.ranks = ranks;
+        int capacity = Integer.highestOneBit(Math.max(4, size * 2 - 1)) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(bytes, offsets[i], offsets[i + 1] - offsets[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * 读取 tiktoken 格式的词表
+     * @param in 词表文件内容，读取后由调用方关闭
+     */
+    static BytePairRanks load(InputStream in) throws IOException {
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] bytes = new byte[1 << 20];
+        int[] offsets = new int[1 << 17];
+        int[] ranks = new int[1 << 17];
+        int size = 0;
+        int length = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int space = line.indexOf(' ');
+            if (space <= 0) {
+                continue;
+            }
+            byte[] token = decoder.decode(line.substring(0, space));
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                ranks = Arrays.copyOf(ranks, ranks.length * 2);
+            }
+            if (length + token.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + token.length, bytes.length * 2));
+            }
+            System.arraycopy(token, 0, bytes, length, token.length);
+            offsets[size] = length;
+            ranks[size] = Integer.parseInt(line, space + 1, line.length(), 10);
+            length += token.length;
+            size++;
+        }
+        if (size == 0) {
+            throw new IOException("Empty BPE rank file");
+        }
+        offsets[size] = length;
+        return new BytePairRanks(Arrays.copyOf(bytes, length), Arrays.copyOf(offsets, size + 1),
+                Arrays.copyOf(ranks, size), size);
+    }
+
+    /**
+     * 查找字节切片的 rank
+     * @return rank，不在词表中时返回 -1
+     */
+    int rank(byte[] buf, int off, int len) {
+        int slot = hash(buf, off, len) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int index = entry - 1;
+            int start = offsets[index];
+            if (offsets[index + 1] - start == len
+                    && Arrays.equals(bytes, start, start + len, buf, off, off + len)) {
+                return ranks[index];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return ranks.length;
+    }
+
+    private static int hash(byte[] buf, int off, int len) {
+        // FNV-1a，再打散低位
+        int h = 0x811c9dc5;
+        for (int i = off; i < off + len; i++) {
+            h = (h ^ (buf[i] & 0xff)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,29 @@
+package io.neuroflow.core.token;
+
+/**
+ * 请求的输入 token 数超过预算
+ */
+public class TokenBudgetExceededException extends RuntimeException {
+    private final String model;
+    private final int tokens;
+    private final int budget;
+
+    public TokenBudgetExceededException(String model, int tokens, int budget) {
+        super("Request needs " + tokens + " input tokens but the budget for model " + model + " is " + budget);
+        this.model = model;
+        this.tokens = tokens;
+        this.budget = budget;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getTokens() {
+        return tokens;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,141 @@
+package io.neuroflow.core.token;
+
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.ModelRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发送前的 token 预算检查
+ *
+ * <p>输入预算为模型的上下文窗口减去请求的 maxTokens。超出预算时按模式处理：
+ * <ul>
+ *   <li>REJECT：直接以 {@link TokenBudgetExceededException} 结束，不发出请求；</li>
+ *   <li>TRUNCATE：从最早的非 system 消息开始丢弃，始终保留最后一条消息，丢弃后仍超出时拒绝。
+ *   带 tool_calls 的 assistant 消息和紧随其后的 tool 结果作为一个整体丢弃，
+ *   否则提供方会因为 tool 结果找不到对应的调用（或调用缺少结果）而拒绝请求。</li>
+ * </ul>
+ */
+public class TokenBudgetPolicy {
+    private static final Logger log = LoggerFactory.getLogger(TokenBudgetPolicy.class);
+
+    public enum Mode {
+        REJECT,
+        TRUNCATE
+    }
+
+    private final TokenizerRegistry tokenizers;
+    private final Mode mode;
+    private final Map<String, Integer> contextWindows;
+    private final int defaultContextWindow;
+
+    /**
+     * @param tokenizers 分词器
+     * @param mode 超出预算时的处理方式
+     * @param contextWindows 模型或模型客户端名称到上下文窗口大小的映射
+     * @param defaultContextWindow 未配置的模型使用的上下文窗口，为 0 时不检查
+     */
+    public TokenBudgetPolicy(TokenizerRegistry tokenizers, Mode mode, Map<String, Integer> contextWindows,
+                             int defaultContextWindow) {
+        this.tokenizers = tokenizers;
+        this.mode = mode;
+        this.contextWindows = Map.copyOf(contextWindows);
+        this.defaultContextWindow = defaultContextWindow;
+    }
+
+    /**
+     * 检查请求的 token 预算
+     * @param client 路由后的模型客户端名称
+     * @param request 模型请求
+     * @return 预算内的请求；截断时返回副本，原请求不变
+     * @throws TokenBudgetExceededException 超出预算且无法截断
+     */
+    public ModelRequest apply(String client, ModelRequest request) {
+        int window = contextWindow(client, request);
+        if (window <= 0) {
+            return request;
+        }
+        int budget = window - (request.getMaxTokens() != null ? request.getMaxTokens() : 0);
+        TokenCounter counter = tokenizers.forRequest(client, request);
+        int tokens = counter.countRequest(request);
+        if (tokens <= budget) {
+            return request;
+        }
+        if (mode == Mode.REJECT || request.getMessages() == null || request.getMessages().size() < 2) {
+            log.warn("[TokenBudgetPolicy] 请求超出 token 预算，模型: {}，输入: {}，预算: {}", client, tokens, budget);
+            throw new TokenBudgetExceededException(client, tokens, budget);
+        }
+        return truncate(client, request, counter, tokens, budget);
+    }
+
+    private ModelRequest truncate(String client, ModelRequest request, TokenCounter counter, int tokens, int budget) {
+        List<ChatMessage> messages = request.getMessages();
+        boolean[] dropped = new boolean[messages.size()];
+        int remaining = tokens;
+        int droppedCount = 0;
+        int last = messages.size() - 1;
+        for (int i = 0; i < last && remaining > budget; ) {
+            if ("system".equals(messages.get(i).getRole())) {
+                i++;
+                continue;
+            }
+            int end = turnEnd(messages, i);
+            if (end >= last) {
+                // 这一轮包含最后一条消息，不能拆开也不能整轮丢弃
+                break;
+            }
+            for (int j = i; j <= end; j++) {
+                remaining -= counter.countMessage(messages.get(j));
+                dropped[j] = true;
+                droppedCount++;
+            }
+            i = end + 1;
+        }
+        if (remaining > budget) {
+            log.warn("[TokenBudgetPolicy] 截断后仍超出 token 预算，模型: {}，输入: {}，预算: {}", client, remaining, budget);
+            throw new TokenBudgetExceededException(client, remaining, budget);
+        }
+        List<ChatMessage> kept = new ArrayList<>(messages.size() - droppedCount);
+        for (int i = 0; i < messages.size(); i++) {
+            if (!dropped[i]) {
+                kept.add(messages.get(i));
+            }
+        }
+        log.info("[TokenBudgetPolicy] 请求超出 token 预算，丢弃最早的 {} 条消息，模型: {}，输入: {} -> {}，预算: {}",
+                droppedCount, client, tokens, remaining, budget);
+        ModelRequest truncated = request.copy();
+        truncated.setMessages(kept);
+        return truncated;
+    }
+
+    /**
+     * 从 start 开始必须一起丢弃的最后一条消息：工具调用消息连同其后的 tool 结果
+     */
+    private static int turnEnd(List<ChatMessage> messages, int start) {
+        int end = start;
+        while (end + 1 < messages.size() && "tool".equals(messages.get(end + 1).getRole())) {
+            end++;
+        }
+        return end;
+    }
+
+    private int contextWindow(String client, ModelRequest request) {
+        Integer window = request.getModel() != null ? contextWindows.get(request.getModel()) : null;
+        if (window == null) {
+            window = contextWindows.get(client);
+        }
+        return window != null ? window : defaultContextWindow;
+    }
+
+    public TokenizerRegistry getTokenizers() {
+        return tokenizers;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+}
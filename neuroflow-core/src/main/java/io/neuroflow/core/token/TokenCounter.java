@@ -0,0 +1,68 @@
+package io.neuroflow.core.token;
+
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.ModelRequest;
+
+import java.util.List;
+
+/**
+ * 本地 token 计数
+ *
+ * <p>在请求发出前估算提示词的 token 数，用于预算检查和限流估算。消息列表按 OpenAI 的计数方式
+ * 给每条消息加上固定开销，函数定义不计入。实现需要线程安全，每个请求都会调用，应避免按字符分配对象。
+ */
+public interface TokenCounter {
+    // 每条消息的格式开销（角色和分隔符）
+    int TOKENS_PER_MESSAGE = 3;
+    // 消息带 name 时的额外开销
+    int TOKENS_PER_NAME = 1;
+    // 回复前缀的开销
+    int REPLY_PRIMING_TOKENS = 3;
+
+    /**
+     * 计算文本的 token 数
+     * @param text 文本，为 null 时返回 0
+     * @return token 数
+     */
+    int count(CharSequence text);
+
+    /**
+     * 计算消息列表的 token 数，含每条消息的格式开销
+     * @param messages 消息列表
+     * @return token 数，不含回复前缀
+     */
+    default int countMessages(List<ChatMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        for (ChatMessage message : messages) {
+            tokens += countMessage(message);
+        }
+        return tokens;
+    }
+
+    /**
+     * 计算单条消息的 token 数，含格式开销
+     */
+    default int countMessage(ChatMessage message) {
+        int tokens = TOKENS_PER_MESSAGE + count(message.getRole()) + count(message.getContent());
+        if (message.getName() != null) {
+            tokens += TOKENS_PER_NAME + count(message.getName());
+        }
+        return tokens;
+    }
+
+    /**
+     * 计算请求输入部分的 token 数：消息、prompt 和回复前缀
+     * @param request 模型请求
+     * @return 输入 token 数
+     */
+    default int countRequest(ModelRequest request) {
+        int tokens = countMessages(request.getMessages());
+        if (request.getPrompt() != null) {
+            tokens += TOKENS_PER_MESSAGE + count(request.getPrompt());
+        }
+        return tokens + REPLY_PRIMING_TOKENS;
+    }
+}
@@ -0,0 +1,136 @@
+package io.neuroflow.core.token;
+
+import io.neuroflow.core.model.ModelRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按模型选择分词器
+ *
+ * <p>模型名称按最长前缀匹配到编码（gpt-4o → o200k_base，gpt-4 → cl100k_base 等），编码对应的 tiktoken 词表
+ * 从 classpath 的 {@code tokenizers/<编码>.tiktoken} 加载，首次使用时加载一次。词表不随框架发布，
+ * 需要精确计数的应用把词表文件放到 classpath 中；找不到词表或模型没有对应编码时使用
+ * {@link ApproximateTokenCounter}。
+ */
+public class TokenizerRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TokenizerRegistry.class);
+    private static final String RESOURCE_PREFIX = "tokenizers/";
+    private static final String RESOURCE_SUFFIX = ".tiktoken";
+    private static final Map<String, String> DEFAULT_ENCODINGS = Map.ofEntries(
+            Map.entry("gpt-4o", "o200k_base"),
+            Map.entry("gpt-4.1", "o200k_base"),
+            Map.entry("gpt-5", "o200k_base"),
+            Map.entry("o1", "o200k_base"),
+            Map.entry("o3", "o200k_base"),
+            Map.entry("o4", "o200k_base"),
+            Map.entry("gpt-4", "cl100k_base"),
+            Map.entry("gpt-3.5", "cl100k_base"),
+            Map.entry("text-embedding-3", "cl100k_base"),
+            Map.entry("openai", "cl100k_base"),
+            Map.entry("qwen", "qwen"),
+            Map.entry("llama3", "llama3"),
+            Map.entry("llama-3", "llama3"));
+
+    private final Map<String, String> encodings;
+    private final ClassLoader classLoader;
+    private final Map<String, TokenCounter> byEncoding = new ConcurrentHashMap<>();
+    private final Map<String, Optional<TokenCounter>> byName = new ConcurrentHashMap<>();
+
+    public TokenizerRegistry() {
+        this(Map.of());
+    }
+
+    /**
+     * @param encodings 模型或模型客户端名称（前缀）到编码名称的映射，覆盖内置映射
+     */
+    public TokenizerRegistry(Map<String, String> encodings) {
+        this(encodings, TokenizerRegistry.class.getClassLoader());
+    }
+
+    public TokenizerRegistry(Map<String, String> encodings, ClassLoader classLoader) {
+        Map<String, String> merged = new HashMap<>(DEFAULT_ENCODINGS);
+        encodings.forEach((name, encoding) -> merged.put(name.toLowerCase(Locale.ROOT), encoding));
+        this.encodings = Map.copyOf(merged);
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 按请求选择分词器：先按请求中的模型名称，再按模型客户端名称
+     * @param client 模型客户端名称
+     * @param request 模型请求
+     * @return 分词器，没有匹配的编码时返回近似计数
+     */
+    public TokenCounter forRequest(String client, ModelRequest request) {
+        if (request.getModel() != null) {
+            Optional<TokenCounter> counter = lookup(request.getModel());
+            if (counter.isPresent()) {
+                return counter.get();
+            }
+        }
+        return client != null ? lookup(client).orElse(ApproximateTokenCounter.INSTANCE) : ApproximateTokenCounter.INSTANCE;
+    }
+
+    /**
+     * 按模型名称选择分词器
+     * @param model 模型名称
+     * @return 分词器，没有匹配的编码时返回近似计数
+     */
+    public TokenCounter forModel(String model) {
+        return model != null ? lookup(model).orElse(ApproximateTokenCounter.INSTANCE) : ApproximateTokenCounter.INSTANCE;
+    }
+
+    /**
+     * 按编码名称获取分词器，词表不存在时返回近似计数
+     * @param encoding 编码名称，例如 cl100k_base
+     */
+    public TokenCounter forEncoding(String encoding) {
+        return byEncoding.computeIfAbsent(encoding, this::load);
+    }
+
+    private Optional<TokenCounter> lookup(String name) {
+        return byName.computeIfAbsent(name, key -> {
+            String encoding = resolve(key.toLowerCase(Locale.ROOT));
+            return encoding != null ? Optional.of(forEncoding(encoding)) : Optional.empty();
+        });
+    }
+
+    private String resolve(String name) {
+        String best = null;
+        int bestLength = -1;
+        for (Map.Entry<String, String> entry : encodings.entrySet()) {
+            String prefix = entry.getKey();
+            if (name.startsWith(prefix) && prefix.length() > bestLength) {
+                best = entry.getValue();
+                bestLength = prefix.length();
+            }
+        }
+        return best;
+    }
+
+    private TokenCounter load(String encoding) {
+        String resource = RESOURCE_PREFIX + encoding + RESOURCE_SUFFIX;
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            if (in == null) {
+                log.warn("[TokenizerRegistry] 未找到词表 {}，编码 {} 使用近似计数", resource, encoding);
+                return ApproximateTokenCounter.INSTANCE;
+            }
+            long start = System.nanoTime();
+            String pattern = encoding.startsWith("o200k") ? BpeTokenizer.O200K_PATTERN : BpeTokenizer.CL100K_PATTERN;
+            BpeTokenizer tokenizer = BpeTokenizer.load(encoding, pattern, in);
+            log.info("[TokenizerRegistry] 词表加载完成，编码: {}，词表大小: {}，耗时: {}ms",
+                    encoding, tokenizer.getVocabularySize(), (System.nanoTime() - start) / 1_000_000);
+            return tokenizer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load tokenizer " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.neuroflow.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class FingerprintTest {
+
+    @Test
+    void ignoresMapOrderAndNullFields() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", List.of("x"));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("b", List.of("x"));
+        second.put("a", 1);
+
+        assertEquals(Fingerprint.of(first), Fingerprint.of(second));
+        assertEquals(Fingerprint.of(new Point(1, null)), Fingerprint.of(new Point(1, null)));
+    }
+
+    @Test
+    void treatsWholeNumbersAlikeRegardlessOfType() {
+        assertEquals(Fingerprint.of(Map.of("n", 1)), Fingerprint.of(Map.of("n", 1.0)));
+        assertEquals(Fingerprint.of(Map.of("n", 1L)), Fingerprint.of(Map.of("n", new BigDecimal("1.00"))));
+        assertEquals(Fingerprint.of(Map.of("n", 2.5)), Fingerprint.of(Map.of("n", new BigDecimal("2.50"))));
+        assertEquals(Fingerprint.of(new Point(3, 0.0)), Fingerprint.of(Map.of("x", 3, "y", 0)));
+        assertNotEquals(Fingerprint.of(Map.of("n", 1)), Fingerprint.of(Map.of("n", 1.5)));
+    }
+
+    @Test
+    void serializesJavaTimeValues() {
+        String date = Fingerprint.of(Map.of("day", LocalDate.of(2024, 1, 31)));
+
+        assertEquals(date, Fingerprint.of(Map.of("day", LocalDate.of(2024, 1, 31))));
+        assertNotEquals(date, Fingerprint.of(Map.of("day", LocalDate.of(2024, 2, 1))));
+        assertNotEquals(Fingerprint.of(Instant.ofEpochSecond(1)), Fingerprint.of(Instant.ofEpochSecond(2)));
+    }
+
+    record Point(int x, Double y) {
+    }
+}
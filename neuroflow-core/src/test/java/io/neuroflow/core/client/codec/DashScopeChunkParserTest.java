@@ -0,0 +1,74 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DashScopeChunkParserTest {
+
+    @Test
+    void emitsOnlyNewTextOfCumulativeOutput() throws Exception {
+        DashScopeChunkParser parser = new DashScopeChunkParser();
+
+        List<StreamEvent> events = parse(parser,
+                "{\"request_id\":\"r1\",\"output\":{\"text\":\"你好\",\"finish_reason\":\"null\"}}",
+                "{\"request_id\":\"r1\",\"output\":{\"text\":\"你好，世界\",\"finish_reason\":\"null\"}}",
+                "{\"request_id\":\"r1\",\"output\":{\"text\":\"你好，世界\",\"finish_reason\":\"stop\"},"
+                        + "\"usage\":{\"input_tokens\":3,\"output_tokens\":4}}");
+
+        assertEquals("你好", events.get(0).getContent());
+        assertEquals("，世界", events.get(1).getContent());
+        assertFalse(events.get(2).hasContent());
+        assertEquals("stop", events.get(2).getFinishReason());
+        assertEquals("你好，世界", join(events));
+    }
+
+    @Test
+    void emitsOnlyNewTextOfCumulativeMessageOutput() throws Exception {
+        DashScopeChunkParser parser = new DashScopeChunkParser();
+
+        List<StreamEvent> events = parse(parser,
+                "{\"output\":{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"Hel\"},\"finish_reason\":\"null\"}]}}",
+                "{\"output\":{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"Hello\"},\"finish_reason\":\"null\"}]}}");
+
+        assertEquals("lo", events.get(1).getContent());
+        assertEquals("Hello", join(events));
+    }
+
+    @Test
+    void passesThroughIncrementalOutput() throws Exception {
+        DashScopeChunkParser parser = new DashScopeChunkParser();
+
+        List<StreamEvent> events = parse(parser,
+                "{\"output\":{\"text\":\"你好\"}}",
+                "{\"output\":{\"text\":\"，世界\"}}",
+                "{\"output\":{\"text\":\"！\"}}");
+
+        assertEquals("你好，世界！", join(events));
+    }
+
+    private static List<StreamEvent> parse(DashScopeChunkParser parser, String... frames) throws Exception {
+        List<StreamEvent> events = new ArrayList<>();
+        for (String frame : frames) {
+            byte[] bytes = frame.getBytes(StandardCharsets.UTF_8);
+            parser.parse(bytes, 0, bytes.length, events);
+        }
+        return events;
+    }
+
+    private static String join(List<StreamEvent> events) {
+        StringBuilder text = new StringBuilder();
+        for (StreamEvent event : events) {
+            if (event.hasContent()) {
+                text.append(event.getContent());
+            }
+        }
+        return text.toString();
+    }
+}
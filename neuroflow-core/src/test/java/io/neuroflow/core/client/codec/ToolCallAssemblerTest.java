@@ -0,0 +1,101 @@
+package io.neuroflow.core.client.codec;
+
+import io.neuroflow.core.model.StreamEvent;
+import io.neuroflow.core.model.ToolCall;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolCallAssemblerTest {
+
+    @Test
+    void completesEachCallWhenItsArgumentsClose() {
+        ToolCallAssembler assembler = new ToolCallAssembler();
+
+        assertTrue(assembler.accept(event(delta(0, "call_a", "get_weather", "{\"city\":"))).isEmpty());
+        assertTrue(assembler.accept(event(delta(1, "call_b", "search", "{\"q\":\"a"))).isEmpty());
+        List<ToolCall> first = assembler.accept(event(delta(0, null, null, "\"杭州\"}")));
+        assertEquals(1, first.size());
+        assertEquals("call_a", first.get(0).getId());
+        assertEquals("get_weather", first.get(0).getFunction().getName());
+        assertEquals("{\"city\":\"杭州\"}", first.get(0).getFunction().getArguments());
+
+        List<ToolCall> second = assembler.accept(event(delta(1, null, null, "\"}")));
+        assertEquals("call_b", second.get(0).getId());
+        assertEquals("{\"q\":\"a\"}", second.get(0).getFunction().getArguments());
+        assertTrue(assembler.finish().isEmpty());
+        assertEquals(2, assembler.getToolCalls().size());
+    }
+
+    @Test
+    void ignoresBracesInsideStrings() {
+        ToolCallAssembler assembler = new ToolCallAssembler();
+
+        assertTrue(assembler.accept(event(delta(0, "c", "echo", "{\"text\":\"}{\\\""))).isEmpty());
+        assertTrue(assembler.accept(event(delta(0, null, null, " ]\",\"list\":[{}"))).isEmpty());
+        List<ToolCall> done = assembler.accept(event(delta(0, null, null, "]}")));
+
+        assertEquals("{\"text\":\"}{\\\" ]\",\"list\":[{}]}", done.get(0).getFunction().getArguments());
+    }
+
+    @Test
+    void dropsFragmentsAfterCompletion() {
+        ToolCallAssembler assembler = new ToolCallAssembler();
+
+        List<ToolCall> done = assembler.accept(event(delta(0, "c", "ping", "{} ")));
+        assertTrue(assembler.accept(event(delta(0, null, null, "\n"))).isEmpty());
+
+        assertEquals("{}", done.get(0).getFunction().getArguments());
+        assertEquals("{}", assembler.getToolCalls().get(0).getFunction().getArguments());
+        assertTrue(assembler.finish().isEmpty());
+    }
+
+    @Test
+    void finishReturnsUnclosedAndEmptyCalls() {
+        ToolCallAssembler assembler = new ToolCallAssembler();
+        assembler.accept(event(delta(0, null, "now", null)));
+        assembler.accept(event(delta(1, "c1", "search", "{\"q\":")));
+        // 没有名称的片段不会成为调用
+        assembler.accept(event(delta(2, null, null, "{}")));
+
+        List<ToolCall> remaining = assembler.finish();
+
+        assertEquals(2, remaining.size());
+        assertEquals("call_0", remaining.get(0).getId());
+        assertEquals("{}", remaining.get(0).getFunction().getArguments());
+        assertEquals("{\"q\":", remaining.get(1).getFunction().getArguments());
+        assertTrue(assembler.finish().isEmpty());
+    }
+
+    @Test
+    void treatsRepeatedIndexWithNameAsNewCall() {
+        ToolCallAssembler assembler = new ToolCallAssembler();
+
+        List<ToolCall> first = assembler.accept(event(delta(0, null, "a", "{\"x\":1}")));
+        List<ToolCall> second = assembler.accept(event(delta(0, null, "b", "{\"y\":2}")));
+
+        assertEquals("a", first.get(0).getFunction().getName());
+        assertEquals("b", second.get(0).getFunction().getName());
+        assertEquals("call_1", second.get(0).getId());
+        assertEquals(List.of("a", "b"), assembler.getToolCalls().stream()
+                .map(call -> call.getFunction().getName()).toList());
+    }
+
+    private static StreamEvent event(StreamEvent.FunctionCallDelta delta) {
+        StreamEvent event = new StreamEvent();
+        event.addFunctionCall(delta);
+        return event;
+    }
+
+    private static StreamEvent.FunctionCallDelta delta(int index, String id, String name, String arguments) {
+        StreamEvent.FunctionCallDelta delta = new StreamEvent.FunctionCallDelta();
+        delta.setIndex(index);
+        delta.setId(id);
+        delta.setName(name);
+        delta.setArguments(arguments);
+        return delta;
+    }
+}
@@ -0,0 +1,110 @@
+package io.neuroflow.core.function;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArgumentConverterTest {
+
+    enum Priority { LOW, HIGH }
+
+    record Address(String city, int zip) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void signature(List<Long> ids, Set<Priority> priorities, Map<String, Integer> counts,
+                                  Optional<LocalDate> date, List<Address> addresses) {
+    }
+
+    @Test
+    void widensAndNarrowsIntegersWithRangeChecks() {
+        ArgumentConverter toLong = ArgumentConverter.forType(long.class);
+        ArgumentConverter toInt = ArgumentConverter.forType(Integer.class);
+
+        assertEquals(5L, toLong.convert(5));
+        assertEquals(3, toInt.convert(3.0));
+        assertEquals(42, toInt.convert(" 42 "));
+        assertEquals("integer", toInt.getExpectedType());
+        assertThrows(IllegalArgumentException.class, () -> toInt.convert(1.5));
+        assertThrows(IllegalArgumentException.class, () -> toInt.convert(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> toInt.convert(true));
+        assertThrows(IllegalArgumentException.class, () -> ArgumentConverter.forType(byte.class).convert(200));
+    }
+
+    @Test
+    void convertsScalarsFromStrings() {
+        assertEquals(2.5, ArgumentConverter.forType(double.class).convert("2.5"));
+        assertEquals(Boolean.TRUE, ArgumentConverter.forType(boolean.class).convert("TRUE"));
+        assertEquals(new BigDecimal("1.10"), ArgumentConverter.forType(BigDecimal.class).convert("1.10"));
+        assertEquals("7", ArgumentConverter.forType(String.class).convert(7));
+        assertEquals(Duration.ofSeconds(30), ArgumentConverter.forType(Duration.class).convert("PT30S"));
+        assertEquals(Priority.HIGH, ArgumentConverter.forType(Priority.class).convert("high"));
+        assertEquals("one of [LOW, HIGH]", ArgumentConverter.forType(Priority.class).getExpectedType());
+        assertThrows(IllegalArgumentException.class, () -> ArgumentConverter.forType(Priority.class).convert("urgent"));
+        assertThrows(IllegalArgumentException.class, () -> ArgumentConverter.forType(LocalDate.class).convert("tomorrow"));
+    }
+
+    @Test
+    void convertsGenericContainersElementWise() {
+        Type[] types = parameterTypes();
+
+        assertEquals(List.of(1L, 2L), ArgumentConverter.forType(types[0]).convert(List.of(1, 2)));
+        assertEquals(List.of(1L, 2L), ArgumentConverter.forType(types[0]).convert("[1, 2]"));
+        assertEquals(Set.of(Priority.LOW), ArgumentConverter.forType(types[1]).convert(List.of("low", "LOW")));
+        assertEquals(Map.of("a", 1), ArgumentConverter.forType(types[2]).convert(Map.of("a", 1.0)));
+        assertEquals(Optional.of(LocalDate.of(2024, 1, 31)), ArgumentConverter.forType(types[3]).convert("2024-01-31"));
+        assertArrayEquals(new int[] {1, 2}, (int[]) ArgumentConverter.forType(int[].class).convert(List.of(1, 2)));
+        assertEquals("array of integer", ArgumentConverter.forType(types[0]).getExpectedType());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ArgumentConverter.forType(types[0]).convert(List.of(1, "x")));
+        assertTrue(error.getMessage().startsWith("element 1"), error.getMessage());
+    }
+
+    @Test
+    void bindsNestedObjects() {
+        Type addresses = parameterTypes()[4];
+
+        Object converted = ArgumentConverter.forType(addresses)
+                .convert(List.of(Map.of("city", "杭州", "zip", 310000, "extra", true)));
+
+        assertEquals(List.of(new Address("杭州", 310000)), converted);
+        assertEquals(new Address("上海", 200000),
+                ArgumentConverter.forType(Address.class).convert("{\"city\":\"上海\",\"zip\":200000}"));
+        assertThrows(IllegalArgumentException.class, () -> ArgumentConverter.forType(Address.class).convert("上海"));
+    }
+
+    @Test
+    void passesNullThrough() {
+        assertNull(ArgumentConverter.forType(int.class).convert(null));
+    }
+
+    @Test
+    void truncatesLongValuesInDescriptions() {
+        assertEquals("null", ArgumentConverter.describe(null));
+        assertEquals("\"ab\"", ArgumentConverter.describe("ab"));
+        assertTrue(ArgumentConverter.describe("x".repeat(200)).endsWith("..."));
+    }
+
+    private static Type[] parameterTypes() {
+        for (var method : ArgumentConverterTest.class.getDeclaredMethods()) {
+            if (method.getName().equals("signature")) {
+                return method.getGenericParameterTypes();
+            }
+        }
+        throw new IllegalStateException("signature method not found");
+    }
+}
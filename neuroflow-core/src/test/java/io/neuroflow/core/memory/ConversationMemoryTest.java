@@ -0,0 +1,102 @@
+package io.neuroflow.core.memory;
+
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.ModelResponse;
+import io.neuroflow.core.token.TokenCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConversationMemoryTest {
+    private final TokenCounter counter = text -> text != null ? text.length() : 0;
+    private final List<Sinks.One<ModelResponse>> summaries = new ArrayList<>();
+    private ConversationMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        MemorySettings settings = new MemorySettings();
+        settings.setMaxTokens(60);
+        settings.setMinRecentMessages(2);
+        settings.setSummaryModel("summary-model");
+        memory = new ConversationMemory(settings, counter, request -> {
+            Sinks.One<ModelResponse> sink = Sinks.one();
+            summaries.add(sink);
+            return sink.asMono();
+        });
+    }
+
+    @Test
+    void keepsEvictedMessagesUntilSummaryCoversThem() {
+        memory.append("c1", List.of(message("user", "first question"), message("assistant", "first answer")));
+        memory.append("c1", List.of(message("user", "second question"), message("assistant", "second answer")));
+        assertEquals(1, summaries.size());
+
+        // 摘要生成期间，被移出的第一轮仍然原样出现在历史之前
+        assertEquals(List.of("first question", "first answer", "second question", "second answer", "next"),
+                contents(memory.assemble("c1", List.of(message("user", "next")))));
+
+        summaries.get(0).tryEmitValue(summary("asked once"));
+
+        assertEquals(List.of("以下是之前对话的摘要：\nasked once", "second question", "second answer", "next"),
+                contents(memory.assemble("c1", List.of(message("user", "next")))));
+    }
+
+    @Test
+    void keepsEvictedMessagesAfterSummaryFailure() {
+        memory.append("c1", List.of(message("user", "first question"), message("assistant", "first answer")));
+        memory.append("c1", List.of(message("user", "second question"), message("assistant", "second answer")));
+
+        summaries.get(0).tryEmitError(new IllegalStateException("summary model unavailable"));
+
+        assertEquals(List.of("first question", "first answer", "second question", "second answer"),
+                contents(memory.assemble("c1", List.of())));
+    }
+
+    @Test
+    void ordersMessagesEvictedDuringSummaryAfterTheInFlightBatch() {
+        memory.append("c1", List.of(message("user", "first question"), message("assistant", "first answer")));
+        memory.append("c1", List.of(message("user", "second question"), message("assistant", "second answer")));
+        memory.append("c1", List.of(message("user", "third question"), message("assistant", "third answer")));
+        assertEquals(1, summaries.size());
+
+        assertEquals(List.of("first question", "first answer", "second question", "second answer",
+                        "third question", "third answer"),
+                contents(memory.assemble("c1", List.of())));
+
+        summaries.get(0).tryEmitValue(summary("asked once"));
+
+        // 第二轮由紧接着开始的下一次摘要处理，写入之前仍然保留
+        assertEquals(2, summaries.size());
+        assertEquals(List.of("以下是之前对话的摘要：\nasked once", "second question", "second answer",
+                        "third question", "third answer"),
+                contents(memory.assemble("c1", List.of())));
+    }
+
+    private static ChatMessage message(String role, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    private static ModelResponse summary(String text) {
+        ModelResponse.Choice choice = new ModelResponse.Choice();
+        choice.setMessage(message("assistant", text));
+        ModelResponse response = new ModelResponse();
+        response.setChoices(List.of(choice));
+        return response;
+    }
+
+    private static List<String> contents(List<ChatMessage> messages) {
+        List<String> contents = new ArrayList<>();
+        for (ChatMessage message : messages) {
+            contents.add(message.getContent());
+        }
+        return contents;
+    }
+}
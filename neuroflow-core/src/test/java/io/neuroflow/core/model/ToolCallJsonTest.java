@@ -0,0 +1,94 @@
+package io.neuroflow.core.model;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 工具调用字段与 OpenAI 协议的字段名一致，使用 WebClient 默认的驼峰命名映射器也能正确收发
+ */
+class ToolCallJsonTest {
+    // 与 WebClient 默认编解码器相同：驼峰命名，忽略未知字段
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String RESPONSE = """
+            {
+              "id": "chatcmpl-1",
+              "object": "chat.completion",
+              "model": "gpt-4o",
+              "choices": [{
+                "index": 0,
+                "finish_reason": "tool_calls",
+                "message": {
+                  "role": "assistant",
+                  "content": null,
+                  "tool_calls": [
+                    {"id": "call_a", "type": "function",
+                     "function": {"name": "get_weather", "arguments": "{\\"city\\":\\"杭州\\"}"}},
+                    {"id": "call_b", "type": "function",
+                     "function": {"name": "search_flights", "arguments": "{\\"from\\":\\"SHA\\",\\"to\\":\\"PEK\\"}"}}
+                  ]
+                }
+              }]
+            }
+            """;
+
+    @Test
+    void deserializesToolCallsFromOpenAiResponse() throws Exception {
+        ModelResponse response = mapper.readValue(RESPONSE, ModelResponse.class);
+
+        List<ToolCall> calls = response.getToolCalls();
+        assertEquals(2, calls.size());
+        assertEquals("call_a", calls.get(0).getId());
+        assertEquals("get_weather", calls.get(0).getFunction().getName());
+        assertEquals("{\"city\":\"杭州\"}", calls.get(0).getFunction().getArguments());
+        assertEquals("call_b", calls.get(1).getId());
+        assertEquals("search_flights", calls.get(1).getFunction().getName());
+    }
+
+    @Test
+    void serializesFollowUpRequestWithSnakeCaseToolFields() throws Exception {
+        ModelResponse response = mapper.readValue(RESPONSE, ModelResponse.class);
+        ChatMessage assistant = response.getChoices().get(0).getMessage();
+
+        ModelRequest request = new ModelRequest();
+        request.setModel("gpt-4o");
+        request.setParallelToolCalls(true);
+        request.setMessages(List.of(assistant,
+                ChatMessage.toolResult("call_a", "get_weather", "晴"),
+                ChatMessage.toolResult("call_b", "search_flights", "[]")));
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(request));
+        assertTrue(json.get("parallel_tool_calls").asBoolean());
+        assertFalse(json.has("parallelToolCalls"));
+
+        JsonNode messages = json.get("messages");
+        assertEquals("call_a", messages.get(0).get("tool_calls").get(0).get("id").asText());
+        assertFalse(messages.get(0).has("toolCalls"));
+        assertEquals("tool", messages.get(1).get("role").asText());
+        assertEquals("call_a", messages.get(1).get("tool_call_id").asText());
+        assertFalse(messages.get(1).has("toolCallId"));
+        assertFalse(messages.get(1).has("tool_calls"));
+    }
+
+    @Test
+    void roundTripsAssistantMessage() throws Exception {
+        ModelResponse response = mapper.readValue(RESPONSE, ModelResponse.class);
+        ChatMessage original = response.getChoices().get(0).getMessage();
+
+        ChatMessage copy = mapper.readValue(mapper.writeValueAsString(original), ChatMessage.class);
+
+        assertEquals(2, copy.getToolCalls().size());
+        assertEquals(original.getToolCalls().get(1).getId(), copy.getToolCalls().get(1).getId());
+        assertEquals(original.getToolCalls().get(1).getFunction().getArguments(),
+                copy.getToolCalls().get(1).getFunction().getArguments());
+    }
+}
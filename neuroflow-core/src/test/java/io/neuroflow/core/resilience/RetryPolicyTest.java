@@ -0,0 +1,72 @@
+package io.neuroflow.core.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RetryPolicyTest {
+
+    @Test
+    void exhaustedRetriesOnlyTakeTokensForRetriesSent() {
+        RequestBudget budget = new RequestBudget(0.0, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        ConnectException failure = new ConnectException("refused");
+
+        Throwable error = call(policy(2, budget), attempts, failure);
+
+        assertSame(failure, error);
+        assertEquals(3, attempts.get());
+        assertEquals(2, budget.getAcquiredCount());
+        assertEquals(0, budget.getRejectedCount());
+        assertEquals(8.0, budget.getAvailable());
+    }
+
+    @Test
+    void stopsRetryingWhenBudgetIsEmpty() {
+        RequestBudget budget = new RequestBudget(0.0, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        ConnectException failure = new ConnectException("refused");
+
+        Throwable error = call(policy(3, budget), attempts, failure);
+
+        assertSame(failure, error);
+        assertEquals(2, attempts.get());
+        assertEquals(1, budget.getAcquiredCount());
+        assertEquals(1, budget.getRejectedCount());
+    }
+
+    @Test
+    void permanentFailureDoesNotTouchBudget() {
+        RequestBudget budget = new RequestBudget(0.0, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalArgumentException failure = new IllegalArgumentException("bad request");
+
+        Throwable error = call(policy(2, budget), attempts, failure);
+
+        assertSame(failure, error);
+        assertEquals(1, attempts.get());
+        assertEquals(0, budget.getAcquiredCount());
+        assertEquals(0, budget.getRejectedCount());
+    }
+
+    private static RetryPolicy policy(int maxRetries, RequestBudget budget) {
+        return new RetryPolicy(maxRetries, Duration.ofMillis(1), Duration.ofMillis(5), 0.0, budget);
+    }
+
+    private static Throwable call(RetryPolicy policy, AtomicInteger attempts, Throwable failure) {
+        return Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(failure);
+                })
+                .retryWhen(policy.toRetry("model"))
+                .onErrorResume(e -> Mono.just(e))
+                .cast(Throwable.class)
+                .block(Duration.ofSeconds(5));
+    }
+}
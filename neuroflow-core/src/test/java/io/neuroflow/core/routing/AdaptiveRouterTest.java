@@ -0,0 +1,78 @@
+package io.neuroflow.core.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRouterTest {
+    private static final long MILLIS = 1_000_000L;
+
+    private final ModelHealthTracker tracker = new ModelHealthTracker(0.2, Duration.ofMinutes(10));
+    private final AdaptiveRouter router = new AdaptiveRouter(Map.of(), 10.0, 0.0);
+
+    @Test
+    void modelThatOnlyFailsDoesNotWinRoute() {
+        ModelHealth healthy = tracker.get("healthy");
+        healthy.onStart();
+        healthy.onSuccess(800 * MILLIS);
+        ModelHealth failing = tracker.get("failing");
+        for (int i = 0; i < 5; i++) {
+            failing.onStart();
+            failing.onFailure(5 * MILLIS);
+        }
+
+        assertEquals("healthy", router.select(List.of("failing", "healthy"), tracker));
+    }
+
+    @Test
+    void coldModelUsesAverageLatencyOfOtherCandidates() {
+        ModelHealth fast = tracker.get("fast");
+        fast.onStart();
+        fast.onSuccess(100 * MILLIS);
+        ModelHealth slow = tracker.get("slow");
+        slow.onStart();
+        slow.onSuccess(300 * MILLIS);
+
+        AdaptiveRouter.RouteScore cold = router.scores(List.of("fast", "slow", "cold"), tracker).get(2);
+        assertEquals(200.0, cold.getCost(), 0.001);
+        assertEquals("fast", router.select(List.of("cold", "fast", "slow"), tracker));
+    }
+
+    @Test
+    void slowFailureRaisesLatencyButFastFailureDoesNot() {
+        ModelHealth health = tracker.get("model");
+        health.onStart();
+        health.onSuccess(100 * MILLIS);
+        health.onStart();
+        health.onFailure(1 * MILLIS);
+        assertEquals(100.0, health.getLatencyMillis(), 0.001);
+
+        health.onStart();
+        health.onFailure(600 * MILLIS);
+        assertTrue(health.getLatencyMillis() > 100.0);
+    }
+
+    @Test
+    void successAfterIdleDecayDoesNotRaiseErrorRate() throws InterruptedException {
+        ModelHealthTracker fastDecay = new ModelHealthTracker(0.2, Duration.ofMillis(20));
+        ModelHealth health = fastDecay.get("model");
+        for (int i = 0; i < 10; i++) {
+            health.onStart();
+            health.onFailure(5 * MILLIS);
+        }
+        assertTrue(health.getErrorRate() > 0.5);
+
+        Thread.sleep(100);
+        double idle = health.getErrorRate();
+        health.onStart();
+        health.onSuccess(100 * MILLIS);
+
+        assertTrue(idle < 0.1, "decayed rate " + idle);
+        assertTrue(health.getErrorRate() <= idle, "rate after success " + health.getErrorRate());
+    }
+}
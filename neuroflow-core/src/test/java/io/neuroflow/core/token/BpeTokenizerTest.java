@@ -0,0 +1,99 @@
+package io.neuroflow.core.token;
+
+import io.neuroflow.core.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BpeTokenizerTest {
+    private final BpeTokenizer tokenizer = tokenizer();
+
+    @Test
+    void mergesLowestRankedPairFirst() {
+        // ab(10) 和 bc(5) 重叠，bc 先合并，之后 a + bc 不在词表中
+        assertArrayEquals(new int[] {0, 5}, tokenizer.encode("abc"));
+        // bc 合并后与 d 组成 bcd(7)
+        assertArrayEquals(new int[] {0, 7}, tokenizer.encode("abcd"));
+        // rank 相同时先合并左边的字节对
+        assertArrayEquals(new int[] {8, 8}, tokenizer.encode("aaaa"));
+        assertArrayEquals(new int[] {8, 0}, tokenizer.encode("aaa"));
+        assertEquals(2, tokenizer.count("abcd"));
+    }
+
+    @Test
+    void wholePieceInVocabularyIsOneToken() {
+        assertArrayEquals(new int[] {10}, tokenizer.encode("ab"));
+        assertArrayEquals(new int[] {3}, tokenizer.encode("d"));
+    }
+
+    @Test
+    void unrankedBytesCountOneTokenEach() {
+        // “你” 的三个 UTF-8 字节都不在词表中
+        assertEquals(3, tokenizer.count("你"));
+        assertArrayEquals(new int[] {-1, -1, -1}, tokenizer.encode("你"));
+    }
+
+    @Test
+    void splitsUtf8TextWithPretokenizerBeforeMerging() {
+        // 切成 "ab"、" é"，é 的两个字节合并为 11
+        assertArrayEquals(new int[] {10, 4, 11}, tokenizer.encode("ab é"));
+        // 数字每 3 位切一段，不会合并成跨段的 token
+        assertArrayEquals(new int[] {12, 13}, tokenizer.encode("12345"));
+        assertEquals(0, tokenizer.count(""));
+        assertEquals(0, tokenizer.count(null));
+    }
+
+    @Test
+    void countMessageAddsPerMessageOverhead() {
+        ChatMessage message = ChatMessage.of("a", "abc");
+        assertEquals(TokenCounter.TOKENS_PER_MESSAGE + 1 + 2, tokenizer.countMessage(message));
+
+        message.setName("b");
+        assertEquals(TokenCounter.TOKENS_PER_MESSAGE + 1 + 2 + TokenCounter.TOKENS_PER_NAME + 1,
+                tokenizer.countMessage(message));
+    }
+
+    @Test
+    void rejectsEmptyRankFile() {
+        assertThrows(IOException.class, () -> BpeTokenizer.load("empty", BpeTokenizer.CL100K_PATTERN,
+                new ByteArrayInputStream("\n".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    private static BpeTokenizer tokenizer() {
+        Map<String, Integer> ranks = new LinkedHashMap<>();
+        ranks.put("a", 0);
+        ranks.put("b", 1);
+        ranks.put("c", 2);
+        ranks.put("d", 3);
+        ranks.put(" ", 4);
+        ranks.put("bc", 5);
+        ranks.put("cd", 6);
+        ranks.put("bcd", 7);
+        ranks.put("aa", 8);
+        ranks.put("ab", 10);
+        ranks.put("é", 11);
+        ranks.put("123", 12);
+        ranks.put("45", 13);
+        StringBuilder file = new StringBuilder();
+        ranks.forEach((token, rank) -> file
+                .append(Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)))
+                .append(' ').append(rank).append('\n'));
+        try {
+            BpeTokenizer tokenizer = BpeTokenizer.load("test", BpeTokenizer.CL100K_PATTERN,
+                    new ByteArrayInputStream(file.toString().getBytes(StandardCharsets.US_ASCII)));
+            assertEquals(ranks.size(), tokenizer.getVocabularySize());
+            return tokenizer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
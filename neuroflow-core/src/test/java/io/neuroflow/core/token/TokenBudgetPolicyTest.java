@@ -0,0 +1,81 @@
+package io.neuroflow.core.token;
+
+import io.neuroflow.core.model.ChatMessage;
+import io.neuroflow.core.model.ModelRequest;
+import io.neuroflow.core.model.ToolCall;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBudgetPolicyTest {
+    private final TokenizerRegistry tokenizers = new TokenizerRegistry();
+
+    @Test
+    void dropsToolCallTogetherWithItsResults() {
+        ChatMessage system = message("system", "你是一个旅行助手");
+        ChatMessage call = toolCalls(ToolCall.of("call_a", "get_weather", "{\"city\":\"杭州\"}"),
+                ToolCall.of("call_b", "search_flights", "{\"from\":\"SHA\",\"to\":\"PEK\"}"));
+        ChatMessage weather = ChatMessage.toolResult("call_a", "get_weather", "晴，25 度");
+        ChatMessage flights = ChatMessage.toolResult("call_b", "search_flights", "[]");
+        ChatMessage question = message("user", "明天适合出门吗？");
+        ModelRequest request = request(system, call, weather, flights, question);
+        // 只需要丢弃工具调用消息本身就能满足预算
+        int budget = count(request) - counter(request).countMessage(call);
+
+        ModelRequest truncated = policy(budget).apply("gpt-4o", request);
+
+        assertEquals(List.of(system, question), truncated.getMessages());
+        assertEquals(5, request.getMessages().size());
+    }
+
+    @Test
+    void keepsTurnThatEndsWithTheLastMessage() {
+        ChatMessage system = message("system", "你是一个旅行助手");
+        ChatMessage question = message("user", "查一下杭州的天气");
+        ChatMessage call = toolCalls(ToolCall.of("call_a", "get_weather", "{\"city\":\"杭州\"}"));
+        ChatMessage weather = ChatMessage.toolResult("call_a", "get_weather", "晴，25 度");
+        ModelRequest request = request(system, question, call, weather);
+        int withoutQuestion = count(request) - counter(request).countMessage(question);
+
+        assertEquals(List.of(system, call, weather), policy(withoutQuestion).apply("gpt-4o", request).getMessages());
+        // 再丢弃就要拆开最后一轮，只能拒绝
+        assertThrows(TokenBudgetExceededException.class, () -> policy(withoutQuestion - 1).apply("gpt-4o", request));
+    }
+
+    private TokenBudgetPolicy policy(int budget) {
+        return new TokenBudgetPolicy(tokenizers, TokenBudgetPolicy.Mode.TRUNCATE, Map.of("gpt-4o", budget), 0);
+    }
+
+    private TokenCounter counter(ModelRequest request) {
+        return tokenizers.forRequest("gpt-4o", request);
+    }
+
+    private int count(ModelRequest request) {
+        return counter(request).countRequest(request);
+    }
+
+    private static ModelRequest request(ChatMessage... messages) {
+        ModelRequest request = new ModelRequest();
+        request.setModel("gpt-4o");
+        request.setMessages(new ArrayList<>(List.of(messages)));
+        return request;
+    }
+
+    private static ChatMessage message(String role, String content) {
+        ChatMessage message = new ChatMessage();
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    private static ChatMessage toolCalls(ToolCall... calls) {
+        ChatMessage message = message("assistant", null);
+        message.setToolCalls(List.of(calls));
+        return message;
+    }
+}
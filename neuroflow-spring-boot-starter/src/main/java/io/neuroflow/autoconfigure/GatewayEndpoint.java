@@ -0,0 +1,222 @@
+package io.neuroflow.autoconfigure;
+
+import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.batch.BatchSubmitter;
+import io.neuroflow.core.cache.RequestCoalescer;
+import io.neuroflow.core.cache.ResponseCache;
+import io.neuroflow.core.function.FunctionExecutor;
+import io.neuroflow.core.function.FunctionRegistry;
+import io.neuroflow.core.function.FunctionResultCache;
+import io.neuroflow.core.model.RequestPriority;
+import io.neuroflow.core.client.http.ModelHttpClients;
+import io.neuroflow.core.ratelimit.ProviderRateLimiter;
+import io.neuroflow.core.ratelimit.RateLimiterRegistry;
+import io.neuroflow.core.resilience.CircuitBreaker;
+import io.neuroflow.core.resilience.CircuitBreakerRegistry;
+import io.neuroflow.core.resilience.HedgingPolicy;
+import io.neuroflow.core.routing.AdaptiveRouter;
+import io.neuroflow.core.scheduling.PriorityDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI 网关运行状态 REST API 端点
+ * 提供缓存、连接池等网关组件的统计和管理功能
+ */
+@RestController
+@RequestMapping("/api/gateway")
+public class GatewayEndpoint {
+    private static final Logger log = LoggerFactory.getLogger(GatewayEndpoint.class);
+
+    private final NeuroFlowGateway gateway;
+    private final ModelHttpClients httpClients;
+    private final FunctionRegistry functionRegistry;
+    private final FunctionExecutor functionExecutor;
+
+    public GatewayEndpoint(NeuroFlowGateway gateway, ModelHttpClients httpClients) {
+        this(gateway, httpClients, null, null);
+    }
+
+    public GatewayEndpoint(NeuroFlowGateway gateway, ModelHttpClients httpClients,
+                           FunctionRegistry functionRegistry, FunctionExecutor functionExecutor) {
+        this.gateway = gateway;
+        this.httpClients = httpClients;
+        this.functionRegistry = functionRegistry;
+        this.functionExecutor = functionExecutor;
+        log.info("[GatewayEndpoint] 初始化完成");
+    }
+
+    /**
+     * 获取响应缓存统计
+     */
+    @GetMapping("/cache/stats")
+    public Mono<ResponseEntity<ResponseCache.Stats>> getCacheStats() {
+        ResponseCache cache = gateway.getResponseCache();
+        if (cache == null) {
+            log.debug("[GatewayEndpoint] 响应缓存未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(cache.getStats()));
+    }
+
+    /**
+     * 清空响应缓存
+     */
+    @DeleteMapping("/cache")
+    public Mono<ResponseEntity<Void>> clearCache() {
+        ResponseCache cache = gateway.getResponseCache();
+        if (cache == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        cache.invalidateAll();
+        log.info("[GatewayEndpoint] 响应缓存已清空");
+        return Mono.just(ResponseEntity.ok().build());
+    }
+
+    /**
+     * 获取在途请求合并统计
+     */
+    @GetMapping("/coalescing/stats")
+    public Mono<ResponseEntity<RequestCoalescer.Stats>> getCoalescingStats() {
+        RequestCoalescer coalescer = gateway.getRequestCoalescer();
+        if (coalescer == null) {
+            log.debug("[GatewayEndpoint] 请求合并未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(coalescer.getStats()));
+    }
+
+    /**
+     * 获取各提供方连接池状态
+     */
+    @GetMapping("/pools")
+    public Mono<ResponseEntity<Map<String, ModelHttpClients.PoolStats>>> getPoolStats() {
+        return Mono.just(ResponseEntity.ok(httpClients.getPoolStats()));
+    }
+
+    /**
+     * 获取各模型的实时路由评分
+     */
+    @GetMapping("/routing")
+    public Mono<ResponseEntity<List<AdaptiveRouter.RouteScore>>> getRoutingScores() {
+        if (gateway.getModelRouter() == null) {
+            log.debug("[GatewayEndpoint] 自适应路由未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(gateway.getRoutingScores()));
+    }
+
+    /**
+     * 获取对冲请求统计
+     */
+    @GetMapping("/hedging/stats")
+    public Mono<ResponseEntity<HedgingPolicy.Stats>> getHedgingStats() {
+        HedgingPolicy policy = gateway.getHedgingPolicy();
+        if (policy == null) {
+            log.debug("[GatewayEndpoint] 对冲请求未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(policy.getStats()));
+    }
+
+    /**
+     * 获取各模型熔断器状态
+     */
+    @GetMapping("/circuit-breakers")
+    public Mono<ResponseEntity<Map<String, CircuitBreaker.Stats>>> getCircuitBreakerStats() {
+        CircuitBreakerRegistry breakers = gateway.getCircuitBreakers();
+        if (breakers == null) {
+            log.debug("[GatewayEndpoint] 熔断器未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(breakers.getStats()));
+    }
+
+    /**
+     * 获取各模型提供方限流状态，包括排队深度和等待时间
+     */
+    @GetMapping("/rate-limits")
+    public Mono<ResponseEntity<Map<String, ProviderRateLimiter.Stats>>> getRateLimitStats() {
+        RateLimiterRegistry limiters = gateway.getRateLimiters();
+        if (limiters == null) {
+            log.debug("[GatewayEndpoint] 提供方限流未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(limiters.getStats()));
+    }
+
+    /**
+     * 获取优先级调度统计：各优先级的排队深度和排队时间，以及各模型客户端正在执行的请求数
+     */
+    @GetMapping("/scheduling")
+    public Mono<ResponseEntity<Map<String, Object>>> getSchedulingStats() {
+        PriorityDispatcher dispatcher = gateway.getDispatcher();
+        if (dispatcher == null) {
+            log.debug("[GatewayEndpoint] 优先级调度未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        Map<RequestPriority, PriorityDispatcher.LaneStats> lanes = dispatcher.getStats();
+        return Mono.just(ResponseEntity.ok(Map.of(
+                "maxConcurrency", dispatcher.getMaxConcurrency(),
+                "inFlight", dispatcher.getInFlight(),
+                "lanes", lanes)));
+    }
+
+    /**
+     * 获取离线批处理统计
+     */
+    @GetMapping("/batch/stats")
+    public Mono<ResponseEntity<BatchSubmitter.Stats>> getBatchStats() {
+        BatchSubmitter submitter = gateway.getBatchSubmitter();
+        if (submitter == null) {
+            log.debug("[GatewayEndpoint] 离线批处理未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(submitter.getStats()));
+    }
+
+    /**
+     * 获取各函数的并发、排队和执行耗时统计
+     */
+    @GetMapping("/functions")
+    public Mono<ResponseEntity<Map<String, FunctionExecutor.Stats>>> getFunctionStats() {
+        if (functionExecutor == null) {
+            log.debug("[GatewayEndpoint] 函数执行器未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(functionExecutor.getStats()));
+    }
+
+    /**
+     * 获取幂等函数结果缓存的各函数命中率
+     */
+    @GetMapping("/functions/cache/stats")
+    public Mono<ResponseEntity<Map<String, FunctionResultCache.Stats>>> getFunctionCacheStats() {
+        FunctionResultCache cache = functionRegistry != null ? functionRegistry.getResultCache() : null;
+        if (cache == null) {
+            log.debug("[GatewayEndpoint] 函数结果缓存未启用");
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.ok(cache.getStats()));
+    }
+
+    /**
+     * 清空幂等函数结果缓存
+     */
+    @DeleteMapping("/functions/cache")
+    public Mono<ResponseEntity<Void>> clearFunctionCache() {
+        FunctionResultCache cache = functionRegistry != null ? functionRegistry.getResultCache() : null;
+        if (cache == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        cache.invalidateAll();
+        log.info("[GatewayEndpoint] 函数结果缓存已清空");
+        return Mono.just(ResponseEntity.ok().build());
+    }
+}
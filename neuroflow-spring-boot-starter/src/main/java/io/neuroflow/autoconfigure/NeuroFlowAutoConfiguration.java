@@ -1,14 +1,33 @@
 package io.neuroflow.autoconfigure;
 
 import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.batch.BatchProvider;
+import io.neuroflow.core.batch.BatchSubmitter;
+import io.neuroflow.core.batch.LocalFileBatchProvider;
+import io.neuroflow.core.batch.OpenAIBatchProvider;
+import io.neuroflow.core.cache.RequestCoalescer;
+import io.neuroflow.core.cache.ResponseCache;
 import io.neuroflow.core.client.ModelClient;
+import io.neuroflow.core.client.http.ModelHttpClients;
 import io.neuroflow.core.client.impl.OpenAIClient;
 import io.neuroflow.core.client.impl.QwenClient;
 import io.neuroflow.core.client.impl.OllamaClient;
 import io.neuroflow.core.function.FunctionRegistry;
 import io.neuroflow.core.function.AIFunction;
 import io.neuroflow.core.function.FunctionDescriptor;
+import io.neuroflow.core.function.FunctionExecutor;
+import io.neuroflow.core.function.FunctionResultCache;
 import io.neuroflow.core.function.FunctionParameter;
+import io.neuroflow.core.ratelimit.RateLimiterRegistry;
+import io.neuroflow.core.resilience.CircuitBreakerRegistry;
+import io.neuroflow.core.resilience.HedgingPolicy;
+import io.neuroflow.core.resilience.RequestBudget;
+import io.neuroflow.core.resilience.RetryPolicy;
+import io.neuroflow.core.routing.AdaptiveRouter;
+import io.neuroflow.core.routing.ModelHealthTracker;
+import io.neuroflow.core.scheduling.PriorityDispatcher;
+import io.neuroflow.core.token.TokenBudgetPolicy;
+import io.neuroflow.core.token.TokenizerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -17,9 +36,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import reactor.core.publisher.Mono;
 import java.lang.reflect.Method;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,33 +61,62 @@ public class NeuroFlowAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public FunctionRegistry functionRegistry() {
-        return new FunctionRegistry();
+        FunctionRegistry registry = new FunctionRegistry();
+        long cacheBytes = properties.getFunctions().getResultCacheMaxBytes();
+        if (cacheBytes > 0) {
+            registry.setResultCache(new FunctionResultCache(cacheBytes));
+        }
+        return registry;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "neuroflow.functions", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FunctionExecutor functionExecutor() {
+        FunctionExecutor executor = new FunctionExecutor(properties.getFunctions());
+        // 未指定执行器的函数步骤也使用该配置，统计一并出现在 /functions 中
+        FunctionExecutor.setDefault(executor);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ModelHttpClients modelHttpClients() {
+        NeuroFlowProperties.Gateway gateway = properties.getGateway();
+        return new ModelHttpClients(gateway.getConnectionPool(), gateway.getProviderConnectionPools());
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public Map<String, ModelClient> modelClients() {
+    public Map<String, ModelClient> modelClients(ModelHttpClients httpClients) {
         Map<String, ModelClient> clients = new HashMap<>();
 
         // OpenAI 配置
         if (properties.getGateway().getModels().getOpenai() != null) {
             NeuroFlowProperties.OpenAIConfig openai = properties.getGateway().getModels().getOpenai();
-            clients.put("openai", new OpenAIClient(openai.getApiKey()));
-            log.info("OpenAI client initialized with API key");
+            clients.put("openai", new OpenAIClient(openai.getApiKey(), openai.getEndpoint(), httpClients.webClientBuilder("openai")));
+            log.info("OpenAI client initialized with endpoint: {}", openai.getEndpoint());
         }
 
         // Qwen 配置
         if (properties.getGateway().getModels().getQwen() != null) {
             NeuroFlowProperties.QwenConfig qwen = properties.getGateway().getModels().getQwen();
-            clients.put("qwen", new QwenClient(qwen.getApiKey(), qwen.getEndpoint()));
+            clients.put("qwen", new QwenClient(qwen.getApiKey(), qwen.getEndpoint(), httpClients.webClientBuilder("qwen")));
             log.info("Qwen client initialized with endpoint: {}", qwen.getEndpoint());
         }
 
         // Ollama 配置
         if (properties.getGateway().getModels().getOllama() != null) {
             NeuroFlowProperties.OllamaConfig ollama = properties.getGateway().getModels().getOllama();
-            clients.put("ollama", new OllamaClient(ollama.getBaseUrl(), ollama.getModel()));
-            log.info("Ollama client initialized with baseUrl: {}, model: {}", ollama.getBaseUrl(), ollama.getModel());
+            OllamaClient client = new OllamaClient(ollama.getBaseUrl(), ollama.getModel(), ollama.getKeepAlive(),
+                    httpClients.webClientBuilder("ollama"));
+            clients.put("ollama", client);
+            log.info("Ollama client initialized with baseUrl: {}, model: {}, keepAlive: {}",
+                    ollama.getBaseUrl(), ollama.getModel(), ollama.getKeepAlive());
+            if (ollama.isWarmUp()) {
+                // 后台预热，不阻塞启动；失败只记录日志，第一个请求仍会加载模型
+                client.warmUp().onErrorResume(e -> Mono.empty()).subscribe();
+            }
         }
 
         return clients;
@@ -73,10 +125,107 @@ public class NeuroFlowAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public NeuroFlowGateway neuroFlowGateway(Map<String, ModelClient> modelClients,
-                                             NeuroFlowProperties properties) {
+                                             NeuroFlowProperties properties,
+                                             ObjectProvider<BatchSubmitter> batchSubmitter) {
         List<String> modelPriority = properties.getGateway().getModelPriority();
         log.info("NeuroFlowGateway initialized with priority: {}", modelPriority);
-        return new NeuroFlowGateway(modelClients, modelPriority);
+        NeuroFlowGateway gateway = new NeuroFlowGateway(modelClients, modelPriority);
+
+        NeuroFlowProperties.Gateway gatewayProperties = properties.getGateway();
+        gateway.setTimeout(Duration.ofMillis(gatewayProperties.getTimeout()));
+        Map<String, Duration> clientTimeouts = new HashMap<>();
+        gatewayProperties.getClientTimeouts().forEach((model, millis) -> clientTimeouts.put(model, Duration.ofMillis(millis)));
+        gateway.setClientTimeouts(clientTimeouts);
+        if (gatewayProperties.getMaxRetries() > 0) {
+            NeuroFlowProperties.Retry retry = gatewayProperties.getRetry();
+            gateway.setRetryPolicy(new RetryPolicy(gatewayProperties.getMaxRetries(), retry.getInitialBackoff(),
+                    retry.getMaxBackoff(), retry.getJitter(), new RequestBudget(retry.getBudgetRatio(), retry.getBudgetBurst()),
+                    retry.isRetryOnTimeout()));
+        }
+        if (gatewayProperties.getCircuitBreaker().isEnabled()) {
+            gateway.setCircuitBreakers(new CircuitBreakerRegistry(gatewayProperties.getCircuitBreaker()));
+        }
+        if (!gatewayProperties.getRateLimits().isEmpty()) {
+            gateway.setRateLimiters(new RateLimiterRegistry(gatewayProperties.getRateLimits()));
+            log.info("Provider rate limits enabled for: {}", gatewayProperties.getRateLimits().keySet());
+        }
+        TokenizerRegistry tokenizers = new TokenizerRegistry(gatewayProperties.getTokenizer().getEncodings());
+        gateway.setTokenizers(tokenizers);
+        NeuroFlowProperties.TokenBudget tokenBudget = gatewayProperties.getTokenBudget();
+        if (tokenBudget.isEnabled()) {
+            gateway.setTokenBudgetPolicy(new TokenBudgetPolicy(tokenizers, tokenBudget.getMode(),
+                    tokenBudget.getContextWindows(), tokenBudget.getDefaultContextWindow()));
+            log.info("Token budget enabled, mode: {}, contextWindows: {}", tokenBudget.getMode(), tokenBudget.getContextWindows());
+        }
+        if (gatewayProperties.getScheduling().isEnabled()) {
+            gateway.setDispatcher(new PriorityDispatcher(gatewayProperties.getScheduling()));
+            log.info("Priority scheduling enabled, maxConcurrency per model: {}",
+                    gatewayProperties.getScheduling().getMaxConcurrency());
+        }
+        gateway.setBatchSubmitter(batchSubmitter.getIfAvailable());
+        log.info("Gateway resilience: timeout {}ms, maxRetries {}, circuitBreaker {}",
+                gatewayProperties.getTimeout(), gatewayProperties.getMaxRetries(), gatewayProperties.getCircuitBreaker().isEnabled());
+
+        NeuroFlowProperties.Cache cache = properties.getGateway().getCache();
+        if (cache.isEnabled()) {
+            gateway.setResponseCache(new ResponseCache(cache.getMaximumSize(), cache.getTtl(), cache.isCacheNonDeterministic()));
+            log.info("Response cache enabled, maximumSize: {}, ttl: {}", cache.getMaximumSize(), cache.getTtl());
+        }
+        if (properties.getGateway().getCoalescing().isEnabled()) {
+            gateway.setRequestCoalescer(new RequestCoalescer());
+            log.info("In-flight request coalescing enabled");
+        }
+        NeuroFlowProperties.Routing routing = properties.getGateway().getRouting();
+        NeuroFlowProperties.Hedging hedging = properties.getGateway().getHedging();
+        boolean adaptive = "ADAPTIVE".equalsIgnoreCase(routing.getMode());
+        if (adaptive || hedging.isEnabled()) {
+            gateway.setHealthTracker(new ModelHealthTracker(routing.getEwmaAlpha(), routing.getErrorDecay()));
+        }
+        if (adaptive) {
+            gateway.setModelRouter(new AdaptiveRouter(routing.getWeights(), routing.getErrorPenalty(),
+                    routing.getExplorationRatio(), routing.getDefaultLatency().toMillis()));
+            log.info("Adaptive model routing enabled, weights: {}", routing.getWeights());
+        }
+        if (hedging.isEnabled()) {
+            gateway.setHedgingPolicy(new HedgingPolicy(hedging.getDelay(), hedging.getPercentile(), hedging.getMinDelay(),
+                    hedging.getMinSamples(), hedging.isAlternateModel(),
+                    new RequestBudget(hedging.getBudgetRatio(), hedging.getBudgetBurst())));
+            log.info("Request hedging enabled, delay: {}, percentile: {}, budgetRatio: {}",
+                    hedging.getDelay(), hedging.getPercentile(), hedging.getBudgetRatio());
+        }
+        return gateway;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "neuroflow.gateway.batch", name = "enabled", havingValue = "true")
+    public BatchSubmitter batchSubmitter(ModelHttpClients httpClients, ObjectProvider<NeuroFlowGateway> gateway) {
+        NeuroFlowProperties.Batch batch = properties.getGateway().getBatch();
+        Path workDir = Path.of(batch.getWorkDir());
+        BatchProvider provider;
+        if ("local".equalsIgnoreCase(batch.getProvider())) {
+            // 网关依赖批处理提交器，本地提供方延迟获取网关以避免循环依赖
+            provider = new LocalFileBatchProvider(workDir.resolve("local"),
+                    request -> gateway.getObject().execute(request), batch.getLocalConcurrency());
+        } else {
+            NeuroFlowProperties.OpenAIConfig openai = properties.getGateway().getModels().getOpenai();
+            if (openai == null) {
+                throw new IllegalStateException("neuroflow.gateway.batch.provider=openai requires neuroflow.gateway.models.openai");
+            }
+            provider = new OpenAIBatchProvider(openai.getApiKey(), openai.getEndpoint(),
+                    httpClients.webClientBuilder("openai"), batch.getCompletionWindow());
+        }
+        log.info("Batch submission enabled with provider: {}", provider.getName());
+        return new BatchSubmitter(provider, workDir, batch.getMaxBatchSize(), batch.getFlushInterval(),
+                batch.getPollInterval(), batch.getMaxWait());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GatewayEndpoint gatewayEndpoint(NeuroFlowGateway gateway, ModelHttpClients httpClients,
+                                           FunctionRegistry functionRegistry,
+                                           ObjectProvider<FunctionExecutor> functionExecutor) {
+        return new GatewayEndpoint(gateway, httpClients, functionRegistry, functionExecutor.getIfAvailable());
     }
 
     @Bean
@@ -96,6 +245,10 @@ public class NeuroFlowAutoConfiguration {
                             descriptor.setDescription(desc);
                             descriptor.setMethod(method);
                             descriptor.setTarget(bean);
+                            descriptor.setTimeout(aiFunction.timeout());
+                            descriptor.setMaxConcurrency(aiFunction.maxConcurrency());
+                            descriptor.setIdempotent(aiFunction.idempotent());
+                            descriptor.setCacheTtl(Duration.ofSeconds(aiFunction.cacheTtl()));
                             // 参数解析
                             var params = new java.util.ArrayList<FunctionParameter>();
                             for (var param : method.getParameters()) {
@@ -1,11 +1,22 @@
 package io.neuroflow.autoconfigure;
 
+import io.neuroflow.agent.checkpoint.ExecutionLogSettings;
+import io.neuroflow.core.client.http.ConnectionPoolSettings;
+import io.neuroflow.core.function.FunctionExecutorSettings;
+import io.neuroflow.core.memory.MemorySettings;
+import io.neuroflow.core.ratelimit.RateLimitSettings;
+import io.neuroflow.core.resilience.CircuitBreakerSettings;
+import io.neuroflow.core.scheduling.SchedulingSettings;
+import io.neuroflow.core.token.TokenBudgetPolicy;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -14,6 +25,7 @@ public class NeuroFlowProperties {
     private Gateway gateway = new Gateway();
     private Agent agent = new Agent();
     private Tools tools = new Tools();
+    private Functions functions = new Functions();
     private VectorStore vectorStore = new VectorStore();
     private Logging logging = new Logging();
 
@@ -22,8 +34,133 @@ public class NeuroFlowProperties {
     public static class Gateway {
         private Models models = new Models();
         private List<String> modelPriority = new ArrayList<>();
-        private int timeout = 5000;
+        // 单次模型调用超时（毫秒），流式请求按相邻两个事件的间隔计算，为 0 时不限制
+        private int timeout = 60000;
+        // 按模型客户端名称覆盖调用超时（毫秒）
+        private Map<String, Integer> clientTimeouts = new HashMap<>();
         private int maxRetries = 3;
+        private Retry retry = new Retry();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private Cache cache = new Cache();
+        private Coalescing coalescing = new Coalescing();
+        private Routing routing = new Routing();
+        private Hedging hedging = new Hedging();
+        // 所有提供方共用的默认连接池配置
+        private ConnectionPoolSettings connectionPool = new ConnectionPoolSettings();
+        // 按提供方名称（openai、qwen、ollama）覆盖连接池配置
+        private Map<String, ConnectionPoolSettings> providerConnectionPools = new HashMap<>();
+        // 按模型客户端名称配置提供方限流（RPM/TPM），未配置的模型客户端不限流
+        private Map<String, RateLimitSettings> rateLimits = new HashMap<>();
+        private Scheduling scheduling = new Scheduling();
+        private Tokenizer tokenizer = new Tokenizer();
+        private TokenBudget tokenBudget = new TokenBudget();
+        private Batch batch = new Batch();
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        private double jitter = 0.5;
+        // 重试请求数与正常请求数的比例上限
+        private double budgetRatio = 0.1;
+        private int budgetBurst = 10;
+        // 超时的生成请求可能已经计费，默认不重试
+        private boolean retryOnTimeout = false;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker extends CircuitBreakerSettings {
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Scheduling extends SchedulingSettings {
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Tokenizer {
+        // 模型或模型客户端名称（前缀）到 tiktoken 编码的映射，覆盖内置映射，例如 ollama: llama3
+        private Map<String, String> encodings = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class TokenBudget {
+        private boolean enabled = false;
+        // REJECT 直接拒绝，TRUNCATE 丢弃最早的非 system 消息
+        private TokenBudgetPolicy.Mode mode = TokenBudgetPolicy.Mode.REJECT;
+        // 模型或模型客户端名称到上下文窗口大小（token）的映射
+        private Map<String, Integer> contextWindows = new HashMap<>();
+        // 未配置的模型使用的上下文窗口，为 0 时不检查
+        private int defaultContextWindow = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = false;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        // temperature 未显式设为 0 的请求默认不缓存
+        private boolean cacheNonDeterministic = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Routing {
+        // PRIORITY 按 model-priority 固定顺序选择，ADAPTIVE 按延迟和错误率选择
+        private String mode = "PRIORITY";
+        private double ewmaAlpha = 0.2;
+        private Duration errorDecay = Duration.ofSeconds(30);
+        private double errorPenalty = 10.0;
+        private double explorationRatio = 0.05;
+        // 所有候选模型都还没有延迟样本时使用的先验延迟
+        private Duration defaultLatency = Duration.ofSeconds(1);
+        // 按模型客户端名称设置权重，默认 1.0，越大分到的流量越多
+        private Map<String, Double> weights = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = false;
+        // 固定对冲延迟，不设置时按模型最近延迟的分位数计算
+        private Duration delay;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(50);
+        private int minSamples = 20;
+        // 对冲请求是否发给等价模型组或优先级列表中的另一个模型
+        private boolean alternateModel = false;
+        // 对冲请求数与正常请求数的比例上限
+        private double budgetRatio = 0.05;
+        private int budgetBurst = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private boolean enabled = false;
+        // openai 使用 OpenAI Batch API，local 使用本地文件并直接调用网关执行（测试用）
+        private String provider = "openai";
+        private int maxBatchSize = 1000;
+        private Duration flushInterval = Duration.ofMinutes(1);
+        private Duration pollInterval = Duration.ofSeconds(30);
+        private String completionWindow = "24h";
+        private Duration maxWait = Duration.ofHours(25);
+        private String workDir = System.getProperty("java.io.tmpdir") + "/neuroflow-batch";
+        private int localConcurrency = 4;
     }
 
     @Getter
@@ -53,6 +190,10 @@ public class NeuroFlowProperties {
     public static class OllamaConfig {
         private String baseUrl = "http://localhost:11434";
         private String model = "llama3";
+        // 模型空闲后保持加载的时间，"-1" 表示一直保持，不设置时使用 Ollama 默认值（5m）
+        private String keepAlive = "30m";
+        // 启动时预热模型，避免第一个请求承担模型加载时间
+        private boolean warmUp = false;
     }
 
     @Getter
@@ -61,6 +202,41 @@ public class NeuroFlowProperties {
         private boolean enabled = true;
         private String workflowDir = "classpath:/workflows";
         private boolean autoReload = true;
+        // 一次工作流执行的总超时，为 0 时不限制
+        private Duration executionTimeout = Duration.ofMinutes(10);
+        private Memory memory = new Memory();
+        private Checkpoint checkpoint = new Checkpoint();
+        private StepCache stepCache = new StepCache();
+    }
+
+    @Getter
+    @Setter
+    public static class StepCache {
+        private boolean enabled = true;
+        // 缓存的步骤结果总大小（字节）
+        private long maxBytes = 64L * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Checkpoint extends ExecutionLogSettings {
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Memory extends MemorySettings {
+        private boolean enabled = false;
+        // 按该模型选择分词器计算历史 token 数，不设置时近似计数
+        private String tokenizerModel;
+    }
+
+    @Getter
+    @Setter
+    public static class Functions extends FunctionExecutorSettings {
+        private boolean enabled = true;
+        // 幂等函数结果缓存的总大小（字节），0 表示不缓存
+        private long resultCacheMaxBytes = 64L * 1024 * 1024;
     }
 
     @Getter
@@ -2,13 +2,23 @@ package io.neuroflow.autoconfigure.agent;
 
 import io.neuroflow.agent.AgentOrchestrator;
 import io.neuroflow.agent.WorkflowRegistry;
+import io.neuroflow.agent.checkpoint.ExecutionLog;
+import io.neuroflow.agent.workflow.StepResultCache;
+import io.neuroflow.autoconfigure.NeuroFlowProperties;
+import io.neuroflow.core.NeuroFlowGateway;
+import io.neuroflow.core.memory.ConversationMemory;
+import io.neuroflow.core.token.TokenizerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.IOException;
+
 @AutoConfiguration
 @EnableScheduling
 @ConditionalOnBean(annotation = EnableNeuroFlowAgent.class)
@@ -22,8 +32,33 @@ public class NeuroFlowAgentAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public AgentOrchestrator agentOrchestrator(WorkflowRegistry workflowRegistry) {
-        return new AgentOrchestrator(workflowRegistry);
+    public AgentOrchestrator agentOrchestrator(WorkflowRegistry workflowRegistry, ObjectProvider<ExecutionLog> executionLog,
+                                               NeuroFlowProperties properties) {
+        return new AgentOrchestrator(workflowRegistry, executionLog.getIfAvailable(),
+                properties.getAgent().getExecutionTimeout());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "neuroflow.agent.checkpoint", name = "enabled", havingValue = "true")
+    public ExecutionLog executionLog(NeuroFlowProperties properties) throws IOException {
+        return new ExecutionLog(properties.getAgent().getCheckpoint());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "neuroflow.agent.memory", name = "enabled", havingValue = "true")
+    public ConversationMemory conversationMemory(NeuroFlowGateway gateway, NeuroFlowProperties properties) {
+        NeuroFlowProperties.Memory memory = properties.getAgent().getMemory();
+        TokenizerRegistry tokenizers = gateway.getTokenizers() != null ? gateway.getTokenizers() : new TokenizerRegistry();
+        return new ConversationMemory(memory, tokenizers.forModel(memory.getTokenizerModel()), gateway::execute);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "neuroflow.agent.step-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public StepResultCache stepResultCache(NeuroFlowProperties properties) {
+        return new StepResultCache(properties.getAgent().getStepCache().getMaxBytes());
     }
 
     @Bean
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -79,9 +80,13 @@ public class WorkflowEndpoint {
     @PostMapping("/{workflowId}/execute")
     public Mono<ResponseEntity<Object>> executeWorkflow(
             @PathVariable String workflowId,
+            @RequestHeader(value = "X-Execution-Id", required = false) String executionId,
             @RequestBody Map<String, Object> inputs) {
-        log.info("[WorkflowEndpoint] 执行工作流: {}，输入参数: {}", workflowId, inputs);
-        return orchestrator.execute(workflowId, inputs)
+        log.info("[WorkflowEndpoint] 执行工作流: {}，执行ID: {}，输入参数: {}", workflowId, executionId, inputs);
+        Mono<Object> execution = executionId != null
+                ? orchestrator.execute(workflowId, executionId, inputs)
+                : orchestrator.execute(workflowId, inputs);
+        return execution
                 .map(result -> {
                     log.info("[WorkflowEndpoint] 工作流执行成功: {}，结果: {}", workflowId, result);
                     return ResponseEntity.ok(result);
@@ -105,6 +110,61 @@ public class WorkflowEndpoint {
                 });
     }
 
+    /**
+     * 未完成的执行，执行ID到工作流ID
+     */
+    @GetMapping("/executions")
+    public Mono<ResponseEntity<Map<String, String>>> listPendingExecutions() {
+        log.info("[WorkflowEndpoint] 获取未完成的执行");
+        return Mono.just(ResponseEntity.ok(orchestrator.getPendingExecutions()));
+    }
+
+    /**
+     * 从检查点继续未完成的执行
+     */
+    @PostMapping("/executions/{executionId}/resume")
+    public Mono<ResponseEntity<Object>> resumeExecution(@PathVariable String executionId) {
+        log.info("[WorkflowEndpoint] 继续执行: {}", executionId);
+        return orchestrator.resume(executionId)
+                .map(result -> {
+                    log.info("[WorkflowEndpoint] 执行 {} 继续后完成，结果: {}", executionId, result);
+                    return ResponseEntity.ok(result);
+                })
+                .onErrorResume(WorkflowExecutionException.class, e -> {
+                    log.error("[WorkflowEndpoint] 继续执行异常: {}，错误类型: {}，消息: {}",
+                            executionId, e.getErrorType(), e.getMessage(), e);
+                    if (e.getErrorType() == WorkflowExecutionException.ErrorType.EXECUTION_NOT_FOUND) {
+                        return Mono.just(ResponseEntity.notFound().build());
+                    }
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("error", e.getMessage());
+                    body.put("errorType", e.getErrorType().name());
+                    body.put("executionId", executionId);
+                    body.put("workflowId", e.getWorkflowId());
+                    body.put("stepName", e.getStepName());
+                    return Mono.just(ResponseEntity.badRequest().body(body));
+                })
+                .onErrorResume(Exception.class, e -> {
+                    log.error("[WorkflowEndpoint] 继续执行系统异常: {}", executionId, e);
+                    return Mono.just(ResponseEntity.internalServerError().body(Map.of(
+                            "error", "Internal server error",
+                            "executionId", executionId
+                    )));
+                });
+    }
+
+    /**
+     * 放弃未完成的执行，此后不能再继续
+     */
+    @DeleteMapping("/executions/{executionId}")
+    public Mono<ResponseEntity<Void>> abandonExecution(@PathVariable String executionId) {
+        log.info("[WorkflowEndpoint] 放弃执行: {}", executionId);
+        if (!orchestrator.abandon(executionId)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return Mono.just(ResponseEntity.noContent().build());
+    }
+
     /**
      * 流式执行工作流
      */